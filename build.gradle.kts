@@ -46,6 +46,12 @@ repositories {
     maven("https://jitpack.io")
 }
 
+// JMH benchmarks live in their own source set so they never ship in the mod jar; run with `./gradlew jmh`.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+}
+
 fabricApi {
     configureDataGeneration {
         client = true
@@ -91,6 +97,9 @@ dependencies {
     annotationProcessor("io.wispforest:owo-lib:${getProp("owo_version")}")
 
     compileOnly("com.terraformersmc:modmenu:${getProp("modmenu_version")}")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks {
@@ -107,6 +116,23 @@ tasks {
     test {
         useJUnitPlatform()
     }
+
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the JMH benchmarks. Filter with -PjmhIncludes=<regex>."
+        classpath = jmh.runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+
+        val results = layout.buildDirectory.file("reports/jmh/results.json")
+        outputs.file(results)
+        doFirst { results.get().asFile.parentFile.mkdirs() }
+
+        // The chat classifier benchmark replays a real session log: -PchatLog=<path>.
+        providers.gradleProperty("chatLog").orNull?.let { systemProperty("btrbz.chatLog", file(it).absolutePath) }
+
+        args(providers.gradleProperty("jmhIncludes").getOrElse(".*"))
+        args("-rf", "json", "-rff", results.get().asFile.absolutePath)
+    }
 }
 
 java {
@@ -0,0 +1,72 @@
+package com.github.lutzluca.btrbz.core.trackedorders;
+
+import com.github.lutzluca.btrbz.data.GeneratedReplies;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import com.github.lutzluca.btrbz.data.OrderModels.TrackedOrder;
+import com.github.lutzluca.btrbz.data.ProductIdentity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** One poll's worth of tracked-order status evaluation against a generated full-size snapshot. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackedOrderStatusBenchmark {
+    private static final List<ProductIdentity> PRODUCTS = List.of(
+        ProductIdentity.fromRuntime("Enchanted Coal", "ENCHANTED_COAL", null),
+        ProductIdentity.fromRuntime("Booster Cookie", "BOOSTER_COOKIE", null),
+        ProductIdentity.fromRuntime("Ultimate Wise V", "ENCHANTMENT_ULTIMATE_WISE_5", null),
+        ProductIdentity.fromName("Unlisted Product"));
+
+    @Param({"14", "56"})
+    public int orders;
+
+    private final TrackedOrderStatusEvaluator evaluator = new TrackedOrderStatusEvaluator();
+    private MarketSnapshot snapshot;
+    private List<TrackedOrder> trackedOrders;
+
+    @Setup
+    public void setup() {
+        this.snapshot = GeneratedReplies.snapshot(GeneratedReplies.fullReply());
+        this.trackedOrders = new ArrayList<>(this.orders);
+
+        for (int index = 0; index < this.orders; index++) {
+            var product = PRODUCTS.get(index % PRODUCTS.size());
+            var type = index % 2 == 0 ? OrderType.Buy : OrderType.Sell;
+            var side = this.snapshot.bookSide(product, type);
+            double price = side.isEmpty() ? 1.0 : side.price(Math.min(index / PRODUCTS.size(), side.size() - 1));
+
+            this.trackedOrders.add(new TrackedOrder(new OrderInfo.UnfilledOrderInfo(
+                product,
+                product.visualName(),
+                type,
+                64,
+                price,
+                0,
+                0,
+                index)));
+        }
+    }
+
+    @Benchmark
+    public List<StatusUpdate> computeStatusUpdates() {
+        return this.evaluator.computeStatusUpdates(TrackedOrderEvaluation.of(this.trackedOrders, this.snapshot));
+    }
+}
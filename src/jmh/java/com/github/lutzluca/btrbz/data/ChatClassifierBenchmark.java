@@ -0,0 +1,75 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.utils.GameUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classification of a whole chat log, line by line as the chat events deliver it. Replays the real session log
+ * named by {@code -Dbtrbz.chatLog} ({@code ./gradlew jmh -PchatLog=<path>}) once per invocation, in its own order;
+ * there is no built-in corpus, since a small log repeated would flatter the classifier's caches.
+ * {@link #stripOnly} is the formatting strip every chat handler used to do on its own for each line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatClassifierBenchmark {
+    private static final String CHAT_LOG_PROPERTY = "btrbz.chatLog";
+
+    private List<String> corpus;
+
+    @Setup
+    public void setup() {
+        var chatLog = System.getProperty(CHAT_LOG_PROPERTY);
+        if (chatLog == null || chatLog.isBlank()) {
+            throw new IllegalStateException(
+                "ChatClassifierBenchmark needs a real chat log: pass -D" + CHAT_LOG_PROPERTY + "=<path>"
+                    + " (./gradlew jmh -PchatLog=<path>)");
+        }
+
+        this.corpus = readFile(Path.of(chatLog));
+        if (this.corpus.isEmpty()) {
+            throw new IllegalStateException("Chat log " + chatLog + " is empty");
+        }
+    }
+
+    private static List<String> readFile(Path path) {
+        try {
+            return Files.readAllLines(path);
+        } catch (IOException err) {
+            throw new UncheckedIOException("Cannot read chat log " + path, err);
+        }
+    }
+
+    @Benchmark
+    public void classify(Blackhole blackhole) {
+        for (var line : this.corpus) {
+            blackhole.consume(ChatClassifier.classify(line));
+        }
+    }
+
+    @Benchmark
+    public void stripOnly(Blackhole blackhole) {
+        for (var line : this.corpus) {
+            blackhole.consume(GameUtils.stripFormattingCodes(line));
+        }
+    }
+}
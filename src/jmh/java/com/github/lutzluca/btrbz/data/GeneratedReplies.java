@@ -0,0 +1,144 @@
+package com.github.lutzluca.btrbz.data;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Bazaar replies shaped like a live poll, generated deterministically for the benchmarks: {@link #PRODUCTS} products
+ * with up to {@link #LEVELS} summary levels per side and a full quick status each. A real poll lists about 1,400
+ * products, nearly all with full 30-level summaries, so the per-poll numbers scale like production. The small
+ * recorded replies under {@code src/test/resources/bazaar} stay unit-test fixtures.
+ * <p>
+ * {@link #nextReply} is the following poll, where {@link #CHANGED_FRACTION} of the products moved.
+ */
+public final class GeneratedReplies {
+    public static final int PRODUCTS = 1_400;
+    public static final int LEVELS = 30;
+    public static final double CHANGED_FRACTION = 0.35;
+    public static final long LAST_UPDATED = 1_760_788_800_123L;
+    public static final long NEXT_LAST_UPDATED = LAST_UPDATED + 20_333L;
+
+    // Products the benchmarks look up by name; the rest get generated ids.
+    private static final String[] NAMED_PRODUCTS = {"ENCHANTED_COAL", "BOOSTER_COOKIE", "ENCHANTMENT_ULTIMATE_WISE_5"};
+    private static final long SEED = 0x42425A;
+
+    private GeneratedReplies() {}
+
+    public static String fullReply() {
+        return generate(LAST_UPDATED, 0);
+    }
+
+    public static String nextReply() {
+        return generate(NEXT_LAST_UPDATED, CHANGED_FRACTION);
+    }
+
+    public static MarketSnapshot snapshot(String json) {
+        try {
+            return new BazaarReplyDecoder()
+                .decode(new StringReader(json), ProductIdTable.empty(), -1)
+                .snapshot()
+                .orElseThrow(() -> new IllegalStateException("Generated reply is not a snapshot"));
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    private static String generate(long lastUpdated, double changedFraction) {
+        var products = new SplittableRandom(SEED);
+        var changes = new SplittableRandom(SEED + 1);
+        var json = new StringBuilder(PRODUCTS * LEVELS * 2 * 64);
+
+        json.append("{\"success\":true,\"lastUpdated\":").append(lastUpdated).append(",\"products\":{");
+        for (int product = 0; product < PRODUCTS; product++) {
+            // Every product draws from its own stream, so both polls agree on everything that did not move.
+            var random = products.split();
+            var productId = product < NAMED_PRODUCTS.length
+                ? NAMED_PRODUCTS[product]
+                : String.format(Locale.ROOT, "GENERATED_PRODUCT_%04d", product);
+            double drift = changes.nextDouble() < changedFraction ? 1 + (changes.nextDouble() - 0.5) * 0.02 : 1;
+
+            if (product > 0) {
+                json.append(',');
+            }
+            appendProduct(json, productId, random, drift);
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void appendProduct(StringBuilder json, String productId, SplittableRandom random, double drift) {
+        // Prices span cheap commodities to multi-million coin items.
+        double price = Math.exp(random.nextDouble(Math.log(0.5), Math.log(50_000_000))) * drift;
+        double spread = 1 + random.nextDouble(0.001, 0.08);
+        int buyLevels = levels(random);
+        int sellLevels = levels(random);
+
+        json.append('"').append(productId).append("\":{\"product_id\":\"").append(productId).append('"');
+        json.append(",\"sell_summary\":");
+        var buyOrders = appendLevels(json, random, price, -1, buyLevels);
+        json.append(",\"buy_summary\":");
+        var sellOffers = appendLevels(json, random, price * spread, 1, sellLevels);
+
+        json.append(",\"quick_status\":{\"productId\":\"").append(productId).append('"')
+            .append(",\"sellPrice\":").append(buyOrders.topPrice)
+            .append(",\"sellVolume\":").append(buyOrders.volume)
+            .append(",\"sellMovingWeek\":").append(random.nextLong(1_000, 1_000_000_000))
+            .append(",\"sellOrders\":").append(buyOrders.orders)
+            .append(",\"buyPrice\":").append(sellOffers.topPrice)
+            .append(",\"buyVolume\":").append(sellOffers.volume)
+            .append(",\"buyMovingWeek\":").append(random.nextLong(1_000, 1_000_000_000))
+            .append(",\"buyOrders\":").append(sellOffers.orders)
+            .append("}}");
+    }
+
+    private static int levels(SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (roll < 0.03) {
+            return 0;
+        }
+        return roll < 0.85 ? LEVELS : random.nextInt(1, LEVELS);
+    }
+
+    private static SideTotals appendLevels(
+        StringBuilder json,
+        SplittableRandom random,
+        double topPrice,
+        int direction,
+        int levels
+    ) {
+        var totals = new SideTotals();
+        double price = round(topPrice);
+        totals.topPrice = levels == 0 ? 0 : price;
+
+        json.append('[');
+        for (int level = 0; level < levels; level++) {
+            long amount = random.nextLong(1, 200_000);
+            long orders = random.nextLong(1, 41);
+            totals.volume += amount;
+            totals.orders += orders;
+
+            if (level > 0) {
+                json.append(',');
+            }
+            json.append("{\"amount\":").append(amount)
+                .append(",\"pricePerUnit\":").append(price)
+                .append(",\"orders\":").append(orders).append('}');
+
+            price = Math.max(0.1, round(price * (1 + direction * random.nextDouble(0.0005, 0.01))));
+        }
+        json.append(']');
+        return totals;
+    }
+
+    private static double round(double price) {
+        return Math.round(price * 10) / 10.0;
+    }
+
+    private static final class SideTotals {
+        private double topPrice;
+        private long volume;
+        private long orders;
+    }
+}
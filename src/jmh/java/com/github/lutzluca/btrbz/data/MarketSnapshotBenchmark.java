@@ -0,0 +1,82 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Per-frame market lookups and the per-poll decode, compile and delta paths over full-size generated polls. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketSnapshotBenchmark {
+    private static final ProductIdentity COAL = ProductIdentity.fromRuntime("Enchanted Coal", "ENCHANTED_COAL", null);
+    private static final ProductIdentity COOKIE = ProductIdentity.fromRuntime("Booster Cookie", "BOOSTER_COOKIE", null);
+
+    private final Gson gson = new Gson();
+    private String replyJson;
+    private MarketSnapshot snapshot;
+    private MarketSnapshot nextSnapshot;
+    private BazaarData data;
+    private double midBookPrice;
+
+    @Setup
+    public void setup() {
+        this.replyJson = GeneratedReplies.fullReply();
+        this.snapshot = GeneratedReplies.snapshot(this.replyJson);
+        this.nextSnapshot = GeneratedReplies.snapshot(GeneratedReplies.nextReply());
+        this.data = new BazaarData();
+        this.data.publish(this.data.stage(this.snapshot));
+
+        var buyOrders = this.snapshot.bookSide(COAL, OrderType.Buy);
+        this.midBookPrice = buyOrders.price(buyOrders.size() / 2);
+    }
+
+    @Benchmark
+    public BazaarData.MarketPrices marketPrices() {
+        return this.snapshot.getMarketPrices(COOKIE);
+    }
+
+    @Benchmark
+    public Optional<BazaarData.OrderQueueInfo> queuePositionMidBook() {
+        return this.data.calculateQueuePosition(COAL, OrderType.Buy, this.midBookPrice, true);
+    }
+
+    @Benchmark
+    public MarketSnapshot compileFromGsonReply() {
+        var reply = this.gson.fromJson(this.replyJson, SkyBlockBazaarReply.class);
+        return MarketSnapshot.compile(0L, reply.getProducts(), ProductIdTable.empty());
+    }
+
+    @Benchmark
+    public BazaarReplyDecoder.Result decodeStreaming() throws IOException {
+        return new BazaarReplyDecoder().decode(new StringReader(this.replyJson), ProductIdTable.empty(), -1);
+    }
+
+    @Benchmark
+    public MarketDelta deltaBetweenPolls() {
+        return MarketDelta.between(this.snapshot, this.nextSnapshot);
+    }
+
+    @Benchmark
+    public BazaarReplyDecoder.Result decodeStreamingUnchanged() throws IOException {
+        return new BazaarReplyDecoder()
+            .decode(new StringReader(this.replyJson), ProductIdTable.empty(), this.snapshot.lastUpdated());
+    }
+}
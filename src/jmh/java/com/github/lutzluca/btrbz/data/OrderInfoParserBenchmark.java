@@ -0,0 +1,60 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo;
+import io.vavr.control.Try;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Chat and order-item parsing, which runs for every Bazaar chat line and every rendered order slot. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderInfoParserBenchmark {
+    private static final String SETUP_MESSAGE = "[Bazaar] Buy Order Setup! 12x Enchanted Diamond for 431,123 coins.";
+    private static final String FILLED_MESSAGE = "[Bazaar] Your Sell Offer for 64x Enchanted Coal was filled!";
+    private static final String UNRELATED_MESSAGE =
+        "[Bazaar] Claimed 431,123 coins from selling 12x Enchanted Diamond!";
+    private static final String ORDER_TITLE = "BUY Enchanted Diamond";
+    private static final List<String> ORDER_LORE = List.of(
+        "Worth 431,123 coins",
+        "",
+        "Order amount: 12x",
+        "Filled: 4/12 (33.3%)",
+        "",
+        "Price per unit: 35,926.9 coins",
+        "",
+        "Click to view options!");
+
+    @Benchmark
+    public Try<BazaarMessage> parseSetupMessage() {
+        return OrderInfoParser.parseBazaarMessage(SETUP_MESSAGE);
+    }
+
+    @Benchmark
+    public Try<BazaarMessage> parseFilledMessage() {
+        return OrderInfoParser.parseBazaarMessage(FILLED_MESSAGE);
+    }
+
+    @Benchmark
+    public Try<BazaarMessage> parseUnrelatedMessage() {
+        return OrderInfoParser.parseBazaarMessage(UNRELATED_MESSAGE);
+    }
+
+    @Benchmark
+    public Try<OrderInfo> parseOrderInfo() {
+        return OrderInfoParser.parseOrderInfo(ORDER_TITLE, ORDER_LORE, 10);
+    }
+}
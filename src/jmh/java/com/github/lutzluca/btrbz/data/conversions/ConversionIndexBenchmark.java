@@ -0,0 +1,117 @@
+package com.github.lutzluca.btrbz.data.conversions;
+
+import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.github.lutzluca.btrbz.data.ProductIdentity;
+import com.github.lutzluca.btrbz.utils.Utils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Name and id resolution against the bundled conversion index, as done for every hovered or rendered stack, and
+ * the per-keystroke product search behind command suggestions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionIndexBenchmark {
+    private static final String BUNDLED_INDEX = "/assets/btrbz/conversion-index.json";
+    private static final int SAMPLES = 256;
+
+    private ConversionIndex index;
+    private ConversionIndexService service;
+    private String[] names;
+    private String[] productIds;
+    private String[] partialQueries;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        this.index = ConversionLoader.parseIndex(readBundledIndex()).get();
+        this.service = new ConversionIndexService(this.index);
+
+        var products = this.index.allProducts();
+        int step = Math.max(1, products.size() / SAMPLES);
+        this.names = new String[SAMPLES];
+        this.productIds = new String[SAMPLES];
+        this.partialQueries = new String[SAMPLES];
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            IndexedProduct product = products.get((sample * step) % products.size());
+            this.names[sample] = Utils.cleanDisplayName(product.formattedName());
+            this.productIds[sample] = product.productId();
+            // What a player has typed a few keystrokes into a name, with one dropped letter past the prefix.
+            var name = this.names[sample].toLowerCase(Locale.ROOT);
+            this.partialQueries[sample] = name.length() > 6
+                ? name.substring(0, 4) + name.substring(5, Math.min(name.length(), 10))
+                : name;
+        }
+        this.index.searchIndex();
+    }
+
+    @Benchmark
+    public Optional<IndexedProduct> uniqueProductByName() {
+        return this.index.uniqueProductByName(this.names[this.next()]);
+    }
+
+    @Benchmark
+    public Optional<IndexedProduct> uniqueProductByUnknownName() {
+        return this.index.uniqueProductByName("Definitely Not A Bazaar Product");
+    }
+
+    @Benchmark
+    public ProductIdentity resolveProductById() {
+        int sample = this.next();
+        return this.service.resolveProduct(this.productIds[sample], this.names[sample]);
+    }
+
+    @Benchmark
+    public ProductIdentity resolveProductByName() {
+        return this.service.resolveProduct(null, this.names[this.next()]);
+    }
+
+    @Benchmark
+    public List<IndexedProduct> searchProductsByPartialName() {
+        return this.index.searchIndex().search(this.partialQueries[this.next()], 100);
+    }
+
+    @Benchmark
+    public List<IndexedProduct> searchProductsByPrefix() {
+        var name = this.names[this.next()];
+        return this.index.searchIndex().search(name.substring(0, Math.min(3, name.length())), 100);
+    }
+
+    private int next() {
+        this.cursor = (this.cursor + 1) & (SAMPLES - 1);
+        return this.cursor;
+    }
+
+    private static String readBundledIndex() {
+        try (InputStream in = ConversionIndexBenchmark.class.getResourceAsStream(BUNDLED_INDEX)) {
+            if (in == null) {
+                throw new IOException("Bundled conversion index not on the benchmark classpath");
+            }
+
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+    }
+}
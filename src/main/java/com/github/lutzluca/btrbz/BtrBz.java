@@ -41,12 +41,16 @@ import com.github.lutzluca.btrbz.data.BazaarData;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage;
 import com.github.lutzluca.btrbz.data.BazaarPoller;
+import com.github.lutzluca.btrbz.data.ChatClassifier;
+import com.github.lutzluca.btrbz.data.ChatClassifier.Kind;
 import com.github.lutzluca.btrbz.data.ConversionEvent;
 import com.github.lutzluca.btrbz.data.OrderInfoParser;
 import com.github.lutzluca.btrbz.data.OrderModels.OutstandingOrderInfo;
+import com.github.lutzluca.btrbz.data.history.MarketHistoryStore;
 import com.github.lutzluca.btrbz.utils.GameUtils;
 import com.github.lutzluca.btrbz.utils.MessageQueue;
 import com.github.lutzluca.btrbz.utils.MessageQueue.Level;
+import com.github.lutzluca.btrbz.utils.ScoreboardMirror;
 import com.github.lutzluca.btrbz.utils.ScreenInfoHelper;
 import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.BazaarMenuType;
 import com.mojang.serialization.Codec;
@@ -54,8 +58,10 @@ import java.util.Optional;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.Registry;
@@ -65,6 +71,7 @@ import net.minecraft.network.chat.ClickEvent.RunCommand;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent.ShowText;
 import net.minecraft.resources.Identifier;
+import org.jetbrains.annotations.Nullable;
 import com.github.lutzluca.btrbz.core.widgets.WidgetRegistry;
 import com.github.lutzluca.btrbz.core.widgets.WidgetRuntime;
 import com.github.lutzluca.btrbz.core.widgets.config.WidgetStateStore;
@@ -77,6 +84,7 @@ public class BtrBz implements ClientModInitializer {
     public static DataComponentType<Boolean> BOOKMARKED;
 
     public static final BazaarMessageDispatcher MESSAGE_DISPATCHER = new BazaarMessageDispatcher();
+    public static final ChatClassifier CHAT_CLASSIFIER = new ChatClassifier();
     private static final BazaarData BAZAAR_DATA = new BazaarData();
 
     private static BtrBz instance;
@@ -87,6 +95,7 @@ public class BtrBz implements ClientModInitializer {
     private OrderTooltipProvider tooltipProvider;
     private OrderProtectionManager orderProtectionManager;
     private WidgetRuntime widgetRuntime;
+    private @Nullable MarketHistoryStore marketHistory;
     private boolean automaticConversionFailureNotified;
 
     public static TrackedOrderManager orderManager() {
@@ -113,6 +122,11 @@ public class BtrBz implements ClientModInitializer {
         return instance.widgetRuntime;
     }
 
+    /** Local market history, empty when the store could not be opened. */
+    public static Optional<MarketHistoryStore> marketHistory() {
+        return Optional.ofNullable(instance.marketHistory);
+    }
+
     @Override
     public void onInitializeClient() {
         instance = this;
@@ -134,7 +148,7 @@ public class BtrBz implements ClientModInitializer {
         this.orderManager = new TrackedOrderManager(BAZAAR_DATA);
         this.orderManager.addOnOrderUpdatedListener(order -> this.tooltipProvider.clearCache());
         this.alertManager = new AlertManager(BAZAAR_DATA);
-        new ChatFilterManager();
+        new ChatFilterManager(CHAT_CLASSIFIER);
         this.orderProtectionManager = new OrderProtectionManager(BAZAAR_DATA);
 
         var productInfoProvider = new ProductInfoProvider(BAZAAR_DATA);
@@ -151,7 +165,8 @@ public class BtrBz implements ClientModInitializer {
         purseTracker.initialize();
         utcDayTracker.start();
         clipboardTracker.start();
-        purseTracker.start();
+        purseTracker.start(ScoreboardMirror.get());
+        ClientPlayConnectionEvents.DISCONNECT.register((_, _) -> ScoreboardMirror.get().clear());
         ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
             utcDayTracker.close();
             clipboardTracker.close();
@@ -203,7 +218,19 @@ public class BtrBz implements ClientModInitializer {
             this.widgetRuntime.createHudHost(),
             hudHint::onWidgetRendered);
         new OrderBookScreenController(productInfoProvider, this.widgetRuntime);
-        Commands.registerAll(BAZAAR_DATA, this.widgetRuntime);
+        this.marketHistory = MarketHistoryStore
+            .open(
+                FabricLoader.getInstance().getConfigDir().resolve(MOD_ID).resolve("history"),
+                MarketHistoryStore.Policy.DEFAULT)
+            .onFailure(err -> log.warn("Failed to open the market history store; history is disabled", err))
+            .getOrNull();
+        if (this.marketHistory != null) {
+            var marketHistory = this.marketHistory;
+            ClientLifecycleEvents.CLIENT_STOPPING.register(client -> marketHistory.close());
+        }
+        // Replies are published on the client thread, so listeners registered below still see the first poll.
+        var bazaarPoller = new BazaarPoller(BAZAAR_DATA, this.marketHistory);
+        Commands.registerAll(BAZAAR_DATA, bazaarPoller, this.widgetRuntime);
         BtrBzWidgetKeybinds.registerHandler(
             toggleHudKey, bazaarOrdersWidget, widgetStateStore, hudHint::dismiss);
 
@@ -230,10 +257,9 @@ public class BtrBz implements ClientModInitializer {
             orderActions.setReopenBazaar();
         });
 
-        BAZAAR_DATA.addListener(this.alertManager::onBazaarUpdate);
-        BAZAAR_DATA.addListener(this.orderManager::onBazaarUpdate);
+        BAZAAR_DATA.addDeltaListener(this.alertManager::onBazaarUpdate);
+        BAZAAR_DATA.addDeltaListener(this.orderManager::onBazaarUpdate);
 
-        new BazaarPoller(BAZAAR_DATA::onUpdate);
         var flipHelper = new FlipHelper(
             BAZAAR_DATA,
             flipProductContext,
@@ -254,21 +280,23 @@ public class BtrBz implements ClientModInitializer {
             info -> dailyLimit.onTransaction(info.total()));
 
         ClientReceiveMessageEvents.GAME.register((message, overlay) -> MESSAGE_DISPATCHER
-            .handleChatMessage(GameUtils.stripFormattingCodes(message.getString())));
+            .handleChatMessage(CHAT_CLASSIFIER.classify(message)));
 
         ClientReceiveMessageEvents.MODIFY_GAME.register((message, overlay) -> {
-            var rawMsg = GameUtils.stripFormattingCodes(message.getString());
-            if (overlay || !rawMsg.startsWith("[Bazaar]") || !rawMsg.endsWith("was filled!")) {
+            var classified = CHAT_CLASSIFIER.classify(message);
+            if (overlay || classified.kind() != Kind.ORDER_FILLED || !classified.text().endsWith("was filled!")) {
                 return message;
             }
 
             // TODO: make this optional (config flag)
-            return message.copy()
+            var decorated = message.copy()
                 .withStyle(style -> style
                     .withClickEvent(new RunCommand("/managebazaarorders"))
                     .withHoverEvent(new ShowText(Component.literal("Opens the Bazaar order screen"))))
                 .append(Component.literal(" [Go To Orders]")
                     .withStyle(ChatFormatting.DARK_AQUA));
+            CHAT_CLASSIFIER.remember(decorated, classified);
+            return decorated;
         });
 
         ScreenInfoHelper.registerOnLoaded(
@@ -0,0 +1,134 @@
+package com.github.lutzluca.btrbz.core;
+
+import com.github.lutzluca.btrbz.core.AlertManager.Alert;
+import com.github.lutzluca.btrbz.core.commands.alert.PriceExpression.AlertType;
+import com.github.lutzluca.btrbz.data.MarketDelta;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Active alerts by product. Alerts with a fixed target sit in one threshold map per alert type, so the alerts a
+ * price reaches are a prefix or suffix of that map. Alerts whose target follows the other side of the book keep
+ * their compiled expression and are re-evaluated against the product's prices. A poll only visits products whose top
+ * of book changed.
+ */
+final class AlertIndex {
+
+    private static final int PRICE_CHANGES = MarketDelta.TOP_OF_BOOK | MarketDelta.LISTING;
+
+    private final Map<String, ProductAlerts> products = new HashMap<>();
+
+    static AlertIndex of(List<Alert> alerts) {
+        var index = new AlertIndex();
+        alerts.forEach(index::add);
+        return index;
+    }
+
+    void add(Alert alert) {
+        var alerts = this.products.computeIfAbsent(alert.productId(), _ -> new ProductAlerts());
+        if (alert.evaluator != null) {
+            alerts.relative.add(alert);
+            return;
+        }
+
+        alerts.thresholds
+            .computeIfAbsent(alert.type, _ -> new TreeMap<>())
+            .computeIfAbsent(alert.price, _ -> new ArrayList<>())
+            .add(alert);
+    }
+
+    /**
+     * Removes and collects the alerts that the delta's snapshot reaches, and the alerts of products it no longer
+     * lists. With {@code all} set every indexed product is checked, otherwise only those whose prices changed.
+     */
+    Evaluation evaluate(MarketDelta delta, boolean all) {
+        var snapshot = delta.snapshot();
+        var evaluation = new Evaluation(new ArrayList<>(), new ArrayList<>());
+        var it = this.products.entrySet().iterator();
+
+        while (it.hasNext()) {
+            var entry = it.next();
+            int slot = snapshot.ids().indexOf(entry.getKey());
+            if (!all && (slot < 0 || !delta.changed(slot, PRICE_CHANGES))) {
+                continue;
+            }
+
+            var alerts = entry.getValue();
+            if (snapshot.slotOf(entry.getKey()) < 0) {
+                alerts.drainTo(evaluation.unlisted);
+            } else {
+                alerts.takeReached(snapshot, slot, evaluation.reached);
+            }
+
+            if (alerts.isEmpty()) {
+                it.remove();
+            }
+        }
+
+        return evaluation;
+    }
+
+    record Evaluation(List<Alert> reached, List<Alert> unlisted) {
+
+        boolean isEmpty() {
+            return this.reached.isEmpty() && this.unlisted.isEmpty();
+        }
+    }
+
+    private static final class ProductAlerts {
+        private final Map<AlertType, NavigableMap<Double, List<Alert>>> thresholds = new EnumMap<>(AlertType.class);
+        private final List<Alert> relative = new ArrayList<>();
+
+        private void takeReached(MarketSnapshot snapshot, int slot, List<Alert> out) {
+            var it = this.thresholds.entrySet().iterator();
+            while (it.hasNext()) {
+                var entry = it.next();
+                var type = entry.getKey();
+                double price = type.marketPrice(snapshot, slot);
+                if (Double.isNaN(price)) {
+                    continue;
+                }
+
+                var reached = type.isReachedFromBelow()
+                    ? entry.getValue().headMap(price, true)
+                    : entry.getValue().tailMap(price, true);
+                reached.values().forEach(out::addAll);
+                reached.clear();
+
+                if (entry.getValue().isEmpty()) {
+                    it.remove();
+                }
+            }
+
+            this.relative.removeIf(alert -> {
+                double price = alert.type.marketPrice(snapshot, slot);
+                double target = alert.evaluator.evaluate(snapshot, slot);
+                alert.target = target;
+
+                if (Double.isNaN(price) || Double.isNaN(target) || !alert.type.isReached(price, target)) {
+                    return false;
+                }
+
+                out.add(alert);
+                return true;
+            });
+        }
+
+        private void drainTo(List<Alert> out) {
+            this.thresholds.values().forEach(thresholds -> thresholds.values().forEach(out::addAll));
+            this.thresholds.clear();
+            out.addAll(this.relative);
+            this.relative.clear();
+        }
+
+        private boolean isEmpty() {
+            return this.thresholds.isEmpty() && this.relative.isEmpty();
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.github.lutzluca.btrbz.core;
 
+import com.github.lutzluca.btrbz.core.commands.alert.AlertCommandParser;
+import com.github.lutzluca.btrbz.core.commands.alert.AlertCommandParser.ParseException;
 import com.github.lutzluca.btrbz.core.commands.alert.AlertCommandParser.ResolvedAlertArgs;
+import com.github.lutzluca.btrbz.core.commands.alert.PriceExpression;
 import com.github.lutzluca.btrbz.core.commands.alert.PriceExpression.AlertType;
 import com.github.lutzluca.btrbz.core.config.ConfigManager;
 import com.github.lutzluca.btrbz.core.config.ConfigImages;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen.OptionGrouping;
 import com.github.lutzluca.btrbz.data.BazaarData;
-import com.github.lutzluca.btrbz.data.BazaarData.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.MarketDelta;
 import com.github.lutzluca.btrbz.data.IndexedProduct;
-import com.github.lutzluca.btrbz.data.ProductIdentity;
 import com.github.lutzluca.btrbz.utils.GsonUtils;
 import com.github.lutzluca.btrbz.utils.Notifier;
 import com.github.lutzluca.btrbz.utils.Utils;
@@ -22,9 +24,10 @@ import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 import dev.isxander.yacl3.api.Option;
 import dev.isxander.yacl3.api.OptionGroup;
-import io.vavr.control.Try;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -33,69 +36,103 @@ import lombok.extern.slf4j.Slf4j;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
+import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public class AlertManager {
 
     private final BazaarData bazaarData;
+    private boolean fullPassPending = true;
+    private @Nullable AlertIndex index;
+    // The config list the index was built from; a reloaded config replaces it.
+    private @Nullable List<Alert> indexedAlerts;
+    private long nextReminderAt = Long.MIN_VALUE;
 
     public AlertManager(BazaarData bazaarData) {
         this.bazaarData = bazaarData;
         ConfigManager.updateIfChanged(cfg -> cfg.alert.alerts.removeIf(Objects::isNull));
     }
 
-    public void onBazaarUpdate(MarketSnapshot snapshot) {
+    public void onBazaarUpdate(MarketDelta delta) {
         var cfg = ConfigManager.get().alert;
         if (!cfg.enabled) {
+            // Targets reached while disabled should fire as soon as alerts are enabled again.
+            this.fullPassPending = true;
             return;
         }
 
-        boolean changed = false;
-        var it = cfg.alerts.iterator();
+        var index = this.index(cfg.alerts);
+        var snapshot = delta.snapshot();
+        var evaluation = index.evaluate(delta, this.fullPassPending);
+        this.fullPassPending = false;
 
-        while (it.hasNext()) {
-            var curr = it.next();
-            var priceResult = curr.getAssociatedPrice(snapshot);
-            if (priceResult.isFailure()) {
-                it.remove();
-                changed = true;
-                Notifier.notifyInvalidProduct(curr, this.bazaarData);
-                continue;
-            }
+        for (var alert : evaluation.unlisted()) {
+            Notifier.notifyInvalidProduct(alert, this.bazaarData);
+        }
+        for (var alert : evaluation.reached()) {
+            double price = alert.type.marketPrice(snapshot, snapshot.slotOf(alert.productId()));
+            Notifier.notifyPriceReached(alert, Optional.of(price), this.bazaarData);
+        }
 
-            var price = priceResult.get();
-            var reached = price.map(marketPrice -> switch (curr.type) {
-                case SellOffer, InstaSell -> marketPrice >= curr.price;
-                case BuyOrder, InstaBuy -> marketPrice <= curr.price;
-            }).orElse(false);
+        boolean changed = !evaluation.isEmpty();
+        if (changed) {
+            var removed = Collections.newSetFromMap(new IdentityHashMap<Alert, Boolean>());
+            removed.addAll(evaluation.reached());
+            removed.addAll(evaluation.unlisted());
+            cfg.alerts.removeIf(removed::contains);
+        }
 
-            if (reached) {
-                it.remove();
-                changed = true;
-                Notifier.notifyPriceReached(curr, price, this.bazaarData);
-                continue;
-            }
+        long now = System.currentTimeMillis();
+        if (now >= this.nextReminderAt) {
+            changed |= this.remindOutdated(cfg.alerts, now);
+        }
+
+        if (changed) {
+            ConfigManager.save();
+        }
+    }
+
+    private AlertIndex index(List<Alert> alerts) {
+        if (this.index == null || this.indexedAlerts != alerts) {
+            this.index = AlertIndex.of(alerts);
+            this.indexedAlerts = alerts;
+            this.fullPassPending = true;
+            this.nextReminderAt = Long.MIN_VALUE;
+        }
+        return this.index;
+    }
+
+    private void invalidateIndex() {
+        this.index = null;
+    }
+
+    /** Sends due week and month reminders and schedules the next pass for the earliest upcoming one. */
+    private boolean remindOutdated(List<Alert> alerts, long now) {
+        boolean changed = false;
+        long next = Long.MAX_VALUE;
 
-            var now = System.currentTimeMillis();
-            var duration = now - curr.createdAt;
+        for (var alert : alerts) {
+            var duration = now - alert.createdAt;
 
-            if (duration > Utils.MONTH_DURATION_MS && curr.remindedAfter < Utils.MONTH_DURATION_MS) {
-                Notifier.notifyOutdatedAlert(curr, "over a month", this.bazaarData);
-                curr.remindedAfter = duration;
+            if (duration > Utils.MONTH_DURATION_MS && alert.remindedAfter < Utils.MONTH_DURATION_MS) {
+                Notifier.notifyOutdatedAlert(alert, "over a month", this.bazaarData);
+                alert.remindedAfter = duration;
+                changed = true;
+            } else if (duration > Utils.WEEK_DURATION_MS && alert.remindedAfter < Utils.WEEK_DURATION_MS) {
+                Notifier.notifyOutdatedAlert(alert, "over a week", this.bazaarData);
+                alert.remindedAfter = duration;
                 changed = true;
             }
 
-            if (duration > Utils.WEEK_DURATION_MS && curr.remindedAfter < Utils.WEEK_DURATION_MS) {
-                Notifier.notifyOutdatedAlert(curr, "over a week", this.bazaarData);
-                curr.remindedAfter = duration;
-                changed = true;
-                continue;
+            if (alert.remindedAfter < Utils.WEEK_DURATION_MS) {
+                next = Math.min(next, alert.createdAt + Utils.WEEK_DURATION_MS + 1);
+            } else if (alert.remindedAfter < Utils.MONTH_DURATION_MS) {
+                next = Math.min(next, alert.createdAt + Utils.MONTH_DURATION_MS + 1);
             }
         }
 
-        if (changed) {
-            ConfigManager.save();
-        }
+        this.nextReminderAt = next;
+        return changed;
     }
 
     public boolean addAlert(ResolvedAlertArgs args) {
@@ -106,6 +143,7 @@ public class AlertManager {
             }
 
             alerts.add(new Alert(args));
+            this.invalidateIndex();
             return true;
         });
     }
@@ -123,6 +161,7 @@ public class AlertManager {
                     .withStyle(ChatFormatting.GRAY)));
             return;
         }
+        this.invalidateIndex();
         ConfigManager.save();
         if (removed.size() > 1) {
             Notifier.notifyPlayer(Notifier
@@ -154,15 +193,24 @@ public class AlertManager {
         public final IndexedProduct product;
         public final AlertType type;
         public final double price;
+        /** The relative price expression the alert was created from, or {@code null} for a fixed price. */
+        public final @Nullable PriceExpression expression;
 
         long remindedAfter = -1;
+        // Runtime only: the compiled expression and the target it last evaluated to, initially the creation price.
+        // Expressions that read the watched price itself keep the creation price, as the target would move with it.
+        final @Nullable PriceExpression.Evaluator evaluator;
+        double target;
 
         private Alert(ResolvedAlertArgs args) {
-            this.id = UUID.randomUUID();
-            this.createdAt = args.timestamp();
-            this.product = args.product();
-            this.type = args.type();
-            this.price = args.price();
+            this(
+                UUID.randomUUID(),
+                args.timestamp(),
+                args.product(),
+                args.type(),
+                args.price(),
+                args.expression(),
+                -1);
         }
 
         private Alert(
@@ -171,6 +219,7 @@ public class AlertManager {
             IndexedProduct product,
             AlertType type,
             double price,
+            @Nullable PriceExpression expression,
             long remindedAfter
         ) {
             this.id = id;
@@ -178,7 +227,12 @@ public class AlertManager {
             this.product = product;
             this.type = type;
             this.price = price;
+            this.expression = expression;
             this.remindedAfter = remindedAfter;
+            this.evaluator = expression != null && expression.isRelative() && !expression.readsWatchedPrice(type)
+                ? expression.compile(type)
+                : null;
+            this.target = price;
         }
 
         public String productName() {
@@ -189,19 +243,9 @@ public class AlertManager {
             return this.product.productId();
         }
 
-        public Try<Optional<Double>> getAssociatedPrice(MarketSnapshot snapshot) {
-            var identity = ProductIdentity.fromIndex(this.product);
-            if (!snapshot.contains(identity)) {
-                return Try.failure(
-                    new Exception("The product \"" + this.productName() + "\" could not be found in the bazaar data"));
-            }
-
-            var prices = snapshot.getMarketPrices(identity);
-            var price = switch (this.type) {
-                case BuyOrder, InstaSell -> prices.highestBuyOrderPrice();
-                case SellOffer, InstaBuy -> prices.lowestSellOfferPrice();
-            };
-            return Try.success(price);
+        /** The price the alert currently waits for; follows the market for alerts relative to the other side. */
+        public double target() {
+            return this.target;
         }
 
         public MutableComponent format(BazaarData bazaarData) {
@@ -212,7 +256,7 @@ public class AlertManager {
                 .append(productName)
                 .append(Component.literal(" @ ").withStyle(ChatFormatting.GRAY))
                 .append(Component
-                    .literal(Utils.formatDecimal(this.price, 1, true) + "coins")
+                    .literal(Utils.formatDecimal(this.target, 1, true) + "coins")
                     .withStyle(ChatFormatting.YELLOW))
                 .append(Component.literal(" (" + this.type.format() + ")").withStyle(ChatFormatting.DARK_GRAY));
         }
@@ -221,7 +265,8 @@ public class AlertManager {
             // @formatter:off
             return this.productId().equals(args.productId())
                 && this.type == args.type()
-                && Double.compare(this.price, args.price()) == 0;
+                && Double.compare(this.price, args.price()) == 0
+                && Objects.equals(this.expression, args.expression());
             // @formatter:on
         }
 
@@ -239,6 +284,9 @@ public class AlertManager {
                 obj.add("product", ctx.serialize(src.product, IndexedProduct.class));
                 obj.add("type", ctx.serialize(src.type));
                 obj.addProperty("price", src.price);
+                if (src.expression != null) {
+                    obj.addProperty("expression", src.expression.format());
+                }
                 obj.addProperty("remindedAfter", src.remindedAfter);
                 return obj;
             }
@@ -265,9 +313,25 @@ public class AlertManager {
                     product,
                     ctx.deserialize(GsonUtils.required(obj, "type", "Alert"), AlertType.class),
                     GsonUtils.required(obj, "price", "Alert").getAsDouble(),
+                    expression(obj),
                     GsonUtils.optionalLong(obj, "remindedAfter").orElse(-1L));
             }
 
+            // An expression that no longer parses leaves the alert at its fixed creation price.
+            private static @Nullable PriceExpression expression(JsonObject obj) {
+                var element = obj.get("expression");
+                if (element == null || element.isJsonNull()) {
+                    return null;
+                }
+
+                try {
+                    return new AlertCommandParser().parsePriceExpression(element.getAsString());
+                } catch (ParseException | RuntimeException err) {
+                    log.warn("Keeping alert at its fixed price; invalid expression {}", element, err);
+                    return null;
+                }
+            }
+
             private static Optional<IndexedProduct> product(JsonObject obj, JsonDeserializationContext ctx) {
                 try {
                     return Optional.of(ctx.deserialize(
@@ -16,6 +16,7 @@ import com.github.lutzluca.btrbz.utils.slot.SlotClickContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickResult;
 import com.github.lutzluca.btrbz.utils.slot.SlotHook;
 import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookScope;
 import com.github.lutzluca.btrbz.utils.slot.SlotRenderContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotView;
 import dev.isxander.yacl3.api.Option;
@@ -203,6 +204,15 @@ public class BazaarOrderActions {
 
         private CancelOrderHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope
+                .menus(BazaarMenuType.OrderOptions)
+                .slots(CANCEL_ORDER_SLOT)
+                .containerOnly()
+                .clicksOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             var cfg = ConfigManager.get().orderActions;
@@ -243,6 +253,12 @@ public class BazaarOrderActions {
             BazaarOrderActions.this.registerReopenCloseHandler();
         }
 
+        // The target slot depends on the container size, so matches() picks it within the Orders menu.
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(BazaarMenuType.Orders).containerOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             var cfg = ConfigManager.get().orderActions;
@@ -274,6 +290,11 @@ public class BazaarOrderActions {
 
         private OrdersObserverHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(BazaarMenuType.Orders).containerOnly().clicksOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             return ConfigManager.get().orderActions.enabled
@@ -2,7 +2,8 @@ package com.github.lutzluca.btrbz.core;
 
 import com.github.lutzluca.btrbz.core.config.ConfigManager;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen;
-import com.github.lutzluca.btrbz.utils.GameUtils;
+import com.github.lutzluca.btrbz.data.ChatClassifier;
+import com.github.lutzluca.btrbz.data.ChatClassifier.Kind;
 import dev.isxander.yacl3.api.Option;
 import dev.isxander.yacl3.api.OptionGroup;
 import java.util.List;
@@ -12,24 +13,13 @@ import net.minecraft.network.chat.Component;
 
 public class ChatFilterManager {
 
-    private static final List<String> TRANSIENT_MESSAGES = List.of(
-        "[Bazaar] Cancelling order...",
-        "[Bazaar] Putting goods in escrow...",
-        "[Bazaar] Submitting buy order...",
-        "[Bazaar] Claiming order...",
-        "[Bazaar] Submitting sell offer...",
-        "[Bazaar] Executing instant sell...",
-        "[Bazaar] Executing instant buy...",
-        "[Bazaar] Claiming orders...");
-
-    public ChatFilterManager() {
+    public ChatFilterManager(ChatClassifier classifier) {
         ClientReceiveMessageEvents.ALLOW_GAME.register((message, overlay) -> {
             if (!ConfigManager.get().chatFilter.enabled) {
                 return true;
             }
 
-            String content = GameUtils.stripFormattingCodes(message.getString());
-            return TRANSIENT_MESSAGES.stream().noneMatch(content::startsWith);
+            return classifier.classify(message).kind() != Kind.TRANSIENT;
         });
     }
 
@@ -4,6 +4,8 @@ import com.github.lutzluca.btrbz.core.config.ConfigManager;
 import com.github.lutzluca.btrbz.core.config.ConfigImages;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen.OptionGrouping;
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
+import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
 import com.github.lutzluca.btrbz.data.BazaarData;
 import com.github.lutzluca.btrbz.data.BazaarData.MarketPrices;
 import com.github.lutzluca.btrbz.data.OrderInfoParser;
@@ -12,12 +14,15 @@ import com.github.lutzluca.btrbz.data.ProductIdentity;
 import com.github.lutzluca.btrbz.utils.GameUtils;
 import com.github.lutzluca.btrbz.utils.Notifier;
 import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.BazaarMenuType;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.ScreenInfo;
 import com.github.lutzluca.btrbz.utils.SoundUtil;
 import com.github.lutzluca.btrbz.utils.Utils;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickResult;
 import com.github.lutzluca.btrbz.utils.slot.SlotHook;
 import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookScope;
+import com.github.lutzluca.btrbz.utils.slot.SlotOverlayTable;
 import com.github.lutzluca.btrbz.utils.slot.SlotRenderContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotView;
 import dev.isxander.yacl3.api.Option;
@@ -34,8 +39,8 @@ import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
-import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.Nullable;
 
 @Slf4j
@@ -52,12 +57,14 @@ public class OrderProtectionManager {
     private final BazaarData bazaarData;
     private final WeakHashMap<ItemStack, PendingOrderData> validationCache = new WeakHashMap<>();
     private final WeakHashMap<ItemStack, ValidationResult> validationFailureCache = new WeakHashMap<>();
+    private final CacheToken validationChanges = CacheToken.named("order-protection.validation");
 
     private @Nullable BiConsumer<ItemStack, Optional<PendingOrderData>> setOrderCallback = null;
 
     public OrderProtectionManager(BazaarData bazaarData) {
         this.bazaarData = bazaarData;
         SlotHookRegistry.register(new ConfirmationHook());
+        SlotOverlayTable.register(this::collectOverlays, this.validationChanges, ConfigManager.changes());
 
         ItemTooltipCallback.EVENT.register((stack, ctx, type, lines) -> {
             if (!ConfigManager.get().orderProtection.enabled) {
@@ -154,6 +161,7 @@ public class OrderProtectionManager {
             .onSuccess(pendingOrder -> {
                 this.validationCache.put(rawStack, pendingOrder);
                 this.validationFailureCache.remove(rawStack);
+                this.validationChanges.invalidate(InvalidationReason.of("confirmation item validated"));
 
                 log.trace(
                     "Validated: {} - {}",
@@ -165,6 +173,7 @@ public class OrderProtectionManager {
                 this.validationFailureCache.put(
                     rawStack,
                     ValidationResult.blocked(VALIDATION_FAILURE_REASON));
+                this.validationChanges.invalidate(InvalidationReason.of("confirmation item failed validation"));
                 log.warn(
                     "Failed to parse or validate confirmation item '{}'",
                     rawStack.getHoverName().getString(),
@@ -172,18 +181,30 @@ public class OrderProtectionManager {
             });
     }
 
-    public Optional<Pair<ValidationResult, Boolean>> getVisualOrderInfo(ItemStack stack) {
-        if (!ConfigManager.get().orderProtection.enabled) {
-            return Optional.empty();
+    private void collectOverlays(ScreenInfo info, Container container, SlotOverlayTable.Sink sink) {
+        if (!ConfigManager.get().orderProtection.enabled || !info.inMenu(CONFIRMATION_MENUS)) {
+            return;
         }
 
-        return this.getValidationResult(stack).map(data -> Pair.of(data, false));
+        info
+            .getItemStack(CONFIRMATION_SLOT_INDEX)
+            .flatMap(this::getValidationResult)
+            .ifPresent(validation -> sink.mark(
+                CONFIRMATION_SLOT_INDEX,
+                validation.protect()
+                    ? SlotOverlayTable.Overlay.ORDER_BLOCKED
+                    : SlotOverlayTable.Overlay.ORDER_ALLOWED));
     }
 
     public final class ConfirmationHook implements SlotHook {
 
         private ConfirmationHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(CONFIRMATION_MENUS).slots(CONFIRMATION_SLOT_INDEX).containerOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             return !view.playerInventorySlot()
@@ -191,11 +191,16 @@ public class OrderTooltipProvider {
             if (cfg.showEstimatedTime && order.status instanceof OrderStatus.Top) {
                 int remainingVolume = order.volume - order.fillAmountSnapshot;
 
-                this.bazaarData.getEstimatedFillTimeMinutes(product, order.type, remainingVolume).ifPresent(minutes -> {
-                    var time = Component.literal(Utils.formatDuration(minutes)).withStyle(ChatFormatting.YELLOW);
-                    var line = Component.literal("Estimated fill time: ").withStyle(ChatFormatting.GRAY).append(time);
-                    lines.add(line);
-                });
+                this.bazaarData
+                    .getEstimatedFillTimeMinutes(product, order.type, order.pricePerUnit, remainingVolume)
+                    .ifPresent(minutes -> {
+                        var time = Component.literal(Utils.formatDuration(minutes)).withStyle(ChatFormatting.YELLOW);
+                        var line = Component
+                            .literal("Estimated fill time: ")
+                            .withStyle(ChatFormatting.GRAY)
+                            .append(time);
+                        lines.add(line);
+                    });
             }
 
             if (order.status instanceof OrderStatus.Undercut undercut) {
@@ -20,6 +20,7 @@ import com.github.lutzluca.btrbz.utils.slot.SlotClickContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickResult;
 import com.github.lutzluca.btrbz.utils.slot.SlotHook;
 import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookScope;
 import com.github.lutzluca.btrbz.utils.slot.SlotRenderContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotView;
 import dev.isxander.yacl3.api.Option;
@@ -68,6 +69,7 @@ public final class ProductInfoProvider {
     };
     private final BazaarData bazaarData;
     private final ProductLookupCache productLookupCache;
+    private ProductPriceTable prices;
 
     private @Nullable ItemStack cachedProductInfoItem = null;
     private @Nullable InfoProviderSite cachedProductInfoSite = null;
@@ -83,6 +85,8 @@ public final class ProductInfoProvider {
     public ProductInfoProvider(BazaarData bazaarData) {
         this.bazaarData = bazaarData;
         this.productLookupCache = new ProductLookupCache();
+        this.prices = ProductPriceTable.of(bazaarData.currentSnapshot());
+        bazaarData.addDeltaListener(delta -> this.prices = this.prices.next(delta));
         this.registerProductInfoListener();
         this.registerSlotHooks();
         this.registerTooltipDisplay();
@@ -249,7 +253,7 @@ public final class ProductInfoProvider {
                 return;
             }
 
-            var cached = this.productLookupCache.get(stack).prices();
+            var cached = this.prices.get(this.productLookupCache.get(stack).product());
             if (cached == null) {
                 return;
             }
@@ -290,7 +294,11 @@ public final class ProductInfoProvider {
 
         var lookup = this.productLookupCache.get(stack);
         return this.isCtrlShiftContextEnabled(lookup.playerInventoryStack())
-            && lookup.marketProductId().isPresent();
+            && this.marketProductId(lookup).isPresent();
+    }
+
+    private Optional<String> marketProductId(CachedProductLookup lookup) {
+        return this.prices.get(lookup.product()) != null ? lookup.product().bazaarProductId() : Optional.empty();
     }
 
     private boolean isCtrlShiftEnabled() {
@@ -424,26 +432,20 @@ public final class ProductInfoProvider {
         }
     }
 
-    private record CachedPrice(
-        @Nullable Double sellOfferPrice,
-        @Nullable Double buyOrderPrice
-    ) {}
-
     private record CachedProductLookup(
         ProductIdentity product,
-        boolean playerInventoryStack,
-        @Nullable CachedPrice prices
-    ) {
-
-        Optional<String> marketProductId() {
-            return this.prices != null ? this.product.bazaarProductId() : Optional.empty();
-        }
-    }
+        boolean playerInventoryStack
+    ) {}
 
     public final class InfoSiteButtonHook implements SlotHook {
 
         private InfoSiteButtonHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(BazaarMenuType.Item).slots(CUSTOM_ITEM_IDX).containerOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             var cfg = ConfigManager.get().productInfo;
@@ -473,6 +475,11 @@ public final class ProductInfoProvider {
 
         private ProductLookupHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.ANY.clicksOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             // Keep matching cheap; ctrl-shift eligibility may inspect inventory and only matters on click.
@@ -494,7 +501,7 @@ public final class ProductInfoProvider {
                 return SlotClickResult.Pass;
             }
 
-            var productId = lookup.marketProductId();
+            var productId = ProductInfoProvider.this.marketProductId(lookup);
             if (productId.isEmpty()) {
                 log.warn("No Bazaar product found for {}", ctx.view().getRawStack().getHoverName().getString());
                 return SlotClickResult.Pass;
@@ -631,13 +638,16 @@ public final class ProductInfoProvider {
         }
     }
 
+    /**
+     * Product resolution per stack. Resolving does not depend on market data, so entries survive market updates and
+     * are only dropped when the conversion index or the screen changes; prices come from {@link ProductPriceTable}.
+     */
     private class ProductLookupCache {
 
         private final WeakHashMap<ItemStack, CachedProductLookup> cache = new WeakHashMap<>();
 
         ProductLookupCache() {
             log.debug("Initializing product lookup cache");
-            ProductInfoProvider.this.bazaarData.addListener(products -> this.clear());
             ProductInfoProvider.this.bazaarData.addIndexChangeListener(this::clear);
         }
 
@@ -671,15 +681,7 @@ public final class ProductInfoProvider {
             ProductIdentity product,
             boolean playerInventoryStack
         ) {
-            var data = ProductInfoProvider.this.bazaarData;
-            CachedPrice prices = null;
-            if (data.contains(product)) {
-                prices = new CachedPrice(
-                    data.lowestSellOfferPrice(product).orElse(null),
-                    data.highestBuyOrderPrice(product).orElse(null));
-            }
-
-            var cached = new CachedProductLookup(product, playerInventoryStack, prices);
+            var cached = new CachedProductLookup(product, playerInventoryStack);
             this.cache.put(stack, cached);
             return cached;
         }
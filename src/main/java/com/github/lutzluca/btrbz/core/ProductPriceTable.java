@@ -0,0 +1,80 @@
+package com.github.lutzluca.btrbz.core;
+
+import com.github.lutzluca.btrbz.data.MarketDelta;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.ProductIdentity;
+import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Best prices of every product in one market snapshot, addressed by id table slot, so a tooltip reads its prices
+ * with one id lookup and one array read. The table for a new snapshot copies the previous one and only rebuilds the
+ * products whose top of book or listing changed; the append-only id table keeps the other slots valid.
+ */
+final class ProductPriceTable {
+
+    static final ProductPriceTable EMPTY = new ProductPriceTable(MarketSnapshot.empty(), new Prices[0]);
+
+    private static final int PRICE_CHANGES = MarketDelta.TOP_OF_BOOK | MarketDelta.LISTING;
+
+    private final MarketSnapshot snapshot;
+    private final @Nullable Prices[] prices;
+
+    private ProductPriceTable(MarketSnapshot snapshot, @Nullable Prices[] prices) {
+        this.snapshot = snapshot;
+        this.prices = prices;
+    }
+
+    static ProductPriceTable of(MarketSnapshot snapshot) {
+        var prices = new Prices[snapshot.ids().size()];
+        for (int slot = 0; slot < prices.length; slot++) {
+            prices[slot] = pricesAt(snapshot, slot);
+        }
+
+        return new ProductPriceTable(snapshot, prices);
+    }
+
+    /** The table for the delta's snapshot; rebuilt in full unless the delta follows this table's snapshot. */
+    ProductPriceTable next(MarketDelta delta) {
+        var snapshot = delta.snapshot();
+        if (delta.previous() != this.snapshot) {
+            return of(snapshot);
+        }
+
+        var prices = Arrays.copyOf(this.prices, snapshot.ids().size());
+        for (int slot = this.prices.length; slot < prices.length; slot++) {
+            prices[slot] = pricesAt(snapshot, slot);
+        }
+        for (int index = 0; index < delta.size(); index++) {
+            int slot = delta.changedSlot(index);
+            if (delta.changed(slot, PRICE_CHANGES)) {
+                prices[slot] = pricesAt(snapshot, slot);
+            }
+        }
+
+        return new ProductPriceTable(snapshot, prices);
+    }
+
+    /** The product's prices, or {@code null} when it is not listed in the snapshot. */
+    @Nullable Prices get(ProductIdentity product) {
+        int slot = this.snapshot.slotOf(product);
+        return slot < 0 ? null : this.prices[slot];
+    }
+
+    private static @Nullable Prices pricesAt(MarketSnapshot snapshot, int slot) {
+        if (snapshot.slotOf(snapshot.ids().productId(slot)) < 0) {
+            return null;
+        }
+
+        return new Prices(price(snapshot.bestSellOfferPrice(slot)), price(snapshot.bestBuyOrderPrice(slot)));
+    }
+
+    private static @Nullable Double price(double price) {
+        return Double.isNaN(price) ? null : price;
+    }
+
+    record Prices(
+        @Nullable Double sellOfferPrice,
+        @Nullable Double buyOrderPrice
+    ) {}
+}
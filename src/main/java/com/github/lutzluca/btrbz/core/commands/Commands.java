@@ -3,6 +3,7 @@ package com.github.lutzluca.btrbz.core.commands;
 import com.github.lutzluca.btrbz.core.commands.alert.AlertCommand;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen;
 import com.github.lutzluca.btrbz.data.BazaarData;
+import com.github.lutzluca.btrbz.data.BazaarPoller;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommands;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
@@ -18,12 +19,15 @@ public class Commands {
             return 1;
         });
 
-    public static void registerAll(BazaarData bazaarData, WidgetRuntime widgetRuntime) {
+    public static void registerAll(BazaarData bazaarData, BazaarPoller bazaarPoller, WidgetRuntime widgetRuntime) {
         ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
             dispatcher.register(rootCommand);
             dispatcher.register(WidgetCommand.get(widgetRuntime));
             dispatcher.register(AlertCommand.get(bazaarData));
             dispatcher.register(ConversionCommand.get(bazaarData));
+            dispatcher.register(PollerCommand.get(bazaarPoller));
+            dispatcher.register(SlotHookCommand.get());
+            dispatcher.register(TickCommand.get());
             dispatcher.register(TrackedOrderCommand.get());
             dispatcher.register(TaxCommand.get());
             dispatcher.register(PresetCommand.get());
@@ -0,0 +1,51 @@
+package com.github.lutzluca.btrbz.core.commands;
+
+import com.github.lutzluca.btrbz.data.BazaarPoller;
+import com.github.lutzluca.btrbz.utils.Notifier;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import java.util.Locale;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommands;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+
+public final class PollerCommand {
+
+    private PollerCommand() {}
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> get(BazaarPoller bazaarPoller) {
+        return Commands.rootCommand.then(ClientCommands
+            .literal("poller")
+            .executes(ctx -> {
+                notifyStatus(bazaarPoller);
+                return 1;
+            }));
+    }
+
+    private static void notifyStatus(BazaarPoller bazaarPoller) {
+        var metrics = bazaarPoller.metrics();
+        var wastedShare = metrics.requests() == 0 ? 0.0 : 100.0 * metrics.wastedRequests() / metrics.requests();
+        var message = Notifier
+            .prefix()
+            .append(Component.literal("Bazaar poller").withStyle(ChatFormatting.GOLD))
+            .append(Component
+                .literal("\nObserved period: " + metrics.observedPeriodMs() + "ms")
+                .withStyle(ChatFormatting.GRAY))
+            .append(Component
+                .literal("\nPhase error: " + metrics.lastPhaseErrorMs() + "ms (mean "
+                    + metrics.meanAbsPhaseErrorMs() + "ms)")
+                .withStyle(ChatFormatting.GRAY))
+            .append(Component
+                .literal("\nVisibility lag: " + metrics.visibilityLagMs() + "ms")
+                .withStyle(ChatFormatting.GRAY))
+            .append(Component.literal("\nRequests: " + metrics.requests()).withStyle(ChatFormatting.GRAY))
+            .append(Component
+                .literal("\nWasted: " + metrics.wastedRequests() + String.format(Locale.ROOT, " (%.1f%%)", wastedShare))
+                .withStyle(ChatFormatting.GRAY))
+            .append(Component
+                .literal("\nFailed: " + metrics.failedRequests())
+                .withStyle(metrics.failedRequests() == 0 ? ChatFormatting.GRAY : ChatFormatting.YELLOW));
+
+        Notifier.notifyPlayer(message);
+    }
+}
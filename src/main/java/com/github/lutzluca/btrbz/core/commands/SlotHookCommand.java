@@ -0,0 +1,72 @@
+package com.github.lutzluca.btrbz.core.commands;
+
+import com.github.lutzluca.btrbz.utils.Notifier;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import java.util.Locale;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommands;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+
+public final class SlotHookCommand {
+
+    private SlotHookCommand() {}
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> get() {
+        return Commands.rootCommand.then(ClientCommands
+            .literal("slothooks")
+            .executes(_ -> {
+                notifyTimings();
+                return 1;
+            })
+            .then(ClientCommands
+                .literal("start")
+                .executes(_ -> {
+                    SlotHookRegistry.setTiming(true);
+                    notifyInfo("Timing slot hooks");
+                    return 1;
+                }))
+            .then(ClientCommands
+                .literal("stop")
+                .executes(_ -> {
+                    SlotHookRegistry.setTiming(false);
+                    notifyTimings();
+                    return 1;
+                }))
+            .then(ClientCommands
+                .literal("reset")
+                .executes(_ -> {
+                    SlotHookRegistry.resetTimings();
+                    notifyInfo("Cleared slot hook timings");
+                    return 1;
+                })));
+    }
+
+    private static void notifyTimings() {
+        var message = Notifier
+            .prefix()
+            .append(Component
+                .literal("Slot hooks" + (SlotHookRegistry.timing() ? " (timing)" : ""))
+                .withStyle(ChatFormatting.GOLD));
+
+        for (var timing : SlotHookRegistry.timings()) {
+            message.append(Component
+                .literal("\n" + timing.hook()
+                    + ": matches=" + timing.matchCalls() + " (" + micros(timing.matchNanos(), timing.matchCalls())
+                    + "), renders=" + timing.renderCalls() + " ("
+                    + micros(timing.renderNanos(), timing.renderCalls()) + ")")
+                .withStyle(ChatFormatting.GRAY));
+        }
+
+        Notifier.notifyPlayer(message);
+    }
+
+    private static String micros(long nanos, long calls) {
+        return calls == 0 ? "-" : String.format(Locale.ROOT, "%.2fµs avg", nanos / 1_000.0 / calls);
+    }
+
+    private static void notifyInfo(String text) {
+        Notifier.notifyPlayer(Notifier.prefix().append(Component.literal(text).withStyle(ChatFormatting.GRAY)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.lutzluca.btrbz.core.commands;
+
+import com.github.lutzluca.btrbz.utils.ClientTickDispatcher;
+import com.github.lutzluca.btrbz.utils.Notifier;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import java.util.Locale;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommands;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+
+public final class TickCommand {
+
+    private TickCommand() {}
+
+    public static LiteralArgumentBuilder<FabricClientCommandSource> get() {
+        return Commands.rootCommand.then(ClientCommands
+            .literal("ticks")
+            .executes(_ -> {
+                var message = Notifier
+                    .prefix()
+                    .append(Component.literal("Client tick tasks").withStyle(ChatFormatting.GOLD));
+
+                for (var stats : ClientTickDispatcher.taskStats()) {
+                    message.append(Component
+                        .literal("\n" + stats.name()
+                            + ": runs=" + stats.runs()
+                            + ", avg=" + micros(stats.runs() == 0 ? 0 : stats.totalNanos() / stats.runs())
+                            + ", max=" + micros(stats.maxNanos())
+                            + ", deferred=" + stats.deferrals()
+                            + ", failed=" + stats.failures())
+                        .withStyle(ChatFormatting.GRAY));
+                }
+
+                Notifier.notifyPlayer(message);
+                return 1;
+            }));
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.2fµs", nanos / 1_000.0);
+    }
+}
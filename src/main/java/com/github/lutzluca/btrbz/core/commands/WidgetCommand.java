@@ -1,20 +1,115 @@
 package com.github.lutzluca.btrbz.core.commands;
 
+import com.github.lutzluca.btrbz.BtrBz;
 import com.github.lutzluca.btrbz.core.widgets.WidgetRuntime;
+import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetRenderProfile;
+import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetRenderProfiler;
 import com.github.lutzluca.btrbz.utils.GameUtils;
+import com.github.lutzluca.btrbz.utils.Notifier;
+import com.github.lutzluca.btrbz.utils.Utils;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import java.time.Instant;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommands;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
 
 public class WidgetCommand {
+    private static final int CHAT_WIDGET_LIMIT = 8;
+
     public static LiteralArgumentBuilder<FabricClientCommandSource> get(WidgetRuntime runtime) {
+        var profiler = runtime.renderProfiler();
+
         return Commands.rootCommand.then(ClientCommands
             .literal("widgets")
             .executes(_ -> {
                 Minecraft.getInstance()
                     .schedule(() -> GameUtils.setScreen(runtime.createManagementScreen(GameUtils.screen())));
                 return 1;
-            }));
+            })
+            .then(ClientCommands
+                .literal("perf")
+                .executes(_ -> {
+                    notifyProfile(profiler.snapshot());
+                    return 1;
+                })
+                .then(ClientCommands
+                    .literal("start")
+                    .executes(_ -> {
+                        profiler.setRecording(true);
+                        notifyInfo("Recording widget render timings");
+                        return 1;
+                    }))
+                .then(ClientCommands
+                    .literal("stop")
+                    .executes(_ -> {
+                        profiler.setRecording(false);
+                        notifyProfile(profiler.snapshot());
+                        return 1;
+                    }))
+                .then(ClientCommands
+                    .literal("reset")
+                    .executes(_ -> {
+                        profiler.reset();
+                        notifyInfo("Cleared widget render timings");
+                        return 1;
+                    }))
+                .then(ClientCommands
+                    .literal("dump")
+                    .executes(_ -> {
+                        dumpProfile(profiler);
+                        return 1;
+                    }))));
+    }
+
+    private static void notifyProfile(WidgetRenderProfile profile) {
+        if (profile.isEmpty()) {
+            notifyInfo(profile.recording()
+                ? "No widget frames recorded yet"
+                : "Widget render profiling is off, start it with /btrbz widgets perf start");
+            return;
+        }
+
+        var lines = profile.lines();
+        var message = Notifier
+            .prefix()
+            .append(Component
+                .literal("Widget render timings" + (profile.recording() ? " (recording)" : ""))
+                .withStyle(ChatFormatting.GOLD))
+            .append(Component.literal("\n" + lines.getFirst()).withStyle(ChatFormatting.GRAY));
+
+        int shown = Math.min(lines.size() - 1, CHAT_WIDGET_LIMIT);
+        for (int i = 1; i <= shown; i++) {
+            message.append(Component.literal("\n" + lines.get(i)).withStyle(ChatFormatting.GRAY));
+        }
+        if (lines.size() - 1 > shown) {
+            message.append(Component
+                .literal("\n" + (lines.size() - 1 - shown) + " more, see /btrbz widgets perf dump")
+                .withStyle(ChatFormatting.DARK_GRAY));
+        }
+
+        Notifier.notifyPlayer(message);
+    }
+
+    private static void dumpProfile(WidgetRenderProfiler profiler) {
+        var profile = profiler.snapshot();
+        var path = FabricLoader.getInstance().getConfigDir().resolve(BtrBz.MOD_ID).resolve("widget-perf.txt");
+        var content = "# BtrBz widget render timings, " + Instant.now() + "\n"
+            + String.join("\n", profile.lines()) + "\n";
+
+        Utils
+            .atomicDumpToFile(path, content)
+            .onSuccess(written -> notifyInfo("Wrote widget render timings to " + written))
+            .onFailure(err -> Notifier.notifyPlayer(Notifier
+                .prefix()
+                .append(Component
+                    .literal("Failed to write widget render timings: " + err.getMessage())
+                    .withStyle(ChatFormatting.RED))));
+    }
+
+    private static void notifyInfo(String text) {
+        Notifier.notifyPlayer(Notifier.prefix().append(Component.literal(text).withStyle(ChatFormatting.GRAY)));
     }
 }
@@ -6,14 +6,12 @@ import com.github.lutzluca.btrbz.data.BazaarData;
 import com.github.lutzluca.btrbz.core.commands.alert.AlertCommandParser.ResolvedAlertArgs;
 import com.github.lutzluca.btrbz.core.config.ConfigManager;
 import com.github.lutzluca.btrbz.utils.Notifier;
-import com.github.lutzluca.btrbz.utils.Utils;
 import com.mojang.brigadier.LiteralMessage;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import io.vavr.control.Try;
 import java.util.List;
-import java.util.Locale;
 import java.util.UUID;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommands;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
@@ -137,31 +135,12 @@ public class AlertCommand {
 
     private static SuggestionProvider<FabricClientCommandSource> productSuggestions(BazaarData bazaarData) {
         return (ctx, builder) -> {
-            var remaining = builder.getRemainingLowerCase();
-            var normalizedRemaining = Utils.normalizeDisplayName(remaining);
             bazaarData
-                .allProducts()
-                .stream()
-                .filter(product -> matches(product.productId(), product.strippedName(), remaining, normalizedRemaining))
-                .limit(100)
+                .searchProducts(builder.getRemaining(), 100)
                 .forEach(product -> builder.suggest(
                     product.productId(),
                     new LiteralMessage(product.strippedName())));
             return builder.buildFuture();
         };
     }
-
-    private static boolean matches(
-        String productId,
-        String strippedName,
-        String remaining,
-        String normalizedRemaining
-    ) {
-        if (remaining.isBlank()) {
-            return true;
-        }
-
-        return productId.toLowerCase(Locale.US).contains(remaining)
-            || Utils.normalizeDisplayName(strippedName).contains(normalizedRemaining);
-    }
 }
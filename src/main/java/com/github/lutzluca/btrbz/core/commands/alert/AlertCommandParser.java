@@ -13,6 +13,7 @@ import io.vavr.control.Try;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import org.jetbrains.annotations.Nullable;
 
 public class AlertCommandParser {
 
@@ -54,7 +55,7 @@ public class AlertCommandParser {
             this.parsePriceExpression(priceExpression.toLowerCase(Locale.US)));
     }
 
-    private PriceExpression parsePriceExpression(String expression) throws ParseException {
+    public PriceExpression parsePriceExpression(String expression) throws ParseException {
         Tokenizer tokenizer = new Tokenizer(expression);
 
         PriceExpression expr = this.parseAdditive(tokenizer);
@@ -176,12 +177,17 @@ public class AlertCommandParser {
                         this.timestamp,
                         product,
                         this.type,
-                        price)));
+                        price,
+                        this.expr.isRelative() ? this.expr : null)));
         }
     }
 
+    /**
+     * @param price the target at the time the alert was set up
+     * @param expression the target expression when it references market prices, otherwise {@code null}
+     */
     public record ResolvedAlertArgs(
-        long timestamp, IndexedProduct product, AlertType type, double price
+        long timestamp, IndexedProduct product, AlertType type, double price, @Nullable PriceExpression expression
     ) {
 
         public String productName() {
@@ -6,14 +6,50 @@ import com.github.lutzluca.btrbz.core.commands.alert.PriceExpression.Literal;
 import com.github.lutzluca.btrbz.core.commands.alert.PriceExpression.Reference;
 import com.github.lutzluca.btrbz.data.BazaarData;
 import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
 import com.github.lutzluca.btrbz.data.ProductIdentity;
 import io.vavr.control.Try;
+import java.math.BigDecimal;
+import java.util.Locale;
 
 public sealed interface PriceExpression permits Literal,
     Reference,
     Binary {
 
-    Try<Double> resolve(IndexedProduct product, AlertType type, BazaarData bazaarData);
+    /**
+     * Compiles the expression for alerts of {@code type} into an evaluator over a snapshot slot. Subtrees without
+     * references are folded into constants.
+     */
+    Evaluator compile(AlertType type);
+
+    /** Whether the expression reads market prices, i.e. its value moves with the market. */
+    boolean isRelative();
+
+    /**
+     * Whether the expression reads the price alerts of {@code type} watch. Re-evaluating such an expression moves the
+     * target along with that price, so it can never be reached.
+     */
+    boolean readsWatchedPrice(AlertType type);
+
+    /** Source text that {@link AlertCommandParser#parsePriceExpression} parses back into this expression. */
+    String format();
+
+    default Try<Double> resolve(IndexedProduct product, AlertType type, BazaarData bazaarData) {
+        var snapshot = bazaarData.currentSnapshot();
+        double value = this.compile(type).evaluate(snapshot, snapshot.slotOf(ProductIdentity.fromIndex(product)));
+
+        return Double.isNaN(value)
+            ? Try.failure(new IllegalStateException(
+                "The price of " + '"' + product.strippedName() + '"' + " could not be determined"))
+            : Try.success(value);
+    }
+
+    /** A compiled expression; evaluates to {@code NaN} when a referenced price is not listed. */
+    @FunctionalInterface
+    interface Evaluator {
+
+        double evaluate(MarketSnapshot snapshot, int slot);
+    }
 
     enum AlertType {
         BuyOrder,
@@ -47,6 +83,32 @@ public sealed interface PriceExpression permits Literal,
             };
         }
 
+        /** The market price alerts of this type watch, or {@code NaN} when that side is empty. */
+        public double marketPrice(MarketSnapshot snapshot, int slot) {
+            return this.watchesBuyOrders() ? snapshot.bestBuyOrderPrice(slot) : snapshot.bestSellOfferPrice(slot);
+        }
+
+        /** Whether alerts of this type watch the best buy order rather than the best sell offer. */
+        public boolean watchesBuyOrders() {
+            return switch (this) {
+                case BuyOrder, InstaSell -> true;
+                case SellOffer, InstaBuy -> false;
+            };
+        }
+
+        /** Whether alerts of this type are reached by prices at or above their target rather than at or below. */
+        public boolean isReachedFromBelow() {
+            return switch (this) {
+                case SellOffer, InstaSell -> true;
+                case BuyOrder, InstaBuy -> false;
+            };
+        }
+
+        /** Whether an alert of this type targeting {@code target} is reached at {@code marketPrice}. */
+        public boolean isReached(double marketPrice, double target) {
+            return this.isReachedFromBelow() ? marketPrice >= target : marketPrice <= target;
+        }
+
         public String format() {
             return switch (this) {
                 case BuyOrder -> "buy order";
@@ -71,6 +133,15 @@ public sealed interface PriceExpression permits Literal,
                 case Divide -> left / right;
             };
         }
+
+        public String symbol() {
+            return switch (this) {
+                case Add -> "+";
+                case Subtract -> "-";
+                case Multiply -> "*";
+                case Divide -> "/";
+            };
+        }
     }
 
     enum ReferenceType {
@@ -90,30 +161,54 @@ public sealed interface PriceExpression permits Literal,
     record Literal(double value) implements PriceExpression {
 
         @Override
-        public Try<Double> resolve(IndexedProduct product, AlertType type, BazaarData bazaarData) {
-            return Try.success(value);
+        public Evaluator compile(AlertType type) {
+            double value = this.value;
+            return (_, _) -> value;
+        }
+
+        @Override
+        public boolean isRelative() {
+            return false;
+        }
+
+        @Override
+        public boolean readsWatchedPrice(AlertType type) {
+            return false;
+        }
+
+        @Override
+        public String format() {
+            return BigDecimal.valueOf(this.value).stripTrailingZeros().toPlainString();
         }
     }
 
     record Reference(ReferenceType reference) implements PriceExpression {
 
         @Override
-        public Try<Double> resolve(IndexedProduct product, AlertType type, BazaarData bazaarData) {
-            var lookupType = switch (this.reference) {
+        public Evaluator compile(AlertType type) {
+            return this.lookupType(type)::marketPrice;
+        }
+
+        @Override
+        public boolean isRelative() {
+            return true;
+        }
+
+        @Override
+        public boolean readsWatchedPrice(AlertType type) {
+            return this.lookupType(type).watchesBuyOrders() == type.watchesBuyOrders();
+        }
+
+        private AlertType lookupType(AlertType type) {
+            return switch (this.reference) {
                 case ReferenceType.Order -> type.getAssociatedOrderType();
                 case ReferenceType.Insta -> type.getAssociatedInstaType();
             };
-            var identity = ProductIdentity.fromIndex(product);
-
-            var price = switch (lookupType) {
-                case BuyOrder, InstaSell -> bazaarData.highestBuyOrderPrice(identity);
-                case SellOffer, InstaBuy -> bazaarData.lowestSellOfferPrice(identity);
-            };
+        }
 
-            return price
-                .map(Try::success)
-                .orElseGet(() -> Try.failure(new IllegalStateException(
-                    "The price of " + '"' + product.strippedName() + '"' + " could not be determined")));
+        @Override
+        public String format() {
+            return this.reference.name().toLowerCase(Locale.ROOT);
         }
     }
 
@@ -121,12 +216,37 @@ public sealed interface PriceExpression permits Literal,
         implements PriceExpression {
 
         @Override
-        public Try<Double> resolve(IndexedProduct product, AlertType type, BazaarData bazaarData) {
-            return left
-                .resolve(product, type, bazaarData)
-                .flatMap(leftVal -> right
-                    .resolve(product, type, bazaarData)
-                    .map(rightVal -> op.apply(leftVal, rightVal)));
+        public Evaluator compile(AlertType type) {
+            var left = this.left.compile(type);
+            var right = this.right.compile(type);
+
+            // Without references the operands ignore the snapshot, so fold them once.
+            if (!this.isRelative()) {
+                double value = this.op.apply(left.evaluate(null, -1), right.evaluate(null, -1));
+                return (_, _) -> value;
+            }
+
+            return switch (this.op) {
+                case Add -> (snapshot, slot) -> left.evaluate(snapshot, slot) + right.evaluate(snapshot, slot);
+                case Subtract -> (snapshot, slot) -> left.evaluate(snapshot, slot) - right.evaluate(snapshot, slot);
+                case Multiply -> (snapshot, slot) -> left.evaluate(snapshot, slot) * right.evaluate(snapshot, slot);
+                case Divide -> (snapshot, slot) -> left.evaluate(snapshot, slot) / right.evaluate(snapshot, slot);
+            };
+        }
+
+        @Override
+        public boolean isRelative() {
+            return this.left.isRelative() || this.right.isRelative();
+        }
+
+        @Override
+        public boolean readsWatchedPrice(AlertType type) {
+            return this.left.readsWatchedPrice(type) || this.right.readsWatchedPrice(type);
+        }
+
+        @Override
+        public String format() {
+            return "(" + this.left.format() + " " + this.op.symbol() + " " + this.right.format() + ")";
         }
     }
 }
@@ -1,32 +1,52 @@
 package com.github.lutzluca.btrbz.core.config;
 
 import com.github.lutzluca.btrbz.BtrBz;
-import com.github.lutzluca.btrbz.core.AlertManager.Alert;
-import com.github.lutzluca.btrbz.core.widgets.bookmarks.BookmarksWidgetConfig.BookmarkedItem;
-import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
+import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
+import com.github.lutzluca.btrbz.utils.ClientTickDispatcher;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import dev.isxander.yacl3.config.v2.api.ConfigClassHandler;
-import dev.isxander.yacl3.config.v2.api.serializer.GsonConfigSerializerBuilder;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public final class ConfigManager {
 
-    static final ConfigClassHandler<Config> HANDLER = ConfigClassHandler
-        .createBuilder(Config.class)
-        .serializer(config -> GsonConfigSerializerBuilder
-            .create(config)
-            .appendGsonBuilder(builder -> builder
-                .registerTypeAdapter(Alert.class, new Alert.GsonAdapter())
-                .registerTypeAdapter(BookmarkedItem.class, new BookmarkedItem.GsonAdapter())
-                .registerTypeAdapter(IndexedProduct.class, new IndexedProduct.GsonAdapter()))
-            .setPath(FabricLoader
-                .getInstance()
-                .getConfigDir()
-                .resolve(String.format("%s.json", BtrBz.MOD_ID)))
-            .build())
-        .build();
+    private static final Path PATH = FabricLoader
+        .getInstance()
+        .getConfigDir()
+        .resolve(String.format("%s.json", BtrBz.MOD_ID));
+
+    // Ticks a save waits for further changes before the config is snapshotted.
+    private static final int SAVE_DELAY_TICKS = 40;
+
+    // The Gson of YACL's serializer, set while HANDLER builds it; snapshots must encode entries exactly like YACL.
+    private static volatile @Nullable Gson serializerGson;
+
+    static final ConfigClassHandler<Config> HANDLER = ConfigSerialization.handler(PATH, gson -> serializerGson = gson);
+
+    // Only prints snapshot trees whose entries YACL's Gson already encoded.
+    private static final Gson TREE_GSON = new GsonBuilder().serializeNulls().setPrettyPrinting().create();
+
+    private static final ConfigPersistence PERSISTENCE = new ConfigPersistence(
+        PATH,
+        TREE_GSON,
+        ConfigManager::snapshot,
+        flush -> ClientTickDispatcher.scheduleAfter("config-save", _ -> flush.run(), SAVE_DELAY_TICKS),
+        Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "btrbz-config-writer");
+            t.setDaemon(true);
+            return t;
+        }));
+
+    private static final CacheToken CHANGES = CacheToken.named("config");
 
     private ConfigManager() {}
 
@@ -37,7 +57,9 @@ public final class ConfigManager {
             log.info("Successfully loaded config");
         }
 
-        Runtime.getRuntime().addShutdownHook(new Thread(HANDLER::save));
+        // Flush on the client thread while it still owns the config; the hook covers exits that skip the event.
+        ClientLifecycleEvents.CLIENT_STOPPING.register(_ -> PERSISTENCE.close());
+        Runtime.getRuntime().addShutdownHook(new Thread(PERSISTENCE::close));
     }
 
     public static Config get() {
@@ -45,7 +67,7 @@ public final class ConfigManager {
     }
 
     /**
-     * Saves immediately only when the updater reports a state change.
+     * Schedules a save only when the updater reports a state change.
      */
     public static boolean updateIfChanged(Predicate<Config> updater) {
         boolean changed = updater.test(HANDLER.instance());
@@ -55,8 +77,26 @@ public final class ConfigManager {
         return changed;
     }
 
+    /**
+     * Marks the config as changed. The write happens in the background after {@link #SAVE_DELAY_TICKS} ticks,
+     * together with every other change made in the meantime. Must be called on the client thread.
+     */
     public static void save() {
-        log.trace("Saving config");
-        HANDLER.save();
+        CHANGES.invalidate(InvalidationReason.of("config saved"));
+        PERSISTENCE.markDirty();
+    }
+
+    /** Bumped by every {@link #save}, for caches that read config options directly. */
+    public static CacheToken changes() {
+        return CHANGES;
+    }
+
+    private static JsonObject snapshot() {
+        var gson = serializerGson;
+        if (gson == null) {
+            throw new IllegalStateException("The config serializer has not been built yet");
+        }
+
+        return ConfigSerialization.snapshot(HANDLER.instance(), gson);
     }
 }
@@ -0,0 +1,125 @@
+package com.github.lutzluca.btrbz.core.config;
+
+import com.github.lutzluca.btrbz.utils.Utils;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind persistence of the config file. {@link #markDirty()} only flags the config; the first mark of a burst
+ * hands a flush to the debounce scheduler, so a burst of saves, such as dragging a widget or claiming many orders,
+ * ends in a single write.
+ * <p>
+ * A flush takes a JSON tree snapshot of the config on the thread that runs it, which the scheduler must make the
+ * thread mutating the config. Encoding the snapshot and the atomic file write happen on the writer thread, in the
+ * order the snapshots were taken. {@link #close()} drains the writer and synchronously writes whatever is still
+ * dirty, and saves requested after it write synchronously, so no save around shutdown is lost.
+ */
+@Slf4j
+final class ConfigPersistence implements AutoCloseable {
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final Path path;
+    private final Gson gson;
+    private final Supplier<JsonElement> snapshot;
+    private final Consumer<Runnable> scheduler;
+    private final ExecutorService writer;
+
+    private boolean dirty;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    /**
+     * @param snapshot serializes the current config to a detached JSON tree
+     * @param scheduler runs a flush later on the thread that mutates the config
+     * @param writer single-threaded executor for the file writes; shut down by {@link #close()}
+     */
+    ConfigPersistence(
+        Path path,
+        Gson gson,
+        Supplier<JsonElement> snapshot,
+        Consumer<Runnable> scheduler,
+        ExecutorService writer
+    ) {
+        this.path = path;
+        this.gson = gson;
+        this.snapshot = snapshot;
+        this.scheduler = scheduler;
+        this.writer = writer;
+    }
+
+    /**
+     * Flags the config as changed and schedules a flush unless one is already pending. Once closed, the config is
+     * written synchronously instead.
+     */
+    void markDirty() {
+        synchronized (this) {
+            if (this.closed) {
+                this.write(this.snapshot.get());
+                return;
+            }
+
+            this.dirty = true;
+            if (this.flushScheduled) {
+                return;
+            }
+            this.flushScheduled = true;
+        }
+
+        this.scheduler.accept(this::flush);
+    }
+
+    /** Snapshots the config if it changed since the last flush and queues the write. */
+    void flush() {
+        synchronized (this) {
+            this.flushScheduled = false;
+            if (!this.dirty || this.closed) {
+                return;
+            }
+            this.dirty = false;
+        }
+
+        var tree = this.snapshot.get();
+        this.writer.execute(() -> this.write(tree));
+    }
+
+    private void write(JsonElement tree) {
+        log.trace("Saving config");
+        Utils
+            .atomicDumpToFile(this.path, this.gson.toJson(tree))
+            .onFailure(err -> log.warn("Failed to save config to {}", this.path, err));
+    }
+
+    /** Waits for queued writes and writes the config once more if it changed since the last flush. Idempotent. */
+    @Override
+    public void close() {
+        boolean pending;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            pending = this.dirty;
+            this.dirty = false;
+        }
+
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for queued config writes");
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (pending) {
+            this.write(this.snapshot.get());
+        }
+    }
+}
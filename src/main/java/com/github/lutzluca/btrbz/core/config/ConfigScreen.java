@@ -37,6 +37,7 @@ public class ConfigScreen {
         return YetAnotherConfigLib.create(
             ConfigManager.HANDLER, (_, _, builder) -> {
                 builder.title(Component.literal(BtrBz.MOD_ID));
+                builder.save(ConfigManager::save);
                 buildCategories(builder, config);
 
                 return builder;
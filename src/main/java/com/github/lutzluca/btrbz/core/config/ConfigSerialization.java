@@ -0,0 +1,70 @@
+package com.github.lutzluca.btrbz.core.config;
+
+import com.github.lutzluca.btrbz.core.AlertManager.Alert;
+import com.github.lutzluca.btrbz.core.widgets.bookmarks.BookmarksWidgetConfig.BookmarkedItem;
+import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import dev.isxander.yacl3.config.v2.api.ConfigClassHandler;
+import dev.isxander.yacl3.config.v2.api.SerialEntry;
+import dev.isxander.yacl3.config.v2.api.serializer.GsonConfigSerializerBuilder;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The YACL handler of the config file and the snapshots the write-behind path writes to it. Snapshots are encoded
+ * with the Gson of YACL's serializer itself, so they carry YACL's own adapters and enum encoding and read back
+ * exactly as YACL would have written them.
+ */
+final class ConfigSerialization {
+    private static final List<Field> SERIAL_ENTRIES = Arrays
+        .stream(Config.class.getFields())
+        .filter(field -> field.isAnnotationPresent(SerialEntry.class) && !Modifier.isStatic(field.getModifiers()))
+        .toList();
+
+    private ConfigSerialization() {}
+
+    /**
+     * Creates the handler of the config file at {@code path}. {@code serializerGson} receives the Gson YACL's
+     * serializer is built with, its defaults followed by BtrBz's adapters, once YACL builds the serializer.
+     */
+    static ConfigClassHandler<Config> handler(Path path, Consumer<Gson> serializerGson) {
+        return ConfigClassHandler
+            .createBuilder(Config.class)
+            .serializer(config -> GsonConfigSerializerBuilder
+                .create(config)
+                .appendGsonBuilder(builder -> {
+                    registerAdapters(builder);
+                    serializerGson.accept(builder.create());
+                    return builder;
+                })
+                .setPath(path)
+                .build())
+            .build();
+    }
+
+    /** One member per serial entry of {@code config}, the same shape YACL writes. */
+    static JsonObject snapshot(Config config, Gson gson) {
+        var json = new JsonObject();
+        for (var field : SERIAL_ENTRIES) {
+            try {
+                json.add(field.getName(), gson.toJsonTree(field.get(config), field.getGenericType()));
+            } catch (IllegalAccessException err) {
+                throw new IllegalStateException("Config entry " + field.getName() + " is not accessible", err);
+            }
+        }
+        return json;
+    }
+
+    private static GsonBuilder registerAdapters(GsonBuilder builder) {
+        return builder
+            .registerTypeAdapter(Alert.class, new Alert.GsonAdapter())
+            .registerTypeAdapter(BookmarkedItem.class, new BookmarkedItem.GsonAdapter())
+            .registerTypeAdapter(IndexedProduct.class, new IndexedProduct.GsonAdapter());
+    }
+}
@@ -21,6 +21,7 @@ import com.github.lutzluca.btrbz.utils.slot.SlotClickContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickResult;
 import com.github.lutzluca.btrbz.utils.slot.SlotHook;
 import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookScope;
 import com.github.lutzluca.btrbz.utils.slot.SlotRenderContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotView;
 import dev.isxander.yacl3.api.Option;
@@ -270,6 +271,11 @@ public class FlipHelper {
 
         private OrderFlipHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(BazaarMenuType.OrderOptions).slots(CUSTOM_HELPER_ITEM_SLOT_IDX).containerOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             return ConfigManager.get().flipHelper.enabled
@@ -324,6 +330,11 @@ public class FlipHelper {
 
         private OrderProductObserverHook() {}
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(BazaarMenuType.Orders).containerOnly().clicksOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             var cfg = ConfigManager.get();
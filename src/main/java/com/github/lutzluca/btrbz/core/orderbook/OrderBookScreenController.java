@@ -9,6 +9,7 @@ import com.github.lutzluca.btrbz.utils.slot.SlotClickContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickResult;
 import com.github.lutzluca.btrbz.utils.slot.SlotHook;
 import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookScope;
 import com.github.lutzluca.btrbz.utils.slot.SlotRenderContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotView;
 import com.github.lutzluca.btrbz.core.widgets.WidgetRuntime;
@@ -43,6 +44,11 @@ public final class OrderBookScreenController {
     private final class ControllerHook implements SlotHook {
         private @Nullable ItemStack displayStack;
 
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(SUPPORTED_MENUS).slots(CONTROLLER_SLOT).containerOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             return hookEligible(
@@ -1,15 +1,14 @@
 package com.github.lutzluca.btrbz.core.trackedorders;
 
+import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderEvaluation.Bucket;
+import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderEvaluation.PriceGroup;
 import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderGrouping.SelfUndercutMatchKey;
-import com.github.lutzluca.btrbz.data.BazaarData.MarketSnapshot;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
 import com.github.lutzluca.btrbz.data.OrderModels.TrackedOrder;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -39,18 +38,13 @@ final class SelfUndercutDetector {
         }
     }
 
-    List<SelfUndercutEvent> resolve(List<TrackedOrder> trackedOrders, MarketSnapshot snapshot) {
-        var keys = trackedOrders
-            .stream()
-            .map(SelfUndercutMatchKey::from)
-            .distinct()
-            .toList();
-
-        this.state.keySet().retainAll(keys);
+    List<SelfUndercutEvent> resolve(TrackedOrderEvaluation evaluation) {
+        this.state.keySet().retainAll(evaluation.keys());
         var events = new ArrayList<SelfUndercutEvent>();
 
-        for (var key : keys) {
-            var result = this.computeSelfUndercutState(key, trackedOrders, snapshot);
+        for (var bucket : evaluation.buckets()) {
+            var key = bucket.key;
+            var result = this.computeSelfUndercutState(bucket);
             var existing = this.state.get(key);
 
             if (result instanceof SelfUndercutResult.Undercut undercut) {
@@ -61,18 +55,11 @@ final class SelfUndercutDetector {
                     continue;
                 }
 
-                var displayKey = this.displayKey(key, trackedOrders);
-                if (displayKey.isEmpty()) {
-                    log.warn("Detected self-undercut for {}, but no tracked order could display it", key);
-                    this.state.remove(key);
-                    continue;
-                }
-
                 this.state.put(key, new SelfUndercutPricePair(
                     undercut.bestPrice(),
                     undercut.secondBestPrice()));
                 events.add(new SelfUndercutEvent(
-                    displayKey.get(),
+                    SelfUndercutKey.from(bucket.first),
                     undercut.bestPrice(),
                     undercut.secondBestPrice()));
                 continue;
@@ -86,95 +73,77 @@ final class SelfUndercutDetector {
         return events;
     }
 
-    private Optional<SelfUndercutKey> displayKey(SelfUndercutMatchKey key, List<TrackedOrder> trackedOrders) {
-        return trackedOrders
-            .stream()
-            .filter(order -> SelfUndercutMatchKey.from(order).equals(key))
-            .findFirst()
-            .map(SelfUndercutKey::from);
-    }
-
-    private SelfUndercutResult computeSelfUndercutState(
-        SelfUndercutMatchKey key,
-        List<TrackedOrder> trackedOrders,
-        MarketSnapshot snapshot
-    ) {
-        var matchingOrders = trackedOrders.stream()
-            .filter(order -> SelfUndercutMatchKey.from(order).equals(key))
-            .toList();
-
-        Comparator<Double> bestFirst = key.type() == OrderType.Buy
-            ? Comparator.reverseOrder()
-            : Comparator.naturalOrder();
-
-        var playerPrices = matchingOrders.stream()
-            .map(order -> order.pricePerUnit)
-            .distinct()
-            .sorted(bestFirst)
-            .toList();
-
-        if (playerPrices.size() < 2) {
+    private SelfUndercutResult computeSelfUndercutState(Bucket bucket) {
+        if (bucket.groups.size() < 2) {
             return new SelfUndercutResult.NotUndercut();
         }
 
-        var product = matchingOrders.getFirst().product;
-        if (product.bazaarProductId().isEmpty()) {
-            log.debug("Product '{}' has no market id", matchingOrders.getFirst().productName);
+        // The two best distinct prices among the player's orders, best first for the bucket's side.
+        PriceGroup best = null;
+        PriceGroup secondBest = null;
+        for (var group : bucket.groups.values()) {
+            if (best == null || this.isBetter(bucket, group.pricePerUnit, best.pricePerUnit)) {
+                secondBest = best;
+                best = group;
+            } else if (secondBest == null || this.isBetter(bucket, group.pricePerUnit, secondBest.pricePerUnit)) {
+                secondBest = group;
+            }
+        }
+
+        var product = bucket.first.product;
+        if (bucket.productId == null) {
+            log.debug("Product '{}' has no market id", bucket.first.productName);
             return new SelfUndercutResult.NotUndercut();
         }
 
-        if (!snapshot.contains(product)) {
+        if (!bucket.listed) {
             log.debug("Product {} not found in market snapshot", product);
             return new SelfUndercutResult.NotUndercut();
         }
 
-        var summaries = snapshot.summariesForOrderType(product, key.type());
-        if (summaries == null || summaries.size() < 2) {
+        var side = bucket.side;
+        if (side.size() < 2) {
             return new SelfUndercutResult.NotUndercut();
         }
 
-        var topBucket = summaries.getFirst();
-        var secondBucket = summaries.get(1);
-        double bestPlayerPrice = playerPrices.getFirst();
-        double secondBestPlayerPrice = playerPrices.get(1);
+        double bestPlayerPrice = best.pricePerUnit;
+        double secondBestPlayerPrice = secondBest.pricePerUnit;
 
-        if (Double.compare(topBucket.getPricePerUnit(), bestPlayerPrice) != 0) {
+        if (Double.compare(side.price(0), bestPlayerPrice) != 0) {
             return new SelfUndercutResult.NotUndercut();
         }
 
-        long playerCountAtBest = matchingOrders.stream()
-            .filter(order -> Double.compare(order.pricePerUnit, bestPlayerPrice) == 0)
-            .count();
-
-        if (topBucket.getOrders() != playerCountAtBest) {
+        if (side.orders(0) != best.orders.size()) {
             log.trace(
                 "Top bucket count mismatch for {}: API orders={}, local tracked={}",
                 product,
-                topBucket.getOrders(),
-                playerCountAtBest);
+                side.orders(0),
+                best.orders.size());
             return new SelfUndercutResult.NotUndercut();
         }
 
-        if (Double.compare(secondBucket.getPricePerUnit(), secondBestPlayerPrice) != 0) {
+        if (Double.compare(side.price(1), secondBestPlayerPrice) != 0) {
             return new SelfUndercutResult.NotUndercut();
         }
 
-        long playerCountAtSecondBest = matchingOrders.stream()
-            .filter(order -> Double.compare(order.pricePerUnit, secondBestPlayerPrice) == 0)
-            .count();
-
-        if (secondBucket.getOrders() != playerCountAtSecondBest) {
+        if (side.orders(1) != secondBest.orders.size()) {
             log.trace(
                 "Second bucket count mismatch for {}: API orders={}, local tracked={}",
                 product,
-                secondBucket.getOrders(),
-                playerCountAtSecondBest);
+                side.orders(1),
+                secondBest.orders.size());
             return new SelfUndercutResult.NotUndercut();
         }
 
         return new SelfUndercutResult.Undercut(bestPlayerPrice, secondBestPlayerPrice);
     }
 
+    private boolean isBetter(Bucket bucket, double price, double other) {
+        return bucket.key.type() == OrderType.Buy
+            ? Double.compare(price, other) > 0
+            : Double.compare(price, other) < 0;
+    }
+
     record SelfUndercutEvent(SelfUndercutKey key, double bestPrice, double secondBestPrice) {}
 
     private record SelfUndercutPricePair(double bestPrice, double secondBestPrice) {}
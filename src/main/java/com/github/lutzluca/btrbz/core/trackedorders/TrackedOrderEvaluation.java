@@ -0,0 +1,122 @@
+package com.github.lutzluca.btrbz.core.trackedorders;
+
+import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderGrouping.SelfUndercutMatchKey;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.MarketSnapshot.BookSide;
+import com.github.lutzluca.btrbz.data.OrderModels.TrackedOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The tracked orders of one poll, bucketed once by product and side, with each bucket's book side looked up a
+ * single time. Within a bucket, orders are further grouped by price, which are exactly the notification groups.
+ * Buckets and groups keep the order of the tracked order list.
+ */
+final class TrackedOrderEvaluation {
+
+    private final List<TrackedOrder> orders;
+    private final Bucket[] bucketOf;
+    private final Map<TrackedOrder, PriceGroup> groupOf = new IdentityHashMap<>();
+    private final Map<SelfUndercutMatchKey, Bucket> buckets = new LinkedHashMap<>();
+
+    private TrackedOrderEvaluation(List<TrackedOrder> orders) {
+        this.orders = orders;
+        this.bucketOf = new Bucket[orders.size()];
+    }
+
+    static TrackedOrderEvaluation of(List<TrackedOrder> orders, MarketSnapshot snapshot) {
+        var evaluation = new TrackedOrderEvaluation(List.copyOf(orders));
+
+        for (int index = 0; index < evaluation.orders.size(); index++) {
+            var order = evaluation.orders.get(index);
+            var bucket = evaluation.buckets.computeIfAbsent(
+                SelfUndercutMatchKey.from(order),
+                key -> new Bucket(key, order, snapshot));
+            var group = bucket.groups.computeIfAbsent(order.pricePerUnit, price -> new PriceGroup(bucket, price));
+
+            group.orders.add(order);
+            evaluation.bucketOf[index] = bucket;
+            evaluation.groupOf.put(order, group);
+        }
+
+        return evaluation;
+    }
+
+    int size() {
+        return this.orders.size();
+    }
+
+    TrackedOrder order(int index) {
+        return this.orders.get(index);
+    }
+
+    Bucket bucket(int index) {
+        return this.bucketOf[index];
+    }
+
+    PriceGroup group(TrackedOrder order) {
+        return this.groupOf.get(order);
+    }
+
+    Collection<Bucket> buckets() {
+        return this.buckets.values();
+    }
+
+    Set<SelfUndercutMatchKey> keys() {
+        return this.buckets.keySet();
+    }
+
+    /** Tracked orders of one product and side. */
+    static final class Bucket {
+        final SelfUndercutMatchKey key;
+        /** The first tracked order of the bucket; its product is used for market lookups. */
+        final TrackedOrder first;
+        final @Nullable String productId;
+        /** Whether the product is listed in the snapshot; always {@code false} without a product id. */
+        final boolean listed;
+        final BookSide side;
+        final Map<Double, PriceGroup> groups = new LinkedHashMap<>();
+
+        private Bucket(SelfUndercutMatchKey key, TrackedOrder first, MarketSnapshot snapshot) {
+            this.key = key;
+            this.first = first;
+            this.productId = first.product.bazaarProductId().orElse(null);
+
+            int slot = this.productId == null ? -1 : snapshot.slotOf(this.productId);
+            this.listed = slot >= 0;
+            this.side = this.listed ? snapshot.bookSide(slot, key.type()) : BookSide.EMPTY;
+        }
+    }
+
+    /** Tracked orders of one product and side at the same price. */
+    static final class PriceGroup {
+        final Bucket bucket;
+        final double pricePerUnit;
+        final List<TrackedOrder> orders = new ArrayList<>();
+
+        private PriceGroup(Bucket bucket, double pricePerUnit) {
+            this.bucket = bucket;
+            this.pricePerUnit = pricePerUnit;
+        }
+
+        GroupKey key() {
+            return GroupKey.from(this.orders.getFirst());
+        }
+
+        /** Orders the book lists at this group's price, or {@code -1} when it has no level at that price. */
+        long bookOrders() {
+            var side = this.bucket.side;
+            int level = side.levelsAhead(this.pricePerUnit, false);
+            if (level == side.size() || Double.compare(side.price(level), this.pricePerUnit) != 0) {
+                return -1;
+            }
+            return side.orders(level);
+        }
+    }
+}
@@ -15,16 +15,6 @@ final class TrackedOrderGrouping {
 
     record NameProductKey(String normalizedName) implements ProductGroupKey {}
 
-    record GroupMatchKey(ProductGroupKey product, OrderType type, double pricePerUnit) {
-
-        static GroupMatchKey from(TrackedOrder order) {
-            return new GroupMatchKey(
-                productKey(order.product, order.uiProductName),
-                order.type,
-                order.pricePerUnit);
-        }
-    }
-
     record SelfUndercutMatchKey(ProductGroupKey product, OrderType type) {
 
         static SelfUndercutMatchKey from(TrackedOrder order) {
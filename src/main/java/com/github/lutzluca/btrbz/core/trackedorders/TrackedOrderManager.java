@@ -5,10 +5,11 @@ import com.github.lutzluca.btrbz.core.config.ConfigManager;
 import com.github.lutzluca.btrbz.core.config.ConfigImages;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen;
 import com.github.lutzluca.btrbz.core.config.ConfigScreen.OptionGrouping;
+import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderEvaluation.PriceGroup;
 import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
 import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
 import com.github.lutzluca.btrbz.data.BazaarData;
-import com.github.lutzluca.btrbz.data.BazaarData.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.MarketDelta;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.OrderFilled;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.OrderSetup;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo;
@@ -28,12 +29,11 @@ import dev.isxander.yacl3.api.OptionDescription;
 import dev.isxander.yacl3.api.OptionGroup;
 import dev.isxander.yacl3.api.controller.EnumControllerBuilder;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
@@ -61,7 +61,7 @@ public class TrackedOrderManager {
     public TrackedOrderManager(BazaarData bazaarData) {
         this.bazaarData = bazaarData;
         this.productUpdater = new TrackedOrderProductUpdater(bazaarData);
-        this.outstandingOrderStore = new TimedStore<>(15_000L);
+        this.outstandingOrderStore = TimedStore.keyedBy(15_000L, OutstandingOrderInfo::matchKey);
         this.bazaarData.addIndexChangeListener(this::refreshTrackedOrderProducts);
     }
 
@@ -201,10 +201,13 @@ public class TrackedOrderManager {
         }
     }
 
-    public void onBazaarUpdate(MarketSnapshot snapshot) {
-        var statusUpdates = this.statusEvaluator
-            .computeStatusUpdates(this.trackedOrders, snapshot)
-            .toList();
+    public void onBazaarUpdate(MarketDelta delta) {
+        var evaluation = TrackedOrderEvaluation.of(this.trackedOrders, delta.snapshot());
+        // An order's status only depends on its own product's book, so untouched products keep their
+        // status. Unknown orders were never evaluated against the current book and always run.
+        var statusUpdates = this.statusEvaluator.computeStatusUpdates(
+            evaluation,
+            order -> order.status instanceof OrderStatus.Unknown || delta.bookChanged(order.product));
 
         statusUpdates.forEach(update -> update.order().status = update.curr());
         if (!statusUpdates.isEmpty()) {
@@ -215,8 +218,8 @@ public class TrackedOrderManager {
             .filter(update -> !update.prev().sameVariant(update.curr()))
             .toList();
 
-        this.sendNotifications(notificationUpdates, snapshot);
-        this.resolveSelfUndercutStates(snapshot);
+        this.sendNotifications(notificationUpdates, evaluation);
+        this.resolveSelfUndercutStates(evaluation);
     }
 
     // Known limitation: transitions that only change `GroupStatus` without changing the underlying
@@ -226,22 +229,22 @@ public class TrackedOrderManager {
     // Fixing this would require a separate group-level status diff pass (tracking previous
     // `GroupStatus` across polls), which adds meaningful complexity for a low-value scenario.
     // Accepted as a known limitation (for now).
-    private void sendNotifications(List<StatusUpdate> statusUpdates, MarketSnapshot snapshot) {
+    private void sendNotifications(List<StatusUpdate> statusUpdates, TrackedOrderEvaluation evaluation) {
         var cfg = ConfigManager.get().trackedOrders;
         if (!cfg.enabled) {
             return;
         }
 
-        Map<TrackedOrderGrouping.GroupMatchKey, List<TrackedOrder>> orderGroups = this.trackedOrders.stream()
-            .collect(Collectors.groupingBy(TrackedOrderGrouping.GroupMatchKey::from));
-        Map<TrackedOrderGrouping.GroupMatchKey, List<StatusUpdate>> statusGroups = statusUpdates.stream()
-            .collect(Collectors.groupingBy(update -> TrackedOrderGrouping.GroupMatchKey.from(update.order())));
+        var statusGroups = new LinkedHashMap<PriceGroup, List<StatusUpdate>>();
+        for (var update : statusUpdates) {
+            statusGroups.computeIfAbsent(evaluation.group(update.order()), _ -> new ArrayList<>()).add(update);
+        }
 
         for (var entry : statusGroups.entrySet()) {
+            var group = entry.getKey();
             var updates = entry.getValue();
-            var orders = orderGroups.get(entry.getKey());
 
-            if (orders.size() == 1) {
+            if (group.orders.size() == 1) {
                 var statusUpdate = updates.getFirst();
                 if (this.shouldNotify(statusUpdate)) {
                     Notifier.notifyOrderStatus(statusUpdate, bazaarData);
@@ -249,17 +252,11 @@ public class TrackedOrderManager {
                 continue;
             }
 
-            var key = GroupKey.from(orders.getFirst());
-            this.processGroupNotification(key, orders, updates, snapshot);
+            this.processGroupNotification(group, updates);
         }
     }
 
-    private void processGroupNotification(
-        GroupKey key,
-        List<TrackedOrder> orders,
-        List<StatusUpdate> updates,
-        MarketSnapshot snapshot
-    ) {
+    private void processGroupNotification(PriceGroup group, List<StatusUpdate> updates) {
         var cfg = ConfigManager.get().trackedOrders;
 
         if (!cfg.groupOrders) {
@@ -269,7 +266,8 @@ public class TrackedOrderManager {
             return;
         }
 
-        GroupStatus curr = this.statusEvaluator.getCurrentGroupStatus(key, orders, snapshot);
+        var key = group.key();
+        GroupStatus curr = this.statusEvaluator.getCurrentGroupStatus(group);
 
         if (curr == null) {
             log.warn("Group ({}) has no settled status, skipping group notification", key);
@@ -286,8 +284,8 @@ public class TrackedOrderManager {
             return;
         }
 
-        GroupStatus prev = this.statusEvaluator.getPreviousGroupStatus(key, orders, updates);
-        Notifier.notifyGroupOrderStatus(key, orders, curr, prev, this.bazaarData);
+        GroupStatus prev = this.statusEvaluator.getPreviousGroupStatus(group, updates);
+        Notifier.notifyGroupOrderStatus(key, group.orders, curr, prev, this.bazaarData);
     }
 
     private boolean shouldNotify(StatusUpdate update) {
@@ -430,7 +428,7 @@ public class TrackedOrderManager {
 
     public void confirmOutstanding(OrderSetup info) {
         this.outstandingOrderStore
-            .removeFirstMatch(curr -> curr.matches(info))
+            .removeFirstMatch(OutstandingOrderInfo.MatchKey.of(info), curr -> curr.matches(info))
             .map(TrackedOrder::new)
             .ifPresentOrElse(
                 this::addTrackedOrder, () -> {
@@ -448,9 +446,9 @@ public class TrackedOrderManager {
                 });
     }
 
-    private void resolveSelfUndercutStates(MarketSnapshot snapshot) {
+    private void resolveSelfUndercutStates(TrackedOrderEvaluation evaluation) {
         var cfg = ConfigManager.get().trackedOrders;
-        var events = this.selfUndercutDetector.resolve(this.trackedOrders, snapshot);
+        var events = this.selfUndercutDetector.resolve(evaluation);
         if (!cfg.enabled || !cfg.notifySelfUndercut) {
             return;
         }
@@ -1,43 +1,60 @@
 package com.github.lutzluca.btrbz.core.trackedorders;
 
-import com.github.lutzluca.btrbz.data.BazaarData.MarketSnapshot;
+import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderEvaluation.Bucket;
+import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderEvaluation.PriceGroup;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderStatus;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderStatus.Matched;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderStatus.Top;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderStatus.Undercut;
 import com.github.lutzluca.btrbz.data.OrderModels.TrackedOrder;
-import com.github.lutzluca.btrbz.utils.Utils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
-import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product.Summary;
 import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 final class TrackedOrderStatusEvaluator {
 
-    Stream<StatusUpdate> computeStatusUpdates(List<TrackedOrder> trackedOrders, MarketSnapshot snapshot) {
-        return trackedOrders
-            .stream()
-            .map(order -> this.getTrackedStatus(order, snapshot))
-            .flatMap(Optional::stream)
-            .filter(trackedStatus -> this.hasStatusChanged(
-                trackedStatus.order().status,
-                trackedStatus.status()))
-            .map(trackedStatus -> new StatusUpdate(
-                trackedStatus.order(),
-                trackedStatus.status(),
-                trackedStatus.order().status));
+    List<StatusUpdate> computeStatusUpdates(TrackedOrderEvaluation evaluation) {
+        return this.computeStatusUpdates(evaluation, _ -> true);
+    }
+
+    /** Status changes of the orders accepted by {@code candidates}, in tracked order. */
+    List<StatusUpdate> computeStatusUpdates(TrackedOrderEvaluation evaluation, Predicate<TrackedOrder> candidates) {
+        var updates = new ArrayList<StatusUpdate>();
+
+        for (int index = 0; index < evaluation.size(); index++) {
+            var order = evaluation.order(index);
+            if (!candidates.test(order)) {
+                continue;
+            }
+
+            var status = this.getStatus(order, evaluation.bucket(index));
+            if (status != null && this.hasStatusChanged(order.status, status)) {
+                updates.add(new StatusUpdate(order, status, order.status));
+            }
+        }
+
+        return updates;
     }
 
     @Nullable
-    GroupStatus getCurrentGroupStatus(GroupKey key, List<TrackedOrder> orders, MarketSnapshot snapshot) {
-        boolean hasMatched = orders.stream().anyMatch(order -> order.status instanceof OrderStatus.Matched);
-        boolean hasUndercut = orders.stream().anyMatch(order -> order.status instanceof OrderStatus.Undercut);
-        boolean hasUnknown = orders.stream().anyMatch(order -> order.status instanceof OrderStatus.Unknown);
+    GroupStatus getCurrentGroupStatus(PriceGroup group) {
+        var key = group.key();
+        boolean hasMatched = false;
+        boolean hasUnknown = false;
+        Undercut undercut = null;
+
+        for (var order : group.orders) {
+            hasMatched |= order.status instanceof Matched;
+            hasUnknown |= order.status instanceof OrderStatus.Unknown;
+            if (undercut == null && order.status instanceof Undercut current) {
+                undercut = current;
+            }
+        }
 
         if (hasUnknown) {
             log.warn(
@@ -47,7 +64,7 @@ final class TrackedOrderStatusEvaluator {
             return null;
         }
 
-        if (hasMatched && hasUndercut) {
+        if (hasMatched && undercut != null) {
             log.warn(
                 "Group ({}) has both Matched and Undercut orders. This must be a logic error, "
                     + "skipping group notification",
@@ -55,115 +72,94 @@ final class TrackedOrderStatusEvaluator {
             return null;
         }
 
-        if (hasUndercut) {
-            var representativeOrder = orders.getFirst();
-            var undercutAmount = ((OrderStatus.Undercut) representativeOrder.status).amount;
-            return new GroupStatus.Undercut(undercutAmount);
+        if (undercut != null) {
+            return new GroupStatus.Undercut(undercut.amount);
+        }
+
+        if (group.bucket.productId == null) {
+            log.warn("Group ({}) has no market product id, skipping group notification", key);
+            return null;
         }
 
-        int bucketOrderCount = this.countOrdersAtBestPrice(key, snapshot);
+        long bucketOrderCount = group.bookOrders();
         if (bucketOrderCount == -1) {
             log.warn("Group ({}) has no orders at the given price per unit, skipping group notification", key);
             return null;
         }
 
-        return orders.size() == bucketOrderCount
-            ? new GroupStatus.SelfMatched(orders.size())
+        return group.orders.size() == bucketOrderCount
+            ? new GroupStatus.SelfMatched(group.orders.size())
             : new GroupStatus.Matched();
     }
 
+    /** The group's status before {@code updates}, which must all belong to the group, were applied. */
     @Nullable
-    GroupStatus getPreviousGroupStatus(
-        GroupKey key,
-        List<TrackedOrder> orders,
-        List<StatusUpdate> updates
-    ) {
-        Map<TrackedOrder, OrderStatus> prevStatuses = orders.stream()
-            .collect(Collectors.toMap(order -> order, order -> order.status));
+    GroupStatus getPreviousGroupStatus(PriceGroup group, List<StatusUpdate> updates) {
+        var updated = Collections.newSetFromMap(new IdentityHashMap<TrackedOrder, Boolean>());
+        var previous = new ArrayList<OrderStatus>(group.orders.size());
 
-        updates.forEach(update -> prevStatuses.put(update.order(), update.prev()));
-
-        var values = prevStatuses.values();
+        for (var update : updates) {
+            updated.add(update.order());
+            previous.add(update.prev());
+        }
+        for (var order : group.orders) {
+            if (!updated.contains(order)) {
+                previous.add(order.status);
+            }
+        }
 
-        if (values.stream().anyMatch(status -> status instanceof OrderStatus.Undercut)) {
-            double amount = values.stream()
-                .filter(status -> status instanceof OrderStatus.Undercut)
-                .map(status -> ((OrderStatus.Undercut) status).amount)
-                .findFirst()
-                .orElseThrow();
-            return new GroupStatus.Undercut(amount);
+        boolean hasMatched = false;
+        for (var status : previous) {
+            if (status instanceof Undercut undercut) {
+                return new GroupStatus.Undercut(undercut.amount);
+            }
+            hasMatched |= status instanceof Matched;
         }
 
-        if (values.stream().anyMatch(status -> status instanceof OrderStatus.Matched)) {
+        if (hasMatched) {
             return new GroupStatus.Matched();
         }
 
         log.debug(
             "Group ({}) had no prior matched group state. currently tracked orders: {} | updates: {}",
-            key,
-            orders,
+            group.key(),
+            group.orders,
             updates);
         return null;
     }
 
-    private Optional<TrackedStatus> getTrackedStatus(TrackedOrder order, MarketSnapshot snapshot) {
-        if (order.product.bazaarProductId().isEmpty()) {
+    private @Nullable OrderStatus getStatus(TrackedOrder order, Bucket bucket) {
+        if (bucket.productId == null) {
             log.warn("Tracked order product has no market id: '{}'", order.productName);
-            return Optional.empty();
+            return null;
         }
 
-        if (!snapshot.contains(order.product)) {
+        if (!bucket.listed) {
             log.warn("No product found for tracked order product {}", order.product);
-            return Optional.empty();
+            return null;
         }
 
-        var status = this.getStatus(order, snapshot.summariesForOrderType(order.product, order.type));
-        if (status.isEmpty()) {
+        var side = bucket.side;
+        if (side.isEmpty()) {
             log.debug("Unable to determine curr for product {}", order.product);
-            return Optional.empty();
+            return null;
         }
 
-        return Optional.of(new TrackedStatus(order, status.get()));
-    }
-
-    private int countOrdersAtBestPrice(GroupKey key, MarketSnapshot snapshot) {
-        if (key.product().bazaarProductId().isEmpty()) {
-            log.warn("Group ({}) has no market product id, skipping group notification", key);
-            return -1;
+        double bestPrice = side.price(0);
+        if (Double.compare(order.pricePerUnit, bestPrice) == 0) {
+            return side.orders(0) > 1
+                ? new Matched()
+                : new Top();
         }
 
-        var lists = snapshot.getOrderLists(key.product());
-        var relevantSummaries = switch (key.type()) {
-            case Buy -> lists.buyOrders();
-            case Sell -> lists.sellOffers();
+        return switch (order.type) {
+            case Buy -> order.pricePerUnit > bestPrice
+                ? new Top()
+                : new Undercut(bestPrice - order.pricePerUnit);
+            case Sell -> order.pricePerUnit < bestPrice
+                ? new Top()
+                : new Undercut(order.pricePerUnit - bestPrice);
         };
-
-        return relevantSummaries
-            .stream()
-            .filter(summary -> Double.compare(summary.getPricePerUnit(), key.pricePerUnit()) == 0)
-            .findFirst()
-            .map(summary -> (int) summary.getOrders())
-            .orElse(-1);
-    }
-
-    private Optional<OrderStatus> getStatus(TrackedOrder order, List<Summary> summaries) {
-        return Utils.getFirst(summaries).map(summary -> {
-            double bestPrice = summary.getPricePerUnit();
-            if (Double.compare(order.pricePerUnit, bestPrice) == 0) {
-                return summary.getOrders() > 1
-                    ? new Matched()
-                    : new Top();
-            }
-
-            return switch (order.type) {
-                case Buy -> order.pricePerUnit > bestPrice
-                    ? new Top()
-                    : new Undercut(bestPrice - order.pricePerUnit);
-                case Sell -> order.pricePerUnit < bestPrice
-                    ? new Top()
-                    : new Undercut(order.pricePerUnit - bestPrice);
-            };
-        });
     }
 
     private boolean hasStatusChanged(OrderStatus previous, OrderStatus current) {
@@ -175,6 +171,4 @@ final class TrackedOrderStatusEvaluator {
             && current instanceof Undercut currentUndercut
             && Double.compare(previousUndercut.amount, currentUndercut.amount) != 0;
     }
-
-    private record TrackedStatus(TrackedOrder order, OrderStatus status) {}
 }
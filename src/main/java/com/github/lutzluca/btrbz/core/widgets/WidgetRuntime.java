@@ -4,6 +4,7 @@ import com.github.lutzluca.btrbz.core.widgets.config.WidgetStateStore;
 import com.github.lutzluca.btrbz.core.widgets.manager.WidgetManagementScreen;
 import com.github.lutzluca.btrbz.core.widgets.manager.WidgetManagementContext;
 import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetHost;
+import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetRenderProfiler;
 import com.github.lutzluca.btrbz.core.widgets.session.WidgetSession;
 import com.github.lutzluca.btrbz.core.widgets.session.WidgetSessionProvider;
 import java.util.HashMap;
@@ -25,6 +26,7 @@ public final class WidgetRuntime {
     private final WidgetStateStore stateStore;
     private final WidgetSessionProvider sessionProvider;
     private final Map<WidgetId, Double> scrollOffsets = new HashMap<>();
+    private final WidgetRenderProfiler renderProfiler = new WidgetRenderProfiler();
 
     public WidgetRuntime(
         WidgetRegistry registry,
@@ -45,6 +47,11 @@ public final class WidgetRuntime {
         return this.stateStore;
     }
 
+    /** Shared by every runtime host, so one recording covers the HUD and all screen hosts. */
+    public WidgetRenderProfiler renderProfiler() {
+        return this.renderProfiler;
+    }
+
     public void invalidateWidgetContent(WidgetId id, String reason) {
         this.registry.find(id).orElseThrow().getConfigHandle().invalidate(reason);
     }
@@ -63,7 +70,8 @@ public final class WidgetRuntime {
             this.stateStore,
             this.sessionProvider,
             this.scrollOffsets,
-            placementDragging);
+            placementDragging,
+            this.renderProfiler);
     }
 
     public WidgetManagementScreen createManagementScreen(@Nullable Screen previousScreen) {
@@ -36,6 +36,7 @@ final class BazaarBookmarkListComponent extends ReorderableScrollListComponent<S
                 this, bookmark, options, interactive, reserveScrollbarSpace, index, actions),
             (row, bookmark, index) -> row.update(
                 bookmark, options, interactive, reserveScrollbarSpace, index, actions),
+            BazaarBookmarkRowComponent.HEIGHT,
             viewportHeight,
             interactive,
             options.sort == BookmarksWidgetConfig.BookmarkSort.Manual);
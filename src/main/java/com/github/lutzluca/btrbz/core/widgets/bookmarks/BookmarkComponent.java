@@ -10,16 +10,20 @@ import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
 import com.github.lutzluca.btrbz.data.BazaarData;
 import com.github.lutzluca.btrbz.utils.GameUtils;
 import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.BazaarMenuType;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.ScreenInfo;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotClickResult;
 import com.github.lutzluca.btrbz.utils.slot.SlotHook;
 import com.github.lutzluca.btrbz.utils.slot.SlotHookRegistry;
+import com.github.lutzluca.btrbz.utils.slot.SlotHookScope;
+import com.github.lutzluca.btrbz.utils.slot.SlotOverlayTable;
 import com.github.lutzluca.btrbz.utils.slot.SlotRenderContext;
 import com.github.lutzluca.btrbz.utils.slot.SlotView;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 
 /** Bookmark storage and semantic operations without presentation ownership. */
@@ -57,6 +61,11 @@ public final class BookmarkComponent {
 
         bazaarData.addIndexChangeListener(this::refreshProducts);
         SlotHookRegistry.register(new BookmarkHook());
+        SlotOverlayTable.register(
+            this::collectOverlays,
+            this.dataChanges,
+            productInfoProvider.changes(),
+            ConfigManager.changes());
     }
 
     public List<Snapshot> currentBookmarks() {
@@ -181,6 +190,22 @@ public final class BookmarkComponent {
         this.dataChanges.invalidate(InvalidationReason.of("bookmark order indicators rebuilt"));
     }
 
+    private void collectOverlays(ScreenInfo info, Container container, SlotOverlayTable.Sink sink) {
+        var product = this.productInfoProvider.getOpenedProduct();
+
+        if (!ConfigManager.get().widgets.bookmarks.frame.enabled
+            || product == null
+            || !info.inMenu(BazaarMenuType.Item)) {
+            return;
+        }
+
+        sink.mark(
+            PRODUCT_SLOT,
+            this.contains(product.productId())
+                ? SlotOverlayTable.Overlay.BOOKMARKED
+                : SlotOverlayTable.Overlay.BOOKMARK);
+    }
+
     private static List<BookmarkedItem> items() {
         return ConfigManager.get().widgets.bookmarks.items;
     }
@@ -208,6 +233,11 @@ public final class BookmarkComponent {
     }
 
     private final class BookmarkHook implements SlotHook {
+        @Override
+        public SlotHookScope scope() {
+            return SlotHookScope.menus(BazaarMenuType.Item).slots(PRODUCT_SLOT).containerOnly();
+        }
+
         @Override
         public boolean matches(SlotView view) {
             return ConfigManager.get().widgets.bookmarks.frame.enabled
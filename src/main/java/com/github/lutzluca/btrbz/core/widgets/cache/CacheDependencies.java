@@ -1,16 +1,38 @@
 package com.github.lutzluca.btrbz.core.widgets.cache;
 
+import com.github.lutzluca.btrbz.core.widgets.session.WidgetSession;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
 
-/** Immutable, identity-ordered collection of cache tokens. */
+/**
+ * Identity-ordered collection of cache tokens, optionally with product bindings. A product binding contributes the
+ * token of the session's product once {@link #forSession bound}, and its product-independent fallback token while
+ * no product is bound. Callers key on the session as well, which changes whenever its product does.
+ */
 public final class CacheDependencies {
-    private static final CacheDependencies NONE = new CacheDependencies(List.of());
+    private static final CacheDependencies NONE = new CacheDependencies(List.of(), List.of());
     private final List<CacheToken> tokens;
+    private final List<ProductBinding> productBindings;
+    private final List<CacheToken> unboundTokens;
 
-    private CacheDependencies(List<CacheToken> tokens) {
+    // Client-thread-confined memo of the last binding, so steady frames resolve without allocating.
+    private @Nullable String boundProductId;
+    private @Nullable CacheDependencies bound;
+
+    private CacheDependencies(List<CacheToken> tokens, List<ProductBinding> productBindings) {
         this.tokens = List.copyOf(tokens);
+        this.productBindings = List.copyOf(productBindings);
+
+        if (this.productBindings.isEmpty()) {
+            this.unboundTokens = this.tokens;
+        } else {
+            var unbound = new LinkedHashSet<>(this.tokens);
+            this.productBindings.forEach(binding -> unbound.add(binding.fallback()));
+            this.unboundTokens = List.copyOf(unbound);
+        }
     }
 
     public static CacheDependencies none() {
@@ -25,27 +47,70 @@ public final class CacheDependencies {
             unique.add(Objects.requireNonNull(token, "token"));
         }
 
-        return unique.isEmpty() ? NONE : new CacheDependencies(List.copyOf(unique));
+        return unique.isEmpty() ? NONE : new CacheDependencies(List.copyOf(unique), List.of());
+    }
+
+    /**
+     * Depends on {@code productToken} of the session's bazaar product, or on {@code fallback} when the session has
+     * none.
+     */
+    public static CacheDependencies ofProduct(Function<String, CacheToken> productToken, CacheToken fallback) {
+        return new CacheDependencies(List.of(), List.of(new ProductBinding(
+            Objects.requireNonNull(productToken, "productToken"), Objects.requireNonNull(fallback, "fallback"))));
     }
 
     public CacheDependencies and(CacheDependencies other) {
         Objects.requireNonNull(other, "other");
 
-        if (other.tokens.isEmpty()) {
+        if (other.tokens.isEmpty() && other.productBindings.isEmpty()) {
             return this;
         }
 
-        if (this.tokens.isEmpty()) {
+        if (this.tokens.isEmpty() && this.productBindings.isEmpty()) {
             return other;
         }
 
         var combined = new LinkedHashSet<>(this.tokens);
         combined.addAll(other.tokens);
 
-        return new CacheDependencies(List.copyOf(combined));
+        var bindings = new LinkedHashSet<>(this.productBindings);
+        bindings.addAll(other.productBindings);
+
+        return new CacheDependencies(List.copyOf(combined), List.copyOf(bindings));
     }
 
+    /** These dependencies with every product binding resolved against the session's product. */
+    public CacheDependencies forSession(WidgetSession session) {
+        if (this.productBindings.isEmpty()) {
+            return this;
+        }
+
+        var productId = session.product()
+            .flatMap(product -> product.identity().bazaarProductId())
+            .orElse(null);
+
+        if (productId == null) {
+            return this;
+        }
+
+        var current = this.bound;
+        if (current != null && productId.equals(this.boundProductId)) {
+            return current;
+        }
+
+        var resolved = new LinkedHashSet<>(this.tokens);
+        this.productBindings.forEach(binding -> resolved.add(binding.productToken().apply(productId)));
+
+        current = new CacheDependencies(List.copyOf(resolved), List.of());
+        this.boundProductId = productId;
+        this.bound = current;
+        return current;
+    }
+
+    /** The tokens to match; product bindings contribute their fallback until bound with {@link #forSession}. */
     public List<CacheToken> tokens() {
-        return this.tokens;
+        return this.unboundTokens;
     }
+
+    private record ProductBinding(Function<String, CacheToken> productToken, CacheToken fallback) {}
 }
@@ -17,7 +17,6 @@ public final class ClipboardTracker implements AutoCloseable {
     private boolean initialized;
     private boolean failureLogged;
 
-    private int ticks;
     private ClientTickDispatcher.TaskHandle taskHandle;
 
     public ClipboardTracker(Supplier<String> valueSupplier) {
@@ -37,12 +36,8 @@ public final class ClipboardTracker implements AutoCloseable {
         this.requireInitialized();
 
         if (this.taskHandle == null) {
-            this.taskHandle = ClientTickDispatcher.onEachTick(_ -> {
-                if (++this.ticks >= POLL_TICKS) {
-                    this.ticks = 0;
-                    this.poll();
-                }
-            });
+            this.taskHandle = ClientTickDispatcher.scheduleEvery(
+                "tracker.clipboard", POLL_TICKS, ClientTickDispatcher.Priority.LOW, _ -> this.poll());
         }
     }
 
@@ -1,25 +1,27 @@
 package com.github.lutzluca.btrbz.core.widgets.cache;
 
-import com.github.lutzluca.btrbz.utils.ClientTickDispatcher;
+import com.github.lutzluca.btrbz.utils.ScoreboardMirror;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
 
-/** Initialized, periodically polled purse owner with explicit unavailable state. */
+/**
+ * Initialized purse owner with explicit unavailable state. Once started, it re-reads the purse only when the
+ * {@link ScoreboardMirror} reports that the parsed purse changed. Closing unregisters from the mirror; a closed
+ * tracker can be started again.
+ */
 @Slf4j
 public final class PurseTracker implements AutoCloseable {
-    private static final int POLL_TICKS = 5;
-
     private final Supplier<Optional<Double>> valueSupplier;
     private final CacheToken changes = CacheToken.named("external.purse");
 
     private Optional<Double> value = Optional.empty();
     private boolean initialized;
     private boolean failureLogged;
-
-    private int ticks;
-    private ClientTickDispatcher.TaskHandle taskHandle;
+    private @Nullable Runnable unregister;
+    private boolean closed;
 
     public PurseTracker(Supplier<Optional<Double>> valueSupplier) {
         this.valueSupplier = Objects.requireNonNull(valueSupplier, "valueSupplier");
@@ -34,13 +36,13 @@ public final class PurseTracker implements AutoCloseable {
         this.readInitial();
     }
 
-    public void start() {
+    public void start(ScoreboardMirror scoreboard) {
         this.requireInitialized();
 
-        if (this.taskHandle == null) {
-            this.taskHandle = ClientTickDispatcher.onEachTick(_ -> {
-                if (++this.ticks >= POLL_TICKS) {
-                    this.ticks = 0;
+        this.closed = false;
+        if (this.unregister == null) {
+            this.unregister = scoreboard.registerOnPurseChange(() -> {
+                if (!this.closed) {
                     this.poll();
                 }
             });
@@ -84,11 +86,11 @@ public final class PurseTracker implements AutoCloseable {
 
     @Override
     public void close() {
-        if (this.taskHandle != null) {
-            this.taskHandle.close();
+        this.closed = true;
+        if (this.unregister != null) {
+            this.unregister.run();
+            this.unregister = null;
         }
-
-        this.taskHandle = null;
     }
 
     private void readInitial() {
@@ -43,7 +43,7 @@ public final class UtcDayTracker implements AutoCloseable {
 
         if (this.taskHandle == null) {
             this.taskHandle = ClientTickDispatcher.scheduleEvery(
-                POLL_TICKS, _ -> this.poll());
+                "tracker.utc-day", POLL_TICKS, ClientTickDispatcher.Priority.LOW, _ -> this.poll());
         }
     }
 
@@ -6,9 +6,11 @@ import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderManager;
 import com.github.lutzluca.btrbz.core.widgets.WidgetMath;
 import com.github.lutzluca.btrbz.core.widgets.cache.CacheDependencies;
 import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
+import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
 import com.github.lutzluca.btrbz.core.widgets.cache.WidgetDataSource;
 import com.github.lutzluca.btrbz.core.widgets.session.WidgetSession;
 import com.github.lutzluca.btrbz.data.BazaarData;
+import com.github.lutzluca.btrbz.data.MarketDelta;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderStatus;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
 import com.github.lutzluca.btrbz.data.OrderModels.TrackedOrder;
@@ -40,6 +42,7 @@ public final class OrdersWidgetData implements WidgetDataSource<BazaarWidgetView
     private final TrackedOrderManager trackedOrders;
     private final @Nullable OrderTooltipProvider tooltipProvider;
     private final CacheDependencies dependencies;
+    private final CacheToken trackedMarketChanges = CacheToken.named("orders.tracked-market");
 
     public OrdersWidgetData(
         BazaarData market,
@@ -62,8 +65,11 @@ public final class OrdersWidgetData implements WidgetDataSource<BazaarWidgetView
         this.trackedOrders = trackedOrders;
         this.tooltipProvider = tooltipProvider;
 
+        // Orders span several products, so only market changes of the tracked products invalidate them.
+        market.addDeltaListener(this::onMarketDelta);
+
         var baseDependencies = CacheDependencies.of(
-            trackedOrders.dataChanges(), market.marketChanges(), market.indexChanges(),
+            trackedOrders.dataChanges(), this.trackedMarketChanges, market.indexChanges(),
             screenTransitions, inventoryChanges);
         this.dependencies = tooltipProvider == null
             ? baseDependencies
@@ -85,6 +91,20 @@ public final class OrdersWidgetData implements WidgetDataSource<BazaarWidgetView
         return this.computeSnapshot();
     }
 
+    CacheToken trackedMarketChanges() {
+        return this.trackedMarketChanges;
+    }
+
+    private void onMarketDelta(MarketDelta delta) {
+        for (var order : this.trackedOrders.getTrackedOrders()) {
+            if (delta.changed(order.product)) {
+                this.trackedMarketChanges.invalidate(InvalidationReason.of(
+                    "market data of tracked product " + order.product.visualName() + " changed"));
+                return;
+            }
+        }
+    }
+
     BazaarWidgetViewData.OrdersData computeSnapshot() {
         var snapshots = this.trackedOrders.currentOrders();
 
@@ -171,7 +191,8 @@ public final class OrdersWidgetData implements WidgetDataSource<BazaarWidgetView
         return Optional.of(new BazaarWidgetViewData.MarketInfo(
             best.map(OptionalDouble::of).orElseGet(OptionalDouble::empty),
             best.map(value -> OptionalDouble.of(Math.abs(value - unitPrice))).orElseGet(OptionalDouble::empty),
-            queue.map(value -> OptionalInt.of(value.ordersAhead)).orElseGet(OptionalInt::empty),
+            queue.map(value -> OptionalInt.of((int) Math.min(value.ordersAhead, Integer.MAX_VALUE)))
+                .orElseGet(OptionalInt::empty),
             queue.map(value -> OptionalLong.of(value.itemsAhead)).orElseGet(OptionalLong::empty)));
     }
 
@@ -63,15 +63,15 @@ public final class OrderBookPriceComponent {
             var levels = new ArrayList<PriceLevel>();
             double cumulative = 0;
 
-            var summaries = workflow.side() == OrderType.Buy ? lists.buyOrders() : lists.sellOffers();
+            var side = workflow.side() == OrderType.Buy ? lists.buyOrders() : lists.sellOffers();
 
-            for (var summary : summaries) {
-                cumulative += summary.getAmount();
+            for (int level = 0; level < side.size(); level++) {
+                cumulative += side.amount(level);
 
                 levels.add(new PriceLevel(
-                    summary.getPricePerUnit(),
-                    summary.getAmount(),
-                    (int) summary.getOrders(),
+                    side.price(level),
+                    side.amount(level),
+                    (int) side.orders(level),
                     cumulative));
             }
 
@@ -5,6 +5,7 @@ import com.github.lutzluca.btrbz.core.widgets.cache.CacheDependencies;
 import com.github.lutzluca.btrbz.core.widgets.cache.WidgetDataSource;
 import com.github.lutzluca.btrbz.core.widgets.session.WidgetSession;
 import com.github.lutzluca.btrbz.data.BazaarData;
+import com.github.lutzluca.btrbz.data.MarketSnapshot.BookSide;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
 import com.github.lutzluca.btrbz.data.ProductIdentity;
 import java.util.ArrayList;
@@ -20,7 +21,8 @@ public final class OrderBookWidgetData implements WidgetDataSource<OrderBookWidg
 
     public OrderBookWidgetData(BazaarData market) {
         this.market = market;
-        this.dependencies = CacheDependencies.of(market.marketChanges(), market.indexChanges());
+        this.dependencies = CacheDependencies.ofProduct(market::productChanges, market.marketChanges())
+            .and(CacheDependencies.ofProduct(market::productIndexChanges, market.indexChanges()));
     }
 
     @Override
@@ -51,15 +53,20 @@ public final class OrderBookWidgetData implements WidgetDataSource<OrderBookWidg
         return new Snapshot(
             name,
             itemStack,
-            lists.buyOrders().stream().map(summary -> new Entry(
-                BazaarWidgetViewData.OrderSide.Buy, summary.getPricePerUnit(),
-                (int) summary.getAmount(), (int) summary.getOrders())).toList(),
-            lists.sellOffers().stream().map(summary -> new Entry(
-                BazaarWidgetViewData.OrderSide.Sell, summary.getPricePerUnit(),
-                (int) summary.getAmount(), (int) summary.getOrders())).toList(),
+            entries(BazaarWidgetViewData.OrderSide.Buy, lists.buyOrders()),
+            entries(BazaarWidgetViewData.OrderSide.Sell, lists.sellOffers()),
             appropriateSide);
     }
 
+    private static List<Entry> entries(BazaarWidgetViewData.OrderSide side, BookSide levels) {
+        var entries = new ArrayList<Entry>(levels.size());
+        for (int level = 0; level < levels.size(); level++) {
+            entries.add(new Entry(
+                side, levels.price(level), (int) levels.amount(level), (int) levels.orders(level)));
+        }
+        return entries;
+    }
+
     public static Snapshot preview() {
         return new Snapshot(
             "Booster Cookie", Optional.of(new ItemStack(Items.COOKIE)),
@@ -22,8 +22,10 @@ public final class PriceDifferenceWidgetData implements WidgetDataSource<PriceDi
         this.market = market;
         var screens = ScreenInfoHelper.get();
 
-        this.dependencies = CacheDependencies.of(
-            screens.inventoryChanges(), market.marketChanges(), market.indexChanges());
+        // The product comes from the menu's product slot, which is the session's product on the product screen.
+        // Resolving that stack reads the whole index, so only the market side is bound to the product.
+        this.dependencies = CacheDependencies.of(screens.inventoryChanges(), market.indexChanges())
+            .and(CacheDependencies.ofProduct(market::productChanges, market.marketChanges()));
     }
 
     @Override
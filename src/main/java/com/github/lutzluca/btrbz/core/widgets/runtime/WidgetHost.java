@@ -47,11 +47,18 @@ public final class WidgetHost {
     private final @Nullable WidgetSessionProvider sessionProvider;
     private final @Nullable Map<WidgetId, WidgetPreview<?>> capturedPreviews;
     private final @Nullable Map<WidgetId, Double> scrollOffsets;
+    private final WidgetRenderProfiler profiler;
 
     private final Map<WidgetId, MountedWidget> mounted = new LinkedHashMap<>();
 
     private final Set<Integer> capturedMouseButtons = new HashSet<>();
 
+    // Per-frame scratch, cleared at the start of every render so steady frames do not allocate them.
+    private final Set<WidgetId> attached = new HashSet<>();
+    private final List<WidgetSlotComponent> orderedSlots = new ArrayList<>();
+    private final List<WidgetRenderResult> results = new ArrayList<>();
+    private final List<RuntimeWidgetHit> hits = new ArrayList<>();
+
     private OwoUIAdapter<WidgetCanvasComponent> adapter;
     private List<RuntimeWidgetHit> runtimeWidgetHits = List.of();
     private @Nullable RuntimePlacementDrag runtimePlacementDrag;
@@ -63,7 +70,8 @@ public final class WidgetHost {
         boolean runtimePlacementDragging,
         @Nullable WidgetSessionProvider sessionProvider,
         @Nullable Map<WidgetId, WidgetPreview<?>> capturedPreviews,
-        @Nullable Map<WidgetId, Double> scrollOffsets
+        @Nullable Map<WidgetId, Double> scrollOffsets,
+        WidgetRenderProfiler profiler
     ) {
         this.definitions = List.copyOf(definitions);
         this.stateStore = stateStore;
@@ -73,6 +81,7 @@ public final class WidgetHost {
         this.sessionProvider = sessionProvider;
         this.capturedPreviews = capturedPreviews == null ? null : Map.copyOf(capturedPreviews);
         this.scrollOffsets = scrollOffsets;
+        this.profiler = profiler;
     }
 
     public static WidgetHost runtime(
@@ -80,17 +89,18 @@ public final class WidgetHost {
         WidgetStateStore stateStore,
         WidgetSessionProvider sessionProvider,
         Map<WidgetId, Double> scrollOffsets,
-        boolean placementDragging
+        boolean placementDragging,
+        WidgetRenderProfiler profiler
     ) {
         return new WidgetHost(
-            definitions, stateStore, true, placementDragging, sessionProvider, null, scrollOffsets);
+            definitions, stateStore, true, placementDragging, sessionProvider, null, scrollOffsets, profiler);
     }
 
     public static WidgetHost preview(
         List<WidgetDefinition<?, ?, ?>> definitions,
         WidgetStateStore stateStore
     ) {
-        return new WidgetHost(definitions, stateStore, false, false, null, null, null);
+        return new WidgetHost(definitions, stateStore, false, false, null, null, null, WidgetRenderProfiler.OFF);
     }
 
     public static WidgetHost preview(
@@ -98,7 +108,8 @@ public final class WidgetHost {
         WidgetStateStore stateStore,
         Map<WidgetId, WidgetPreview<?>> capturedPreviews
     ) {
-        return new WidgetHost(definitions, stateStore, false, false, null, capturedPreviews, null);
+        return new WidgetHost(
+            definitions, stateStore, false, false, null, capturedPreviews, null, WidgetRenderProfiler.OFF);
     }
 
     public List<WidgetRenderResult> render(
@@ -111,13 +122,18 @@ public final class WidgetHost {
         @Nullable Screen screen
     ) {
         this.ensureAdapter();
+        this.profiler.beginFrame();
 
         WidgetSession runtimeSession = this.runtime ? this.currentSession(screen) : null;
 
-        var attached = new HashSet<WidgetId>();
-        var orderedSlots = new ArrayList<WidgetSlotComponent>();
-        var results = new ArrayList<WidgetRenderResult>();
-        var hits = new ArrayList<RuntimeWidgetHit>();
+        var attached = this.attached;
+        var orderedSlots = this.orderedSlots;
+        var results = this.results;
+        var hits = this.hits;
+        attached.clear();
+        orderedSlots.clear();
+        results.clear();
+        hits.clear();
 
         for (var definition : this.definitions) {
             boolean requested = options.shouldRender(definition.getId(), definition.frame().enabled);
@@ -126,7 +142,9 @@ public final class WidgetHost {
                 continue;
             }
 
+            this.profiler.begin(definition.getId(), WidgetRenderProfiler.Phase.PREPARE);
             var prepared = this.prepare(definition, canvas, options, runtimeSession);
+            this.profiler.end();
 
             if (prepared == null) {
                 continue;
@@ -148,6 +166,7 @@ public final class WidgetHost {
         this.runtimeWidgetHits = List.copyOf(hits);
 
         this.adapter.rootComponent.synchronizeSlots(orderedSlots);
+        this.adapter.rootComponent.slotDrawProbe(this.profiler.drawProbe());
         this.adapter.moveAndResize(canvas.x(), canvas.y(), canvas.width(), canvas.height());
         this.adapter.extractRenderState(graphics, mouseX, mouseY, partialTicks);
 
@@ -155,6 +174,7 @@ public final class WidgetHost {
             this.adapter.drawTooltip(graphics, mouseX, mouseY, partialTicks);
         }
 
+        this.profiler.endFrame();
         return List.copyOf(results);
     }
 
@@ -163,6 +183,10 @@ public final class WidgetHost {
         this.capturedMouseButtons.clear();
         this.runtimeWidgetHits = List.of();
         this.runtimePlacementDrag = null;
+        this.attached.clear();
+        this.orderedSlots.clear();
+        this.results.clear();
+        this.hits.clear();
 
         var current = this.adapter;
         this.adapter = null;
@@ -188,6 +212,8 @@ public final class WidgetHost {
             return false;
         }
 
+        this.discardRecordings();
+
         if (this.canBeginRuntimePlacementDrag(click)) {
             var hit = this.runtimeHitAt(click.x(), click.y());
 
@@ -216,6 +242,8 @@ public final class WidgetHost {
     }
 
     public boolean mouseReleased(MouseButtonEvent click) {
+        this.discardRecordings();
+
         if (this.runtimePlacementDrag != null && this.runtimePlacementDrag.button() == click.button()) {
             this.updateRuntimePlacement(click.x(), click.y());
             this.runtimePlacementDrag = null;
@@ -230,6 +258,8 @@ public final class WidgetHost {
     }
 
     public boolean mouseDragged(MouseButtonEvent click, double deltaX, double deltaY) {
+        this.discardRecordings();
+
         if (this.runtimePlacementDrag != null && this.runtimePlacementDrag.button() == click.button()) {
             this.updateRuntimePlacement(click.x(), click.y());
             return true;
@@ -241,13 +271,22 @@ public final class WidgetHost {
     }
 
     public boolean mouseScrolled(double mouseX, double mouseY, double horizontalAmount, double verticalAmount) {
+        this.discardRecordings();
         return this.adapter != null && this.adapter.mouseScrolled(mouseX, mouseY, horizontalAmount, verticalAmount);
     }
 
     public boolean keyPressed(KeyEvent input) {
+        this.discardRecordings();
         return this.adapter != null && this.adapter.keyPressed(input);
     }
 
+    // Input can change what a widget draws without a new preparation, so recorded draws are not replayed past it.
+    private void discardRecordings() {
+        if (this.adapter != null) {
+            this.adapter.rootComponent.discardRecordings();
+        }
+    }
+
     private void ensureAdapter() {
         if (this.adapter == null) {
             this.adapter = OwoUIAdapter.createWithoutScreen(0, 0, 1, 1, WidgetCanvasComponent::new);
@@ -275,16 +314,16 @@ public final class WidgetHost {
 
             var cached = mountedWidget.preparedCache;
             boolean preparedCaching = this.runtime && definition.isPreparedCacheEnabled();
+            var dependencies = mountedWidget.dependencies.forSession(session);
 
             if (preparedCaching && cached != null
-                && cached.stamp().matches(
-                    session, screenCanvas, options, profile, mountedWidget.dependencies)) {
+                && cached.stamp().matches(session, screenCanvas, options, profile, dependencies)) {
                 mountedWidget.hits++;
                 return cached.prepared();
             }
 
             if (preparedCaching) {
-                mountedWidget.recordMiss(cached, session, screenCanvas, options, profile);
+                mountedWidget.recordMiss(cached, session, screenCanvas, options, profile, dependencies);
             }
 
             Object data = this.runtime ? definition.getDataSource().snapshot(session) : preview.data();
@@ -320,6 +359,7 @@ public final class WidgetHost {
                 requestedScale, minimumScale, anchorCanvas.width(), anchorCanvas.height(),
                 definition.getMinWidth(), definition.getMinHeight());
 
+            this.profiler.enter(WidgetRenderProfiler.Phase.LAYOUT);
             var component = mountedWidget.component();
 
             component.inflate(Size.of(
@@ -385,7 +425,7 @@ public final class WidgetHost {
         long generation,
         PreparedWidget prepared
     ) {
-        long[] revisions = CacheRevisions.capture(mountedWidget.dependencies);
+        long[] revisions = CacheRevisions.capture(mountedWidget.dependencies.forSession(session));
 
         mountedWidget.generation = generation;
         mountedWidget.preparedSessionId = session.id();
@@ -400,6 +440,10 @@ public final class WidgetHost {
                     placementProfile, revisions),
                 prepared)
             : null;
+
+        // Cache hits reuse the stamp instance, so the slot replays its recorded draw until the next preparation.
+        mountedWidget.slot.recordingKey(
+            mountedWidget.preparedCache == null ? null : mountedWidget.preparedCache.stamp());
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -431,16 +475,16 @@ public final class WidgetHost {
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     private void dispatch(MountedWidget mountedWidget, long generation, Object action) {
-        if (generation != mountedWidget.generation
-            || !CacheRevisions.match(
-                mountedWidget.preparedDependencyRevisions, mountedWidget.dependencies)) {
+        if (generation != mountedWidget.generation) {
             return;
         }
 
         var current = this.currentSession(GameUtils.screen());
 
         if (mountedWidget.preparedSessionId != current.id()
-            || mountedWidget.preparedSessionContextRevision != current.contextRevision()) {
+            || mountedWidget.preparedSessionContextRevision != current.contextRevision()
+            || !CacheRevisions.match(
+                mountedWidget.preparedDependencyRevisions, mountedWidget.dependencies.forSession(current))) {
             return;
         }
 
@@ -572,7 +616,8 @@ public final class WidgetHost {
             WidgetSession session,
             WidgetCanvas canvas,
             WidgetHostOptions options,
-            String profile
+            String profile,
+            CacheDependencies dependencies
         ) {
             this.misses++;
 
@@ -582,12 +627,12 @@ public final class WidgetHost {
                 return;
             }
 
-            this.lastMissCauses = cached.stamp().missCauses(
-                session, canvas, options, profile, this.dependencies);
+            this.lastMissCauses = cached.stamp().missCauses(session, canvas, options, profile, dependencies);
         }
 
         private void clearPreparation() {
             this.preparedCache = null;
+            this.slot.recordingKey(null);
             this.preparedDependencyRevisions = new long[0];
             this.preparedSessionId = Long.MIN_VALUE;
             this.preparedSessionContextRevision = Long.MIN_VALUE;
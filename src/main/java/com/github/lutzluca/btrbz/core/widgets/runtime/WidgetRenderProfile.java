@@ -0,0 +1,100 @@
+package com.github.lutzluca.btrbz.core.widgets.runtime;
+
+import com.github.lutzluca.btrbz.core.widgets.WidgetId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/** Immutable copy of the {@link WidgetRenderProfiler} counters since the last reset. */
+public record WidgetRenderProfile(
+    boolean recording,
+    boolean allocationSampled,
+    Timing frames,
+    Map<WidgetId, WidgetTimings> widgets
+) {
+    public WidgetRenderProfile {
+        widgets = Map.copyOf(widgets);
+    }
+
+    public boolean isEmpty() {
+        return this.frames.samples() == 0;
+    }
+
+    /** Widgets ordered by their mean cost per frame, most expensive first. */
+    public List<Map.Entry<WidgetId, WidgetTimings>> ranked() {
+        var ranked = new ArrayList<>(this.widgets.entrySet());
+        ranked.sort(Comparator
+            .<Map.Entry<WidgetId, WidgetTimings>>comparingLong(entry -> entry.getValue().meanNanos())
+            .reversed()
+            .thenComparing(entry -> entry.getKey().toString()));
+        return ranked;
+    }
+
+    /** Plain-text report used by the chat summary and the dump file. */
+    public List<String> lines() {
+        var lines = new ArrayList<String>();
+        lines.add("frames=" + this.frames.samples()
+            + " mean=" + millis(this.frames.meanNanos())
+            + " max=" + millis(this.frames.maxNanos())
+            + " alloc/frame=" + this.bytes(this.frames.meanBytes())
+            + " max alloc/frame=" + this.bytes(this.frames.maxBytes()));
+
+        for (var entry : this.ranked()) {
+            var timings = entry.getValue();
+            lines.add(entry.getKey()
+                + " prepare=" + describe(timings.prepare())
+                + " layout=" + describe(timings.layout())
+                + " draw=" + describe(timings.draw())
+                + " alloc/frame=" + this.bytes(timings.meanBytes()));
+        }
+
+        return lines;
+    }
+
+    private static String describe(Timing timing) {
+        return timing.samples() == 0
+            ? "-"
+            : millis(timing.meanNanos()) + " (max " + millis(timing.maxNanos()) + ")";
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+
+    private String bytes(long bytes) {
+        if (!this.allocationSampled) {
+            return "n/a";
+        }
+
+        return bytes < 1024
+            ? bytes + "B"
+            : String.format(Locale.ROOT, "%.1fKiB", bytes / 1024.0);
+    }
+
+    /** Samples, summed and worst-case nanoseconds and allocated bytes of one measured section. */
+    public record Timing(long samples, long totalNanos, long maxNanos, long totalBytes, long maxBytes) {
+        public static final Timing NONE = new Timing(0, 0, 0, 0, 0);
+
+        public long meanNanos() {
+            return this.samples == 0 ? 0 : this.totalNanos / this.samples;
+        }
+
+        public long meanBytes() {
+            return this.samples == 0 ? 0 : this.totalBytes / this.samples;
+        }
+    }
+
+    /** Per-phase timings of one widget. A widget is sampled once per phase per host frame it takes part in. */
+    public record WidgetTimings(Timing prepare, Timing layout, Timing draw) {
+
+        public long meanNanos() {
+            return this.prepare.meanNanos() + this.layout.meanNanos() + this.draw.meanNanos();
+        }
+
+        public long meanBytes() {
+            return this.prepare.meanBytes() + this.layout.meanBytes() + this.draw.meanBytes();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.lutzluca.btrbz.core.widgets.runtime;
+
+import com.github.lutzluca.btrbz.core.widgets.WidgetId;
+import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetRenderProfile.Timing;
+import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetRenderProfile.WidgetTimings;
+import com.github.lutzluca.btrbz.core.widgets.ui.WidgetCanvasComponent;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in instrumentation of the runtime widget hosts. While recording it measures the prepare, layout and draw
+ * nanoseconds of every widget and the bytes the render thread allocates per host frame, read from the HotSpot
+ * thread allocation counter. Every hook is a single branch while recording is off.
+ * Confined to the render thread; {@link #snapshot()} copies the counters for reporting.
+ */
+@Slf4j
+public final class WidgetRenderProfiler {
+    /** Shared by preview hosts, which are never profiled. */
+    static final WidgetRenderProfiler OFF = new WidgetRenderProfiler();
+
+    private static final long UNSET = Long.MIN_VALUE;
+    private static final long NO_ALLOCATION_COUNTER = -1;
+
+    public enum Phase {
+        PREPARE,
+        LAYOUT,
+        DRAW
+    }
+
+    private final LongSupplier clock;
+    private final LongSupplier allocatedBytes;
+    private final boolean allocationSampled;
+
+    private final Map<WidgetId, Counter[]> widgets = new LinkedHashMap<>();
+    private final Counter frames = new Counter();
+    private final WidgetCanvasComponent.SlotDrawProbe drawProbe = new WidgetCanvasComponent.SlotDrawProbe() {
+        @Override
+        public void beforeSlot(WidgetId id) {
+            WidgetRenderProfiler.this.begin(id, Phase.DRAW);
+        }
+
+        @Override
+        public void afterSlot() {
+            WidgetRenderProfiler.this.end();
+        }
+    };
+
+    private boolean recording;
+
+    private long frameStartNanos = UNSET;
+    private long frameStartBytes;
+
+    private Counter @Nullable [] current;
+    private Phase currentPhase = Phase.PREPARE;
+    private long phaseStartNanos;
+    private long phaseStartBytes;
+
+    public WidgetRenderProfiler() {
+        this(System::nanoTime, threadAllocationCounter());
+    }
+
+    WidgetRenderProfiler(LongSupplier clock, @Nullable LongSupplier allocatedBytes) {
+        this.clock = clock;
+        this.allocationSampled = allocatedBytes != null;
+        this.allocatedBytes = allocatedBytes != null ? allocatedBytes : () -> NO_ALLOCATION_COUNTER;
+    }
+
+    public boolean recording() {
+        return this.recording;
+    }
+
+    public void setRecording(boolean recording) {
+        if (this == OFF) {
+            throw new IllegalStateException("Preview hosts cannot be profiled");
+        }
+
+        this.recording = recording;
+        this.frameStartNanos = UNSET;
+        this.current = null;
+    }
+
+    public void reset() {
+        this.widgets.clear();
+        this.frames.clear();
+        this.frameStartNanos = UNSET;
+        this.current = null;
+    }
+
+    public WidgetRenderProfile snapshot() {
+        var timings = new LinkedHashMap<WidgetId, WidgetTimings>();
+        this.widgets.forEach((id, counters) -> timings.put(id, new WidgetTimings(
+            counters[Phase.PREPARE.ordinal()].timing(),
+            counters[Phase.LAYOUT.ordinal()].timing(),
+            counters[Phase.DRAW.ordinal()].timing())));
+        return new WidgetRenderProfile(this.recording, this.allocationSampled, this.frames.timing(), timings);
+    }
+
+    void beginFrame() {
+        if (!this.recording) {
+            return;
+        }
+
+        this.frameStartNanos = this.clock.getAsLong();
+        this.frameStartBytes = this.allocatedBytes.getAsLong();
+    }
+
+    void endFrame() {
+        this.end();
+
+        if (!this.recording || this.frameStartNanos == UNSET) {
+            return;
+        }
+
+        this.frames.add(
+            this.clock.getAsLong() - this.frameStartNanos,
+            this.allocatedBytes.getAsLong() - this.frameStartBytes);
+        this.frameStartNanos = UNSET;
+    }
+
+    /** Starts measuring {@code phase} of widget {@code id}, closing any section still open. */
+    void begin(WidgetId id, Phase phase) {
+        if (!this.recording) {
+            return;
+        }
+
+        this.end();
+        this.current = this.widgets.computeIfAbsent(id, _ -> Counter.perPhase());
+        this.open(phase);
+    }
+
+    /** Closes the current phase of the measured widget and continues with {@code phase}. */
+    void enter(Phase phase) {
+        if (this.current == null) {
+            return;
+        }
+
+        this.close();
+        this.open(phase);
+    }
+
+    void end() {
+        if (this.current == null) {
+            return;
+        }
+
+        this.close();
+        this.current = null;
+    }
+
+    /** Probe for the canvas while recording, {@code null} otherwise so slots draw in one pass. */
+    @Nullable WidgetCanvasComponent.SlotDrawProbe drawProbe() {
+        return this.recording ? this.drawProbe : null;
+    }
+
+    private void open(Phase phase) {
+        this.currentPhase = phase;
+        this.phaseStartNanos = this.clock.getAsLong();
+        this.phaseStartBytes = this.allocatedBytes.getAsLong();
+    }
+
+    private void close() {
+        this.current[this.currentPhase.ordinal()].add(
+            this.clock.getAsLong() - this.phaseStartNanos,
+            this.allocatedBytes.getAsLong() - this.phaseStartBytes);
+    }
+
+    private static @Nullable LongSupplier threadAllocationCounter() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+                if (!threads.isThreadAllocatedMemoryEnabled()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                }
+                return threads::getCurrentThreadAllocatedBytes;
+            }
+        } catch (RuntimeException exception) {
+            log.debug("Thread allocation counter unavailable", exception);
+        }
+
+        return null;
+    }
+
+    private static final class Counter {
+        private long samples;
+        private long totalNanos;
+        private long maxNanos;
+        private long totalBytes;
+        private long maxBytes;
+
+        private static Counter[] perPhase() {
+            var counters = new Counter[Phase.values().length];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new Counter();
+            }
+            return counters;
+        }
+
+        private void add(long nanos, long bytes) {
+            this.samples++;
+            this.totalNanos += nanos;
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+            this.totalBytes += Math.max(0, bytes);
+            this.maxBytes = Math.max(this.maxBytes, bytes);
+        }
+
+        private void clear() {
+            this.samples = 0;
+            this.totalNanos = 0;
+            this.maxNanos = 0;
+            this.totalBytes = 0;
+            this.maxBytes = 0;
+        }
+
+        private Timing timing() {
+            return this.samples == 0
+                ? Timing.NONE
+                : new Timing(this.samples, this.totalNanos, this.maxNanos, this.totalBytes, this.maxBytes);
+        }
+    }
+}
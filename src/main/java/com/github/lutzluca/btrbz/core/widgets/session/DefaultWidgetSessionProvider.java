@@ -30,6 +30,7 @@ public final class DefaultWidgetSessionProvider implements WidgetSessionProvider
     private @Nullable Screen cachedScreen;
     private long cachedTransitionRevision = Long.MIN_VALUE;
     private long cachedInventoryRevision = Long.MIN_VALUE;
+    private @Nullable CacheToken cachedIndexChanges;
     private long cachedIndexRevision = Long.MIN_VALUE;
     private long cachedProductRevision = Long.MIN_VALUE;
 
@@ -51,10 +52,11 @@ public final class DefaultWidgetSessionProvider implements WidgetSessionProvider
         var helper = ScreenInfoHelper.get();
         long transitionRevision = helper.screenTransitions().revision();
         long inventoryRevision = helper.inventoryChanges().revision();
-        long indexRevision = this.market.indexChanges().revision();
         long productRevision = this.productInfoProvider.changes().revision();
 
         var cached = this.cachedSession;
+        var indexChanges = this.cachedIndexChanges;
+        long indexRevision = indexChanges == null ? Long.MIN_VALUE : indexChanges.revision();
 
         if (cached != null
             && this.cachedScreen == screen
@@ -111,7 +113,8 @@ public final class DefaultWidgetSessionProvider implements WidgetSessionProvider
         this.cachedScreen = screen;
         this.cachedTransitionRevision = transitionRevision;
         this.cachedInventoryRevision = inventoryRevision;
-        this.cachedIndexRevision = indexRevision;
+        this.cachedIndexChanges = this.indexChanges(session);
+        this.cachedIndexRevision = this.cachedIndexChanges.revision();
         this.cachedProductRevision = productRevision;
         this.cachedSession = session;
 
@@ -122,6 +125,14 @@ public final class DefaultWidgetSessionProvider implements WidgetSessionProvider
         return this.contextChanges;
     }
 
+    // A session only reads the index entry of its product, so other products' entries do not rebuild it.
+    private CacheToken indexChanges(WidgetSession session) {
+        return session.product()
+            .flatMap(product -> product.identity().bazaarProductId())
+            .map(this.market::productIndexChanges)
+            .orElseGet(this.market::indexChanges);
+    }
+
     private WidgetProductContext context(ProductIdentity identity, Optional<ItemStack> observedStack) {
         return this.context(identity, Component.literal(identity.visualName()), observedStack);
     }
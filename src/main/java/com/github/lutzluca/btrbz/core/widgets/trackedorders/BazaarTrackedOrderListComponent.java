@@ -12,7 +12,9 @@ import java.util.function.Function;
 import net.minecraft.network.chat.Component;
 import org.jetbrains.annotations.Nullable;
 
-/** Retained tracked-order rows and hover behavior over shared reorder mechanics. */
+/**
+ * Retained tracked-order rows and hover behavior over shared reorder mechanics. Row tooltips are built on first hover.
+ */
 final class BazaarTrackedOrderListComponent extends ReorderableScrollListComponent<TrackedOrderId> {
     private boolean interactive;
     private @Nullable TrackedOrderId hoveredId;
@@ -42,9 +44,9 @@ final class BazaarTrackedOrderListComponent extends ReorderableScrollListCompone
             orders,
             BazaarWidgetViewData.Order::id,
             (order, index) -> new BazaarTrackedOrderRowComponent(
-                this, order, options, tooltipProvider.apply(order), index, interactive, actions),
-            (row, order, index) -> row.update(
-                order, options, tooltipProvider.apply(order), index, interactive, actions),
+                this, order, options, tooltipProvider, index, interactive, actions),
+            (row, order, index) -> row.update(order, options, tooltipProvider, index, interactive, actions),
+            rowHeight(options),
             viewportHeight(options, orders.size()),
             interactive,
             options.sort == TrackedOrdersWidgetConfig.TrackedSort.Manual);
@@ -66,7 +68,7 @@ final class BazaarTrackedOrderListComponent extends ReorderableScrollListCompone
 
         this.hoveredId = null;
 
-        for (var component : this.rows()) {
+        for (var component : this.scrollList().visibleRows()) {
             var row = (BazaarTrackedOrderRowComponent) component;
 
             if (row.isInBoundingBox(mouseX, mouseY)) {
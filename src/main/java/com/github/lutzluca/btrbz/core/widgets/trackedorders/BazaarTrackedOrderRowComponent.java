@@ -25,6 +25,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.github.lutzluca.btrbz.core.widgets.ui.BazaarUi.ellipsize;
 
@@ -49,6 +50,8 @@ final class BazaarTrackedOrderRowComponent extends BaseParentUIComponent {
     private boolean reorderable;
     private boolean interactive;
     private Consumer<TrackedOrdersAction> actions;
+    private Function<BazaarWidgetViewData.Order, List<Component>> tooltipProvider;
+    private boolean tooltipStale = true;
 
     private @Nullable BazaarWidgetViewData.Order lastOrder;
     private @Nullable TrackedOrdersWidgetConfig.Snapshot lastOptions;
@@ -71,7 +74,7 @@ final class BazaarTrackedOrderRowComponent extends BaseParentUIComponent {
         BazaarTrackedOrderListComponent list,
         BazaarWidgetViewData.Order order,
         TrackedOrdersWidgetConfig options,
-        List<Component> tooltip,
+        Function<BazaarWidgetViewData.Order, List<Component>> tooltipProvider,
         int index,
         boolean interactive,
         Consumer<TrackedOrdersAction> actions
@@ -82,18 +85,19 @@ final class BazaarTrackedOrderRowComponent extends BaseParentUIComponent {
 
         this.allowOverflow(true);
 
-        this.update(order, options, tooltip, index, interactive, actions);
+        this.update(order, options, tooltipProvider, index, interactive, actions);
     }
 
     void update(
         BazaarWidgetViewData.Order order,
         TrackedOrdersWidgetConfig options,
-        List<Component> tooltip,
+        Function<BazaarWidgetViewData.Order, List<Component>> tooltipProvider,
         int index,
         boolean interactive,
         Consumer<TrackedOrdersAction> actions
     ) {
         this.actions = actions;
+        this.tooltipProvider = tooltipProvider;
         this.order = order;
         this.options = options;
 
@@ -130,7 +134,7 @@ final class BazaarTrackedOrderRowComponent extends BaseParentUIComponent {
                 options.layout == TrackedOrdersWidgetConfig.TrackedLayout.Compact ? COMPACT_HEIGHT : STANDARD_HEIGHT));
         }
 
-        this.tooltip(interactive ? WidgetTooltips.wrapped(tooltip) : List.of());
+        this.tooltipStale = true;
         this.updateLayout();
 
         this.initialized = true;
@@ -214,9 +218,17 @@ final class BazaarTrackedOrderRowComponent extends BaseParentUIComponent {
 
     @Override
     public boolean shouldDrawTooltip(double mouseX, double mouseY) {
-        return this.interactive
-            && this.list.isHovered(this.order.id())
-            && super.shouldDrawTooltip(mouseX, mouseY);
+        if (!this.interactive || !this.list.isHovered(this.order.id())) {
+            return false;
+        }
+
+        // Built on first hover since the order last changed; most rows are never hovered.
+        if (this.tooltipStale) {
+            this.tooltip(WidgetTooltips.wrapped(this.tooltipProvider.apply(this.order)));
+            this.tooltipStale = false;
+        }
+
+        return super.shouldDrawTooltip(mouseX, mouseY);
     }
 
     @Override
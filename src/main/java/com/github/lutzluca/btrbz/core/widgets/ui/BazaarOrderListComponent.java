@@ -10,7 +10,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-/** A retained keyed list for ordinary Bazaar rows. */
+/** A retained keyed list for ordinary Bazaar rows; only the rows in view are mounted. */
 public final class BazaarOrderListComponent extends BaseParentUIComponent {
     private final WidgetScrollListComponent scrollList;
 
@@ -54,7 +54,7 @@ public final class BazaarOrderListComponent extends BaseParentUIComponent {
             this.verticalSizing(Sizing.fixed(normalizedHeight));
         }
 
-        this.scrollList.updateRows(this.rows, height, hoverable);
+        this.scrollList.updateRows(this.rows, rowHeight, height, hoverable);
     }
 
     @Override
@@ -80,8 +80,8 @@ public final class BazaarOrderListComponent extends BaseParentUIComponent {
         boolean suppressRowHover = this.scrollList.scrollbarOwnsMouseCapture()
             || this.scrollList.isPointerOverScrollbar(mouseX, mouseY);
 
-        for (var row : this.rows) {
-            row.suppressHover(suppressRowHover);
+        for (var row : this.scrollList.visibleRows()) {
+            ((BazaarOrderRowComponent) row).suppressHover(suppressRowHover);
         }
 
         this.drawChildren(graphics, mouseX, mouseY, partialTicks, delta, this.children);
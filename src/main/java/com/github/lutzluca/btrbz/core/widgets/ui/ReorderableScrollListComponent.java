@@ -16,7 +16,11 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import org.jetbrains.annotations.Nullable;
 
-/** Retained keyed rows plus shared scrolling, dragging, insertion, and auto-scroll mechanics. */
+/**
+ * Retained keyed rows plus shared scrolling, dragging, insertion, and auto-scroll mechanics. Rows are virtualized by
+ * {@link WidgetScrollListComponent}, so drop positions are derived from row indices, and the row being dragged stays
+ * mounted while auto-scroll moves it out of view.
+ */
 public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
     private static final int AUTO_SCROLL_THRESHOLD = 14;
     private static final double AUTO_SCROLL_STEP = 0.028;
@@ -27,7 +31,6 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
 
     private final RetainedRows<K, UIComponent> retainedRows = new RetainedRows<>();
     private final List<UIComponent> rows = new ArrayList<>();
-    private final List<UIComponent> rowView = Collections.unmodifiableList(this.rows);
 
     private final int insertionColor;
     private final int insertionOutlineColor;
@@ -77,6 +80,7 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
         Function<M, K> keyExtractor,
         BiFunction<M, Integer, C> factory,
         RowUpdater<C, M> updater,
+        int rowHeight,
         int viewportHeight,
         boolean interactive,
         boolean reorderable
@@ -109,7 +113,23 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
             this.verticalSizing(Sizing.fixed(normalizedHeight));
         }
 
-        this.scrollList.updateRows(this.rows, viewportHeight, interactive);
+        this.scrollList.updateRows(this.rows, rowHeight, viewportHeight, interactive);
+        this.scrollList.pinRow(this.trackedIndex(models, keyExtractor));
+    }
+
+    private <M> int trackedIndex(List<M> models, Function<M, K> keyExtractor) {
+        K tracked = this.draggedKey != null ? this.draggedKey : this.pendingDragKey;
+        if (tracked == null) {
+            return -1;
+        }
+
+        for (int index = 0; index < models.size(); index++) {
+            if (tracked.equals(keyExtractor.apply(models.get(index)))) {
+                return index;
+            }
+        }
+
+        return -1;
     }
 
     @Override
@@ -137,6 +157,10 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
         this.beforeChildrenDraw(mouseX, mouseY);
         this.drawChildren(graphics, mouseX, mouseY, partialTicks, delta, this.children);
         this.drawInsertionIndicator(graphics);
+
+        if (this.pendingDragKey != null || this.draggedKey != null) {
+            WidgetDrawRecorder.drawLive();
+        }
     }
 
     protected void beforeChildrenDraw(int mouseX, int mouseY) {}
@@ -145,10 +169,6 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
         return this.scrollList;
     }
 
-    protected final List<UIComponent> rows() {
-        return this.rowView;
-    }
-
     public final double scrollOffset() {
         return this.scrollList.scrollOffset();
     }
@@ -173,6 +193,7 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
         this.dropIndex = this.dragStartIndex;
         this.pendingDragMoved = false;
         this.dragMoved = false;
+        this.scrollList.pinRow(this.dragStartIndex);
 
         return true;
     }
@@ -220,6 +241,10 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
     }
 
     private void cancelDrag() {
+        if (this.pendingDragKey != null || this.draggedKey != null) {
+            this.scrollList.pinRow(-1);
+        }
+
         this.pendingDragKey = null;
         this.draggedKey = null;
         this.dragReadyAt = 0;
@@ -245,17 +270,7 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
             return;
         }
 
-        int gap = this.rows.size();
-
-        for (int index = 0; index < this.rows.size(); index++) {
-            var row = this.rows.get(index);
-            if (pointerY < row.y() + row.height() / 2) {
-                gap = index;
-                break;
-            }
-        }
-
-        this.dropIndex = gap;
+        this.dropIndex = this.scrollList.insertionGapAt(pointerY);
     }
 
     private void autoScroll(int mouseX, int mouseY) {
@@ -280,11 +295,9 @@ public class ReorderableScrollListComponent<K> extends BaseParentUIComponent {
         }
 
         int gap = WidgetMath.clamp(this.dropIndex, 0, this.rows.size());
-        int lineY = gap == 0
-            ? this.rows.getFirst().y() - 1
-            : gap == this.rows.size()
-                ? this.rows.getLast().y() + this.rows.getLast().height()
-                : this.rows.get(gap).y() - 1;
+        int lineY = gap == this.rows.size()
+            ? this.scrollList.rowTop(gap - 1) + this.scrollList.rowHeight()
+            : this.scrollList.rowTop(gap) - 1;
         int viewportTop = this.scrollList.y();
         int viewportBottom = this.scrollList.y() + this.scrollList.height() - 1;
         var visibleLineY = visibleInsertionIndicatorY(lineY, viewportTop, viewportBottom);
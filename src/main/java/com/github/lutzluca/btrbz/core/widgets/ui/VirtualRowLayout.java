@@ -0,0 +1,168 @@
+package com.github.lutzluca.btrbz.core.widgets.ui;
+
+import io.wispforest.owo.ui.base.BaseParentUIComponent;
+import io.wispforest.owo.ui.core.OwoUIGraphics;
+import io.wispforest.owo.ui.core.ParentUIComponent;
+import io.wispforest.owo.ui.core.Size;
+import io.wispforest.owo.ui.core.Sizing;
+import io.wispforest.owo.ui.core.UIComponent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A vertical list of equally tall rows whose children are only the rows around its parent's viewport, plus an
+ * optional pinned row. Only those rows are mounted, laid out, updated and drawn; the others keep their retained
+ * state until they scroll back into view. Row positions follow from the row index, so rows outside the viewport are
+ * never measured.
+ */
+final class VirtualRowLayout extends BaseParentUIComponent {
+    private static final int OVERSCAN_ROWS = 2;
+
+    private final int gap;
+    private final List<UIComponent> rows = new ArrayList<>();
+    private final List<UIComponent> window = new ArrayList<>();
+    private final List<UIComponent> windowView = Collections.unmodifiableList(this.window);
+
+    private int rowHeight = 1;
+    private int pinned = -1;
+
+    private int windowFirst;
+    private int windowLast = -1;
+    private int windowPinned = -1;
+    private @Nullable Size rowSpace;
+
+    VirtualRowLayout(int gap) {
+        super(Sizing.fill(100), Sizing.fixed(0));
+        this.gap = Math.max(0, gap);
+    }
+
+    void rows(List<? extends UIComponent> rows, int rowHeight) {
+        this.rows.clear();
+        this.rows.addAll(rows);
+        this.rowHeight = Math.max(1, rowHeight);
+        this.pinned = this.pinned < this.rows.size() ? this.pinned : -1;
+
+        this.window.clear();
+        this.windowFirst = 0;
+        this.windowLast = -1;
+        this.windowPinned = -1;
+
+        // Like RetainedFlowLayout, keep the mutation observable while detached.
+        this.dirty = true;
+        this.verticalSizing(Sizing.fixed(this.contentHeight()));
+        this.updateLayout();
+    }
+
+    int rowHeight() {
+        return this.rowHeight;
+    }
+
+    int rowCount() {
+        return this.rows.size();
+    }
+
+    /** Absolute top of the row at {@code index}, whether or not it is mounted. */
+    int rowTop(int index) {
+        return this.y + index * (this.rowHeight + this.gap);
+    }
+
+    /** The insertion gap for a pointer: the first row whose vertical center lies below it, or the row count. */
+    int gapAt(int pointerY) {
+        int offset = pointerY - this.y - this.rowHeight / 2;
+        if (offset < 0) {
+            return 0;
+        }
+
+        return Math.min(this.rows.size(), offset / (this.rowHeight + this.gap) + 1);
+    }
+
+    /** Keeps the row at {@code index} mounted wherever it is scrolled, or none for {@code -1}. */
+    void pin(int index) {
+        this.pinned = index >= 0 && index < this.rows.size() ? index : -1;
+        this.updateWindow(false);
+    }
+
+    List<UIComponent> window() {
+        return this.windowView;
+    }
+
+    @Override
+    public void layout(Size space) {
+        this.rowSpace = this.calculateChildSpace(space);
+        this.updateWindow(true);
+    }
+
+    @Override
+    public void updateY(int y) {
+        super.updateY(y);
+        this.updateWindow(false);
+    }
+
+    @Override
+    public List<UIComponent> children() {
+        return this.windowView;
+    }
+
+    @Override
+    public ParentUIComponent removeChild(UIComponent child) {
+        throw new UnsupportedOperationException("Virtual row layout owns its rows");
+    }
+
+    @Override
+    public void draw(OwoUIGraphics graphics, int mouseX, int mouseY, float partialTicks, float delta) {
+        super.draw(graphics, mouseX, mouseY, partialTicks, delta);
+        this.drawChildren(graphics, mouseX, mouseY, partialTicks, delta, this.windowView);
+    }
+
+    private void updateWindow(boolean relayout) {
+        // Until mounted there is no viewport; mounting moves the layout and places the rows.
+        var viewport = this.parent();
+        int first = 0;
+        int last = -1;
+
+        if (viewport != null) {
+            int pitch = this.rowHeight + this.gap;
+            first = Math.max(0, Math.floorDiv(viewport.y() - this.y, pitch) - OVERSCAN_ROWS);
+            last = Math.min(
+                this.rows.size() - 1,
+                Math.floorDiv(viewport.y() + viewport.height() - this.y, pitch) + OVERSCAN_ROWS);
+        }
+
+        int pinned = this.pinned >= first && this.pinned <= last ? -1 : this.pinned;
+
+        if (!relayout && first == this.windowFirst && last == this.windowLast && pinned == this.windowPinned) {
+            return;
+        }
+
+        this.window.clear();
+        for (int index = first; index <= last; index++) {
+            this.window.add(this.place(index, relayout));
+        }
+        if (pinned >= 0) {
+            this.window.add(this.place(pinned, relayout));
+        }
+
+        this.windowFirst = first;
+        this.windowLast = last;
+        this.windowPinned = pinned;
+    }
+
+    private UIComponent place(int index, boolean relayout) {
+        var row = this.rows.get(index);
+        boolean mounted = (index >= this.windowFirst && index <= this.windowLast) || index == this.windowPinned;
+
+        if (this.rowSpace != null && (relayout || !mounted)) {
+            row.inflate(this.rowSpace);
+            row.mount(this, this.x, this.rowTop(index));
+        }
+
+        return row;
+    }
+
+    private int contentHeight() {
+        int count = this.rows.size();
+        return count == 0 ? 0 : count * this.rowHeight + (count - 1) * this.gap;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.lutzluca.btrbz.core.widgets.ui;
 
+import com.github.lutzluca.btrbz.core.widgets.WidgetId;
 import io.wispforest.owo.ui.base.BaseParentUIComponent;
 import io.wispforest.owo.ui.core.OwoUIGraphics;
 import io.wispforest.owo.ui.core.ParentUIComponent;
@@ -17,6 +18,9 @@ public final class WidgetCanvasComponent extends BaseParentUIComponent {
     private final List<WidgetSlotComponent> visibleSlots = new ArrayList<>();
 
     private final List<UIComponent> slotView = Collections.unmodifiableList(this.slots);
+    private final List<WidgetSlotComponent> probedSlot = new ArrayList<>(1);
+
+    private @Nullable SlotDrawProbe drawProbe;
 
     public WidgetCanvasComponent(Sizing horizontalSizing, Sizing verticalSizing) {
         super(horizontalSizing, verticalSizing);
@@ -44,6 +48,18 @@ public final class WidgetCanvasComponent extends BaseParentUIComponent {
         this.updateLayout();
     }
 
+    /** Brackets every slot draw with {@code probe}, or draws all slots in one pass when {@code null}. */
+    public void slotDrawProbe(@Nullable SlotDrawProbe probe) {
+        this.drawProbe = probe;
+    }
+
+    /** Drops every slot's recorded draw. */
+    public void discardRecordings() {
+        for (var slot : this.slots) {
+            slot.discardRecording();
+        }
+    }
+
     @Override
     public void layout(Size space) {
         for (var slot : this.slots) {
@@ -72,7 +88,23 @@ public final class WidgetCanvasComponent extends BaseParentUIComponent {
     public void draw(OwoUIGraphics graphics, int mouseX, int mouseY, float partialTicks, float delta) {
         super.draw(graphics, mouseX, mouseY, partialTicks, delta);
 
-        this.drawChildren(graphics, mouseX, mouseY, partialTicks, delta, this.visibleSlots);
+        var probe = this.drawProbe;
+        if (probe == null) {
+            this.drawChildren(graphics, mouseX, mouseY, partialTicks, delta, this.visibleSlots);
+            return;
+        }
+
+        for (var slot : this.visibleSlots) {
+            this.probedSlot.clear();
+            this.probedSlot.add(slot);
+
+            probe.beforeSlot(slot.widgetId());
+            try {
+                this.drawChildren(graphics, mouseX, mouseY, partialTicks, delta, this.probedSlot);
+            } finally {
+                probe.afterSlot();
+            }
+        }
     }
 
     @Override
@@ -104,4 +136,12 @@ public final class WidgetCanvasComponent extends BaseParentUIComponent {
 
         return null;
     }
+
+    /** Observes the draw of each visible slot, used by the widget render profiler. */
+    public interface SlotDrawProbe {
+
+        void beforeSlot(WidgetId id);
+
+        void afterSlot();
+    }
 }
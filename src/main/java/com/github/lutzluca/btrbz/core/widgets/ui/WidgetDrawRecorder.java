@@ -0,0 +1,147 @@
+package com.github.lutzluca.btrbz.core.widgets.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.minecraft.client.renderer.state.gui.BlitRenderState;
+import net.minecraft.client.renderer.state.gui.GuiElementRenderState;
+import net.minecraft.client.renderer.state.gui.GuiItemRenderState;
+import net.minecraft.client.renderer.state.gui.GuiRenderState;
+import net.minecraft.client.renderer.state.gui.GuiTextRenderState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The render states one widget slot submitted during a draw, kept under the key of the prepared frame that produced
+ * them. While the key still matches, replaying resubmits the recorded states instead of walking and drawing the
+ * component tree, so text runs keep their measured glyphs and rounded panels their perimeters.
+ * <p>
+ * Gui elements, current-layer blits, text runs and items are recorded. Components that draw in motion, and
+ * submissions the recorder cannot replay, discard the recording in progress so the next frame draws live again.
+ * Must only be used from the render thread.
+ */
+public final class WidgetDrawRecorder {
+    private static @Nullable WidgetDrawRecorder active;
+
+    private final List<Op> ops = new ArrayList<>();
+    private final List<Op> opView = Collections.unmodifiableList(this.ops);
+
+    private @Nullable Object key;
+    private @Nullable Object pendingKey;
+    private boolean discarded;
+
+    /** Whether a complete recording exists for {@code key}. */
+    boolean replayable(Object key) {
+        return this.key == key && this.pendingKey == null;
+    }
+
+    /** Starts recording the submissions of the current draw under {@code key}, dropping the previous recording. */
+    void begin(Object key) {
+        if (active != null) {
+            throw new IllegalStateException("Another widget draw is already being recorded");
+        }
+
+        this.clear();
+        this.pendingKey = key;
+        active = this;
+    }
+
+    /** Ends the recording; it is kept unless a component discarded it while drawing. */
+    void end() {
+        if (active == this) {
+            active = null;
+        }
+
+        this.key = this.discarded ? null : this.pendingKey;
+        this.pendingKey = null;
+        this.discarded = false;
+
+        if (this.key == null) {
+            this.ops.clear();
+        }
+    }
+
+    void clear() {
+        this.ops.clear();
+        this.key = null;
+        this.discarded = false;
+    }
+
+    void replay(GuiRenderState target) {
+        for (var op : this.ops) {
+            op.replay(target);
+        }
+    }
+
+    List<Op> ops() {
+        return this.opView;
+    }
+
+    /** Keeps the draw in progress from being replayed, e.g. while a scroll animation or drag is running. */
+    public static void drawLive() {
+        if (active != null) {
+            active.discarded = true;
+        }
+    }
+
+    public static void element(GuiElementRenderState state) {
+        record(new Element(state));
+    }
+
+    /** Textured quads submitted to the current layer, such as owo texture components and icon blits. */
+    public static void blit(BlitRenderState state) {
+        record(new Blit(state));
+    }
+
+    public static void text(GuiTextRenderState state) {
+        record(new Text(state));
+    }
+
+    public static void item(GuiItemRenderState state) {
+        record(new Item(state));
+    }
+
+    private static void record(Op op) {
+        var recorder = active;
+        if (recorder != null && !recorder.discarded) {
+            recorder.ops.add(op);
+        }
+    }
+
+    /** One recorded submission, resubmitted unchanged on replay. */
+    sealed interface Op {
+
+        void replay(GuiRenderState target);
+    }
+
+    record Element(GuiElementRenderState state) implements Op {
+
+        @Override
+        public void replay(GuiRenderState target) {
+            target.addGuiElement(this.state);
+        }
+    }
+
+    record Blit(BlitRenderState state) implements Op {
+
+        @Override
+        public void replay(GuiRenderState target) {
+            target.addBlitToCurrentLayer(this.state);
+        }
+    }
+
+    record Text(GuiTextRenderState state) implements Op {
+
+        @Override
+        public void replay(GuiRenderState target) {
+            target.addText(this.state);
+        }
+    }
+
+    record Item(GuiItemRenderState state) implements Op {
+
+        @Override
+        public void replay(GuiRenderState target) {
+            target.addItem(this.state);
+        }
+    }
+}
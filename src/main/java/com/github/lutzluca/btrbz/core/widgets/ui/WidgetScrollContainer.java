@@ -91,6 +91,13 @@ public final class WidgetScrollContainer<C extends UIComponent> extends ScrollCo
         this.fixedScrollbarLength = this.resolveScrollbarLength();
         super.draw(graphics, mouseX, mouseY, partialTicks, delta);
         this.rememberState();
+
+        // Smooth scrolling and the fading scrollbar change every frame until they settle.
+        if (this.scrollbaring
+            || this.currentScrollPosition != this.scrollOffset
+            || System.currentTimeMillis() < this.lastScrollbarInteractTime) {
+            WidgetDrawRecorder.drawLive();
+        }
     }
 
     @Override
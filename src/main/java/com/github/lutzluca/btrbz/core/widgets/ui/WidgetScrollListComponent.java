@@ -12,22 +12,25 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-/** A retained vertical row list with a component-owned scroll viewport. */
+/**
+ * A retained vertical list of equally tall rows with a component-owned scroll viewport. Only the rows around the
+ * viewport are mounted, laid out and drawn, so long lists cost the same per frame as short ones.
+ */
 public final class WidgetScrollListComponent extends BaseParentUIComponent {
-    private final RetainedFlowLayout rowLayout;
-    private final WidgetScrollContainer<RetainedFlowLayout> scroller;
+    private final VirtualRowLayout rowLayout;
+    private final WidgetScrollContainer<VirtualRowLayout> scroller;
 
     private final List<UIComponent> rows = new ArrayList<>();
     private final List<UIComponent> children;
 
     private int viewportHeight;
+    private int rowHeight;
     private boolean interactive;
 
     public WidgetScrollListComponent(int viewportHeight, int rowGap, boolean interactive, int scrollbarColor) {
         super(Sizing.fill(100), Sizing.fixed(viewportHeight));
-        this.rowLayout = RetainedFlowLayout.vertical(Sizing.fill(100), Sizing.content());
+        this.rowLayout = new VirtualRowLayout(rowGap);
         this.rowLayout.allowOverflow(true);
-        this.rowLayout.gap(rowGap);
 
         this.scroller = new WidgetScrollContainer<>(
             Sizing.fill(100), Sizing.fill(100), this.rowLayout, interactive);
@@ -41,7 +44,12 @@ public final class WidgetScrollListComponent extends BaseParentUIComponent {
         this.allowOverflow(true);
     }
 
-    public void updateRows(List<? extends UIComponent> rows, int viewportHeight, boolean interactive) {
+    public void updateRows(
+        List<? extends UIComponent> rows,
+        int rowHeight,
+        int viewportHeight,
+        boolean interactive
+    ) {
         int normalizedHeight = Math.max(1, viewportHeight);
 
         if (this.viewportHeight != normalizedHeight) {
@@ -54,15 +62,39 @@ public final class WidgetScrollListComponent extends BaseParentUIComponent {
             this.scroller.interactive(interactive);
         }
 
-        if (sameRows(this.rows, rows)) {
+        if (this.rowHeight == rowHeight && sameRows(this.rows, rows)) {
             return;
         }
 
         this.rows.clear();
         this.rows.addAll(rows);
+        this.rowHeight = rowHeight;
 
-        this.rowLayout.clearChildren();
-        this.rowLayout.children(this.rows);
+        this.rowLayout.rows(this.rows, rowHeight);
+    }
+
+    /** The rows currently mounted; rows outside the viewport are not laid out and have stale positions. */
+    public List<UIComponent> visibleRows() {
+        return this.rowLayout.window();
+    }
+
+    /** Absolute top of the row at {@code index}, including rows that are not mounted. */
+    public int rowTop(int index) {
+        return this.rowLayout.rowTop(index);
+    }
+
+    public int rowHeight() {
+        return this.rowLayout.rowHeight();
+    }
+
+    /** Index of the gap a row dropped at {@code pointerY} would be inserted into. */
+    public int insertionGapAt(int pointerY) {
+        return this.rowLayout.gapAt(pointerY);
+    }
+
+    /** Keeps the row at {@code index} mounted while it is scrolled out of view, or none for {@code -1}. */
+    public void pinRow(int index) {
+        this.rowLayout.pin(index);
     }
 
     @Override
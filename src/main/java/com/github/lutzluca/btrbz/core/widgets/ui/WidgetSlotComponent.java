@@ -34,6 +34,9 @@ public final class WidgetSlotComponent extends BaseParentUIComponent {
     private @Nullable UIComponent activeMouseTarget;
     private final TooltipDelayState<UIComponent> tooltipDelay = new TooltipDelayState<>(TOOLTIP_DELAY_MILLIS);
 
+    private final WidgetDrawRecorder recorder = new WidgetDrawRecorder();
+    private @Nullable Object recordingKey;
+
     public WidgetSlotComponent(
         WidgetId widgetId,
         UIComponent child,
@@ -102,9 +105,26 @@ public final class WidgetSlotComponent extends BaseParentUIComponent {
         }
 
         this.visible = visible;
+        this.recorder.clear();
         this.sizing(Sizing.fixed(Math.max(1, localBounds.width())), Sizing.fixed(Math.max(1, localBounds.height())));
     }
 
+    /**
+     * Lets frames replay the widget's recorded draw while {@code key} stays the same instance; {@code null} draws
+     * every frame live. The host passes its prepared-cache stamp, so a new preparation never replays stale output.
+     */
+    public void recordingKey(@Nullable Object key) {
+        if (key != this.recordingKey) {
+            this.recordingKey = key;
+            this.recorder.clear();
+        }
+    }
+
+    /** Drops the recorded draw, for input that may change what the widget draws without a new preparation. */
+    public void discardRecording() {
+        this.recorder.clear();
+    }
+
     @Override
     public void layout(Size space) {
         this.child.inflate(Size.of(this.logicalWidth, this.logicalHeight));
@@ -220,8 +240,25 @@ public final class WidgetSlotComponent extends BaseParentUIComponent {
         int childMouseY = this.drawManagementOverlay ? this.y - 1 : logicalMouseY;
 
         try {
-            this.drawWidget(graphics, childMouseX, childMouseY, partialTicks, delta);
+            // Hover-dependent output is only drawn while the pointer is over the widget, which then draws live.
+            var key = this.recordingKey;
+            boolean hovered = !this.drawManagementOverlay && this.isInBoundingBox(mouseX, mouseY);
+
+            if (key == null || hovered) {
+                this.recorder.clear();
+                this.drawWidget(graphics, childMouseX, childMouseY, partialTicks, delta);
+            } else if (this.recorder.replayable(key)) {
+                this.recorder.replay(graphics.guiRenderState);
+            } else {
+                this.recorder.begin(key);
+                try {
+                    this.drawWidget(graphics, childMouseX, childMouseY, partialTicks, delta);
+                } finally {
+                    this.recorder.end();
+                }
+            }
         } catch (RuntimeException exception) {
+            this.recorder.clear();
             log.warn("Widget {} failed while rendering", this.widgetId, exception);
         }
 
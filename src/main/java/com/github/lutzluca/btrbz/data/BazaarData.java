@@ -5,13 +5,12 @@ import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
 import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
 import com.github.lutzluca.btrbz.data.conversions.ConversionIndexService;
 import com.github.lutzluca.btrbz.data.conversions.ConversionStatus;
-import com.github.lutzluca.btrbz.utils.Utils;
 import io.vavr.control.Try;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 import lombok.AllArgsConstructor;
@@ -19,7 +18,6 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product;
-import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product.Summary;
 import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
@@ -27,9 +25,14 @@ import org.jetbrains.annotations.Nullable;
 public class BazaarData {
 
     private final List<Consumer<MarketSnapshot>> listeners = new ArrayList<>();
+    private final List<Consumer<MarketDelta>> deltaListeners = new ArrayList<>();
     private final ConversionIndexService conversionIndexService;
-    private Map<String, Product> lastProducts = Collections.emptyMap();
+    private volatile MarketSnapshot snapshot = MarketSnapshot.empty();
+    // Only advanced by the compiling thread; snapshots are published in the order they were staged.
+    private volatile MarketSnapshot staged = MarketSnapshot.empty();
     private final CacheToken marketChanges = CacheToken.named("bazaar.market");
+    private final Map<String, CacheToken> productChanges = new HashMap<>();
+    private final FillRateEstimator fillRates = new FillRateEstimator();
 
     public BazaarData() {
         this(new ConversionIndexService());
@@ -39,14 +42,6 @@ public class BazaarData {
         this.conversionIndexService = conversionIndexService;
     }
 
-    public static Optional<Double> firstSummaryPrice(List<Summary> summaries) {
-        if (summaries == null || summaries.isEmpty()) {
-            return Optional.empty();
-        }
-
-        return Try.of(summaries::getFirst).map(Summary::getPricePerUnit).toJavaOptional();
-    }
-
     public void loadConversions() {
         log.info("Loading bazaar conversion index");
         this.conversionIndexService.loadConversionIndex();
@@ -77,6 +72,11 @@ public class BazaarData {
         return this.conversionIndexService.allProducts();
     }
 
+    /** Products whose name or id best match {@code query}, best match first. */
+    public List<IndexedProduct> searchProducts(String query, int limit) {
+        return this.conversionIndexService.searchProducts(query, limit);
+    }
+
     public Optional<ItemStack> productStack(ProductIdentity identity) {
         return identity.bazaarProductId().flatMap(this.conversionIndexService::productStack);
     }
@@ -134,11 +134,58 @@ public class BazaarData {
         return this.conversionIndexService.changes();
     }
 
-    public void onUpdate(Map<String, Product> products) {
-        this.lastProducts = Collections.unmodifiableMap(new LinkedHashMap<>(
-            products == null ? Map.of() : products));
-        this.marketChanges.invalidate(InvalidationReason.of("market snapshot published"));
-        var snapshot = this.currentSnapshot();
+    /**
+     * Revision token for a single product's book and quick status. Tokens are created on demand and only
+     * invalidated when a published {@link MarketDelta} reports the product as changed.
+     */
+    public CacheToken productChanges(String productId) {
+        return this.productChanges.computeIfAbsent(productId, id -> CacheToken.named("bazaar.market." + id));
+    }
+
+    /** Revision token for a single product's conversion index entry, see {@link #productChanges(String)}. */
+    public CacheToken productIndexChanges(String productId) {
+        return this.conversionIndexService.productChanges(productId);
+    }
+
+    /** The id table that the next compiled snapshot should extend. */
+    public ProductIdTable stagedProductIds() {
+        return this.staged.ids();
+    }
+
+    /** Compiles a poll into a columnar snapshot without publishing it. Safe to call from the poller thread. */
+    public MarketSnapshot compileSnapshot(long lastUpdated, Map<String, Product> products) {
+        return MarketSnapshot.compile(
+            lastUpdated,
+            products == null ? Map.of() : products,
+            this.stagedProductIds());
+    }
+
+    /**
+     * Diffs a compiled snapshot against the previously staged one. Called on the compiling thread; the
+     * returned delta is handed to {@link #publish(MarketDelta)} on the client thread.
+     */
+    public MarketDelta stage(MarketSnapshot next) {
+        var delta = MarketDelta.between(this.staged, Objects.requireNonNull(next, "next"));
+        this.staged = next;
+        return delta;
+    }
+
+    public void publish(MarketDelta delta) {
+        var snapshot = delta.snapshot();
+        this.snapshot = snapshot;
+        this.fillRates.observe(delta);
+
+        if (!delta.isEmpty()) {
+            this.marketChanges.invalidate(InvalidationReason.of(
+                "market snapshot published (" + delta.size() + " products changed)"));
+        }
+
+        for (int index = 0; index < delta.size(); index++) {
+            var token = this.productChanges.get(snapshot.ids().productId(delta.changedSlot(index)));
+            if (token != null) {
+                token.invalidate(InvalidationReason.of("product market data changed"));
+            }
+        }
 
         for (var listener : this.listeners) {
             Try.run(() -> listener.accept(snapshot)).onFailure(err -> log.error(
@@ -147,6 +194,27 @@ public class BazaarData {
                 snapshot.size(),
                 err));
         }
+
+        for (var listener : this.deltaListeners) {
+            Try.run(() -> listener.accept(delta)).onFailure(err -> log.error(
+                "Bazaar delta listener '{}' failed while processing {} changed products",
+                listener.getClass().getName(),
+                delta.size(),
+                err));
+        }
+    }
+
+    public void onUpdate(Map<String, Product> products) {
+        this.publish(this.stage(this.compileSnapshot(-1, products)));
+    }
+
+    /** Subscribes to per-poll change sets; prefer this over {@link #addListener} for per-product work. */
+    public void addDeltaListener(Consumer<MarketDelta> listener) {
+        this.deltaListeners.add(listener);
+    }
+
+    public void removeDeltaListener(Consumer<MarketDelta> listener) {
+        this.deltaListeners.remove(listener);
     }
 
     public void addListener(Consumer<MarketSnapshot> listener) {
@@ -164,8 +232,8 @@ public class BazaarData {
         }
     }
 
-    private MarketSnapshot currentSnapshot() {
-        return new MarketSnapshot(this.lastProducts);
+    public MarketSnapshot currentSnapshot() {
+        return this.snapshot;
     }
 
     public Optional<Double> lowestSellOfferPrice(ProductIdentity product) {
@@ -188,7 +256,7 @@ public class BazaarData {
         return this.currentSnapshot().productSpread(product);
     }
 
-    public OrderLists getOrderLists(ProductIdentity product) {
+    public MarketSnapshot.OrderLists getOrderLists(ProductIdentity product) {
         return this.currentSnapshot().getOrderLists(product);
     }
 
@@ -206,66 +274,69 @@ public class BazaarData {
         double pricePerUnit,
         boolean includeAtPrice
     ) {
-        var summaries = this.currentSnapshot().summariesForOrderType(product, orderType);
-        if (summaries == null || summaries.isEmpty()) {
-            return Optional.empty();
-        }
-
-        var queueInfo = new OrderQueueInfo(0, 0);
-        for (var summary : summaries) {
-            boolean isSamePrice = summary.getPricePerUnit() == pricePerUnit;
-            boolean isBetter = switch (orderType) {
-                case Sell -> summary.getPricePerUnit() < pricePerUnit;
-                case Buy -> summary.getPricePerUnit() > pricePerUnit;
-            };
+        var side = this.currentSnapshot().bookSide(product, orderType);
+        int levels = side.levelsAhead(pricePerUnit, includeAtPrice);
+        long ordersAhead = side.ordersThrough(levels - 1);
 
-            if (!isBetter && !(isSamePrice && includeAtPrice)) {
-                break;
-            }
-            queueInfo.ordersAhead += (int) summary.getOrders();
-            queueInfo.itemsAhead += (int) summary.getAmount();
-        }
-
-        return queueInfo.ordersAhead > 0 ? Optional.of(queueInfo) : Optional.empty();
+        return ordersAhead > 0
+            ? Optional.of(new OrderQueueInfo(ordersAhead, side.amountThrough(levels - 1)))
+            : Optional.empty();
     }
 
     public Optional<Double> getEstimatedFillTimeMinutes(
         ProductIdentity product,
         OrderType orderType,
-        int remainingVolume
+        long remainingVolume
     ) {
         if (remainingVolume <= 0) {
             return Optional.of(0.0);
         }
 
-        var qs = this.currentSnapshot()
-            .rawProduct(product)
-            .map(Product::getQuickStatus)
-            .orElse(null);
-        if (qs == null) {
+        var snapshot = this.currentSnapshot();
+        int slot = snapshot.slotOf(product);
+        if (slot < 0) {
             return Optional.empty();
         }
 
+        double minutesRate = this.fillRates.itemsPerMinute(slot, orderType);
+        if (Double.isNaN(minutesRate)) {
+            minutesRate = movingWeekRate(snapshot, slot, orderType);
+        }
+
+        return minutesRate > 0 ? Optional.of(remainingVolume / minutesRate) : Optional.empty();
+    }
+
+    /**
+     * Estimated minutes until an order at {@code pricePerUnit} fills, counting the items queued ahead of it at
+     * better prices.
+     */
+    public Optional<Double> getEstimatedFillTimeMinutes(
+        ProductIdentity product,
+        OrderType orderType,
+        double pricePerUnit,
+        long remainingVolume
+    ) {
+        var side = this.currentSnapshot().bookSide(product, orderType);
+        long itemsAhead = side.amountThrough(side.levelsAhead(pricePerUnit, false) - 1);
+        return this.getEstimatedFillTimeMinutes(product, orderType, itemsAhead + remainingVolume);
+    }
+
+    // Insta-sells fill buy orders and insta-buys fill sell offers.
+    private static double movingWeekRate(MarketSnapshot snapshot, int slot, OrderType orderType) {
         long movingWeek = switch (orderType) {
-            case Sell -> qs.getBuyMovingWeek();
-            case Buy -> qs.getSellMovingWeek();
+            case Sell -> snapshot.buyMovingWeek(slot);
+            case Buy -> snapshot.sellMovingWeek(slot);
         };
 
-        if (movingWeek <= 0) {
-            return Optional.empty();
-        }
-
         double hourlyRate = movingWeek / 168.0;
-        double minutesRate = hourlyRate / 60.0;
-
-        return Optional.of(remainingVolume / minutesRate);
+        return hourlyRate / 60.0;
     }
 
     @ToString
     @AllArgsConstructor
     public static final class OrderQueueInfo {
-        public int ordersAhead;
-        public int itemsAhead;
+        public long ordersAhead;
+        public long itemsAhead;
     }
 
     public record MarketPrices(
@@ -273,73 +344,6 @@ public class BazaarData {
         Optional<@Nullable Double> lowestSellOfferPrice
     ) {}
 
-    public record OrderLists(List<Summary> buyOrders, List<Summary> sellOffers) {
-        public static OrderLists empty() {
-            return new OrderLists(List.of(), List.of());
-        }
-    }
-
-    public static final class MarketSnapshot {
-
-        private final Map<String, Product> products;
-
-        private MarketSnapshot(Map<String, Product> products) {
-            this.products = products;
-        }
-
-        public int size() {
-            return this.products.size();
-        }
-
-        public boolean contains(ProductIdentity product) {
-            return this.rawProduct(product).isPresent();
-        }
-
-        public Optional<Double> lowestSellOfferPrice(ProductIdentity product) {
-            return this.rawProduct(product)
-                .flatMap(prod -> firstSummaryPrice(prod.getBuySummary()));
-        }
-
-        public Optional<Double> highestBuyOrderPrice(ProductIdentity product) {
-            return this.rawProduct(product)
-                .flatMap(prod -> firstSummaryPrice(prod.getSellSummary()));
-        }
-
-        public MarketPrices getMarketPrices(ProductIdentity product) {
-            return new MarketPrices(
-                this.highestBuyOrderPrice(product),
-                this.lowestSellOfferPrice(product));
-        }
-
-        public Optional<Double> productSpread(ProductIdentity product) {
-            return Utils.zipOptionals(
-                this.lowestSellOfferPrice(product),
-                this.highestBuyOrderPrice(product)).map(pair -> pair.getLeft() - pair.getRight());
-        }
-
-        public OrderLists getOrderLists(ProductIdentity product) {
-            // Hypixel summary names are action-based: sell_summary is actual buy orders,
-            // buy_summary is actual sell offers.
-            return this.rawProduct(product)
-                .map(prod -> new OrderLists(
-                    Optional.ofNullable(prod.getSellSummary()).orElse(List.of()),
-                    Optional.ofNullable(prod.getBuySummary()).orElse(List.of())))
-                .orElse(OrderLists.empty());
-        }
-
-        public List<Summary> summariesForOrderType(ProductIdentity product, OrderType orderType) {
-            var lists = this.getOrderLists(product);
-            return switch (orderType) {
-                case Buy -> lists.buyOrders();
-                case Sell -> lists.sellOffers();
-            };
-        }
-
-        private Optional<Product> rawProduct(ProductIdentity product) {
-            return product.bazaarProductId().map(this.products::get);
-        }
-    }
-
     public static final class TrackedProduct {
 
         @Getter
@@ -347,18 +351,15 @@ public class BazaarData {
         private final BazaarData data;
         private final Consumer<MarketSnapshot> updater;
         private final Runnable indexUpdater;
-        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-        @Getter
-        private Optional<Product> bazaarProduct;
+        private MarketSnapshot snapshot = MarketSnapshot.empty();
+        private int slot = -1;
         private boolean listenerRegistered = false;
 
         public TrackedProduct(BazaarData data, IndexedProduct product) {
             this.data = data;
             this.product = product;
-            this.bazaarProduct = Optional.empty();
 
-            this.updater = snapshot -> this.bazaarProduct = snapshot
-                .rawProduct(ProductIdentity.fromIndex(this.product));
+            this.updater = this::bindSnapshot;
             this.indexUpdater = this::refreshProduct;
         }
 
@@ -381,27 +382,33 @@ public class BazaarData {
         public Optional<Double> getSellOfferPrice() {
             this.ensureInitialized();
 
-            return this.bazaarProduct.flatMap(
-                prod -> Utils.getFirst(prod.getBuySummary()).map(Summary::getPricePerUnit));
+            double price = this.snapshot.bestSellOfferPrice(this.slot);
+            return Double.isNaN(price) ? Optional.empty() : Optional.of(price);
         }
 
         public Optional<Double> getBuyOrderPrice() {
             this.ensureInitialized();
 
-            return this.bazaarProduct.flatMap(
-                prod -> Utils.getFirst(prod.getSellSummary()).map(Summary::getPricePerUnit));
+            double price = this.snapshot.bestBuyOrderPrice(this.slot);
+            return Double.isNaN(price) ? Optional.empty() : Optional.of(price);
         }
 
         public void destroy() {
-            this.bazaarProduct = Optional.empty();
+            this.snapshot = MarketSnapshot.empty();
+            this.slot = -1;
             this.data.removeListener(this.updater);
             this.data.removeIndexChangeListener(this.indexUpdater);
             this.listenerRegistered = false;
         }
 
+        private void bindSnapshot(MarketSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.slot = snapshot.slotOf(this.product.productId());
+        }
+
         private void refreshProduct() {
             this.product = this.data.refreshIndexedProduct(this.product);
-            this.bazaarProduct = this.data.currentSnapshot().rawProduct(ProductIdentity.fromIndex(this.product));
+            this.bindSnapshot(this.data.currentSnapshot());
         }
     }
 }
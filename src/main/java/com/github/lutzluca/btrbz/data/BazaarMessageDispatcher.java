@@ -1,5 +1,6 @@
 package com.github.lutzluca.btrbz.data;
 
+import com.github.lutzluca.btrbz.data.ChatClassifier.ClassifiedMessage;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
 import io.vavr.control.Try;
 import java.util.ArrayList;
@@ -36,12 +37,10 @@ public final class BazaarMessageDispatcher {
         });
     }
 
-    public void handleChatMessage(String msg) {
-        if (!msg.contains("[Bazaar]")) {
-            return;
+    public void handleChatMessage(ClassifiedMessage msg) {
+        if (msg.message() != null) {
+            this.dispatch(msg.message());
         }
-
-        OrderInfoParser.parseBazaarMessage(msg).onSuccess(this::dispatch);
     }
 
     public sealed interface BazaarMessage permits BazaarMessage.OrderSetup,
@@ -1,48 +1,67 @@
 package com.github.lutzluca.btrbz.data;
 
+import com.github.lutzluca.btrbz.data.PollSchedule.ErrorClass;
+import com.github.lutzluca.btrbz.data.history.MarketHistoryStore;
 import com.github.lutzluca.btrbz.mixin.SkyBlockBazaarReplyAccessor;
 import com.github.lutzluca.btrbz.utils.Utils;
+import com.google.gson.stream.MalformedJsonException;
 import io.vavr.control.Try;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
 import net.hypixel.api.HypixelAPI;
 import net.hypixel.api.apache.ApacheHttpClient;
+import net.hypixel.api.exceptions.BadStatusCodeException;
 import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply;
-import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product;
 import net.minecraft.client.Minecraft;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * possible concurrency issues: this class uses a single-threaded ScheduledExecutorService for all
  * operations, so all scheduled tasks and async callbacks (via whenCompleteAsync with explicit
  * executor) execute on the same scheduler thread, ensuring sequential access to instance variables
  * and eliminating concurrency issues I think (눈_눈)
+ * <p>
+ * Request timing is delegated to {@link PollSchedule}, which learns the refresh period and phase of
+ * {@code lastUpdated} and fires just after the predicted refresh becomes visible.
  */
 @Slf4j
 public class BazaarPoller {
 
-    /*
-     * maybe on unchanged data use exponential backoff, starting at 100ms, doubling each time up a
-     * max as unchanged data should indicate that the bz has not been updated and should update soon
-     * (this should be the case most of the time, else the API is unable to respond with updated
-     * data). But this is good enough for "now".
-     */
-
     public static final HypixelAPI API = new HypixelAPI(new ApacheHttpClient(getApiKey()));
-    private static final long BAZAAR_UPDATE_TIME_MS = 20_000;
-    private static final long UNCHANGED_DATA_BACKOFF_MS = 250;
-    private static final long ERROR_BACKOFF_MS = 500;
-    private static final int MAX_UNCHANGED_RETRIES = 5;
 
-    private final Consumer<Map<String, Product>> onReply;
+    /**
+     * Opt-in fetch path that streams the raw reply into the snapshot instead of letting Gson build the full
+     * {@link SkyBlockBazaarReply} graph. The bazaar endpoint does not need an API key.
+     */
+    private static final boolean STREAMING_DECODER = Boolean.parseBoolean(System.getenv("BTRBZ_STREAMING_BAZAAR"));
+    private static final URI BAZAAR_URI = URI.create("https://api.hypixel.net/v2/skyblock/bazaar");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    private static final HttpClient HTTP_CLIENT = HttpClient
+        .newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final BazaarData data;
+    private final @Nullable MarketHistoryStore history;
+    private final PollSchedule schedule = new PollSchedule();
+    private final BazaarReplyDecoder decoder = new BazaarReplyDecoder();
 
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread thread = new Thread(r, "bazaar-poller");
@@ -50,14 +69,16 @@ public class BazaarPoller {
         return thread;
     });
 
-    private long lastKnownUpdateTime = -1;
-    private int unchangedDataRetries = 0;
-
-    public BazaarPoller(@NotNull Consumer<Map<String, Product>> onReply) {
-        this.onReply = Objects.requireNonNull(onReply);
+    public BazaarPoller(@NotNull BazaarData data, @Nullable MarketHistoryStore history) {
+        this.data = Objects.requireNonNull(data);
+        this.history = history;
         this.scheduleFetch(0, "Initial fetch");
     }
 
+    public PollSchedule.Metrics metrics() {
+        return this.schedule.metrics();
+    }
+
     private static UUID getApiKey() {
         return Optional
             .ofNullable(System.getenv("HYPIXEL_API_KEY"))
@@ -67,7 +88,8 @@ public class BazaarPoller {
 
     private void scheduleFetch(long delayMs, String reason) {
         log.trace("Scheduling new fetch: {}", reason);
-        this.scheduler.schedule(this::fetchBazaarData, delayMs, TimeUnit.MILLISECONDS);
+        Runnable fetch = STREAMING_DECODER ? this::streamBazaarData : this::fetchBazaarData;
+        this.scheduler.schedule(fetch, delayMs, TimeUnit.MILLISECONDS);
     }
 
     private void fetchBazaarData() {
@@ -75,17 +97,17 @@ public class BazaarPoller {
             .whenCompleteAsync(
                 (reply, throwable) -> {
                     if (throwable != null) {
-                        this.handleFetchError(throwable);
+                        this.handleFetchError(classify(throwable), throwable.getMessage());
                         return;
                     }
 
                     if (reply == null) {
-                        this.handleFetchError(new NullPointerException("Bazaar reply is null"));
+                        this.handleFetchError(ErrorClass.BadReply, "Bazaar reply is null");
                         return;
                     }
 
                     if (!reply.isSuccess()) {
-                        this.handleFetchError(new IllegalStateException("Bazaar reply unsuccessful"));
+                        this.handleFetchError(ErrorClass.BadReply, "Bazaar reply unsuccessful");
                         return;
                     }
 
@@ -94,18 +116,65 @@ public class BazaarPoller {
                 this.scheduler);
     }
 
+    private void streamBazaarData() {
+        var request = HttpRequest
+            .newBuilder(BAZAAR_URI)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+
+        try {
+            var response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long lastKnownUpdateTime = this.schedule.lastUpdated();
+            BazaarReplyDecoder.Result result;
+
+            try (var body = response.body()) {
+                if (response.statusCode() != 200) {
+                    this.handleFetchError(classifyStatus(response.statusCode()), "HTTP " + response.statusCode());
+                    return;
+                }
+
+                // Closing the body early on an unchanged reply discards the rest of the download.
+                result = this.decoder.decode(
+                    new InputStreamReader(body, StandardCharsets.UTF_8),
+                    this.data.stagedProductIds(),
+                    lastKnownUpdateTime);
+            }
+
+            switch (result.status()) {
+                case Changed -> this.handleChangedData(lastKnownUpdateTime, result.snapshot().orElseThrow());
+                case Unchanged -> this.handleUnchangedData();
+                case Unsuccessful -> this.handleFetchError(ErrorClass.BadReply, result.cause().orElse(""));
+            }
+
+            if (result.status() != BazaarReplyDecoder.Status.Unsuccessful) {
+                log.trace(
+                    "Bazaar data streamed successfully - Data {}, Last Updated: {}",
+                    result.status() == BazaarReplyDecoder.Status.Changed ? "changed" : "unchanged",
+                    Utils.formatUtcTimestampMillis(result.lastUpdated()));
+            }
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException err) {
+            this.handleFetchError(classify(err), err.getMessage());
+        }
+    }
+
     private void processBazaarReply(SkyBlockBazaarReply reply) {
         Try.of(() -> (SkyBlockBazaarReplyAccessor) reply).onSuccess(accessor -> {
             long currentUpdateTime = accessor.getLastUpdated();
-            boolean changed = currentUpdateTime != this.lastKnownUpdateTime;
+            long lastKnownUpdateTime = this.schedule.lastUpdated();
+            boolean changed = currentUpdateTime != lastKnownUpdateTime;
 
             if (changed) {
-                this.handleChangedData(currentUpdateTime, reply.getProducts());
+                this.handleChangedData(
+                    lastKnownUpdateTime,
+                    this.data.compileSnapshot(currentUpdateTime, reply.getProducts()));
             } else {
                 this.handleUnchangedData();
             }
 
-            this.lastKnownUpdateTime = currentUpdateTime;
             log.trace(
                 "Bazaar data fetched successfully - Data {}, Last Updated: {}",
                 changed ? "changed" : "unchanged",
@@ -113,55 +182,90 @@ public class BazaarPoller {
         }).onFailure(err -> {
             log.warn("Reply does not implement expected accessor.", err);
             this.scheduleFetch(
-                ERROR_BACKOFF_MS,
+                this.schedule.onError(ErrorClass.BadReply),
                 "Error recovery - SkyBlockBazaarReplyAccessor cast failed");
         });
     }
 
-    private void handleChangedData(long currentUpdateTime, Map<String, Product> products) {
-        this.unchangedDataRetries = 0;
-
-        if (this.lastKnownUpdateTime != -1) {
-            long diffMs = currentUpdateTime - this.lastKnownUpdateTime;
+    private void handleChangedData(long lastKnownUpdateTime, MarketSnapshot snapshot) {
+        long currentUpdateTime = snapshot.lastUpdated();
+        if (lastKnownUpdateTime != -1) {
+            long diffMs = currentUpdateTime - lastKnownUpdateTime;
             log.trace("Bazaar data updated after {}s", diffMs / 1000.0);
         }
 
-        Minecraft.getInstance().execute(() -> onReply.accept(products));
+        // Compile and diff on the poller thread; the client thread only swaps in the finished snapshot.
+        var delta = this.data.stage(snapshot);
+        Minecraft.getInstance().execute(() -> this.data.publish(delta));
+        if (this.history != null) {
+            this.history.submit(snapshot);
+        }
 
-        long jitter = ThreadLocalRandom.current().nextLong(200, 400);
-        this.scheduleFetch(BAZAAR_UPDATE_TIME_MS + jitter, "Regular interval fetch");
+        long delayMs = this.schedule.onChanged(currentUpdateTime);
+        var metrics = this.schedule.metrics();
+        log.trace(
+            "Next fetch in {}ms (period {}ms, phase error {}ms, lag {}ms)",
+            delayMs,
+            metrics.observedPeriodMs(),
+            metrics.lastPhaseErrorMs(),
+            metrics.visibilityLagMs());
+        this.scheduleFetch(delayMs, "Predicted refresh");
     }
 
     private void handleUnchangedData() {
-        this.unchangedDataRetries++;
-
-        if (this.unchangedDataRetries <= MAX_UNCHANGED_RETRIES) {
-            log.debug(
-                "Data unchanged (attempt {}/{}), retrying in {}ms",
-                this.unchangedDataRetries,
-                MAX_UNCHANGED_RETRIES,
-                UNCHANGED_DATA_BACKOFF_MS);
+        long delayMs = this.schedule.onUnchanged();
+        int retries = this.schedule.unchangedStreak();
 
-            this.scheduleFetch(
-                UNCHANGED_DATA_BACKOFF_MS,
-                String.format("Unchanged data retry #%d", this.unchangedDataRetries));
-        } else {
-            log.warn(
-                "Bazaar data has been unchanged for {} consecutive attempts. Reverting to normal polling interval. "
-                    + "This may indicate an API issue.",
-                MAX_UNCHANGED_RETRIES);
-
-            this.unchangedDataRetries = 0;
-            long jitter = ThreadLocalRandom.current().nextLong(200, 400);
-            this.scheduleFetch(BAZAAR_UPDATE_TIME_MS + jitter, "Post-unchanged-limit normal fetch");
+        if (retries > 0) {
+            log.debug("Data unchanged (attempt {}), retrying in {}ms", retries, delayMs);
+            this.scheduleFetch(delayMs, String.format("Unchanged data retry #%d", retries));
+            return;
         }
+
+        log.warn(
+            "Bazaar data has been unchanged for too many consecutive attempts. Waiting a full period ({}ms). "
+                + "This may indicate an API issue.",
+            delayMs);
+        this.scheduleFetch(delayMs, "Post-unchanged-limit normal fetch");
     }
 
-    private void handleFetchError(Throwable throwable) {
+    private void handleFetchError(ErrorClass errorClass, String message) {
+        long delayMs = this.schedule.onError(errorClass);
         log.warn(
-            "Error occurred while fetching bazaar data. Retrying in {}ms. {}",
-            ERROR_BACKOFF_MS,
-            throwable.getMessage());
-        this.scheduleFetch(ERROR_BACKOFF_MS, "Error recovery: API fetch error");
+            "Error occurred while fetching bazaar data ({}). Retrying in {}ms. {}",
+            errorClass,
+            delayMs,
+            message);
+        this.scheduleFetch(delayMs, "Error recovery: " + errorClass);
+    }
+
+    static ErrorClass classify(Throwable throwable) {
+        var cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof BadStatusCodeException badStatus) {
+            return classifyStatus(badStatus.getStatusCode());
+        }
+
+        if (cause instanceof MalformedJsonException) {
+            return ErrorClass.BadReply;
+        }
+
+        if (cause instanceof IOException || cause instanceof TimeoutException) {
+            return ErrorClass.Network;
+        }
+
+        return ErrorClass.BadReply;
+    }
+
+    static ErrorClass classifyStatus(int status) {
+        if (status == 429) {
+            return ErrorClass.RateLimited;
+        }
+
+        return status >= 500 ? ErrorClass.Server : ErrorClass.BadReply;
     }
 }
@@ -0,0 +1,211 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.MarketSnapshot.LevelSink;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Optional;
+
+/**
+ * Streams a raw Hypixel Bazaar reply straight into a {@link MarketSnapshot.Builder}.
+ * Only {@code lastUpdated}, the top summary levels and the {@code quick_status} moving week are decoded; everything
+ * else is skipped without materializing the {@code SkyBlockBazaarReply} object graph. When {@code lastUpdated}
+ * precedes {@code products} (as Hypixel sends it) and has not changed, decoding stops before the product map.
+ */
+public final class BazaarReplyDecoder {
+    /** Hypixel already truncates each summary to this many levels. */
+    public static final int DEFAULT_MAX_LEVELS = 30;
+
+    private final int maxLevels;
+
+    public BazaarReplyDecoder() {
+        this(DEFAULT_MAX_LEVELS);
+    }
+
+    public BazaarReplyDecoder(int maxLevels) {
+        if (maxLevels < 1) {
+            throw new IllegalArgumentException("maxLevels must be positive: " + maxLevels);
+        }
+
+        this.maxLevels = maxLevels;
+    }
+
+    /**
+     * Decodes a reply, closing the reader when done.
+     *
+     * @param previousIds      slot table of the previously compiled snapshot, kept stable in the result
+     * @param knownLastUpdated {@code lastUpdated} of the last accepted reply, or {@code -1}
+     */
+    public Result decode(Reader reader, ProductIdTable previousIds, long knownLastUpdated) throws IOException {
+        try (var json = new JsonReader(reader)) {
+            boolean success = false;
+            long lastUpdated = -1;
+            String cause = null;
+            MarketSnapshot.Builder builder = null;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "success" -> success = json.nextBoolean();
+                    case "cause" -> cause = this.nextNullableString(json);
+                    case "lastUpdated" -> {
+                        lastUpdated = json.nextLong();
+                        if (builder == null && lastUpdated == knownLastUpdated) {
+                            return Result.unchanged(lastUpdated);
+                        }
+                    }
+                    case "products" -> {
+                        builder = new MarketSnapshot.Builder(previousIds, -1);
+                        this.readProducts(json, builder);
+                    }
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+
+            if (!success) {
+                return Result.unsuccessful(cause == null ? "Bazaar reply unsuccessful" : cause);
+            }
+
+            if (lastUpdated == knownLastUpdated) {
+                return Result.unchanged(lastUpdated);
+            }
+
+            if (builder == null) {
+                return Result.unsuccessful("Bazaar reply has no products");
+            }
+
+            return Result.changed(builder.lastUpdated(lastUpdated).build());
+        }
+    }
+
+    private void readProducts(JsonReader json, MarketSnapshot.Builder builder) throws IOException {
+        if (this.skipNull(json)) {
+            return;
+        }
+
+        json.beginObject();
+        while (json.hasNext()) {
+            var productId = json.nextName();
+            if (this.skipNull(json)) {
+                continue;
+            }
+
+            builder.product(productId);
+            this.readProduct(json, builder);
+        }
+        json.endObject();
+    }
+
+    private void readProduct(JsonReader json, MarketSnapshot.Builder builder) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                // Hypixel summary names are action-based: sell_summary is actual buy orders.
+                case "sell_summary" -> this.readLevels(json, builder::buyOrder);
+                case "buy_summary" -> this.readLevels(json, builder::sellOffer);
+                case "quick_status" -> this.readQuickStatus(json, builder);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private void readLevels(JsonReader json, LevelSink sink) throws IOException {
+        if (this.skipNull(json)) {
+            return;
+        }
+
+        int levels = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (levels >= this.maxLevels) {
+                json.skipValue();
+                continue;
+            }
+
+            if (this.skipNull(json)) {
+                continue;
+            }
+
+            double pricePerUnit = 0;
+            long amount = 0;
+            long orders = 0;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "pricePerUnit" -> pricePerUnit = json.nextDouble();
+                    case "amount" -> amount = json.nextLong();
+                    case "orders" -> orders = json.nextLong();
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+
+            sink.accept(pricePerUnit, amount, orders);
+            levels++;
+        }
+        json.endArray();
+    }
+
+    private void readQuickStatus(JsonReader json, MarketSnapshot.Builder builder) throws IOException {
+        if (this.skipNull(json)) {
+            return;
+        }
+
+        long buyMovingWeek = 0;
+        long sellMovingWeek = 0;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "buyMovingWeek" -> buyMovingWeek = json.nextLong();
+                case "sellMovingWeek" -> sellMovingWeek = json.nextLong();
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        builder.movingWeek(buyMovingWeek, sellMovingWeek);
+    }
+
+    private boolean skipNull(JsonReader json) throws IOException {
+        if (json.peek() != JsonToken.NULL) {
+            return false;
+        }
+
+        json.nextNull();
+        return true;
+    }
+
+    private String nextNullableString(JsonReader json) throws IOException {
+        return this.skipNull(json) ? null : json.nextString();
+    }
+
+    public enum Status {
+        Changed,
+        Unchanged,
+        Unsuccessful
+    }
+
+    /**
+     * Outcome of one decode. {@code snapshot} is only present for {@link Status#Changed} and {@code cause} only
+     * for {@link Status#Unsuccessful}.
+     */
+    public record Result(Status status, long lastUpdated, Optional<MarketSnapshot> snapshot, Optional<String> cause) {
+
+        static Result changed(MarketSnapshot snapshot) {
+            return new Result(Status.Changed, snapshot.lastUpdated(), Optional.of(snapshot), Optional.empty());
+        }
+
+        static Result unchanged(long lastUpdated) {
+            return new Result(Status.Unchanged, lastUpdated, Optional.empty(), Optional.empty());
+        }
+
+        static Result unsuccessful(String cause) {
+            return new Result(Status.Unsuccessful, -1, Optional.empty(), Optional.of(cause));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import com.github.lutzluca.btrbz.utils.GameUtils;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Classifies incoming game messages once for every chat consumer. A prefix trie precompiled from the known Bazaar
+ * messages is walked over the raw text, skipping formatting codes on the way, so unrelated messages and the transient
+ * progress messages the chat filter hides are classified without building a stripped copy. Only result messages are
+ * stripped and then parsed in a single pass by {@link OrderInfoParser}.
+ * <p>
+ * The chat filter, the message decorator and the dispatcher all receive the same component, so the last
+ * classification is kept by message identity. Instances must only be used from the client thread.
+ */
+@Slf4j
+public final class ChatClassifier {
+
+    static final String BAZAAR_PREFIX = "[Bazaar]";
+    static final String FILLED_SUFFIX = "was filled!";
+    static final String GO_TO_ORDERS_SUFFIX = " [Go To Orders]";
+
+    private static final List<Rule> RULES = List.of(
+        new Rule(BAZAAR_PREFIX, Kind.OTHER_BAZAAR, null),
+        new Rule("[Bazaar] Cancelling order...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Putting goods in escrow...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Submitting buy order...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Claiming order...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Submitting sell offer...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Executing instant sell...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Executing instant buy...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Claiming orders...", Kind.TRANSIENT, null),
+        new Rule("[Bazaar] Buy Order Setup!", Kind.ORDER_SETUP, OrderType.Buy),
+        new Rule("[Bazaar] Sell Offer Setup!", Kind.ORDER_SETUP, OrderType.Sell),
+        new Rule("[Bazaar] Your Buy Order for ", Kind.ORDER_FILLED, OrderType.Buy),
+        new Rule("[Bazaar] Your Sell Offer for ", Kind.ORDER_FILLED, OrderType.Sell),
+        new Rule("[Bazaar] Bought ", Kind.INSTA_BUY, null),
+        new Rule("[Bazaar] Sold ", Kind.INSTA_SELL, null),
+        new Rule("[Bazaar] Order Flipped!", Kind.ORDER_FLIPPED, null));
+
+    private static final Node ROOT = Node.compile(RULES);
+
+    private @Nullable Component lastMessage;
+    private ClassifiedMessage last = ClassifiedMessage.UNRELATED;
+
+    /** Classifies {@code message}, reusing the result when the same component was classified last. */
+    public ClassifiedMessage classify(Component message) {
+        if (message != this.lastMessage) {
+            this.last = classify(message.getString());
+            this.lastMessage = message;
+        }
+        return this.last;
+    }
+
+    /** Lets a decorated copy of a classified message reuse its classification. */
+    public void remember(Component message, ClassifiedMessage classified) {
+        this.lastMessage = message;
+        this.last = classified;
+    }
+
+    /** Classifies a raw message, which may still contain formatting codes. */
+    public static ClassifiedMessage classify(String raw) {
+        var rule = ROOT.longestMatch(raw);
+        if (rule == null) {
+            return ClassifiedMessage.UNRELATED;
+        }
+        if (rule.kind == Kind.TRANSIENT) {
+            return ClassifiedMessage.TRANSIENT;
+        }
+
+        var text = GameUtils.stripFormattingCodes(raw);
+        if (rule.kind == Kind.OTHER_BAZAAR || !text.startsWith(rule.prefix) || !rule.accepts(text)) {
+            log.trace("Unhandled bazaar message format: '{}'", text);
+            return new ClassifiedMessage(Kind.OTHER_BAZAAR, text, null);
+        }
+
+        var message = OrderInfoParser.parseBazaarMessage(rule.kind, rule.type, text, rule.prefix.length());
+        return new ClassifiedMessage(rule.kind, text, message);
+    }
+
+    // Mirrors ChatFormatting's strip pattern, (?i)§[0-9A-FK-OR], so matched prefixes line up with the stripped text.
+    private static boolean isFormattingCode(char code) {
+        char lower = Character.toLowerCase(code);
+        return (lower >= '0' && lower <= '9') || (lower >= 'a' && lower <= 'f') || (lower >= 'k' && lower <= 'o')
+            || lower == 'r';
+    }
+
+    public enum Kind {
+        UNRELATED,
+        /** Progress messages without a result, hidden by the chat filter. */
+        TRANSIENT,
+        ORDER_SETUP,
+        ORDER_FILLED,
+        INSTA_BUY,
+        INSTA_SELL,
+        ORDER_FLIPPED,
+        /** Any other message starting with {@code [Bazaar]}. */
+        OTHER_BAZAAR
+    }
+
+    /**
+     * @param text the message without formatting codes; empty for unrelated and transient messages, which are never
+     *     stripped
+     * @param message the parsed result message, or {@code null} when the kind has none or its body did not parse
+     */
+    public record ClassifiedMessage(Kind kind, String text, @Nullable BazaarMessage message) {
+        static final ClassifiedMessage UNRELATED = new ClassifiedMessage(Kind.UNRELATED, "", null);
+        static final ClassifiedMessage TRANSIENT = new ClassifiedMessage(Kind.TRANSIENT, "", null);
+    }
+
+    private record Rule(String prefix, Kind kind, @Nullable OrderType type) {
+
+        private boolean accepts(String text) {
+            if (this.kind != Kind.ORDER_FILLED) {
+                return true;
+            }
+            return text.endsWith(FILLED_SUFFIX) || text.endsWith(FILLED_SUFFIX + GO_TO_ORDERS_SUFFIX);
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private @Nullable Rule rule;
+
+        private static Node compile(List<Rule> rules) {
+            var root = new Node();
+            for (var rule : rules) {
+                var node = root;
+                for (int i = 0; i < rule.prefix.length(); i++) {
+                    node = node.childOrAdd(rule.prefix.charAt(i));
+                }
+                node.rule = rule;
+            }
+            return root;
+        }
+
+        private @Nullable Node child(char label) {
+            for (int i = 0; i < this.labels.length; i++) {
+                if (this.labels[i] == label) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrAdd(char label) {
+            var child = this.child(label);
+            if (child != null) {
+                return child;
+            }
+
+            child = new Node();
+            this.labels = Arrays.copyOf(this.labels, this.labels.length + 1);
+            this.children = Arrays.copyOf(this.children, this.children.length + 1);
+            this.labels[this.labels.length - 1] = label;
+            this.children[this.children.length - 1] = child;
+            return child;
+        }
+
+        /** The rule of the longest prefix of {@code raw}, ignoring formatting codes, or {@code null}. */
+        private @Nullable Rule longestMatch(String raw) {
+            Rule match = null;
+            var node = this;
+
+            for (int i = 0; i < raw.length(); i++) {
+                char ch = raw.charAt(i);
+                if (ch == '§' && i + 1 < raw.length() && isFormattingCode(raw.charAt(i + 1))) {
+                    i++;
+                    continue;
+                }
+
+                node = node.child(ch);
+                if (node == null) {
+                    break;
+                }
+                if (node.rule != null) {
+                    match = node.rule;
+                }
+            }
+
+            return match;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.MarketSnapshot.BookSide;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Estimates how fast each book side is being filled from the depth it loses between consecutive polls.
+ * <p>
+ * A side's consumption is the full amount of every previous level priced better than the new best level, plus
+ * what the new best level lost if it already existed. Levels that appear between polls count as nothing, so
+ * undercuts and fresh orders do not look like fills; cancellations at the top do, which the decay smooths out.
+ * Consumption is summed with an exponential decay of {@link #TIME_CONSTANT} and divided by the decayed length of
+ * the observed window, giving items per minute that favour the last half hour. Until polls have been observed for
+ * {@link #MIN_OBSERVED}, or while a side has not lost any depth, no rate is reported and callers fall back to the
+ * moving-week mean.
+ * <p>
+ * Only touched from the thread publishing snapshots, like {@link BazaarData#publish(MarketDelta)}.
+ */
+public final class FillRateEstimator {
+    static final Duration TIME_CONSTANT = Duration.ofMinutes(30);
+    static final Duration MIN_OBSERVED = Duration.ofMinutes(5);
+
+    private static final double TAU_MS = TIME_CONSTANT.toMillis();
+
+    // Indexed by product slot; the decayed sums are as of lastObserved.
+    private double[] buyOrdersFilled = new double[0];
+    private double[] sellOffersFilled = new double[0];
+    private long[] lastObserved = new long[0];
+    private long since = -1;
+    private long latest = -1;
+
+    /**
+     * Records the consumption of every product changed by {@code delta}. Deltas without {@code lastUpdated}
+     * timestamps, or not newer than the last observed poll, are ignored.
+     */
+    public void observe(MarketDelta delta) {
+        var previous = delta.previous();
+        var snapshot = delta.snapshot();
+        long from = previous.lastUpdated();
+        long to = snapshot.lastUpdated();
+        if (from < 0 || to <= from || to <= this.latest) {
+            return;
+        }
+
+        this.ensureCapacity(snapshot.ids().size());
+        if (this.since < 0) {
+            this.since = from;
+        }
+        this.latest = to;
+
+        for (int index = 0; index < delta.size(); index++) {
+            var productId = snapshot.ids().productId(delta.changedSlot(index));
+            int previousSlot = previous.slotOf(productId);
+            int slot = snapshot.slotOf(productId);
+            if (previousSlot < 0 || slot < 0) {
+                continue;
+            }
+
+            long buyOrders = consumed(previous.buyOrders(previousSlot), snapshot.buyOrders(slot));
+            long sellOffers = consumed(previous.sellOffers(previousSlot), snapshot.sellOffers(slot));
+            if (buyOrders > 0 || sellOffers > 0) {
+                this.record(slot, to, buyOrders, sellOffers);
+            }
+        }
+    }
+
+    /**
+     * Observed fill rate in items per minute for orders of {@code orderType} on the product in {@code slot}, or
+     * {@code NaN} when there is no usable observation.
+     */
+    public double itemsPerMinute(int slot, OrderType orderType) {
+        double observed = this.latest - this.since;
+        if (slot < 0 || slot >= this.lastObserved.length || this.since < 0 || observed < MIN_OBSERVED.toMillis()) {
+            return Double.NaN;
+        }
+
+        double filled = switch (orderType) {
+            case Buy -> this.buyOrdersFilled[slot];
+            case Sell -> this.sellOffersFilled[slot];
+        };
+        if (filled <= 0) {
+            return Double.NaN;
+        }
+
+        double decayed = filled * Math.exp(-(this.latest - this.lastObserved[slot]) / TAU_MS);
+        double window = TAU_MS * -Math.expm1(-observed / TAU_MS);
+
+        return decayed / window * Duration.ofMinutes(1).toMillis();
+    }
+
+    /** Items filled on one book side between two polls of it; both sides are best price first. */
+    static long consumed(BookSide previous, BookSide current) {
+        if (previous.isEmpty()) {
+            return 0;
+        }
+        if (current.isEmpty()) {
+            return previous.amountThrough(previous.size() - 1);
+        }
+
+        double best = current.price(0);
+        int gone = previous.levelsAhead(best, false);
+        long filled = previous.amountThrough(gone - 1);
+        if (gone < previous.size() && previous.price(gone) == best) {
+            filled += Math.max(0, previous.amount(gone) - current.amount(0));
+        }
+        return filled;
+    }
+
+    private void record(int slot, long to, long buyOrders, long sellOffers) {
+        double decay = Math.exp(-(to - this.lastObserved[slot]) / TAU_MS);
+        this.buyOrdersFilled[slot] = this.buyOrdersFilled[slot] * decay + buyOrders;
+        this.sellOffersFilled[slot] = this.sellOffersFilled[slot] * decay + sellOffers;
+        this.lastObserved[slot] = to;
+    }
+
+    private void ensureCapacity(int slots) {
+        if (slots <= this.lastObserved.length) {
+            return;
+        }
+
+        this.buyOrdersFilled = Arrays.copyOf(this.buyOrdersFilled, slots);
+        this.sellOffersFilled = Arrays.copyOf(this.sellOffersFilled, slots);
+        this.lastObserved = Arrays.copyOf(this.lastObserved, slots);
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.MarketSnapshot.BookSide;
+import java.util.Arrays;
+
+/**
+ * Per-product change set between two consecutive market snapshots.
+ * Slots refer to {@link #snapshot()}; products that disappeared are reported against the previous snapshot's
+ * slot, which the append-only id table keeps valid in the current one.
+ */
+public final class MarketDelta {
+    public static final int TOP_OF_BOOK = 1;
+    public static final int DEPTH = 1 << 1;
+    public static final int QUICK_STATUS = 1 << 2;
+    public static final int LISTING = 1 << 3;
+
+    private final MarketSnapshot previous;
+    private final MarketSnapshot snapshot;
+    private final byte[] changes;
+    private final int[] changedSlots;
+
+    private MarketDelta(MarketSnapshot previous, MarketSnapshot snapshot, byte[] changes, int[] changedSlots) {
+        this.previous = previous;
+        this.snapshot = snapshot;
+        this.changes = changes;
+        this.changedSlots = changedSlots;
+    }
+
+    public static MarketDelta between(MarketSnapshot previous, MarketSnapshot snapshot) {
+        var ids = snapshot.ids();
+        var changes = new byte[ids.size()];
+        var changedSlots = new int[ids.size()];
+        int changed = 0;
+
+        for (int slot = 0; slot < ids.size(); slot++) {
+            var productId = ids.productId(slot);
+            int flags = compare(previous, previous.slotOf(productId), snapshot, snapshot.slotOf(productId));
+
+            if (flags != 0) {
+                changes[slot] = (byte) flags;
+                changedSlots[changed++] = slot;
+            }
+        }
+
+        return new MarketDelta(previous, snapshot, changes, Arrays.copyOf(changedSlots, changed));
+    }
+
+    private static int compare(MarketSnapshot previous, int previousSlot, MarketSnapshot current, int currentSlot) {
+        if (previousSlot < 0 && currentSlot < 0) {
+            return 0;
+        }
+
+        if (previousSlot < 0 || currentSlot < 0) {
+            return LISTING | TOP_OF_BOOK | DEPTH | QUICK_STATUS;
+        }
+
+        int flags = compareSide(previous.buyOrders(previousSlot), current.buyOrders(currentSlot))
+            | compareSide(previous.sellOffers(previousSlot), current.sellOffers(currentSlot));
+
+        if (previous.buyMovingWeek(previousSlot) != current.buyMovingWeek(currentSlot)
+            || previous.sellMovingWeek(previousSlot) != current.sellMovingWeek(currentSlot)) {
+            flags |= QUICK_STATUS;
+        }
+
+        return flags;
+    }
+
+    private static int compareSide(BookSide previous, BookSide current) {
+        int flags = 0;
+
+        if (previous.isEmpty() != current.isEmpty()) {
+            return TOP_OF_BOOK | DEPTH;
+        }
+
+        if (!current.isEmpty() && !sameLevel(previous, current, 0)) {
+            flags |= TOP_OF_BOOK;
+        }
+
+        if (previous.size() != current.size()) {
+            return flags | DEPTH;
+        }
+
+        for (int level = 1; level < current.size(); level++) {
+            if (!sameLevel(previous, current, level)) {
+                return flags | DEPTH;
+            }
+        }
+
+        return flags;
+    }
+
+    private static boolean sameLevel(BookSide previous, BookSide current, int level) {
+        return Double.compare(previous.price(level), current.price(level)) == 0
+            && previous.amount(level) == current.amount(level)
+            && previous.orders(level) == current.orders(level);
+    }
+
+    public MarketSnapshot previous() {
+        return this.previous;
+    }
+
+    public MarketSnapshot snapshot() {
+        return this.snapshot;
+    }
+
+    public boolean isEmpty() {
+        return this.changedSlots.length == 0;
+    }
+
+    /** Number of products with any change. */
+    public int size() {
+        return this.changedSlots.length;
+    }
+
+    /** Slot of the {@code index}-th changed product, in slot order. */
+    public int changedSlot(int index) {
+        return this.changedSlots[index];
+    }
+
+    /** Change flags for the slot, {@code 0} if it did not change. */
+    public int changes(int slot) {
+        return slot < 0 || slot >= this.changes.length ? 0 : this.changes[slot];
+    }
+
+    public boolean changed(int slot, int mask) {
+        return (this.changes(slot) & mask) != 0;
+    }
+
+    public boolean changed(String productId) {
+        return this.changes(this.snapshot.ids().indexOf(productId)) != 0;
+    }
+
+    public boolean changed(ProductIdentity product) {
+        var productId = product.bazaarProductId();
+        return productId.isPresent() && this.changed(productId.get());
+    }
+
+    /** True if either side of the book changed at any level. */
+    public boolean bookChanged(ProductIdentity product) {
+        var productId = product.bazaarProductId();
+        return productId.isPresent()
+            && this.changed(this.snapshot.ids().indexOf(productId.get()), TOP_OF_BOOK | DEPTH | LISTING);
+    }
+}
@@ -0,0 +1,506 @@
+package com.github.lutzluca.btrbz.data;
+
+import com.github.lutzluca.btrbz.data.BazaarData.MarketPrices;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product.Summary;
+
+/**
+ * Immutable, columnar view of one Bazaar poll.
+ * Products are addressed by their {@link ProductIdTable} slot and each book side is stored as flat
+ * price/amount/orders columns, so lookups read primitives instead of walking the Hypixel reply graph.
+ * Each side also keeps per-product running totals of amounts and orders, so queue positions are a binary search
+ * plus two array reads.
+ * Snapshots are compiled off-thread and only published once complete.
+ */
+public final class MarketSnapshot {
+    private static final MarketSnapshot EMPTY = new Builder(ProductIdTable.empty(), -1).build();
+
+    private final long lastUpdated;
+    private final ProductIdTable ids;
+    private final boolean[] present;
+    private final int size;
+
+    // Hypixel summary names are action-based: sell_summary is actual buy orders,
+    // buy_summary is actual sell offers.
+    private final Columns buyOrders;
+    private final Columns sellOffers;
+    private final long[] buyMovingWeek;
+    private final long[] sellMovingWeek;
+
+    private MarketSnapshot(
+        long lastUpdated,
+        ProductIdTable ids,
+        boolean[] present,
+        int size,
+        Columns buyOrders,
+        Columns sellOffers,
+        long[] buyMovingWeek,
+        long[] sellMovingWeek
+    ) {
+        this.lastUpdated = lastUpdated;
+        this.ids = ids;
+        this.present = present;
+        this.size = size;
+        this.buyOrders = buyOrders;
+        this.sellOffers = sellOffers;
+        this.buyMovingWeek = buyMovingWeek;
+        this.sellMovingWeek = sellMovingWeek;
+    }
+
+    public static MarketSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static MarketSnapshot compile(long lastUpdated, Map<String, Product> products, ProductIdTable ids) {
+        var builder = new Builder(ids, lastUpdated);
+
+        for (var entry : products.entrySet()) {
+            var product = entry.getValue();
+            if (entry.getKey() == null || product == null) {
+                continue;
+            }
+
+            builder.product(entry.getKey());
+            forEachLevel(product.getSellSummary(), builder::buyOrder);
+            forEachLevel(product.getBuySummary(), builder::sellOffer);
+
+            var quickStatus = product.getQuickStatus();
+            if (quickStatus != null) {
+                builder.movingWeek(quickStatus.getBuyMovingWeek(), quickStatus.getSellMovingWeek());
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static void forEachLevel(List<Summary> summaries, LevelSink sink) {
+        if (summaries == null) {
+            return;
+        }
+
+        for (var summary : summaries) {
+            if (summary != null) {
+                sink.accept(summary.getPricePerUnit(), summary.getAmount(), summary.getOrders());
+            }
+        }
+    }
+
+    public long lastUpdated() {
+        return this.lastUpdated;
+    }
+
+    public ProductIdTable ids() {
+        return this.ids;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /** Returns the slot of a product present in this snapshot, or {@code -1}. */
+    public int slotOf(String productId) {
+        int slot = this.ids.indexOf(productId);
+        return slot >= 0 && this.present[slot] ? slot : -1;
+    }
+
+    public int slotOf(ProductIdentity product) {
+        var productId = product.bazaarProductId();
+        return productId.isPresent() ? this.slotOf(productId.get()) : -1;
+    }
+
+    public boolean contains(ProductIdentity product) {
+        return this.slotOf(product) >= 0;
+    }
+
+    public BookSide buyOrders(int slot) {
+        return this.buyOrders.side(slot);
+    }
+
+    public BookSide sellOffers(int slot) {
+        return this.sellOffers.side(slot);
+    }
+
+    public BookSide bookSide(int slot, OrderType orderType) {
+        return switch (orderType) {
+            case Buy -> this.buyOrders(slot);
+            case Sell -> this.sellOffers(slot);
+        };
+    }
+
+    public BookSide bookSide(ProductIdentity product, OrderType orderType) {
+        int slot = this.slotOf(product);
+        return slot < 0 ? BookSide.EMPTY : this.bookSide(slot, orderType);
+    }
+
+    /** Best buy order price for the slot, or {@code NaN} when the side is empty. */
+    public double bestBuyOrderPrice(int slot) {
+        return this.buyOrders.firstPrice(slot);
+    }
+
+    /** Best sell offer price for the slot, or {@code NaN} when the side is empty. */
+    public double bestSellOfferPrice(int slot) {
+        return this.sellOffers.firstPrice(slot);
+    }
+
+    public long buyMovingWeek(int slot) {
+        return slot < 0 ? 0 : this.buyMovingWeek[slot];
+    }
+
+    public long sellMovingWeek(int slot) {
+        return slot < 0 ? 0 : this.sellMovingWeek[slot];
+    }
+
+    public Optional<Double> lowestSellOfferPrice(ProductIdentity product) {
+        return price(this.bestSellOfferPrice(this.slotOf(product)));
+    }
+
+    public Optional<Double> highestBuyOrderPrice(ProductIdentity product) {
+        return price(this.bestBuyOrderPrice(this.slotOf(product)));
+    }
+
+    public MarketPrices getMarketPrices(ProductIdentity product) {
+        int slot = this.slotOf(product);
+        return new MarketPrices(
+            price(this.bestBuyOrderPrice(slot)),
+            price(this.bestSellOfferPrice(slot)));
+    }
+
+    public Optional<Double> productSpread(ProductIdentity product) {
+        int slot = this.slotOf(product);
+        double spread = this.bestSellOfferPrice(slot) - this.bestBuyOrderPrice(slot);
+        return price(spread);
+    }
+
+    public OrderLists getOrderLists(ProductIdentity product) {
+        int slot = this.slotOf(product);
+        return slot < 0
+            ? OrderLists.empty()
+            : new OrderLists(this.buyOrders(slot), this.sellOffers(slot));
+    }
+
+    private static Optional<Double> price(double value) {
+        return Double.isNaN(value) ? Optional.empty() : Optional.of(value);
+    }
+
+    @FunctionalInterface
+    interface LevelSink {
+        void accept(double pricePerUnit, long amount, long orders);
+    }
+
+    public record OrderLists(BookSide buyOrders, BookSide sellOffers) {
+        private static final OrderLists EMPTY = new OrderLists(BookSide.EMPTY, BookSide.EMPTY);
+
+        public static OrderLists empty() {
+            return EMPTY;
+        }
+    }
+
+    /** Read-only window over one product's levels on one side of the book, best price first. */
+    public static final class BookSide {
+        public static final BookSide EMPTY = new BookSide(Columns.EMPTY, 0, 0);
+
+        private final Columns columns;
+        private final int start;
+        private final int size;
+
+        private BookSide(Columns columns, int start, int size) {
+            this.columns = columns;
+            this.start = start;
+            this.size = size;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        public double price(int level) {
+            return this.columns.prices[this.index(level)];
+        }
+
+        public long amount(int level) {
+            return this.columns.amounts[this.index(level)];
+        }
+
+        public long orders(int level) {
+            return this.columns.orders[this.index(level)];
+        }
+
+        /** Total amount of levels {@code 0..level}, or {@code 0} for {@code level == -1}. */
+        public long amountThrough(int level) {
+            return level == -1 ? 0 : this.columns.cumulativeAmounts[this.index(level)];
+        }
+
+        /** Total orders of levels {@code 0..level}, or {@code 0} for {@code level == -1}. */
+        public long ordersThrough(int level) {
+            return level == -1 ? 0 : this.columns.cumulativeOrders[this.index(level)];
+        }
+
+        /**
+         * Number of leading levels priced better than {@code pricePerUnit} (higher for buy orders, lower for sell
+         * offers), also counting levels at exactly that price when {@code includeAtPrice} is set.
+         */
+        public int levelsAhead(double pricePerUnit, boolean includeAtPrice) {
+            int low = 0;
+            int high = this.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (this.isAhead(this.columns.prices[this.start + mid], pricePerUnit, includeAtPrice)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean isAhead(double price, double pricePerUnit, boolean includeAtPrice) {
+            if (price == pricePerUnit) {
+                return includeAtPrice;
+            }
+            return this.columns.ascending ? price < pricePerUnit : price > pricePerUnit;
+        }
+
+        private int index(int level) {
+            if (level < 0 || level >= this.size) {
+                throw new IndexOutOfBoundsException(
+                    "Level " + level + " out of bounds for book side of size " + this.size);
+            }
+
+            return this.start + level;
+        }
+    }
+
+    private static final class Columns {
+        private static final Columns EMPTY = new ColumnBuilder(false).build(new int[0], 0);
+
+        // Buy orders are best-first by descending price, sell offers by ascending price.
+        private final boolean ascending;
+        private final int[] starts;
+        private final int[] sizes;
+        private final double[] prices;
+        private final long[] amounts;
+        private final long[] orders;
+        // Running totals restart at each product's first level.
+        private final long[] cumulativeAmounts;
+        private final long[] cumulativeOrders;
+
+        private Columns(
+            boolean ascending,
+            int[] starts,
+            int[] sizes,
+            double[] prices,
+            long[] amounts,
+            long[] orders,
+            long[] cumulativeAmounts,
+            long[] cumulativeOrders
+        ) {
+            this.ascending = ascending;
+            this.starts = starts;
+            this.sizes = sizes;
+            this.prices = prices;
+            this.amounts = amounts;
+            this.orders = orders;
+            this.cumulativeAmounts = cumulativeAmounts;
+            this.cumulativeOrders = cumulativeOrders;
+        }
+
+        private BookSide side(int slot) {
+            if (slot < 0 || this.sizes[slot] == 0) {
+                return BookSide.EMPTY;
+            }
+
+            return new BookSide(this, this.starts[slot], this.sizes[slot]);
+        }
+
+        private double firstPrice(int slot) {
+            if (slot < 0 || this.sizes[slot] == 0) {
+                return Double.NaN;
+            }
+
+            return this.prices[this.starts[slot]];
+        }
+    }
+
+    /**
+     * Incremental snapshot compiler used by both the Gson and streaming fetch paths.
+     * Call {@link #product(String)} before adding a product's levels; each side of a product must be
+     * added contiguously.
+     */
+    public static final class Builder {
+        private final ProductIdTable previousIds;
+        private long lastUpdated;
+        private final List<String> productIds = new ArrayList<>();
+        private final ColumnBuilder buyOrders = new ColumnBuilder(false);
+        private final ColumnBuilder sellOffers = new ColumnBuilder(true);
+        private long[] buyMovingWeek = new long[64];
+        private long[] sellMovingWeek = new long[64];
+
+        public Builder(ProductIdTable previousIds, long lastUpdated) {
+            this.previousIds = previousIds;
+            this.lastUpdated = lastUpdated;
+        }
+
+        /** Overrides the poll timestamp; the streaming decoder may only see it after the products. */
+        public Builder lastUpdated(long lastUpdated) {
+            this.lastUpdated = lastUpdated;
+            return this;
+        }
+
+        public Builder product(String productId) {
+            int index = this.productIds.size();
+            this.productIds.add(productId);
+            this.buyOrders.begin(index);
+            this.sellOffers.begin(index);
+
+            if (index == this.buyMovingWeek.length) {
+                this.buyMovingWeek = Arrays.copyOf(this.buyMovingWeek, index * 2);
+                this.sellMovingWeek = Arrays.copyOf(this.sellMovingWeek, index * 2);
+            }
+
+            return this;
+        }
+
+        /** Adds a buy order level (Hypixel {@code sell_summary}) to the current product. */
+        public Builder buyOrder(double pricePerUnit, long amount, long orders) {
+            this.requireProduct();
+            this.buyOrders.add(pricePerUnit, amount, orders);
+            return this;
+        }
+
+        /** Adds a sell offer level (Hypixel {@code buy_summary}) to the current product. */
+        public Builder sellOffer(double pricePerUnit, long amount, long orders) {
+            this.requireProduct();
+            this.sellOffers.add(pricePerUnit, amount, orders);
+            return this;
+        }
+
+        public Builder movingWeek(long buyMovingWeek, long sellMovingWeek) {
+            this.requireProduct();
+            int index = this.productIds.size() - 1;
+            this.buyMovingWeek[index] = buyMovingWeek;
+            this.sellMovingWeek[index] = sellMovingWeek;
+            return this;
+        }
+
+        public MarketSnapshot build() {
+            var ids = this.previousIds.extendedWith(this.productIds);
+            int slots = ids.size();
+            var present = new boolean[slots];
+            var buyMovingWeek = new long[slots];
+            var sellMovingWeek = new long[slots];
+            int size = 0;
+
+            var slotByIndex = new int[this.productIds.size()];
+            for (int index = 0; index < slotByIndex.length; index++) {
+                int slot = ids.indexOf(this.productIds.get(index));
+                slotByIndex[index] = slot;
+
+                if (!present[slot]) {
+                    present[slot] = true;
+                    size++;
+                }
+                buyMovingWeek[slot] = this.buyMovingWeek[index];
+                sellMovingWeek[slot] = this.sellMovingWeek[index];
+            }
+
+            return new MarketSnapshot(
+                this.lastUpdated,
+                ids,
+                present,
+                size,
+                this.buyOrders.build(slotByIndex, slots),
+                this.sellOffers.build(slotByIndex, slots),
+                buyMovingWeek,
+                sellMovingWeek);
+        }
+
+        private void requireProduct() {
+            if (this.productIds.isEmpty()) {
+                throw new IllegalStateException("No product started; call product(id) first");
+            }
+        }
+    }
+
+    private static final class ColumnBuilder {
+        private final boolean ascending;
+        private int[] starts = new int[64];
+        private int[] ends = new int[64];
+        private double[] prices = new double[1024];
+        private long[] amounts = new long[1024];
+        private long[] orders = new long[1024];
+        private int size;
+        private int current = -1;
+
+        private ColumnBuilder(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        private void begin(int index) {
+            if (index == this.starts.length) {
+                this.starts = Arrays.copyOf(this.starts, index * 2);
+                this.ends = Arrays.copyOf(this.ends, index * 2);
+            }
+
+            this.current = index;
+            this.starts[index] = this.size;
+            this.ends[index] = this.size;
+        }
+
+        private void add(double pricePerUnit, long amount, long orders) {
+            if (this.size == this.prices.length) {
+                int capacity = this.size * 2;
+                this.prices = Arrays.copyOf(this.prices, capacity);
+                this.amounts = Arrays.copyOf(this.amounts, capacity);
+                this.orders = Arrays.copyOf(this.orders, capacity);
+            }
+
+            this.prices[this.size] = pricePerUnit;
+            this.amounts[this.size] = amount;
+            this.orders[this.size] = orders;
+            this.size++;
+            this.ends[this.current] = this.size;
+        }
+
+        private Columns build(int[] slotByIndex, int slots) {
+            var starts = new int[slots];
+            var sizes = new int[slots];
+            var cumulativeAmounts = new long[this.size];
+            var cumulativeOrders = new long[this.size];
+
+            for (int index = 0; index < slotByIndex.length; index++) {
+                int slot = slotByIndex[index];
+                starts[slot] = this.starts[index];
+                sizes[slot] = this.ends[index] - this.starts[index];
+
+                long amount = 0;
+                long orders = 0;
+                for (int level = this.starts[index]; level < this.ends[index]; level++) {
+                    amount += this.amounts[level];
+                    orders += this.orders[level];
+                    cumulativeAmounts[level] = amount;
+                    cumulativeOrders[level] = orders;
+                }
+            }
+
+            return new Columns(
+                this.ascending,
+                starts,
+                sizes,
+                Arrays.copyOf(this.prices, this.size),
+                Arrays.copyOf(this.amounts, this.size),
+                Arrays.copyOf(this.orders, this.size),
+                cumulativeAmounts,
+                cumulativeOrders);
+        }
+    }
+}
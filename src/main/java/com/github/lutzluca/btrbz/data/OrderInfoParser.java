@@ -6,6 +6,7 @@ import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.Inst
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.OrderFilled;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.OrderFlipped;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.OrderSetup;
+import com.github.lutzluca.btrbz.data.ChatClassifier.Kind;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo.FilledOrderInfo;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo.UnfilledOrderInfo;
@@ -19,6 +20,7 @@ import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public final class OrderInfoParser {
@@ -26,160 +28,50 @@ public final class OrderInfoParser {
     private OrderInfoParser() {}
 
     public static Try<BazaarMessage> parseBazaarMessage(String bazaarMsg) {
-        if (!bazaarMsg.startsWith("[Bazaar]")) {
-            return Try.failure(new IllegalArgumentException(
-                "Unhandled bazaar message format: " + bazaarMsg));
-        }
-
-        var msg = bazaarMsg.replace("[Bazaar]", "").trim();
-
-        if (msg.endsWith("was filled!") || msg.endsWith("was filled! [Go To Orders]")) {
-            return parseFilledOrderMessage(msg).onFailure(err -> logParseError(
-                "filled order",
-                msg,
-                err));
-        }
-
-        if (msg.contains("Setup!")) {
-            return parseSetupOrderMessage(msg).onFailure(err -> logParseError(
-                "setup order",
-                msg,
-                err));
-        }
-
-        if (msg.startsWith("Bought") || msg.startsWith("Sold")) {
-            return parseInstaOrderMessage(msg).onFailure(err -> logParseError(
-                "insta order",
-                msg,
-                err));
-        }
-
-        if (msg.startsWith("Order Flipped!")) {
-            return parseFlippedOrderMessage(msg).onFailure(err -> logParseError(
-                "flipped order",
-                msg,
-                err));
-        }
-
-        log.trace("Unhandled bazaar message format: '{}'", msg);
-        return Try.failure(new IllegalArgumentException("Unhandled bazaar message format: " + msg));
+        var message = ChatClassifier.classify(bazaarMsg).message();
+        return message != null
+            ? Try.success(message)
+            : Try.failure(new IllegalArgumentException("Unhandled bazaar message format: " + bazaarMsg));
     }
 
-    private static void logParseError(String ctx, String msg, Throwable err) {
-        log.warn("Failed to parse {}: '{}'", ctx, msg, err);
-    }
-
-    private static ParsedItem parseItemWithValue(String fragment, String ctx) {
-        // e.g. "12x Enchanted Diamond for 230,123 coins."
-        var parts = fragment.split(" for ", 2);
-        if (parts.length != 2) {
-            throw new IllegalArgumentException(ctx + ": missing 'for' in '" + fragment + "'");
-        }
-
-        var volumeAndName = parts[0].trim();
-        var pricePart = parts[1]
-            .trim()
-            .replace("coins.", "")
-            .replace("coins!", "")
-            .replace("coins of total expected profit.", "")
-            .trim();
-
-        var parsedVolume = parseVolume(volumeAndName, ctx);
-        var price = Utils
-            .parseUsFormattedNumber(pricePart)
-            .getOrElseThrow(() -> new IllegalArgumentException(ctx + ": invalid price in '" + fragment + "'"));
-
-        return new ParsedItem(parsedVolume.volume, parsedVolume.productName, price.doubleValue());
-    }
-
-    private static ParsedVolume parseVolume(String fragment, String ctx) {
-        // "12x Enchanted Diamond"
-        var xSplit = fragment.split("x", 2);
-        if (xSplit.length != 2) {
-            throw new IllegalArgumentException(ctx + ": missing 'x' in '" + fragment + "'");
-        }
-
-        var volume = Utils
-            .parseUsFormattedNumber(xSplit[0].trim())
-            .getOrElseThrow(() -> new IllegalArgumentException(ctx + ": invalid volume in '" + fragment + "'"));
-
-        var product = xSplit[1].trim();
-        return new ParsedVolume(volume.intValue(), product);
-    }
-
-    private static Try<BazaarMessage> parseSetupOrderMessage(String msg) {
-        // "Buy Order Setup! 12x Enchanted Diamond for 431,123 coins."
-        return Try.of(() -> {
-            var parts = msg.split("!", 2);
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Setup message: missing '!' in '" + msg + "'");
-            }
-
-            var header = parts[0].trim(); // "Buy Order Setup" or "Sell Offer Setup"
-            var body = parts[1].trim();
-
-            var type = switch (header) {
-                case "Buy Order Setup" -> OrderType.Buy;
-                case "Sell Offer Setup" -> OrderType.Sell;
-                default ->
-                    throw new IllegalArgumentException("Setup message: unknown type '" + header + "'");
-            };
-
-            var parsed = parseItemWithValue(body, "Setup message");
-            return new OrderSetup(type, parsed.volume, parsed.productName, parsed.value);
-        });
-    }
-
-    private static Try<BazaarMessage> parseFilledOrderMessage(String msg) {
-        // "Your Buy Order for 12x Enchanted Diamond was filled!"
-        return Try.of(() -> {
-            var forSplit = msg.split(" for ", 2);
-            if (forSplit.length != 2) {
-                throw new IllegalArgumentException("Filled order: missing 'for' in '" + msg + "'");
-            }
-
-            var typePart = forSplit[0].trim();
-            var orderType = switch (typePart) {
-                case "Your Buy Order" -> OrderType.Buy;
-                case "Your Sell Offer" -> OrderType.Sell;
-                default ->
-                    throw new IllegalArgumentException("Filled order: unknown type '" + typePart + "'");
+    /**
+     * Parses the body of a result message classified as {@code kind}, which starts at {@code from}, in one pass.
+     * Returns {@code null} and logs when the body does not have the expected shape.
+     */
+    static @Nullable BazaarMessage parseBazaarMessage(Kind kind, @Nullable OrderType type, String msg, int from) {
+        var scanner = new MessageScanner(msg, from);
+        try {
+            return switch (kind) {
+                // "Buy Order Setup! 12x Enchanted Diamond for 431,123 coins."
+                case ORDER_SETUP -> {
+                    int volume = scanner.volume();
+                    yield new OrderSetup(type, volume, scanner.productName(" for "), scanner.number());
+                }
+                // "Your Buy Order for 12x Enchanted Diamond was filled!"
+                case ORDER_FILLED -> {
+                    int volume = scanner.volume();
+                    yield new OrderFilled(type, volume, scanner.productName(ChatClassifier.FILLED_SUFFIX));
+                }
+                // "Bought 12x Enchanted Diamond for 123,521 coins!"
+                case INSTA_BUY -> {
+                    int volume = scanner.volume();
+                    yield new InstaBuy(volume, scanner.productName(" for "), scanner.number());
+                }
+                case INSTA_SELL -> {
+                    int volume = scanner.volume();
+                    yield new InstaSell(volume, scanner.productName(" for "), scanner.number());
+                }
+                // "Order Flipped! 3x Enchanted Sugar for 123,521 coins of total expected profit."
+                case ORDER_FLIPPED -> {
+                    int volume = scanner.volume();
+                    yield new OrderFlipped(volume, scanner.productName(" for "), scanner.number());
+                }
+                case UNRELATED, TRANSIENT, OTHER_BAZAAR -> null;
             };
-
-            var fragment = forSplit[1].replaceFirst("was filled!.*", "").trim();
-            var parsed = parseVolume(fragment, "Filled order");
-
-            return new OrderFilled(orderType, parsed.volume, parsed.productName);
-        });
-    }
-
-    private static Try<BazaarMessage> parseInstaOrderMessage(String msg) {
-        // "Bought 12x Enchanted Diamond for 123,521 coins!"
-        return Try.of(() -> {
-            var isBuy = msg.startsWith("Bought");
-            var action = isBuy ? "Bought" : "Sold";
-            var fragment = msg.substring(action.length()).trim();
-
-            var parsed = parseItemWithValue(fragment, "Insta " + action);
-            return isBuy
-                ? new InstaBuy(parsed.volume, parsed.productName, parsed.value)
-                : new InstaSell(parsed.volume, parsed.productName, parsed.value);
-        });
-    }
-
-    private static Try<BazaarMessage> parseFlippedOrderMessage(String msg) {
-        // "Order Flipped! 3x Enchanted Sugar for 123,521 coins of total expected profit."
-        return Try.of(() -> {
-            var parts = msg.split("!", 2);
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Flipped order: missing '!' in '" + msg + "'");
-            }
-
-            var body = parts[1].trim();
-            var parsed = parseItemWithValue(body, "Flipped order");
-
-            return new OrderFlipped(parsed.volume, parsed.productName, parsed.value);
-        });
+        } catch (IllegalArgumentException err) {
+            log.warn("Failed to parse {} message: '{}'", kind, msg, err);
+            return null;
+        }
     }
 
     public static Try<OrderInfo> parseOrderInfo(ItemStack item, int slotIdx) {
@@ -501,9 +393,100 @@ public final class OrderInfoParser {
         });
     }
 
-    private record ParsedItem(int volume, String productName, double value) {}
+    /** Cursor over a chat message that reads US formatted numbers without intermediate strings. */
+    private static final class MessageScanner {
+        // Mantissas of up to 18 digits fit a long.
+        private static final int MAX_DIGITS = 18;
+        private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+        private final String text;
+        private int pos;
+
+        private MessageScanner(String text, int pos) {
+            this.text = text;
+            this.pos = pos;
+        }
+
+        /** Reads a volume such as {@code 1,024x}. */
+        private int volume() {
+            this.skipSpaces();
+            double volume = this.number();
+            this.skipSpaces();
+            if (this.pos >= this.text.length() || this.text.charAt(this.pos) != 'x') {
+                throw new IllegalArgumentException("missing 'x' after the volume at " + this.pos);
+            }
+            if (volume != Math.rint(volume) || volume > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("invalid volume " + volume);
+            }
+
+            this.pos++;
+            return (int) volume;
+        }
+
+        /** Reads the trimmed product name up to {@code delimiter} and moves past the delimiter. */
+        private String productName(String delimiter) {
+            int end = this.text.indexOf(delimiter, this.pos);
+            if (end < 0) {
+                throw new IllegalArgumentException("missing '" + delimiter.trim() + "' after the product name");
+            }
+
+            var name = this.text.substring(this.pos, end).trim();
+            this.pos = end + delimiter.length();
+            return name;
+        }
 
-    private record ParsedVolume(int volume, String productName) {}
+        /**
+         * Reads a number such as {@code 1,234.5}, like {@link Utils#parseUsFormattedNumber}: grouping commas are
+         * skipped and whatever follows the number is left unread.
+         */
+        private double number() {
+            this.skipSpaces();
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean fraction = false;
+
+            for (; this.pos < this.text.length(); this.pos++) {
+                char ch = this.text.charAt(this.pos);
+                if (ch >= '0' && ch <= '9') {
+                    if (++digits > MAX_DIGITS) {
+                        throw new IllegalArgumentException("number too long at " + this.pos);
+                    }
+                    mantissa = mantissa * 10 + (ch - '0');
+                    if (fraction) {
+                        fractionDigits++;
+                    }
+                } else if (ch == ',' && digits > 0 && !fraction) {
+                    continue;
+                } else if (ch == '.' && !fraction && this.isDigitAt(this.pos + 1)) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+            }
+
+            if (digits == 0) {
+                throw new IllegalArgumentException("missing number at " + this.pos);
+            }
+            return mantissa / POWERS_OF_TEN[fractionDigits];
+        }
+
+        private boolean isDigitAt(int index) {
+            if (index >= this.text.length()) {
+                return false;
+            }
+
+            char ch = this.text.charAt(index);
+            return ch >= '0' && ch <= '9';
+        }
+
+        private void skipSpaces() {
+            while (this.pos < this.text.length() && this.text.charAt(this.pos) == ' ') {
+                this.pos++;
+            }
+        }
+    }
 
     private record OrderDetails(
         double pricePerUnit, int volume, int filledAmount, int unclaimed, boolean filled
@@ -313,12 +313,24 @@ public final class OrderModels {
             return this.product.strippedName();
         }
 
+        public MatchKey matchKey() {
+            return new MatchKey(Utils.normalizeDisplayName(this.uiProductName), this.type, this.volume);
+        }
+
         public boolean matches(BazaarMessage.OrderSetup setupInfo) {
-            return Utils.normalizeDisplayName(this.uiProductName)
-                .equals(Utils.normalizeDisplayName(setupInfo.productName()))
-                && this.type == setupInfo.type()
-                && this.volume == setupInfo.volume()
+            return this.matchKey().equals(MatchKey.of(setupInfo))
                 && Double.compare(this.total, setupInfo.total()) == 0;
         }
+
+        /** The part of {@link #matches} that an {@link BazaarMessage.OrderSetup} message can be looked up by. */
+        public record MatchKey(String normalizedProductName, OrderType type, int volume) {
+
+            public static MatchKey of(BazaarMessage.OrderSetup setupInfo) {
+                return new MatchKey(
+                    Utils.normalizeDisplayName(setupInfo.productName()),
+                    setupInfo.type(),
+                    setupInfo.volume());
+            }
+        }
     }
 }
@@ -0,0 +1,218 @@
+package com.github.lutzluca.btrbz.data;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Learns when Hypixel refreshes the Bazaar and decides when the next request should fire.
+ * The refresh period is the median gap between observed {@code lastUpdated} values, and the delay between a
+ * refresh and its visibility to us is the smallest receipt lag seen in the window (it also absorbs clock skew).
+ * Not thread-safe; confined to the poller thread. {@link #metrics()} may be read from any thread.
+ */
+public final class PollSchedule {
+    static final long DEFAULT_PERIOD_MS = 20_000;
+    static final int WINDOW = 16;
+
+    private static final long MIN_PERIOD_MS = 1_000;
+    private static final long MAX_PERIOD_MS = 120_000;
+    private static final long SAFETY_MARGIN_MS = 150;
+    private static final long MIN_DELAY_MS = 100;
+    private static final long UNCHANGED_BASE_BACKOFF_MS = 100;
+    private static final long UNCHANGED_MAX_BACKOFF_MS = 2_000;
+    private static final int MAX_UNCHANGED_RETRIES = 8;
+
+    private final LongSupplier clock;
+    private final long[] updates = new long[WINDOW];
+    private final long[] lags = new long[WINDOW];
+    private int samples;
+    private int head;
+
+    private long lastUpdated = -1;
+    private long periodMs = DEFAULT_PERIOD_MS;
+    private int unchangedStreak;
+    private int errorStreak;
+
+    private long requests;
+    private long wastedRequests;
+    private long failedRequests;
+    private long lastPhaseErrorMs;
+    private double meanAbsPhaseErrorMs;
+    private volatile Metrics metrics = new Metrics(DEFAULT_PERIOD_MS, 0, 0, 0, 0, 0, 0);
+
+    PollSchedule() {
+        this(System::currentTimeMillis);
+    }
+
+    PollSchedule(LongSupplier clock) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    long lastUpdated() {
+        return this.lastUpdated;
+    }
+
+    public Metrics metrics() {
+        return this.metrics;
+    }
+
+    /** Records a reply with a new {@code lastUpdated} and returns the delay until the next request. */
+    long onChanged(long lastUpdated) {
+        long now = this.clock.getAsLong();
+        this.requests++;
+        this.unchangedStreak = 0;
+        this.errorStreak = 0;
+
+        if (this.lastUpdated != -1 && this.samples > 1) {
+            long predicted = this.predictedAfter(this.lastUpdated, lastUpdated);
+            this.lastPhaseErrorMs = lastUpdated - predicted;
+            this.meanAbsPhaseErrorMs = this.meanAbsPhaseErrorMs == 0
+                ? Math.abs(this.lastPhaseErrorMs)
+                : this.meanAbsPhaseErrorMs * 0.8 + Math.abs(this.lastPhaseErrorMs) * 0.2;
+        }
+
+        this.updates[this.head] = lastUpdated;
+        this.lags[this.head] = now - lastUpdated;
+        this.head = (this.head + 1) % WINDOW;
+        this.samples = Math.min(this.samples + 1, WINDOW);
+        this.lastUpdated = lastUpdated;
+        this.periodMs = this.estimatePeriod();
+        this.publishMetrics();
+
+        return this.untilNextRefresh(now);
+    }
+
+    /** Records a reply whose data had not been refreshed yet; retries with bounded exponential backoff. */
+    long onUnchanged() {
+        long now = this.clock.getAsLong();
+        this.requests++;
+        this.wastedRequests++;
+        this.errorStreak = 0;
+        this.unchangedStreak++;
+        this.publishMetrics();
+
+        if (this.unchangedStreak > MAX_UNCHANGED_RETRIES) {
+            this.unchangedStreak = 0;
+            return Math.max(MIN_DELAY_MS, this.periodMs);
+        }
+
+        long backoff = Math.min(
+            UNCHANGED_BASE_BACKOFF_MS << Math.min(this.unchangedStreak - 1, 16),
+            UNCHANGED_MAX_BACKOFF_MS);
+        // Never sleep past the following refresh just because the current one is late.
+        return Math.max(MIN_DELAY_MS, Math.min(backoff, this.untilNextRefresh(now)));
+    }
+
+    /** Consecutive unchanged replies; reset to zero once the retry budget is spent. */
+    int unchangedStreak() {
+        return this.unchangedStreak;
+    }
+
+    /** Records a failed request and returns an error-class-specific, jittered exponential backoff. */
+    long onError(ErrorClass errorClass) {
+        this.requests++;
+        this.failedRequests++;
+        this.errorStreak++;
+        this.publishMetrics();
+
+        long backoff = errorClass.baseBackoffMs << Math.min(this.errorStreak - 1, 16);
+        long capped = Math.min(backoff, errorClass.maxBackoffMs);
+        long jitter = ThreadLocalRandom.current().nextLong(capped / 10 + 1);
+
+        return capped + jitter;
+    }
+
+    private long untilNextRefresh(long now) {
+        if (this.lastUpdated == -1) {
+            return DEFAULT_PERIOD_MS;
+        }
+
+        long nextRefresh = this.lastUpdated + this.periodMs;
+        while (nextRefresh + this.minLag() + SAFETY_MARGIN_MS <= now) {
+            nextRefresh += this.periodMs;
+        }
+
+        return Math.max(MIN_DELAY_MS, nextRefresh + this.minLag() + SAFETY_MARGIN_MS - now);
+    }
+
+    private long predictedAfter(long previous, long actual) {
+        long steps = Math.max(1, Math.round((actual - previous) / (double) this.periodMs));
+        return previous + steps * this.periodMs;
+    }
+
+    private long minLag() {
+        long min = Long.MAX_VALUE;
+        for (int index = 0; index < this.samples; index++) {
+            min = Math.min(min, this.lags[index]);
+        }
+
+        return this.samples == 0 ? 0 : Math.max(0, min);
+    }
+
+    private long estimatePeriod() {
+        if (this.samples < 2) {
+            return DEFAULT_PERIOD_MS;
+        }
+
+        var ordered = new long[this.samples];
+        int oldest = this.samples < WINDOW ? 0 : this.head;
+        for (int index = 0; index < this.samples; index++) {
+            ordered[index] = this.updates[(oldest + index) % WINDOW];
+        }
+
+        var gaps = new long[this.samples - 1];
+        for (int index = 1; index < this.samples; index++) {
+            gaps[index - 1] = ordered[index] - ordered[index - 1];
+        }
+
+        Arrays.sort(gaps);
+        long median = gaps[gaps.length / 2];
+
+        return Math.clamp(median, MIN_PERIOD_MS, MAX_PERIOD_MS);
+    }
+
+    private void publishMetrics() {
+        this.metrics = new Metrics(
+            this.periodMs,
+            this.lastPhaseErrorMs,
+            Math.round(this.meanAbsPhaseErrorMs),
+            this.minLag(),
+            this.requests,
+            this.wastedRequests,
+            this.failedRequests);
+    }
+
+    enum ErrorClass {
+        /** HTTP 429 or a throttled key; back off hard. */
+        RateLimited(30_000, 300_000),
+        /** HTTP 5xx from Hypixel. */
+        Server(2_000, 60_000),
+        /** Connection failures and timeouts. */
+        Network(1_000, 30_000),
+        /** Unsuccessful or unreadable replies. */
+        BadReply(2_000, 60_000);
+
+        private final long baseBackoffMs;
+        private final long maxBackoffMs;
+
+        ErrorClass(long baseBackoffMs, long maxBackoffMs) {
+            this.baseBackoffMs = baseBackoffMs;
+            this.maxBackoffMs = maxBackoffMs;
+        }
+    }
+
+    /**
+     * Scheduler health: learned refresh period, last and smoothed phase error of the period prediction, the
+     * learned refresh-to-visibility lag, and request counters. Wasted requests returned unchanged data.
+     */
+    public record Metrics(
+        long observedPeriodMs,
+        long lastPhaseErrorMs,
+        long meanAbsPhaseErrorMs,
+        long visibilityLagMs,
+        long requests,
+        long wastedRequests,
+        long failedRequests
+    ) {}
+}
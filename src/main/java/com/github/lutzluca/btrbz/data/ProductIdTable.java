@@ -0,0 +1,71 @@
+package com.github.lutzluca.btrbz.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Append-only interning of Bazaar product ids to dense slots.
+ * Slots never move once assigned, so consecutive market snapshots can be compared slot by slot.
+ */
+public final class ProductIdTable {
+    private static final ProductIdTable EMPTY = new ProductIdTable(new String[0], Map.of());
+
+    private final String[] ids;
+    private final Map<String, Integer> slots;
+
+    private ProductIdTable(String[] ids, Map<String, Integer> slots) {
+        this.ids = ids;
+        this.slots = slots;
+    }
+
+    public static ProductIdTable empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return this.ids.length;
+    }
+
+    /** Returns the slot for the id, or {@code -1} if it has never been interned. */
+    public int indexOf(@Nullable String productId) {
+        if (productId == null) {
+            return -1;
+        }
+
+        var slot = this.slots.get(productId);
+        return slot == null ? -1 : slot;
+    }
+
+    public String productId(int slot) {
+        return this.ids[slot];
+    }
+
+    /** Returns this table when all ids are already known; otherwise a copy with the new ids appended. */
+    public ProductIdTable extendedWith(Collection<String> productIds) {
+        int missing = 0;
+        for (var id : productIds) {
+            if (!this.slots.containsKey(id)) {
+                missing++;
+            }
+        }
+
+        if (missing == 0) {
+            return this;
+        }
+
+        var ids = Arrays.copyOf(this.ids, this.ids.length + missing);
+        var slots = new HashMap<String, Integer>(this.slots);
+        int next = this.ids.length;
+
+        for (var id : productIds) {
+            if (slots.putIfAbsent(id, next) == null) {
+                ids[next++] = id;
+            }
+        }
+
+        return new ProductIdTable(Arrays.copyOf(ids, next), slots);
+    }
+}
@@ -1,70 +1,121 @@
 package com.github.lutzluca.btrbz.data;
 
-import com.github.lutzluca.btrbz.utils.Utils;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.SequencedSet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
-
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Insertion-ordered store whose entries expire a fixed time after being added. Since every entry has the same time
+ * to live, insertion order is expiry order: expired entries are always at the head, and each store only asks the
+ * shared sweeper thread to wake it at its oldest entry's deadline. A store created with {@link #keyedBy} also indexes
+ * entries by key, so {@link #removeFirstMatch(Object, Predicate)} only looks at entries sharing that key.
+ */
 @Slf4j
 public class TimedStore<T> implements AutoCloseable {
 
-    private final long timeToLiveMs;
-    private final LongSupplier clock;
-    private final List<Entry<T>> entries = new ArrayList<>();
-
-    // maybe use a shared `ScheduledExecutorService` for all TimedStore instances.
-    // each TimedStore would register itself for periodic cleanup
-    // avoiding unnecessary resource usage
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "btrbz-timedstore-cleanup");
         t.setDaemon(true);
         return t;
     });
 
+    private final long timeToLiveMs;
+    private final LongSupplier clock;
+    private final @Nullable Function<? super T, ?> keyExtractor;
+    private final SequencedSet<Entry<T>> entries = new LinkedHashSet<>();
+    private final Map<Object, ArrayDeque<Entry<T>>> byKey = new HashMap<>();
+
+    private @Nullable ScheduledFuture<?> pendingSweep;
+    private boolean closed;
+
     public TimedStore(long timeToLiveMs) {
         this(timeToLiveMs, System::currentTimeMillis);
     }
 
     TimedStore(long timeToLiveMs, LongSupplier clock) {
+        this(timeToLiveMs, clock, null);
+    }
+
+    TimedStore(long timeToLiveMs, LongSupplier clock, @Nullable Function<? super T, ?> keyExtractor) {
         if (timeToLiveMs <= 0) {
             throw new IllegalArgumentException("TimedStore timeToLiveMs must be > 0");
         }
 
         this.timeToLiveMs = timeToLiveMs;
         this.clock = Objects.requireNonNull(clock, "TimedStore clock must not be null");
-        this.scheduler.scheduleAtFixedRate(
-            this::cleanupExpired,
-            timeToLiveMs,
+        this.keyExtractor = keyExtractor;
+    }
+
+    /** Creates a store whose entries can be looked up by {@code keyExtractor}'s key. */
+    public static <T> TimedStore<T> keyedBy(long timeToLiveMs, Function<? super T, ?> keyExtractor) {
+        return new TimedStore<>(
             timeToLiveMs,
-            TimeUnit.MILLISECONDS);
+            System::currentTimeMillis,
+            Objects.requireNonNull(keyExtractor, "TimedStore keyExtractor must not be null"));
     }
 
     public void add(T item) {
         synchronized (this.entries) {
-            this.entries.add(new Entry<>(item, this.clock.getAsLong() + this.timeToLiveMs));
+            var key = this.keyExtractor == null ? null : this.keyExtractor.apply(item);
+            var entry = new Entry<>(item, key, this.clock.getAsLong() + this.timeToLiveMs);
+
+            this.entries.add(entry);
+            if (this.keyExtractor != null) {
+                this.byKey.computeIfAbsent(key, _ -> new ArrayDeque<>()).add(entry);
+            }
+
+            this.scheduleSweep();
         }
     }
 
     public Optional<T> removeFirstMatch(Predicate<T> predicate) {
         synchronized (this.entries) {
-            for (var it = this.entries.iterator(); it.hasNext();) {
-                var curr = it.next();
-                if (curr.expiresAt < this.clock.getAsLong()) {
-                    log.trace("removed expired timedstore entry: {}", curr);
-                    it.remove();
-                    continue;
+            this.removeExpired(this.clock.getAsLong());
+
+            for (var entry : this.entries) {
+                if (predicate.test(entry.value)) {
+                    this.remove(entry);
+                    return Optional.of(entry.value);
                 }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /** Like {@link #removeFirstMatch(Predicate)}, restricted to entries whose key equals {@code key}. */
+    public Optional<T> removeFirstMatch(Object key, Predicate<T> predicate) {
+        if (this.keyExtractor == null) {
+            throw new IllegalStateException("TimedStore was not created with a key extractor");
+        }
+
+        synchronized (this.entries) {
+            this.removeExpired(this.clock.getAsLong());
 
-                if (predicate.test(curr.value)) {
-                    it.remove();
-                    return Optional.of(curr.value);
+            var bucket = this.byKey.get(key);
+            if (bucket == null) {
+                return Optional.empty();
+            }
+
+            for (var entry : bucket) {
+                if (predicate.test(entry.value)) {
+                    this.remove(entry);
+                    return Optional.of(entry.value);
                 }
             }
         }
@@ -78,23 +129,63 @@ public class TimedStore<T> implements AutoCloseable {
             return this.entries
                 .stream()
                 .filter(entry -> entry.expiresAt >= now)
-                .map(Entry::value)
+                .map(entry -> entry.value)
                 .toList();
         }
     }
 
-    private void cleanupExpired() {
-        long now = this.clock.getAsLong();
+    private void sweep() {
         synchronized (this.entries) {
-            var expired = Utils.removeIfAndReturn(this.entries, entry -> entry.expiresAt < now);
-            log.trace(
-                "removed {} expired timedstore entry: {}",
-                expired.size(), expired);
+            this.pendingSweep = null;
+            this.removeExpired(this.clock.getAsLong());
+            this.scheduleSweep();
+        }
+    }
+
+    private void removeExpired(long now) {
+        List<T> expired = null;
+        while (!this.entries.isEmpty() && this.entries.getFirst().expiresAt < now) {
+            var entry = this.entries.getFirst();
+            this.remove(entry);
+
+            if (expired == null) {
+                expired = new ArrayList<>();
+            }
+            expired.add(entry.value);
+        }
+
+        if (expired != null) {
+            log.trace("removed {} expired timedstore entry: {}", expired.size(), expired);
+        }
+    }
+
+    private void remove(Entry<T> entry) {
+        this.entries.remove(entry);
+        if (this.keyExtractor == null) {
+            return;
+        }
+
+        var bucket = this.byKey.get(entry.key);
+        bucket.remove(entry);
+        if (bucket.isEmpty()) {
+            this.byKey.remove(entry.key);
         }
     }
 
+    private void scheduleSweep() {
+        if (this.closed || this.pendingSweep != null || this.entries.isEmpty()) {
+            return;
+        }
+
+        // expiry is strict (`expiresAt < now`), so wake one millisecond after the deadline
+        long delay = Math.max(0, this.entries.getFirst().expiresAt - this.clock.getAsLong() + 1);
+        this.pendingSweep = SWEEPER.schedule(this::sweep, delay, TimeUnit.MILLISECONDS);
+    }
+
     void triggerCleanup() {
-        this.cleanupExpired();
+        synchronized (this.entries) {
+            this.removeExpired(this.clock.getAsLong());
+        }
     }
 
     int entryCount() {
@@ -105,8 +196,25 @@ public class TimedStore<T> implements AutoCloseable {
 
     @Override
     public void close() {
-        this.scheduler.shutdownNow();
+        synchronized (this.entries) {
+            this.closed = true;
+            if (this.pendingSweep != null) {
+                this.pendingSweep.cancel(false);
+                this.pendingSweep = null;
+            }
+        }
     }
 
-    private record Entry<T>(T value, long expiresAt) {}
+    // identity equality, so equal values added twice stay separate entries
+    private static final class Entry<T> {
+        private final T value;
+        private final @Nullable Object key;
+        private final long expiresAt;
+
+        private Entry(T value, @Nullable Object key, long expiresAt) {
+            this.value = value;
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
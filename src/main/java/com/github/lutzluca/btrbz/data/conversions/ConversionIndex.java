@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 public final class ConversionIndex {
 
@@ -31,6 +32,18 @@ public final class ConversionIndex {
     private final Map<String, ConversionProductEntry> products;
     private final Set<String> missingProductIds;
     private final Map<String, List<IndexedProduct>> normalizedNameIndex;
+    // Fingerprint of the NEU archive entries each product was resolved from, used to skip unchanged products on
+    // the next rebuild. Empty for indexes written before fingerprints existed.
+    private final Map<String, Long> sourceHashes;
+    // Set for indexes opened from the binary cache: entries then carry no stack data, which is read on demand.
+    @Nullable
+    private final StackPayloads payloads;
+    @Nullable
+    private volatile Map<String, ConversionProductEntry> materializedProducts;
+    @Nullable
+    private volatile List<IndexedProduct> allProducts;
+    @Nullable
+    private volatile ProductSearchIndex searchIndex;
 
     public ConversionIndex(
         int schemaVersion,
@@ -58,6 +71,41 @@ public final class ConversionIndex {
         String neuCommit,
         Map<String, ConversionProductEntry> products,
         Set<String> missingProductIds
+    ) {
+        this(schemaVersion, builderVersion, generatedAt, neuCommit, products, missingProductIds, Map.of());
+    }
+
+    public ConversionIndex(
+        int schemaVersion,
+        int builderVersion,
+        String generatedAt,
+        String neuCommit,
+        Map<String, ConversionProductEntry> products,
+        Set<String> missingProductIds,
+        Map<String, Long> sourceHashes
+    ) {
+        this(
+            schemaVersion,
+            builderVersion,
+            generatedAt,
+            neuCommit,
+            products,
+            missingProductIds,
+            sourceHashes,
+            null,
+            null);
+    }
+
+    private ConversionIndex(
+        int schemaVersion,
+        int builderVersion,
+        String generatedAt,
+        String neuCommit,
+        Map<String, ConversionProductEntry> products,
+        Set<String> missingProductIds,
+        Map<String, Long> sourceHashes,
+        @Nullable Map<String, List<IndexedProduct>> normalizedNameIndex,
+        @Nullable StackPayloads payloads
     ) {
         if (schemaVersion != SCHEMA_VERSION) {
             throw new IllegalArgumentException("Unsupported conversion index schema version: " + schemaVersion);
@@ -76,7 +124,37 @@ public final class ConversionIndex {
             products == null ? Map.of() : products));
         this.missingProductIds = Set.copyOf(
             missingProductIds == null ? Set.of() : missingProductIds);
-        this.normalizedNameIndex = buildNameIndex(this.products);
+        this.sourceHashes = Map.copyOf(sourceHashes == null ? Map.of() : sourceHashes);
+        this.normalizedNameIndex = normalizedNameIndex == null
+            ? buildNameIndex(this.products)
+            : normalizedNameIndex;
+        this.payloads = payloads;
+    }
+
+    /**
+     * Index backed by the binary cache. {@code products} carry names and sources only; stack data is read from
+     * {@code payloads} when {@link #productStackData} or {@link #legacyProductStackData} asks for it.
+     */
+    static ConversionIndex withLazyStacks(
+        int builderVersion,
+        String generatedAt,
+        String neuCommit,
+        Map<String, ConversionProductEntry> products,
+        Set<String> missingProductIds,
+        Map<String, Long> sourceHashes,
+        Map<String, List<IndexedProduct>> normalizedNameIndex,
+        StackPayloads payloads
+    ) {
+        return new ConversionIndex(
+            SCHEMA_VERSION,
+            builderVersion,
+            generatedAt,
+            neuCommit,
+            products,
+            missingProductIds,
+            sourceHashes,
+            normalizedNameIndex,
+            payloads);
     }
 
     public static ConversionIndex empty() {
@@ -99,8 +177,25 @@ public final class ConversionIndex {
         return Optional.ofNullable(this.neuCommit);
     }
 
+    /** All entries including stack data. For cache-backed indexes this decodes every payload once. */
     public Map<String, ConversionProductEntry> products() {
-        return this.products;
+        if (this.payloads == null) {
+            return this.products;
+        }
+
+        var materialized = this.materializedProducts;
+        if (materialized == null) {
+            var entries = new LinkedHashMap<String, ConversionProductEntry>();
+            this.products.forEach((productId, entry) -> entries.put(productId, new ConversionProductEntry(
+                entry.formattedName(),
+                entry.source(),
+                this.payloads.stackData(productId).orElse(null),
+                this.payloads.legacyStackData(productId).orElse(null))));
+            materialized = Collections.unmodifiableMap(entries);
+            this.materializedProducts = materialized;
+        }
+
+        return materialized;
     }
 
     public Set<String> missingProductIds() {
@@ -126,23 +221,75 @@ public final class ConversionIndex {
     }
 
     public Optional<ProductStackData> productStackData(String productId) {
+        if (this.payloads != null) {
+            return this.payloads.stackData(productId);
+        }
+
         return Optional
             .ofNullable(this.products.get(productId))
             .map(ConversionProductEntry::itemStack);
     }
 
     public Optional<LegacyProductStackData> legacyProductStackData(String productId) {
+        if (this.payloads != null) {
+            return this.payloads.legacyStackData(productId);
+        }
+
         return Optional
             .ofNullable(this.products.get(productId))
             .map(ConversionProductEntry::legacyItemStack);
     }
 
+    /**
+     * Unmaps the binary cache behind a cache-backed index, so the file can be replaced. Stack data of a released
+     * index can no longer be read; the service calls this once the index is no longer published.
+     */
+    void release() {
+        if (this.payloads != null) {
+            this.payloads.release();
+        }
+    }
+
+    public ConversionStackCounts stackCounts() {
+        if (this.payloads != null) {
+            return this.payloads.counts();
+        }
+
+        int overlays = 0;
+        int legacy = 0;
+        int covered = 0;
+        for (var entry : this.products.values()) {
+            overlays += entry.itemStack() != null ? 1 : 0;
+            legacy += entry.legacyItemStack() != null ? 1 : 0;
+            covered += entry.itemStack() != null || entry.legacyItemStack() != null ? 1 : 0;
+        }
+
+        return new ConversionStackCounts(overlays, legacy, covered);
+    }
+
     public List<IndexedProduct> allProducts() {
-        return this.products
-            .entrySet()
-            .stream()
-            .map(entry -> toIndexedProduct(entry.getKey(), entry.getValue()))
-            .toList();
+        var all = this.allProducts;
+        if (all == null) {
+            all = this.products
+                .entrySet()
+                .stream()
+                .map(entry -> toIndexedProduct(entry.getKey(), entry.getValue()))
+                .toList();
+            this.allProducts = all;
+        }
+
+        return all;
+    }
+
+    /** Name and id search over this index, built on first use. */
+    public ProductSearchIndex searchIndex() {
+        var index = this.searchIndex;
+        if (index == null) {
+            index = ProductSearchIndex.build(this.allProducts());
+            this.searchIndex = index;
+        }
+
+        return index;
     }
 
     public Optional<IndexedProduct> uniqueProductByName(String displayName) {
@@ -181,6 +328,16 @@ public final class ConversionIndex {
         return new ConversionSourceCounts(neu, derived);
     }
 
+    /** Product id to the fingerprint of the NEU archive entries it was resolved from. */
+    Map<String, Long> sourceHashes() {
+        return this.sourceHashes;
+    }
+
+    /** Normalized display name to every product carrying it, in index order. */
+    Map<String, List<IndexedProduct>> normalizedNameIndex() {
+        return this.normalizedNameIndex;
+    }
+
     private static Map<String, List<IndexedProduct>> buildNameIndex(
         Map<String, ConversionProductEntry> products
     ) {
@@ -200,4 +357,16 @@ public final class ConversionIndex {
     private static IndexedProduct toIndexedProduct(String productId, ConversionProductEntry entry) {
         return new IndexedProduct(productId, entry.formattedName());
     }
+
+    /** Lazily decoded stack payloads of a cache-backed index. Implementations must be safe for concurrent reads. */
+    interface StackPayloads {
+
+        Optional<ProductStackData> stackData(String productId);
+
+        Optional<LegacyProductStackData> legacyStackData(String productId);
+
+        ConversionStackCounts counts();
+
+        void release();
+    }
 }
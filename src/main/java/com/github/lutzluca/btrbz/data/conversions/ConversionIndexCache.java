@@ -0,0 +1,409 @@
+package com.github.lutzluca.btrbz.data.conversions;
+
+import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.github.lutzluca.btrbz.utils.Utils;
+import io.vavr.control.Try;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Versioned binary copy of the local conversion index, opened with {@link FileChannel#map} so startup skips the
+ * JSON parse and the name index rebuild.
+ * Layout (big-endian): a fixed header, a product table, the per-product source hashes, the precomputed
+ * normalized-name index, the missing ids and a string table. Stack payload strings stay in the mapping until
+ * {@link ProductStackResolver} asks for them.
+ * The header records the size and modification time of the JSON it was written from; a cache that does not
+ * match its JSON is rejected so the JSON stays the source of truth.
+ * <p>
+ * A new cache is staged next to the old one and moved over it. The mapping is owned by a shared arena and released
+ * with {@link ConversionIndex#release()}, since Windows refuses to replace a file that is still mapped.
+ */
+@Slf4j
+final class ConversionIndexCache {
+    static final int MAGIC = 0x42425A43;
+    // Bump on any layout change or change to Utils.normalizeDisplayName; older caches then fall back to JSON.
+    static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_BYTES = 72;
+    private static final int PRODUCT_RECORD_BYTES = 8 * Integer.BYTES;
+    private static final int NAME_RECORD_BYTES = 3 * Integer.BYTES;
+    private static final int NO_STRING = -1;
+    private static final int NO_DATA_VERSION = -1;
+    private static final long NO_SOURCE_HASH = 0;
+
+    private ConversionIndexCache() {}
+
+    /** Size and modification time of the JSON index a cache was written from. */
+    record SourceStamp(long size, long lastModifiedMillis) {
+
+        static SourceStamp of(Path source) throws IOException {
+            return new SourceStamp(Files.size(source), Files.getLastModifiedTime(source).toMillis());
+        }
+    }
+
+    static Try<Path> write(ConversionIndex index, Path cache, Path source) {
+        return stage(index, cache, source).flatMap(staged -> replace(staged, cache));
+    }
+
+    /** Writes the cache of {@code index} to {@link #stagedPath}, leaving the cache in use untouched. */
+    static Try<Path> stage(ConversionIndex index, Path cache, Path source) {
+        return Try
+            .of(() -> encode(index, SourceStamp.of(source)))
+            .flatMap(bytes -> Utils.atomicDumpToFile(stagedPath(cache), bytes));
+    }
+
+    /** Moves a staged cache over {@code cache}. On failure the staged file stays in place for another attempt. */
+    static Try<Path> replace(Path staged, Path cache) {
+        return Try.of(() -> {
+            try {
+                return Files.move(staged, cache, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException _) {
+                return Files.move(staged, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        });
+    }
+
+    static Path stagedPath(Path cache) {
+        return cache.resolveSibling(cache.getFileName() + ".new");
+    }
+
+    static Try<ConversionIndex> open(Path cache, Path source) {
+        return Try.of(() -> {
+            var stamp = SourceStamp.of(source);
+            try (var channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+                // Validate the header before mapping: a live mapping of a rejected cache would keep the JSON
+                // fallback from replacing the file on Windows until the buffer is collected.
+                var header = ByteBuffer.allocate(HEADER_BYTES);
+                while (header.hasRemaining()) {
+                    if (channel.read(header) < 0) {
+                        break;
+                    }
+                }
+                checkHeader(header.flip(), stamp);
+
+                // The mapping stays valid after the channel is closed, until the index releases the arena.
+                var arena = Arena.ofShared();
+                try {
+                    var mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+                    return decode(mapping.asByteBuffer(), stamp, arena::close);
+                } catch (IOException | RuntimeException err) {
+                    arena.close();
+                    throw err;
+                }
+            }
+        });
+    }
+
+    static byte[] encode(ConversionIndex index, SourceStamp stamp) throws IOException {
+        var strings = new StringTable();
+        var products = index.products();
+        var productIndex = new HashMap<String, Integer>();
+        var productRecords = new int[products.size() * 8];
+        int overlays = 0;
+        int legacy = 0;
+        int covered = 0;
+
+        int position = 0;
+        for (var entry : products.entrySet()) {
+            var product = entry.getValue();
+            var stack = product.itemStack();
+            var legacyStack = product.legacyItemStack();
+            productIndex.put(entry.getKey(), position / 8);
+
+            productRecords[position++] = strings.add(entry.getKey());
+            productRecords[position++] = strings.add(product.formattedName());
+            productRecords[position++] = product.source() instanceof ProductNameSource.Neu(var neuId)
+                ? strings.add(neuId)
+                : NO_STRING;
+            productRecords[position++] = stack == null ? NO_DATA_VERSION : stack.dataVersion();
+            productRecords[position++] = stack == null ? NO_STRING : strings.add(stack.stackSnbt());
+            productRecords[position++] = legacyStack == null ? NO_STRING : strings.add(legacyStack.itemId());
+            productRecords[position++] = legacyStack == null ? 0 : legacyStack.damage();
+            productRecords[position++] = legacyStack == null ? NO_STRING : strings.add(legacyStack.nbtTag());
+
+            overlays += stack != null ? 1 : 0;
+            legacy += legacyStack != null ? 1 : 0;
+            covered += stack != null || legacyStack != null ? 1 : 0;
+        }
+
+        var names = new ArrayList<>(index.normalizedNameIndex().entrySet());
+        names.sort(Map.Entry.comparingByKey());
+        var nameRecords = new int[names.size() * 3];
+        var nameRefs = new ArrayList<Integer>();
+        for (int name = 0; name < names.size(); name++) {
+            var refs = names.get(name).getValue();
+            nameRecords[name * 3] = strings.add(names.get(name).getKey());
+            nameRecords[name * 3 + 1] = nameRefs.size();
+            nameRecords[name * 3 + 2] = refs.size();
+            refs.forEach(ref -> nameRefs.add(productIndex.get(ref.productId())));
+        }
+
+        var missing = index.missingProductIds().stream().sorted().mapToInt(strings::add).toArray();
+        int generatedAt = strings.add(index.generatedAt());
+        int neuCommit = index.neuCommit().map(strings::add).orElse(NO_STRING);
+
+        var bytes = new ByteArrayOutputStream(64 * 1024);
+        var out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(index.schemaVersion());
+        out.writeInt(index.builderVersion());
+        out.writeLong(stamp.size());
+        out.writeLong(stamp.lastModifiedMillis());
+        out.writeInt(generatedAt);
+        out.writeInt(neuCommit);
+        out.writeInt(products.size());
+        out.writeInt(names.size());
+        out.writeInt(nameRefs.size());
+        out.writeInt(missing.length);
+        out.writeInt(strings.size());
+        out.writeInt(overlays);
+        out.writeInt(legacy);
+        out.writeInt(covered);
+
+        for (int value : productRecords) {
+            out.writeInt(value);
+        }
+        for (var productId : products.keySet()) {
+            out.writeLong(index.sourceHashes().getOrDefault(productId, NO_SOURCE_HASH));
+        }
+        for (int value : nameRecords) {
+            out.writeInt(value);
+        }
+        for (int ref : nameRefs) {
+            out.writeInt(ref);
+        }
+        for (int value : missing) {
+            out.writeInt(value);
+        }
+        strings.writeTo(out);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static ConversionIndex decode(ByteBuffer buffer, SourceStamp expected) throws IOException {
+        return decode(buffer, expected, () -> {});
+    }
+
+    private static ConversionIndex decode(ByteBuffer buffer, SourceStamp expected, Runnable unmap)
+        throws IOException {
+        checkHeader(buffer, expected);
+
+        int builderVersion = buffer.getInt(12);
+        int productCount = buffer.getInt(40);
+        int nameCount = buffer.getInt(44);
+        int nameRefCount = buffer.getInt(48);
+        int missingCount = buffer.getInt(52);
+        int stringCount = buffer.getInt(56);
+        var counts = new ConversionStackCounts(buffer.getInt(60), buffer.getInt(64), buffer.getInt(68));
+
+        int productTable = HEADER_BYTES;
+        int hashTable = section(productTable, productCount, PRODUCT_RECORD_BYTES);
+        int nameTable = section(hashTable, productCount, Long.BYTES);
+        int nameRefTable = section(nameTable, nameCount, NAME_RECORD_BYTES);
+        int missingTable = section(nameRefTable, nameRefCount, Integer.BYTES);
+        int stringTable = section(missingTable, missingCount, Integer.BYTES);
+        if (section(stringTable, stringCount + 1, Integer.BYTES) > buffer.capacity()) {
+            throw new IOException("Truncated conversion index cache");
+        }
+        var strings = new MappedStrings(buffer, stringTable, stringCount);
+
+        var products = new LinkedHashMap<String, ConversionProductEntry>();
+        var indexed = new IndexedProduct[productCount];
+        var recordById = new HashMap<String, Integer>();
+        var sourceHashes = new HashMap<String, Long>();
+        for (int product = 0; product < productCount; product++) {
+            int record = productTable + product * PRODUCT_RECORD_BYTES;
+            var productId = strings.get(buffer.getInt(record));
+            var formattedName = strings.get(buffer.getInt(record + 4));
+            int neuId = buffer.getInt(record + 8);
+            ProductNameSource source = neuId == NO_STRING
+                ? new ProductNameSource.Derived()
+                : new ProductNameSource.Neu(strings.get(neuId));
+
+            products.put(productId, new ConversionProductEntry(formattedName, source));
+            indexed[product] = new IndexedProduct(productId, formattedName);
+            recordById.put(productId, record);
+
+            long sourceHash = buffer.getLong(hashTable + product * Long.BYTES);
+            if (sourceHash != NO_SOURCE_HASH) {
+                sourceHashes.put(productId, sourceHash);
+            }
+        }
+
+        var nameIndex = new HashMap<String, List<IndexedProduct>>(nameCount * 2);
+        for (int name = 0; name < nameCount; name++) {
+            int record = nameTable + name * NAME_RECORD_BYTES;
+            int firstRef = buffer.getInt(record + 4);
+            var refs = new IndexedProduct[buffer.getInt(record + 8)];
+            for (int ref = 0; ref < refs.length; ref++) {
+                refs[ref] = indexed[buffer.getInt(nameRefTable + (firstRef + ref) * Integer.BYTES)];
+            }
+            nameIndex.put(strings.get(buffer.getInt(record)), List.of(refs));
+        }
+
+        var missing = new HashSet<String>();
+        for (int id = 0; id < missingCount; id++) {
+            missing.add(strings.get(buffer.getInt(missingTable + id * Integer.BYTES)));
+        }
+
+        int neuCommit = buffer.getInt(36);
+        return ConversionIndex.withLazyStacks(
+            builderVersion,
+            strings.get(buffer.getInt(32)),
+            neuCommit == NO_STRING ? null : strings.get(neuCommit),
+            products,
+            missing,
+            sourceHashes,
+            Collections.unmodifiableMap(nameIndex),
+            new MappedPayloads(buffer, strings, recordById, counts, unmap));
+    }
+
+    /** Rejects a cache whose header is not of this format or was written from a different JSON index. */
+    private static void checkHeader(ByteBuffer header, SourceStamp expected) throws IOException {
+        if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a conversion index cache");
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported conversion index cache format: " + header.getInt(4));
+        }
+        if (header.getInt(8) != ConversionIndex.SCHEMA_VERSION) {
+            throw new IOException("Unsupported conversion index schema version: " + header.getInt(8));
+        }
+
+        var stamp = new SourceStamp(header.getLong(16), header.getLong(24));
+        if (!stamp.equals(expected)) {
+            throw new IOException("Conversion index cache is stale (" + stamp + " != " + expected + ")");
+        }
+    }
+
+    private static int section(int start, int count, int recordBytes) throws IOException {
+        if (count < 0) {
+            throw new IOException("Corrupt conversion index cache header");
+        }
+
+        return Math.addExact(start, Math.multiplyExact(count, recordBytes));
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> ids = new LinkedHashMap<>();
+
+        int add(String value) {
+            return this.ids.computeIfAbsent(value, _ -> this.ids.size());
+        }
+
+        int size() {
+            return this.ids.size();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            var encoded = new ArrayList<byte[]>(this.ids.size());
+            int offset = 0;
+            out.writeInt(offset);
+            for (var value : this.ids.keySet()) {
+                var bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+
+            for (var bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private record MappedStrings(ByteBuffer buffer, int table, int count) {
+
+        String get(int id) throws IOException {
+            if (id < 0 || id >= this.count) {
+                throw new IOException("String id out of range: " + id);
+            }
+
+            int data = this.table + (this.count + 1) * Integer.BYTES;
+            int start = this.buffer.getInt(this.table + id * Integer.BYTES);
+            int end = this.buffer.getInt(this.table + (id + 1) * Integer.BYTES);
+            if (start < 0 || end < start || data + end > this.buffer.capacity()) {
+                throw new IOException("Truncated conversion index cache string table");
+            }
+
+            var bytes = new byte[end - start];
+            this.buffer.get(data + start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private record MappedPayloads(
+        ByteBuffer buffer,
+        MappedStrings strings,
+        Map<String, Integer> recordById,
+        ConversionStackCounts counts,
+        Runnable unmap
+    ) implements ConversionIndex.StackPayloads {
+
+        @Override
+        public Optional<ProductStackData> stackData(String productId) {
+            return this.decode(productId, record -> {
+                int dataVersion = this.buffer.getInt(record + 12);
+                return dataVersion == NO_DATA_VERSION
+                    ? null
+                    : new ProductStackData(dataVersion, this.strings.get(this.buffer.getInt(record + 16)));
+            });
+        }
+
+        @Override
+        public Optional<LegacyProductStackData> legacyStackData(String productId) {
+            return this.decode(productId, record -> {
+                int itemId = this.buffer.getInt(record + 20);
+                return itemId == NO_STRING
+                    ? null
+                    : new LegacyProductStackData(
+                        this.strings.get(itemId),
+                        this.buffer.getInt(record + 24),
+                        this.strings.get(this.buffer.getInt(record + 28)));
+            });
+        }
+
+        @Override
+        public void release() {
+            this.unmap.run();
+        }
+
+        private <T> Optional<T> decode(String productId, RecordDecoder<T> decoder) {
+            var record = productId == null ? null : this.recordById.get(productId);
+            if (record == null) {
+                return Optional.empty();
+            }
+
+            return Try
+                .of(() -> Optional.ofNullable(decoder.decode(record)))
+                .onFailure(err -> log.warn("Corrupt stack payload for {} in conversion index cache", productId, err))
+                .getOrElse(Optional.empty());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordDecoder<T> {
+        T decode(int record) throws IOException;
+    }
+}
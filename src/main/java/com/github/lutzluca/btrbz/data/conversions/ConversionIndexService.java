@@ -32,6 +32,7 @@ public final class ConversionIndexService {
     private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
     private final Map<ItemStack, Map<String, ProductIdentity>> resolvedStackCache = new WeakHashMap<>();
     private final CacheToken changes = CacheToken.named("conversion-index");
+    private final Map<String, CacheToken> productChanges = new HashMap<>();
 
     private volatile ConversionIndex currentIndex;
     private volatile ConversionStatus.IndexLoadSource activeLoadSource;
@@ -138,6 +139,14 @@ public final class ConversionIndexService {
         return this.changes;
     }
 
+    /**
+     * Revision token for one product's index entry. Tokens are created on demand and only invalidated when a newly
+     * applied index changes the product's name or stack data.
+     */
+    public CacheToken productChanges(String productId) {
+        return this.productChanges.computeIfAbsent(productId, id -> CacheToken.named("conversion-index." + id));
+    }
+
     public Optional<IndexedProduct> productById(String productId) {
         if (productId == null || productId.isBlank()) {
             return Optional.empty();
@@ -149,6 +158,10 @@ public final class ConversionIndexService {
         return this.currentIndex.allProducts();
     }
 
+    public List<IndexedProduct> searchProducts(String query, int limit) {
+        return this.currentIndex.searchIndex().search(query, limit);
+    }
+
     public Optional<ItemStack> productStack(String productId) {
         return this.stackResolver.resolve(productId);
     }
@@ -263,11 +276,20 @@ public final class ConversionIndexService {
     }
 
     private void applyIndex(ConversionIndex index, ConversionStatus.IndexLoadSource source) {
+        var previous = this.currentIndex;
         this.currentIndex = index;
         this.activeLoadSource = source;
         this.clearResolvedStackCache();
+        this.invalidateChangedProducts(previous, index);
         this.logIndexSummary(source, index);
         this.notifyIndexChanged();
+
+        // Indexes are swapped on the client thread, after any refresh built from the previous one has finished, so
+        // nothing reads its mapping anymore; unmapping it lets a cache staged in the meantime replace its file.
+        if (previous != index) {
+            previous.release();
+            ConversionLoader.retryStagedCache();
+        }
     }
 
     private void clearResolvedStackCache() {
@@ -281,13 +303,19 @@ public final class ConversionIndexService {
         this.changes.invalidate(InvalidationReason.of("conversion index published"));
     }
 
+    private void invalidateChangedProducts(ConversionIndex previous, ConversionIndex next) {
+        this.productChanges.forEach((productId, token) -> {
+            if (!previous.product(productId).equals(next.product(productId))
+                || !previous.productStackData(productId).equals(next.productStackData(productId))
+                || !previous.legacyProductStackData(productId).equals(next.legacyProductStackData(productId))) {
+                token.invalidate(InvalidationReason.of("conversion index entry changed"));
+            }
+        });
+    }
+
     private void logIndexSummary(ConversionStatus.IndexLoadSource source, ConversionIndex index) {
         var counts = index.sourceCounts();
-        long overlayStacks = index.products().values().stream().filter(entry -> entry.itemStack() != null).count();
-        long legacyStacks = index.products().values().stream().filter(entry -> entry.legacyItemStack() != null).count();
-        long stackSources = index.products().values().stream()
-            .filter(entry -> entry.itemStack() != null || entry.legacyItemStack() != null)
-            .count();
+        var stacks = index.stackCounts();
         log.debug(
             "Applied conversion index from {} ({} products, missing={}, names: neu={}, derived={}, "
                 + "stack sources: overlays={}, legacy={}, covered={})",
@@ -296,9 +324,9 @@ public final class ConversionIndexService {
             index.missingProductIds().size(),
             counts.neu(),
             counts.derived(),
-            overlayStacks,
-            legacyStacks,
-            stackSources);
+            stacks.overlays(),
+            stacks.legacy(),
+            stacks.covered());
         this.logDerivedMappings(index);
     }
 
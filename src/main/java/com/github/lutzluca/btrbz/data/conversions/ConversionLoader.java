@@ -25,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.Minecraft;
 import net.minecraft.resources.Identifier;
+import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 final class ConversionLoader {
@@ -38,6 +39,9 @@ final class ConversionLoader {
         BtrBz.MOD_ID,
         "conversion-index.json");
 
+    // A binary cache that could not replace the old one yet, typically because the old one is still mapped.
+    private static volatile @Nullable Path pendingCache;
+
     private ConversionLoader() {}
 
     record LoadResult(ConversionIndex index, ConversionStatus.IndexLoadSource source) {}
@@ -48,7 +52,8 @@ final class ConversionLoader {
         String generatedAt,
         String neuCommit,
         Map<String, ConversionProductEntry> products,
-        Set<String> missingProductIds
+        Set<String> missingProductIds,
+        Map<String, Long> sourceHashes
     ) {
 
         static IndexSnapshot fromIndex(ConversionIndex index) {
@@ -58,7 +63,8 @@ final class ConversionLoader {
                 index.generatedAt(),
                 index.neuCommit().orElse(null),
                 index.products(),
-                index.missingProductIds());
+                index.missingProductIds(),
+                index.sourceHashes());
         }
 
         ConversionIndex toIndex() throws IOException {
@@ -76,7 +82,8 @@ final class ConversionLoader {
                     this.generatedAt,
                     this.neuCommit,
                     this.products,
-                    this.missingProductIds);
+                    this.missingProductIds,
+                    this.sourceHashes);
             } catch (IllegalArgumentException err) {
                 throw new IOException("Invalid conversion index", err);
             }
@@ -95,21 +102,69 @@ final class ConversionLoader {
 
     static Try<Path> persistIndex(ConversionIndex index) {
         var snapshot = IndexSnapshot.fromIndex(index);
-        return Utils.atomicDumpToFile(localIndexPath(), GSON.toJson(snapshot));
+        return Utils
+            .atomicDumpToFile(localIndexPath(), GSON.toJson(snapshot))
+            .andThen(path -> writeBinaryCache(index, path));
+    }
+
+    /** Moves a binary cache that an earlier write had to leave staged over the old one, once that is released. */
+    static void retryStagedCache() {
+        var staged = pendingCache;
+        if (staged != null) {
+            replaceBinaryCache(staged);
+        }
     }
 
     private static Try<ConversionIndex> loadFromLocalCache() {
-        return Try
-            .of(() -> Files.readString(localIndexPath(), StandardCharsets.UTF_8))
-            .flatMap(ConversionLoader::parseIndex);
+        var jsonPath = localIndexPath();
+        // Nothing is mapped yet at startup, so a cache staged by the previous session can take its place now.
+        var staged = ConversionIndexCache.stagedPath(binaryCachePath());
+        if (Files.exists(staged)) {
+            replaceBinaryCache(staged);
+        }
+
+        return ConversionIndexCache
+            .open(binaryCachePath(), jsonPath)
+            .onSuccess(_ -> log.debug("Opened binary conversion index cache"))
+            .recoverWith(err -> {
+                log.debug("Binary conversion index cache unavailable: {}", err.getMessage());
+                return Try
+                    .of(() -> Files.readString(jsonPath, StandardCharsets.UTF_8))
+                    .flatMap(ConversionLoader::parseIndex)
+                    .andThen(index -> writeBinaryCache(index, jsonPath));
+            });
+    }
+
+    private static void writeBinaryCache(ConversionIndex index, Path jsonPath) {
+        // The JSON stays authoritative; a cache that is not written only means the next start parses the JSON again.
+        ConversionIndexCache
+            .stage(index, binaryCachePath(), jsonPath)
+            .onSuccess(ConversionLoader::replaceBinaryCache)
+            .onFailure(err -> log.warn("Failed to write binary conversion index cache: {}", err.getMessage()));
+    }
+
+    private static void replaceBinaryCache(Path staged) {
+        ConversionIndexCache
+            .replace(staged, binaryCachePath())
+            .onSuccess(_ -> pendingCache = null)
+            .onFailure(err -> {
+                // On Windows the old cache cannot be replaced while its index is mapped; the index in memory keeps
+                // serving and the service retries once it releases the old mapping.
+                pendingCache = staged;
+                log.debug("Binary conversion index cache not replaced yet: {}", err.getMessage());
+            });
     }
 
     private static Path localIndexPath() {
-        return FabricLoader
-            .getInstance()
-            .getConfigDir()
-            .resolve(BtrBz.MOD_ID)
-            .resolve("conversion-index.json");
+        return localIndexDir().resolve("conversion-index.json");
+    }
+
+    private static Path binaryCachePath() {
+        return localIndexDir().resolve("conversion-index.bin");
+    }
+
+    private static Path localIndexDir() {
+        return FabricLoader.getInstance().getConfigDir().resolve(BtrBz.MOD_ID);
     }
 
     private static Try<ConversionIndex> loadFromBundledSeed() {
@@ -125,7 +180,7 @@ final class ConversionLoader {
             .onFailure(err -> log.error("Bundled conversion index unavailable", err));
     }
 
-    private static Try<ConversionIndex> parseIndex(String content) {
+    static Try<ConversionIndex> parseIndex(String content) {
         return Try.of(() -> {
             var snapshot = GSON.fromJson(content, IndexSnapshot.class);
             if (snapshot == null) {
@@ -0,0 +1,4 @@
+package com.github.lutzluca.btrbz.data.conversions;
+
+/** Number of products with modern overlay stack data, legacy stack data, and either of the two. */
+public record ConversionStackCounts(int overlays, int legacy, int covered) {}
@@ -0,0 +1,381 @@
+package com.github.lutzluca.btrbz.data.conversions;
+
+import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.github.lutzluca.btrbz.utils.Utils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranked product lookup over the names and ids of one {@link ConversionIndex}, built once per index.
+ * A sorted array of every word-start suffix answers prefix queries with a binary search, and a trigram posting
+ * index finds substring and misspelled matches. Queries shorter than a trigram find their substrings through
+ * posting lists of every one and two character gram. All walks are capped so a keystroke costs the same no matter
+ * how many products the index holds, and a search allocates nothing proportional to the index.
+ */
+public final class ProductSearchIndex {
+    private static final int PREFIX_SCAN_BUDGET = 512;
+    private static final int POSTING_BUDGET = 4096;
+    // Share of the query trigrams a product must contain to count as a misspelled match.
+    private static final double MIN_FUZZY_COVERAGE = 0.6;
+
+    private static final int TIER_EXACT = 0;
+    private static final int TIER_PREFIX = 1;
+    private static final int TIER_WORD_PREFIX = 2;
+    private static final int TIER_SUBSTRING = 3;
+    private static final int TIER_FUZZY = 4;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    // Layout of the primitive sort key: tier, then descending similarity, then name length, then index order.
+    private static final int PRODUCT_BITS = 20;
+    private static final int LENGTH_BITS = 20;
+    private static final int SIMILARITY_BITS = 20;
+    private static final long FIELD_MASK = (1L << 20) - 1;
+    // Marks one and two character grams so they never collide with a trigram key.
+    private static final long SHORT_GRAM_TAG = 1L << 48;
+
+    private final List<IndexedProduct> products;
+    private final String[][] keys;
+    private final String[] prefixKeys;
+    private final int[] prefixProducts;
+    private final boolean[] prefixIsKeyStart;
+    private final Map<Long, int[]> postings;
+    private final int[] trigramCounts;
+    private final ThreadLocal<Scratch> scratch;
+
+    private ProductSearchIndex(
+        List<IndexedProduct> products,
+        String[][] keys,
+        List<PrefixEntry> prefixes,
+        Map<Long, int[]> postings,
+        int[] trigramCounts
+    ) {
+        this.products = products;
+        this.keys = keys;
+        this.prefixKeys = new String[prefixes.size()];
+        this.prefixProducts = new int[prefixes.size()];
+        this.prefixIsKeyStart = new boolean[prefixes.size()];
+        for (int i = 0; i < prefixes.size(); i++) {
+            var entry = prefixes.get(i);
+            this.prefixKeys[i] = entry.key();
+            this.prefixProducts[i] = entry.product();
+            this.prefixIsKeyStart[i] = entry.keyStart();
+        }
+        this.postings = postings;
+        this.trigramCounts = trigramCounts;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(products.size()));
+    }
+
+    public static ProductSearchIndex build(List<IndexedProduct> products) {
+        if (products.size() > FIELD_MASK) {
+            throw new IllegalArgumentException("Too many products to index: " + products.size());
+        }
+
+        var keys = new String[products.size()][];
+        var prefixes = new ArrayList<PrefixEntry>();
+        var postingLists = new HashMap<Long, IntList>();
+        var trigramCounts = new int[products.size()];
+
+        for (int product = 0; product < products.size(); product++) {
+            var indexed = products.get(product);
+            var name = searchKey(indexed.strippedName());
+            var id = searchKey(indexed.productId());
+            keys[product] = name.equals(id) ? new String[] {name} : new String[] {name, id};
+
+            var trigrams = new HashSet<Long>();
+            var shortGrams = new HashSet<Long>();
+            for (var key : keys[product]) {
+                for (int start = 0; start < key.length(); start++) {
+                    if (start == 0 || key.charAt(start - 1) == ' ') {
+                        prefixes.add(new PrefixEntry(key.substring(start), product, start == 0));
+                    }
+                }
+                addTrigrams(key, trigrams);
+                addShortGrams(key, shortGrams);
+            }
+
+            trigramCounts[product] = trigrams.size();
+            for (var trigram : trigrams) {
+                postingLists.computeIfAbsent(trigram, _ -> new IntList()).add(product);
+            }
+            for (var gram : shortGrams) {
+                postingLists.computeIfAbsent(gram, _ -> new IntList()).add(product);
+            }
+        }
+
+        prefixes.sort(Comparator.comparing(PrefixEntry::key).thenComparingInt(PrefixEntry::product));
+        var postings = new HashMap<Long, int[]>(postingLists.size() * 2);
+        postingLists.forEach((trigram, list) -> postings.put(trigram, list.toArray()));
+        return new ProductSearchIndex(List.copyOf(products), keys, prefixes, Map.copyOf(postings), trigramCounts);
+    }
+
+    /** Query and index keys share this normalization, so {@code enchanted_dia} matches "Enchanted Diamond". */
+    static String searchKey(String value) {
+        return Utils.normalizeDisplayName(value).replace('_', ' ').trim();
+    }
+
+    public int size() {
+        return this.products.size();
+    }
+
+    /**
+     * Up to {@code limit} products ranked by match quality: exact name or id, prefix, word prefix, substring and
+     * finally trigram similarity. Ties prefer shorter names, then index order. An empty query returns the first
+     * products in index order.
+     */
+    public List<IndexedProduct> search(String query, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        var normalized = query == null ? "" : searchKey(query);
+        if (normalized.isEmpty()) {
+            return this.products.subList(0, Math.min(limit, this.products.size()));
+        }
+
+        var scratch = this.scratch.get();
+        scratch.reset();
+        this.collectPrefixMatches(normalized, scratch);
+        if (normalized.length() >= 3) {
+            this.collectTrigramMatches(normalized, scratch);
+        } else {
+            this.collectShortMatches(normalized, scratch);
+        }
+        return this.ranked(scratch, limit);
+    }
+
+    private void collectPrefixMatches(String query, Scratch scratch) {
+        int from = lowerBound(this.prefixKeys, query);
+        int end = Math.min(this.prefixKeys.length, from + PREFIX_SCAN_BUDGET);
+        for (int i = from; i < end && this.prefixKeys[i].startsWith(query); i++) {
+            int tier = !this.prefixIsKeyStart[i]
+                ? TIER_WORD_PREFIX
+                : this.prefixKeys[i].length() == query.length() ? TIER_EXACT : TIER_PREFIX;
+            scratch.offer(scratch.slot(this.prefixProducts[i]), tier);
+        }
+    }
+
+    /** A query of one or two characters is a single gram, so its posting list is exactly its substring matches. */
+    private void collectShortMatches(String query, Scratch scratch) {
+        var list = this.postings.get(shortGram(query, 0, query.length()));
+        if (list == null) {
+            return;
+        }
+
+        int take = Math.min(list.length, POSTING_BUDGET);
+        for (int i = 0; i < take; i++) {
+            scratch.offer(scratch.slot(list[i]), TIER_SUBSTRING);
+        }
+    }
+
+    private void collectTrigramMatches(String query, Scratch scratch) {
+        var queryTrigrams = new HashSet<Long>();
+        addTrigrams(query, queryTrigrams);
+
+        // Rarest trigrams first so the posting budget is spent on the most selective lists.
+        var lists = new ArrayList<int[]>(queryTrigrams.size());
+        for (var trigram : queryTrigrams) {
+            var list = this.postings.get(trigram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int budget = POSTING_BUDGET;
+        for (var list : lists) {
+            int take = Math.min(list.length, budget);
+            for (int i = 0; i < take; i++) {
+                scratch.shared[scratch.slot(list[i])]++;
+            }
+
+            budget -= take;
+            if (budget == 0) {
+                break;
+            }
+        }
+
+        for (int slot = 0; slot < scratch.size; slot++) {
+            int shared = scratch.shared[slot];
+            if (shared == 0) {
+                continue;
+            }
+
+            int product = scratch.products[slot];
+            if (this.containsQuery(product, query)) {
+                scratch.offer(slot, TIER_SUBSTRING);
+                continue;
+            }
+
+            if (shared >= queryTrigrams.size() * MIN_FUZZY_COVERAGE && scratch.offer(slot, TIER_FUZZY)) {
+                scratch.similarity[slot] = (double) shared
+                    / (queryTrigrams.size() + this.trigramCounts[product] - shared);
+            }
+        }
+    }
+
+    private List<IndexedProduct> ranked(Scratch scratch, int limit) {
+        var order = scratch.order();
+        int count = 0;
+        for (int slot = 0; slot < scratch.size; slot++) {
+            int tier = scratch.tiers[slot];
+            if (tier == NO_MATCH) {
+                continue;
+            }
+
+            int product = scratch.products[slot];
+            long dissimilarity = Math.round((1 - scratch.similarity[slot]) * FIELD_MASK);
+            long length = Math.min(this.keys[product][0].length(), FIELD_MASK);
+            order[count++] = (long) tier << (SIMILARITY_BITS + LENGTH_BITS + PRODUCT_BITS)
+                | dissimilarity << (LENGTH_BITS + PRODUCT_BITS)
+                | length << PRODUCT_BITS
+                | product;
+        }
+        Arrays.sort(order, 0, count);
+
+        var result = new ArrayList<IndexedProduct>(Math.min(limit, count));
+        for (int i = 0; i < count && result.size() < limit; i++) {
+            result.add(this.products.get((int) (order[i] & FIELD_MASK)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private boolean containsQuery(int product, String query) {
+        for (var key : this.keys[product]) {
+            if (key.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void addTrigrams(String key, Set<Long> out) {
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            out.add((long) key.charAt(i) << 32 | (long) key.charAt(i + 1) << 16 | key.charAt(i + 2));
+        }
+    }
+
+    private static void addShortGrams(String key, Set<Long> out) {
+        for (int i = 0; i < key.length(); i++) {
+            out.add(shortGram(key, i, i + 1));
+            if (i + 2 <= key.length()) {
+                out.add(shortGram(key, i, i + 2));
+            }
+        }
+    }
+
+    private static long shortGram(String key, int from, int to) {
+        long gram = 0;
+        for (int i = from; i < to; i++) {
+            gram = gram << 16 | key.charAt(i);
+        }
+        return SHORT_GRAM_TAG | (long) (to - from) << 32 | gram;
+    }
+
+    private record PrefixEntry(String key, int product, boolean keyStart) {}
+
+    /**
+     * Per-thread state of one search. Tiers, similarities and shared trigram counts are kept for the touched
+     * products only, whose number the scan budgets bound; the product-indexed arrays merely map a product to its
+     * slot and are invalidated by bumping the generation instead of clearing them.
+     */
+    private static final class Scratch {
+        private final int[] stamps;
+        private final int[] slots;
+        private int generation;
+        private int size;
+        private int[] products = new int[64];
+        private int[] tiers = new int[64];
+        private double[] similarity = new double[64];
+        private int[] shared = new int[64];
+        private long[] order = new long[64];
+
+        Scratch(int productCount) {
+            this.stamps = new int[productCount];
+            this.slots = new int[productCount];
+        }
+
+        void reset() {
+            this.size = 0;
+            if (++this.generation == 0) {
+                Arrays.fill(this.stamps, 0);
+                this.generation = 1;
+            }
+        }
+
+        int slot(int product) {
+            if (this.stamps[product] == this.generation) {
+                return this.slots[product];
+            }
+
+            if (this.size == this.products.length) {
+                int capacity = this.size * 2;
+                this.products = Arrays.copyOf(this.products, capacity);
+                this.tiers = Arrays.copyOf(this.tiers, capacity);
+                this.similarity = Arrays.copyOf(this.similarity, capacity);
+                this.shared = Arrays.copyOf(this.shared, capacity);
+            }
+
+            int slot = this.size++;
+            this.stamps[product] = this.generation;
+            this.slots[product] = slot;
+            this.products[slot] = product;
+            this.tiers[slot] = NO_MATCH;
+            this.similarity[slot] = 0;
+            this.shared[slot] = 0;
+            return slot;
+        }
+
+        boolean offer(int slot, int tier) {
+            if (tier >= this.tiers[slot]) {
+                return false;
+            }
+
+            this.tiers[slot] = tier;
+            return true;
+        }
+
+        long[] order() {
+            if (this.order.length < this.size) {
+                this.order = new long[this.products.length];
+            }
+            return this.order;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
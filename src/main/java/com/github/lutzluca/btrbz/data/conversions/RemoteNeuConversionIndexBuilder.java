@@ -4,9 +4,13 @@ import com.github.lutzluca.btrbz.utils.Utils;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -17,6 +21,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -25,8 +30,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -38,6 +49,11 @@ final class RemoteNeuConversionIndexBuilder {
     private static final Duration ZIP_REQUEST_TIMEOUT = Duration.ofSeconds(60);
     private static final int LOG_SAMPLE_LIMIT = Integer.getInteger("btrbz.conversions.logSampleLimit", 0);
     private static final int MAX_ROMAN_LEVEL = 3999;
+    private static final boolean SEQUENTIAL_INGEST = Boolean.getBoolean("btrbz.conversions.sequentialIngest");
+    private static final int INGEST_THREADS = Integer.getInteger(
+        "btrbz.conversions.ingestThreads",
+        Math.clamp(Runtime.getRuntime().availableProcessors() - 1, 1, 4));
+    private static final String BAZAAR_STOCKS_PATH = "constants/bazaarstocks.json";
     // The 26.1.x artifact must remain compatible with its oldest supported release.
     static final int BASELINE_ITEM_DATA_VERSION = 4786;
     static final int BUILDER_VERSION = 5;
@@ -119,9 +135,10 @@ final class RemoteNeuConversionIndexBuilder {
             neuCommit,
             maxDataVersion);
 
-        var products = canReuseEntries
+        var entries = canReuseEntries
             ? reusableEntries(current, productIds)
-            : fetchNeuEntries(neuCommit, productIds, maxDataVersion);
+            : fetchNeuEntries(neuCommit, productIds, maxDataVersion, PreviousEntries.of(current));
+        var products = entries.products();
 
         var missingProductIds = validateCompleteIndex(productIds, products, allowPartial);
         var carriedForwardCount = carryForwardMissingEntries(current, products, missingProductIds);
@@ -137,7 +154,8 @@ final class RemoteNeuConversionIndexBuilder {
             Instant.now().toString(),
             neuCommit,
             products,
-            missingProductIds);
+            missingProductIds,
+            entries.sourceHashes());
         var counts = index.sourceCounts();
         long overlays = index.products().values().stream().filter(entry -> entry.itemStack() != null).count();
         long legacy = index.products().values().stream().filter(entry -> entry.legacyItemStack() != null).count();
@@ -224,20 +242,70 @@ final class RemoteNeuConversionIndexBuilder {
         }
     }
 
-    private static Map<String, ConversionProductEntry> reusableEntries(
+    private static NeuEntries reusableEntries(
         ConversionIndex current,
         Set<String> productIds
     ) {
         var entries = new LinkedHashMap<String, ConversionProductEntry>();
-        new TreeSet<>(productIds).forEach(productId -> entries.put(productId, current.products().get(productId)));
+        var sourceHashes = new HashMap<String, Long>();
+        for (var productId : new TreeSet<>(productIds)) {
+            entries.put(productId, current.products().get(productId));
+            var sourceHash = current.sourceHashes().get(productId);
+            if (sourceHash != null) {
+                sourceHashes.put(productId, sourceHash);
+            }
+        }
         log.debug("NEU commit unchanged; reusing {} conversion entries", entries.size());
-        return entries;
+        return new NeuEntries(entries, sourceHashes);
     }
 
-    private static Map<String, ConversionProductEntry> fetchNeuEntries(
+    private static NeuEntries fetchNeuEntries(
         String commit,
         Set<String> productIds,
-        int maxDataVersion
+        int maxDataVersion,
+        PreviousEntries previous
+    ) throws ConversionRefreshException {
+        if (!SEQUENTIAL_INGEST) {
+            try {
+                return streamNeuEntries(commit, productIds, maxDataVersion, previous);
+            } catch (ArchiveOrderException err) {
+                log.warn("{}; falling back to reading a downloaded NEU archive", err.getMessage());
+            }
+        }
+
+        return downloadNeuEntries(commit, productIds, maxDataVersion, previous);
+    }
+
+    private static NeuEntries streamNeuEntries(
+        String commit,
+        Set<String> productIds,
+        int maxDataVersion,
+        PreviousEntries previous
+    ) throws ConversionRefreshException, ArchiveOrderException {
+        try {
+            log.info("Streaming NEU repository archive for commit {}", commit);
+            var resp = HTTP_CLIENT.send(neuZipRequest(commit), HttpResponse.BodyHandlers.ofInputStream());
+            try (var body = resp.body()) {
+                if (resp.statusCode() != 200) {
+                    throw new IOException("Failed to download NEU zip: HTTP " + resp.statusCode());
+                }
+                return readStreamedEntries(body, productIds, maxDataVersion, commit, previous);
+            }
+        } catch (ArchiveOrderException err) {
+            throw err;
+        } catch (IOException err) {
+            throw new ConversionRefreshException(ConversionRefreshException.Phase.NeuZip, err.getMessage(), err);
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+            throw new ConversionRefreshException(ConversionRefreshException.Phase.NeuZip, err.getMessage(), err);
+        }
+    }
+
+    private static NeuEntries downloadNeuEntries(
+        String commit,
+        Set<String> productIds,
+        int maxDataVersion,
+        PreviousEntries previous
     )
         throws ConversionRefreshException {
         Path zipPath;
@@ -252,81 +320,14 @@ final class RemoteNeuConversionIndexBuilder {
 
         try {
             log.info("Downloading NEU repository archive for commit {}", commit);
-            var req = baseRequest(URI.create(String.format(NEU_ZIP_URL, commit)))
-                .timeout(ZIP_REQUEST_TIMEOUT)
-                .setHeader("Accept", "application/zip, application/octet-stream")
-                .GET()
-                .build();
-            var resp = HTTP_CLIENT.send(req, HttpResponse.BodyHandlers.ofFile(zipPath));
+            var resp = HTTP_CLIENT.send(neuZipRequest(commit), HttpResponse.BodyHandlers.ofFile(zipPath));
             if (resp.statusCode() != 200) {
                 throw new IOException("Failed to download NEU zip: HTTP " + resp.statusCode());
             }
             log.debug("Downloaded NEU repository archive ({} bytes)", Files.size(zipPath));
 
             try (var zip = new ZipFile(zipPath.toFile(), StandardCharsets.UTF_8)) {
-                var entriesBySuffix = indexZipEntries(zip);
-                var overlaysByNeuId = indexItemOverlays(zip);
-                var stockEntry = entriesBySuffix.get("constants/bazaarstocks.json");
-                if (stockEntry == null) {
-                    throw new IOException("NEU zip did not contain constants/bazaarstocks.json");
-                }
-
-                var stocks = readBazaarStocks(zip, stockEntry);
-                var stockIds = new HashMap<String, String>();
-                for (var stock : stocks) {
-                    if (stock.stock != null && stock.id != null) {
-                        stockIds.put(stock.stock, stock.id);
-                    }
-                }
-
-                var productEntries = new LinkedHashMap<String, ConversionProductEntry>();
-                var derivedFallbackExamples = new ArrayList<String>();
-                var staticAliasCount = 0;
-                var processed = 0;
-                for (var productId : new TreeSet<>(productIds)) {
-                    var productEntry = resolveEntry(
-                        zip,
-                        entriesBySuffix,
-                        overlaysByNeuId,
-                        stockIds,
-                        productId,
-                        maxDataVersion);
-                    if (productEntry.isEmpty()) {
-                        continue;
-                    }
-
-                    productEntries.put(productId, productEntry.get());
-
-                    if (productEntry.get().source() instanceof ProductNameSource.Derived
-                        && derivedFallbackExamples.size() < LOG_SAMPLE_LIMIT) {
-                        derivedFallbackExamples.add("%s -> %s".formatted(productId, productEntry.get().strippedName()));
-                    }
-                    if (STATIC_NEU_ALIASES.containsKey(productId)) {
-                        staticAliasCount++;
-                    }
-                    processed++;
-                    if (processed % 250 == 0) {
-                        log.debug(
-                            "Processed {}/{} Bazaar products from the NEU repository",
-                            processed,
-                            productIds.size());
-                    }
-                }
-
-                log.debug(
-                    "Read {} Bazaar conversion entries from NEU commit {} "
-                        + "(overlays={}, legacy={}, staticAliases={})",
-                    productEntries.size(),
-                    commit,
-                    productEntries.values().stream().filter(entry -> entry.itemStack() != null).count(),
-                    productEntries.values().stream().filter(entry -> entry.legacyItemStack() != null).count(),
-                    staticAliasCount);
-                if (!derivedFallbackExamples.isEmpty()) {
-                    log.info(
-                        "Derived Bazaar conversion names used during refresh; sample: {}",
-                        derivedFallbackExamples);
-                }
-                return productEntries;
+                return readZipEntries(zip, productIds, maxDataVersion, commit, previous);
             }
         } catch (IOException err) {
             throw new ConversionRefreshException(ConversionRefreshException.Phase.NeuZip, err.getMessage(), err);
@@ -342,6 +343,261 @@ final class RemoteNeuConversionIndexBuilder {
         }
     }
 
+    /**
+     * Resolves conversion entries from a fully downloaded archive, reading each wanted entry sequentially.
+     */
+    static NeuEntries readZipEntries(
+        ZipFile zip,
+        Set<String> productIds,
+        int maxDataVersion,
+        String commit,
+        PreviousEntries previous
+    ) throws IOException {
+        var entriesBySuffix = indexZipEntries(zip);
+        var stockEntry = entriesBySuffix.get(BAZAAR_STOCKS_PATH);
+        if (stockEntry == null) {
+            throw new IOException("NEU zip did not contain " + BAZAAR_STOCKS_PATH);
+        }
+
+        var archive = new ZipArchive(zip, entriesBySuffix, indexItemOverlays(zip));
+        var stockIds = stockIds(readBazaarStocks(new InputStreamReader(
+            zip.getInputStream(stockEntry),
+            StandardCharsets.UTF_8)));
+        return resolveEntries(archive, stockIds, productIds, maxDataVersion, commit, previous);
+    }
+
+    /**
+     * Resolves conversion entries in a single pass over an archive stream. Only the bazaar stocks, item files of
+     * wanted NEU ids and the newest compatible overlay per wanted id are kept; item JSON is parsed on a bounded
+     * worker pool while the stream is still being read. When {@code previous} carries source hashes, parsing waits
+     * until the stream ends and only covers items of products whose hash changed.
+     *
+     * @throws ArchiveOrderException if the bazaar stocks came after item files they map to, which a single pass
+     *                               cannot recover
+     */
+    static NeuEntries readStreamedEntries(
+        InputStream in,
+        Set<String> productIds,
+        int maxDataVersion,
+        String commit,
+        PreviousEntries previous
+    ) throws IOException {
+        var pool = Executors.newFixedThreadPool(INGEST_THREADS, r -> {
+            Thread thread = new Thread(r, "btrbz-neu-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            var archive = readStreamedArchive(in, productIds, maxDataVersion, pool, previous.isEmpty());
+            return resolveEntries(archive, archive.stockIds(), productIds, maxDataVersion, commit, previous);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static StreamedArchive readStreamedArchive(
+        InputStream in,
+        Set<String> productIds,
+        int maxDataVersion,
+        ExecutorService pool,
+        boolean parseEagerly
+    ) throws IOException {
+        var wanted = new HashSet<>(productIds);
+        wanted.addAll(STATIC_NEU_ALIASES.values());
+        wanted.add("ENCHANTED_BOOK");
+
+        var items = new HashMap<String, StreamedItem>();
+        var overlays = new HashMap<String, StreamedOverlay>();
+        var skippedBeforeStocks = new HashSet<String>();
+        Map<String, String> stockIds = null;
+
+        var zip = new ZipInputStream(new BufferedInputStream(in), StandardCharsets.UTF_8);
+        for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            var name = entry.getName();
+            if (BAZAAR_STOCKS_PATH.equals(entrySuffix(name))) {
+                stockIds = stockIds(readBazaarStocks(new InputStreamReader(
+                    new ByteArrayInputStream(zip.readAllBytes()),
+                    StandardCharsets.UTF_8)));
+                wanted.addAll(stockIds.values());
+                continue;
+            }
+
+            var itemId = streamedItemId(name);
+            if (itemId != null) {
+                if (!wanted.contains(itemId)) {
+                    if (stockIds == null) {
+                        skippedBeforeStocks.add(itemId);
+                    }
+                    continue;
+                }
+
+                var item = new StreamedItem(zip.readAllBytes());
+                if (parseEagerly) {
+                    item.parse(pool);
+                }
+                items.put(itemId, item);
+                continue;
+            }
+
+            var overlay = overlayName(name);
+            if (overlay == null) {
+                continue;
+            }
+
+            if (!wanted.contains(overlay.neuId())) {
+                if (stockIds == null) {
+                    skippedBeforeStocks.add(overlay.neuId());
+                }
+                continue;
+            }
+
+            var current = overlays.get(overlay.neuId());
+            if (overlay.dataVersion() <= maxDataVersion
+                && (current == null || overlay.dataVersion() > current.stack().dataVersion())) {
+                var bytes = zip.readAllBytes();
+                var stack = new ProductStackData(overlay.dataVersion(), new String(bytes, StandardCharsets.UTF_8));
+                overlays.put(overlay.neuId(), new StreamedOverlay(stack, crc(bytes)));
+            }
+        }
+
+        if (stockIds == null) {
+            throw new IOException("NEU zip did not contain " + BAZAAR_STOCKS_PATH);
+        }
+
+        for (var neuId : stockIds.values()) {
+            if (skippedBeforeStocks.contains(neuId)) {
+                throw new ArchiveOrderException(
+                    "NEU archive lists " + BAZAAR_STOCKS_PATH + " after item files it references (" + neuId + ")");
+            }
+        }
+
+        log.debug("Streamed NEU repository archive (items={}, overlays={})", items.size(), overlays.size());
+        return new StreamedArchive(items, overlays, stockIds, pool);
+    }
+
+    private static NeuEntries resolveEntries(
+        NeuArchive archive,
+        Map<String, String> stockIds,
+        Set<String> productIds,
+        int maxDataVersion,
+        String commit,
+        PreviousEntries previous
+    ) throws IOException {
+        var sortedIds = new TreeSet<>(productIds);
+        var sourceHashes = new HashMap<String, Long>();
+        var changedItemIds = new HashSet<String>();
+        for (var productId : sortedIds) {
+            var sourceHash = sourceHash(archive, stockIds, productId, maxDataVersion);
+            sourceHashes.put(productId, sourceHash);
+            if (previous.reusable(productId, sourceHash).isEmpty()) {
+                changedItemIds.add(productId);
+                changedItemIds.add(stockIds.getOrDefault(productId, productId));
+                changedItemIds.add(STATIC_NEU_ALIASES.getOrDefault(productId, productId));
+            }
+        }
+        archive.prefetch(changedItemIds);
+
+        var productEntries = new LinkedHashMap<String, ConversionProductEntry>();
+        var derivedFallbackExamples = new ArrayList<String>();
+        var staticAliasCount = 0;
+        var reused = 0;
+        var processed = 0;
+        for (var productId : sortedIds) {
+            var sourceHash = sourceHashes.get(productId);
+            var productEntry = previous.reusable(productId, sourceHash);
+            if (productEntry.isPresent()) {
+                reused++;
+            } else {
+                productEntry = resolveEntry(archive, stockIds, productId, maxDataVersion);
+            }
+            if (productEntry.isEmpty()) {
+                sourceHashes.remove(productId);
+                continue;
+            }
+
+            productEntries.put(productId, productEntry.get());
+
+            if (productEntry.get().source() instanceof ProductNameSource.Derived
+                && derivedFallbackExamples.size() < LOG_SAMPLE_LIMIT) {
+                derivedFallbackExamples.add("%s -> %s".formatted(productId, productEntry.get().strippedName()));
+            }
+            if (STATIC_NEU_ALIASES.containsKey(productId)) {
+                staticAliasCount++;
+            }
+            processed++;
+            if (processed % 250 == 0) {
+                log.debug(
+                    "Processed {}/{} Bazaar products from the NEU repository",
+                    processed,
+                    productIds.size());
+            }
+        }
+
+        if (!previous.isEmpty()) {
+            log.info(
+                "Reused {} unchanged conversion entries; re-resolved {} from NEU commit {}",
+                reused,
+                productEntries.size() - reused,
+                commit);
+        }
+        log.debug(
+            "Read {} Bazaar conversion entries from NEU commit {} "
+                + "(overlays={}, legacy={}, staticAliases={})",
+            productEntries.size(),
+            commit,
+            productEntries.values().stream().filter(entry -> entry.itemStack() != null).count(),
+            productEntries.values().stream().filter(entry -> entry.legacyItemStack() != null).count(),
+            staticAliasCount);
+        if (!derivedFallbackExamples.isEmpty()) {
+            log.info(
+                "Derived Bazaar conversion names used during refresh; sample: {}",
+                derivedFallbackExamples);
+        }
+        return new NeuEntries(productEntries, sourceHashes);
+    }
+
+    /**
+     * Fingerprint of everything {@link #resolveEntry} may read for {@code productId}: the item files it can be
+     * named from, its stock and alias mapping and the overlays selected for them. An unchanged fingerprint means
+     * resolving again would produce the same entry.
+     */
+    private static long sourceHash(
+        NeuArchive archive,
+        Map<String, String> stockIds,
+        String productId,
+        int maxDataVersion
+    ) {
+        var hasher = new SourceHasher()
+            .add(BUILDER_VERSION)
+            .add(maxDataVersion)
+            .add(productId)
+            .add(archive.itemStamp(productId))
+            .add(archive.overlayStamp(productId, maxDataVersion));
+
+        for (var neuId : Arrays.asList(stockIds.get(productId), STATIC_NEU_ALIASES.get(productId))) {
+            hasher.add(neuId);
+            if (neuId != null) {
+                hasher.add(archive.itemStamp(neuId)).add(archive.overlayStamp(neuId, maxDataVersion));
+            }
+        }
+
+        if (productId.startsWith("ENCHANTMENT_")) {
+            hasher.add(archive.overlayStamp("ENCHANTED_BOOK", maxDataVersion));
+        }
+        return hasher.value();
+    }
+
+    private static long crc(byte[] bytes) {
+        var crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
     static Set<String> validateCompleteIndex(
         Set<String> productIds,
         Map<String, ConversionProductEntry> products,
@@ -373,92 +629,59 @@ final class RemoteNeuConversionIndexBuilder {
     }
 
     private static Optional<ConversionProductEntry> resolveEntry(
-        ZipFile zip,
-        Map<String, ZipEntry> entriesBySuffix,
-        Map<String, List<ItemOverlayEntry>> overlaysByNeuId,
+        NeuArchive archive,
         Map<String, String> stockIds,
         String productId,
         int maxDataVersion
     ) throws IOException {
-        var directItem = entriesBySuffix.get("items/" + productId + ".json");
-        if (directItem != null) {
-            var entry = entryFromItem(
-                zip,
-                directItem,
-                overlaysByNeuId,
-                productId,
-                productId,
-                maxDataVersion);
+        if (archive.hasItem(productId)) {
+            var entry = entryFromItem(archive, productId, productId, maxDataVersion);
             return entry.isPresent()
                 ? entry
-                : derivedEnchantmentEntry(zip, overlaysByNeuId, productId, maxDataVersion);
+                : derivedEnchantmentEntry(archive, productId, maxDataVersion);
         }
 
         var stockNeuId = stockIds.get(productId);
         if (stockNeuId != null && !stockNeuId.isBlank()) {
-            return entryFromNeuId(
-                zip,
-                entriesBySuffix,
-                overlaysByNeuId,
-                productId,
-                stockNeuId,
-                maxDataVersion);
+            return entryFromNeuId(archive, productId, stockNeuId, maxDataVersion);
         }
 
         var aliasNeuId = STATIC_NEU_ALIASES.get(productId);
         if (aliasNeuId != null) {
-            return entryFromNeuId(
-                zip,
-                entriesBySuffix,
-                overlaysByNeuId,
-                productId,
-                aliasNeuId,
-                maxDataVersion);
+            return entryFromNeuId(archive, productId, aliasNeuId, maxDataVersion);
         }
 
-        return derivedEnchantmentEntry(zip, overlaysByNeuId, productId, maxDataVersion);
+        return derivedEnchantmentEntry(archive, productId, maxDataVersion);
     }
 
     private static Optional<ConversionProductEntry> entryFromNeuId(
-        ZipFile zip,
-        Map<String, ZipEntry> entriesBySuffix,
-        Map<String, List<ItemOverlayEntry>> overlaysByNeuId,
+        NeuArchive archive,
         String productId,
         String neuId,
         int maxDataVersion
     ) throws IOException {
-        var itemEntry = entriesBySuffix.get("items/" + neuId + ".json");
-        if (itemEntry == null) {
-            return derivedEnchantmentEntry(zip, overlaysByNeuId, productId, maxDataVersion);
+        if (!archive.hasItem(neuId)) {
+            return derivedEnchantmentEntry(archive, productId, maxDataVersion);
         }
 
-        var entry = entryFromItem(
-            zip,
-            itemEntry,
-            overlaysByNeuId,
-            productId,
-            neuId,
-            maxDataVersion);
+        var entry = entryFromItem(archive, productId, neuId, maxDataVersion);
         return entry.isPresent()
             ? entry
-            : derivedEnchantmentEntry(zip, overlaysByNeuId, productId, maxDataVersion);
+            : derivedEnchantmentEntry(archive, productId, maxDataVersion);
     }
 
     private static Optional<ConversionProductEntry> entryFromItem(
-        ZipFile zip,
-        ZipEntry itemEntry,
-        Map<String, List<ItemOverlayEntry>> overlaysByNeuId,
+        NeuArchive archive,
         String productId,
         String neuId,
         int maxDataVersion
     ) throws IOException {
         var itemStack = readProductStack(
-            zip,
-            overlaysByNeuId,
+            archive,
             neuId,
             productId.startsWith("ENCHANTMENT_") ? "ENCHANTED_BOOK" : null,
             maxDataVersion).orElse(null);
-        return readNeuItemData(zip, itemEntry)
+        return archive.item(neuId)
             .map(item -> new ConversionProductEntry(
                 item.formattedName(),
                 new ProductNameSource.Neu(neuId),
@@ -467,17 +690,11 @@ final class RemoteNeuConversionIndexBuilder {
     }
 
     private static Optional<ConversionProductEntry> derivedEnchantmentEntry(
-        ZipFile zip,
-        Map<String, List<ItemOverlayEntry>> overlaysByNeuId,
+        NeuArchive archive,
         String productId,
         int maxDataVersion
     ) throws IOException {
-        var itemStack = readProductStack(
-            zip,
-            overlaysByNeuId,
-            "ENCHANTED_BOOK",
-            null,
-            maxDataVersion).orElse(null);
+        var itemStack = readProductStack(archive, "ENCHANTED_BOOK", null, maxDataVersion).orElse(null);
         return deriveEnchantmentDisplayName(productId)
             .map(name -> new ConversionProductEntry(name, new ProductNameSource.Derived(), itemStack));
     }
@@ -522,16 +739,9 @@ final class RemoteNeuConversionIndexBuilder {
     private static Map<String, ZipEntry> indexZipEntries(ZipFile zip) {
         var entries = new HashMap<String, ZipEntry>();
         zip.stream().forEach(entry -> {
-            var name = entry.getName();
-            var constantsIdx = name.indexOf("constants/");
-            if (constantsIdx >= 0) {
-                entries.put(name.substring(constantsIdx), entry);
-                return;
-            }
-
-            var itemIdx = name.indexOf("items/");
-            if (itemIdx >= 0) {
-                entries.put(name.substring(itemIdx), entry);
+            var suffix = entrySuffix(entry.getName());
+            if (suffix != null) {
+                entries.put(suffix, entry);
             }
         });
         return entries;
@@ -540,54 +750,72 @@ final class RemoteNeuConversionIndexBuilder {
     private static Map<String, List<ItemOverlayEntry>> indexItemOverlays(ZipFile zip) {
         var overlays = new HashMap<String, List<ItemOverlayEntry>>();
         zip.stream().forEach(entry -> {
-            var name = entry.getName();
-            var overlayIdx = name.indexOf("itemsOverlay/");
-            if (overlayIdx < 0 || !name.endsWith(".snbt")) {
-                return;
-            }
-
-            var relative = name.substring(overlayIdx + "itemsOverlay/".length());
-            var separator = relative.indexOf('/');
-            if (separator <= 0 || separator == relative.length() - 1) {
-                return;
-            }
-
-            try {
-                var dataVersion = Integer.parseInt(relative.substring(0, separator));
-                var neuId = relative.substring(separator + 1, relative.length() - ".snbt".length());
-                overlays.computeIfAbsent(neuId, _ -> new ArrayList<>())
-                    .add(new ItemOverlayEntry(dataVersion, entry));
-            } catch (NumberFormatException err) {
-                log.debug("Ignoring NEU item overlay with invalid data version: {}", name, err);
+            var overlay = overlayName(entry.getName());
+            if (overlay != null) {
+                overlays.computeIfAbsent(overlay.neuId(), _ -> new ArrayList<>())
+                    .add(new ItemOverlayEntry(overlay.dataVersion(), entry));
             }
         });
         return overlays;
     }
 
+    /** Archive path from {@code constants/} or {@code items/} on, dropping the repository root folder. */
+    private static String entrySuffix(String name) {
+        var constantsIdx = name.indexOf("constants/");
+        if (constantsIdx >= 0) {
+            return name.substring(constantsIdx);
+        }
+
+        var itemIdx = name.indexOf("items/");
+        return itemIdx >= 0 ? name.substring(itemIdx) : null;
+    }
+
+    private static String streamedItemId(String name) {
+        var suffix = entrySuffix(name);
+        if (suffix == null || !suffix.startsWith("items/") || !suffix.endsWith(".json")) {
+            return null;
+        }
+
+        return suffix.substring("items/".length(), suffix.length() - ".json".length());
+    }
+
+    private static OverlayName overlayName(String name) {
+        var overlayIdx = name.indexOf("itemsOverlay/");
+        if (overlayIdx < 0 || !name.endsWith(".snbt")) {
+            return null;
+        }
+
+        var relative = name.substring(overlayIdx + "itemsOverlay/".length());
+        var separator = relative.indexOf('/');
+        if (separator <= 0 || separator == relative.length() - 1) {
+            return null;
+        }
+
+        try {
+            var dataVersion = Integer.parseInt(relative.substring(0, separator));
+            var neuId = relative.substring(separator + 1, relative.length() - ".snbt".length());
+            return new OverlayName(dataVersion, neuId);
+        } catch (NumberFormatException err) {
+            log.debug("Ignoring NEU item overlay with invalid data version: {}", name, err);
+            return null;
+        }
+    }
+
     static Optional<Integer> newestCompatibleOverlayVersion(Set<Integer> versions, int maxDataVersion) {
         return versions.stream().filter(version -> version <= maxDataVersion).max(Integer::compareTo);
     }
 
     private static Optional<ProductStackData> readProductStack(
-        ZipFile zip,
-        Map<String, List<ItemOverlayEntry>> overlaysByNeuId,
+        NeuArchive archive,
         String neuId,
         String fallbackNeuId,
         int maxDataVersion
     ) throws IOException {
-        var selected = selectItemOverlay(overlaysByNeuId.get(neuId), maxDataVersion);
-        if (selected.isEmpty() && fallbackNeuId != null) {
-            selected = selectItemOverlay(overlaysByNeuId.get(fallbackNeuId), maxDataVersion);
-        }
-        if (selected.isEmpty()) {
-            return Optional.empty();
-        }
-
-        var overlay = selected.get();
-        try (var stream = zip.getInputStream(overlay.entry())) {
-            var stackSnbt = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
-            return Optional.of(new ProductStackData(overlay.dataVersion(), stackSnbt));
+        var stack = archive.stack(neuId, maxDataVersion);
+        if (stack.isEmpty() && fallbackNeuId != null) {
+            stack = archive.stack(fallbackNeuId, maxDataVersion);
         }
+        return stack;
     }
 
     private static Optional<ItemOverlayEntry> selectItemOverlay(
@@ -602,54 +830,76 @@ final class RemoteNeuConversionIndexBuilder {
             .max((first, second) -> Integer.compare(first.dataVersion(), second.dataVersion()));
     }
 
-    private static List<BazaarStock> readBazaarStocks(ZipFile zip, ZipEntry entry) throws IOException {
-        try (Reader reader = new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8)) {
+    private static List<BazaarStock> readBazaarStocks(Reader reader) throws IOException {
+        try (reader) {
             return GSON.fromJson(reader, new TypeToken<List<BazaarStock>>() {
             }.getType());
         }
     }
 
+    private static Map<String, String> stockIds(List<BazaarStock> stocks) {
+        var stockIds = new HashMap<String, String>();
+        for (var stock : stocks) {
+            if (stock.stock != null && stock.id != null) {
+                stockIds.put(stock.stock, stock.id);
+            }
+        }
+        return stockIds;
+    }
+
     private static Optional<NeuItemData> readNeuItemData(ZipFile zip, ZipEntry entry) throws IOException {
         try (Reader reader = new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8)) {
-            var item = GSON.fromJson(reader, JsonObject.class);
-            if (item == null) {
-                return Optional.empty();
-            }
+            return readNeuItemData(reader);
+        }
+    }
+
+    private static Optional<NeuItemData> parseNeuItemData(byte[] json) {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) {
+            return readNeuItemData(reader);
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    private static Optional<NeuItemData> readNeuItemData(Reader reader) {
+        var item = GSON.fromJson(reader, JsonObject.class);
+        if (item == null) {
+            return Optional.empty();
+        }
 
-            var displayName = item.has("displayname")
-                ? item.get("displayname").getAsString()
-                : "";
-            var formattedName = displayName;
-            if (Utils.cleanDisplayName(displayName).equals("Enchanted Book")) {
-                formattedName = null;
-                if (item.has("lore") && item.get("lore").isJsonArray()) {
-                    for (var lineElement : item.getAsJsonArray("lore")) {
-                        var rawLine = lineElement.getAsString();
-                        var stripped = Utils.cleanDisplayName(rawLine);
-                        if (stripped.isBlank() || stripped.equals("Combinable in Anvil")) {
-                            continue;
-                        }
-                        formattedName = formatEnchantedBookName(displayName, rawLine);
-                        break;
+        var displayName = item.has("displayname")
+            ? item.get("displayname").getAsString()
+            : "";
+        var formattedName = displayName;
+        if (Utils.cleanDisplayName(displayName).equals("Enchanted Book")) {
+            formattedName = null;
+            if (item.has("lore") && item.get("lore").isJsonArray()) {
+                for (var lineElement : item.getAsJsonArray("lore")) {
+                    var rawLine = lineElement.getAsString();
+                    var stripped = Utils.cleanDisplayName(rawLine);
+                    if (stripped.isBlank() || stripped.equals("Combinable in Anvil")) {
+                        continue;
                     }
+                    formattedName = formatEnchantedBookName(displayName, rawLine);
+                    break;
                 }
             }
+        }
 
-            if (formattedName == null || Utils.cleanDisplayName(formattedName).isBlank()) {
-                return Optional.empty();
-            }
+        if (formattedName == null || Utils.cleanDisplayName(formattedName).isBlank()) {
+            return Optional.empty();
+        }
 
-            LegacyProductStackData legacyStack = null;
-            if (item.has("itemid") && item.has("nbttag")) {
-                var itemId = item.get("itemid").getAsString();
-                var nbtTag = item.get("nbttag").getAsString();
-                int damage = item.has("damage") ? item.get("damage").getAsInt() : 0;
-                if (!itemId.isBlank() && !nbtTag.isBlank()) {
-                    legacyStack = new LegacyProductStackData(itemId, damage, nbtTag);
-                }
+        LegacyProductStackData legacyStack = null;
+        if (item.has("itemid") && item.has("nbttag")) {
+            var itemId = item.get("itemid").getAsString();
+            var nbtTag = item.get("nbttag").getAsString();
+            int damage = item.has("damage") ? item.get("damage").getAsInt() : 0;
+            if (!itemId.isBlank() && !nbtTag.isBlank()) {
+                legacyStack = new LegacyProductStackData(itemId, damage, nbtTag);
             }
-            return Optional.of(new NeuItemData(formattedName, legacyStack));
         }
+        return Optional.of(new NeuItemData(formattedName, legacyStack));
     }
 
     static String formatEnchantedBookName(String genericBookName, String rawLoreName) {
@@ -714,6 +964,14 @@ final class RemoteNeuConversionIndexBuilder {
         }
     }
 
+    private static HttpRequest neuZipRequest(String commit) {
+        return baseRequest(URI.create(String.format(NEU_ZIP_URL, commit)))
+            .timeout(ZIP_REQUEST_TIMEOUT)
+            .setHeader("Accept", "application/zip, application/octet-stream")
+            .GET()
+            .build();
+    }
+
     private static HttpRequest.Builder baseRequest(URI uri) {
         return HttpRequest
             .newBuilder(uri)
@@ -730,4 +988,234 @@ final class RemoteNeuConversionIndexBuilder {
     private record NeuItemData(String formattedName, LegacyProductStackData legacyStack) {}
 
     private record ItemOverlayEntry(int dataVersion, ZipEntry entry) {}
+
+    private record OverlayName(int dataVersion, String neuId) {}
+
+    /** Conversion entries read from the NEU archive with the source hash each was resolved from. */
+    record NeuEntries(Map<String, ConversionProductEntry> products, Map<String, Long> sourceHashes) {}
+
+    /** Entries of the active index that a rebuild may keep when their source hash is unchanged. */
+    record PreviousEntries(Map<String, ConversionProductEntry> products, Map<String, Long> sourceHashes) {
+
+        private static final PreviousEntries NONE = new PreviousEntries(Map.of(), Map.of());
+
+        static PreviousEntries none() {
+            return NONE;
+        }
+
+        static PreviousEntries of(ConversionIndex current) {
+            if (current == null || current.builderVersion() != BUILDER_VERSION || current.sourceHashes().isEmpty()) {
+                return NONE;
+            }
+
+            return new PreviousEntries(current.products(), current.sourceHashes());
+        }
+
+        boolean isEmpty() {
+            return this.sourceHashes.isEmpty();
+        }
+
+        Optional<ConversionProductEntry> reusable(String productId, long sourceHash) {
+            var previousHash = this.sourceHashes.get(productId);
+            return previousHash != null && previousHash == sourceHash
+                ? Optional.ofNullable(this.products.get(productId))
+                : Optional.empty();
+        }
+    }
+
+    /** The parts of a NEU repository archive that conversion entries are resolved from. */
+    private interface NeuArchive {
+        long NO_STAMP = -1;
+
+        boolean hasItem(String neuId);
+
+        Optional<NeuItemData> item(String neuId) throws IOException;
+
+        /** Newest overlay stack for {@code neuId} that is not newer than {@code maxDataVersion}. */
+        Optional<ProductStackData> stack(String neuId, int maxDataVersion) throws IOException;
+
+        /** CRC of the item file for {@code neuId}, or {@link #NO_STAMP}. */
+        long itemStamp(String neuId);
+
+        /** Data version and CRC of the overlay {@link #stack} would return, or {@link #NO_STAMP}. */
+        long overlayStamp(String neuId, int maxDataVersion);
+
+        /** Hint that the items are about to be resolved. */
+        default void prefetch(Set<String> neuIds) {}
+
+        static long overlayStamp(int dataVersion, long crc) {
+            return (long) dataVersion << 32 | crc & 0xFFFFFFFFL;
+        }
+    }
+
+    private record ZipArchive(
+        ZipFile zip,
+        Map<String, ZipEntry> entriesBySuffix,
+        Map<String, List<ItemOverlayEntry>> overlaysByNeuId
+    ) implements NeuArchive {
+
+        @Override
+        public boolean hasItem(String neuId) {
+            return this.entriesBySuffix.containsKey("items/" + neuId + ".json");
+        }
+
+        @Override
+        public Optional<NeuItemData> item(String neuId) throws IOException {
+            return readNeuItemData(this.zip, this.entriesBySuffix.get("items/" + neuId + ".json"));
+        }
+
+        @Override
+        public long itemStamp(String neuId) {
+            var entry = this.entriesBySuffix.get("items/" + neuId + ".json");
+            return entry == null ? NO_STAMP : entry.getCrc();
+        }
+
+        @Override
+        public long overlayStamp(String neuId, int maxDataVersion) {
+            return selectItemOverlay(this.overlaysByNeuId.get(neuId), maxDataVersion)
+                .map(overlay -> NeuArchive.overlayStamp(overlay.dataVersion(), overlay.entry().getCrc()))
+                .orElse(NO_STAMP);
+        }
+
+        @Override
+        public Optional<ProductStackData> stack(String neuId, int maxDataVersion) throws IOException {
+            var selected = selectItemOverlay(this.overlaysByNeuId.get(neuId), maxDataVersion);
+            if (selected.isEmpty()) {
+                return Optional.empty();
+            }
+
+            var overlay = selected.get();
+            try (var stream = this.zip.getInputStream(overlay.entry())) {
+                var stackSnbt = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+                return Optional.of(new ProductStackData(overlay.dataVersion(), stackSnbt));
+            }
+        }
+    }
+
+    /**
+     * Entries kept from a single streamed pass. Item parses run on the ingest pool and are awaited on lookup;
+     * overlays were already narrowed to the newest compatible version per id.
+     */
+    private record StreamedArchive(
+        Map<String, StreamedItem> items,
+        Map<String, StreamedOverlay> overlays,
+        Map<String, String> stockIds,
+        ExecutorService pool
+    ) implements NeuArchive {
+
+        @Override
+        public boolean hasItem(String neuId) {
+            return this.items.containsKey(neuId);
+        }
+
+        @Override
+        public Optional<NeuItemData> item(String neuId) throws IOException {
+            var item = this.items.get(neuId);
+            if (item == null) {
+                return Optional.empty();
+            }
+
+            try {
+                return item.parse(this.pool).join();
+            } catch (CompletionException err) {
+                if (err.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                if (err.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw err;
+            }
+        }
+
+        @Override
+        public Optional<ProductStackData> stack(String neuId, int maxDataVersion) {
+            return Optional.ofNullable(this.overlays.get(neuId)).map(StreamedOverlay::stack);
+        }
+
+        @Override
+        public long itemStamp(String neuId) {
+            var item = this.items.get(neuId);
+            return item == null ? NO_STAMP : item.crc();
+        }
+
+        @Override
+        public long overlayStamp(String neuId, int maxDataVersion) {
+            var overlay = this.overlays.get(neuId);
+            return overlay == null ? NO_STAMP : NeuArchive.overlayStamp(overlay.stack().dataVersion(), overlay.crc());
+        }
+
+        @Override
+        public void prefetch(Set<String> neuIds) {
+            for (var neuId : neuIds) {
+                var item = this.items.get(neuId);
+                if (item != null) {
+                    item.parse(this.pool);
+                }
+            }
+        }
+    }
+
+    /** Raw item JSON from the stream; the bytes are dropped once parsing has been scheduled. */
+    private static final class StreamedItem {
+        private final long crc;
+        private byte[] json;
+        private CompletableFuture<Optional<NeuItemData>> parse;
+
+        StreamedItem(byte[] json) {
+            this.crc = RemoteNeuConversionIndexBuilder.crc(json);
+            this.json = json;
+        }
+
+        long crc() {
+            return this.crc;
+        }
+
+        synchronized CompletableFuture<Optional<NeuItemData>> parse(ExecutorService pool) {
+            if (this.parse == null) {
+                var bytes = this.json;
+                this.json = null;
+                this.parse = CompletableFuture.supplyAsync(() -> parseNeuItemData(bytes), pool);
+            }
+            return this.parse;
+        }
+    }
+
+    private record StreamedOverlay(ProductStackData stack, long crc) {}
+
+    /** 64-bit FNV-1a over the fields of a {@link #sourceHash}; never returns {@code 0}, which caches treat as unset. */
+    private static final class SourceHasher {
+        private long hash = 0xcbf29ce484222325L;
+
+        SourceHasher add(long value) {
+            for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                this.hash = (this.hash ^ (value >>> shift & 0xFF)) * 0x100000001b3L;
+            }
+            return this;
+        }
+
+        SourceHasher add(String value) {
+            if (value == null) {
+                return this.add(-1L);
+            }
+
+            this.add(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                this.hash = (this.hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            return this;
+        }
+
+        long value() {
+            return this.hash == 0 ? 1 : this.hash;
+        }
+    }
+
+    /** The streamed archive cannot be resolved in one pass; a downloaded copy can. */
+    static final class ArchiveOrderException extends IOException {
+
+        ArchiveOrderException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package com.github.lutzluca.btrbz.data.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** LEB128 varints and zigzag deltas shared by the history segment writer and reader. */
+final class HistoryCodec {
+
+    private HistoryCodec() {}
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = in.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalStateException("Malformed varint at " + in.position());
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        return Math.toIntExact(readVarLong(in));
+    }
+
+    static long readZigZag(ByteBuffer in) {
+        return unZigZag(readVarLong(in));
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /** Growable byte buffer used to assemble a frame before it is known to fit its segment. */
+    static final class Sink {
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        int size() {
+            return this.size;
+        }
+
+        void clear() {
+            this.size = 0;
+        }
+
+        void writeVarLong(long value) {
+            this.ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                this.bytes[this.size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            this.writeVarLong(zigZag(value));
+        }
+
+        void writeBytes(byte[] bytes) {
+            this.ensure(bytes.length);
+            System.arraycopy(bytes, 0, this.bytes, this.size, bytes.length);
+            this.size += bytes.length;
+        }
+
+        void writeTo(Sink out) {
+            out.ensure(this.size);
+            System.arraycopy(this.bytes, 0, out.bytes, out.size, this.size);
+            out.size += this.size;
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.put(this.bytes, 0, this.size);
+        }
+
+        private void ensure(int extra) {
+            if (this.size + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.lutzluca.btrbz.data.history;
+
+import java.util.List;
+
+/**
+ * One product's recorded market state at {@code timestamp} (the poll's {@code lastUpdated}, in epoch millis).
+ * Points from compacted history only carry the top of each book side.
+ *
+ * @param buyOrders best buy orders first
+ * @param sellOffers best sell offers first
+ */
+public record HistoryPoint(
+    long timestamp,
+    List<Level> buyOrders,
+    List<Level> sellOffers,
+    long buyMovingWeek,
+    long sellMovingWeek
+) {
+
+    /** Best buy order price, or {@code NaN} when there were no buy orders. */
+    public double bestBuyOrderPrice() {
+        return this.buyOrders.isEmpty() ? Double.NaN : this.buyOrders.getFirst().pricePerUnit();
+    }
+
+    /** Best sell offer price, or {@code NaN} when there were no sell offers. */
+    public double bestSellOfferPrice() {
+        return this.sellOffers.isEmpty() ? Double.NaN : this.sellOffers.getFirst().pricePerUnit();
+    }
+
+    public record Level(double pricePerUnit, long amount, long orders) {}
+}
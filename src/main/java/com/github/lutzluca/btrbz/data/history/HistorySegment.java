@@ -0,0 +1,356 @@
+package com.github.lutzluca.btrbz.data.history;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One append-only history file. Segments are created at a fixed size, written through a shared-arena mapping and
+ * truncated to their used length when sealed; sealed segments are mapped read-only only while a read runs, so the
+ * mapping is released before the file is compacted or deleted.
+ * Layout (big-endian): a {@value #HEADER_BYTES}-byte header (magic, version, level, frame count, first and last
+ * timestamp, end offset), then frames. A frame is a varint length followed by a zigzag timestamp delta, the product
+ * ids first seen in this segment, and one length-prefixed {@link ProductBook} entry per product that changed since
+ * its previous entry in the segment. The first frame of a segment therefore holds every product, so a segment can
+ * be decoded on its own. The header's end offset is written last, which makes a torn append invisible.
+ */
+final class HistorySegment {
+    static final int MAGIC = 0x42425A48;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 40;
+
+    private static final int LEVEL_OFFSET = 8;
+    private static final int FRAMES_OFFSET = 12;
+    private static final int FIRST_OFFSET = 16;
+    private static final int LAST_OFFSET = 24;
+    private static final int END_OFFSET = 32;
+
+    private HistorySegment() {}
+
+    /**
+     * @param level {@link MarketHistoryStore#RAW} or {@link MarketHistoryStore#COMPACTED}
+     * @param end offset just past the last complete frame
+     */
+    record Header(Path path, int level, int frames, long firstTimestamp, long lastTimestamp, int end) {
+
+        boolean overlaps(long from, long to) {
+            return this.frames > 0 && this.firstTimestamp <= to && this.lastTimestamp >= from;
+        }
+    }
+
+    static Header readHeader(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(HEADER_BYTES);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new IOException("Truncated history segment header: " + path);
+            }
+
+            var header = header(buffer, path);
+            if (header.end > channel.size()) {
+                throw new IOException("History segment " + path + " ends before its recorded end " + header.end);
+            }
+
+            return header;
+        }
+    }
+
+    private static Header header(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a supported history segment: " + path);
+        }
+
+        int end = buffer.getInt(END_OFFSET);
+        if (end < HEADER_BYTES) {
+            throw new IOException("Corrupt history segment end offset " + end + ": " + path);
+        }
+
+        return new Header(
+            path,
+            buffer.getInt(LEVEL_OFFSET),
+            buffer.getInt(FRAMES_OFFSET),
+            buffer.getLong(FIRST_OFFSET),
+            buffer.getLong(LAST_OFFSET),
+            end);
+    }
+
+    /** Maps a sealed segment read-only for the duration of {@code reader}. */
+    static <T> T read(Header header, SegmentReader<T> reader) throws IOException {
+        try (
+            var channel = FileChannel.open(header.path, StandardOpenOption.READ);
+            var arena = Arena.ofConfined()
+        ) {
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, header.end, arena).asByteBuffer();
+            return reader.read(new Cursor(data, header.firstTimestamp));
+        }
+    }
+
+    @FunctionalInterface
+    interface SegmentReader<T> {
+        T read(Cursor cursor) throws IOException;
+    }
+
+    /** Appends frames to a new segment file; not thread-safe. */
+    static final class Writer {
+        private final Path path;
+        private final int level;
+        private final FileChannel channel;
+        private final Arena arena;
+        private final MemorySegment mapping;
+        private final ByteBuffer buffer;
+
+        private final Map<String, Integer> localIds = new HashMap<>();
+        private final List<ProductBook> latest = new ArrayList<>();
+        private final List<String> pendingIds = new ArrayList<>();
+        private final List<ProductBook> pendingBooks = new ArrayList<>();
+        private final List<Integer> pendingLocals = new ArrayList<>();
+        private final HistoryCodec.Sink frame = new HistoryCodec.Sink();
+        private final HistoryCodec.Sink entries = new HistoryCodec.Sink();
+        private final HistoryCodec.Sink entry = new HistoryCodec.Sink();
+        private final HistoryCodec.Sink prefix = new HistoryCodec.Sink();
+
+        private int frames;
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private int end = HEADER_BYTES;
+
+        private Writer(Path path, int level, FileChannel channel, Arena arena, MemorySegment mapping) {
+            this.path = path;
+            this.level = level;
+            this.channel = channel;
+            this.arena = arena;
+            this.mapping = mapping;
+            this.buffer = mapping.asByteBuffer();
+        }
+
+        static Writer create(Path path, int level, int capacity) throws IOException {
+            var channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            var arena = Arena.ofShared();
+
+            try {
+                // Mapping past the end grows the file to the full segment size.
+                var mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity, arena);
+                var writer = new Writer(path, level, channel, arena, mapping);
+                writer.buffer.putInt(0, MAGIC);
+                writer.buffer.putInt(4, FORMAT_VERSION);
+                writer.buffer.putInt(LEVEL_OFFSET, level);
+                writer.writeHeader();
+                return writer;
+            } catch (IOException | RuntimeException err) {
+                arena.close();
+                channel.close();
+                throw err;
+            }
+        }
+
+        int frames() {
+            return this.frames;
+        }
+
+        /**
+         * Appends a frame holding every product in {@code books} that changed since its last entry here.
+         * Returns {@code false} without writing anything when the frame does not fit.
+         */
+        boolean append(long timestamp, Map<String, ProductBook> books) {
+            this.entries.clear();
+            this.pendingIds.clear();
+            this.pendingBooks.clear();
+            this.pendingLocals.clear();
+
+            for (var product : books.entrySet()) {
+                var book = product.getValue();
+                var local = this.localIds.get(product.getKey());
+                ProductBook previous = null;
+
+                if (local == null) {
+                    local = this.localIds.size() + this.pendingIds.size();
+                    this.pendingIds.add(product.getKey());
+                } else {
+                    previous = this.latest.get(local);
+                    if (previous.sameAs(book)) {
+                        continue;
+                    }
+                }
+
+                this.entry.clear();
+                book.encode(this.entry, previous);
+                this.entries.writeVarLong(local);
+                this.entries.writeVarLong(this.entry.size());
+                this.entry.writeTo(this.entries);
+                this.pendingLocals.add(local);
+                this.pendingBooks.add(book);
+            }
+
+            if (this.pendingBooks.isEmpty()) {
+                return true;
+            }
+
+            this.frame.clear();
+            this.frame.writeZigZag(this.frames == 0 ? 0 : timestamp - this.lastTimestamp);
+            this.frame.writeVarLong(this.pendingIds.size());
+            for (var id : this.pendingIds) {
+                var bytes = id.getBytes(StandardCharsets.UTF_8);
+                this.frame.writeVarLong(bytes.length);
+                this.frame.writeBytes(bytes);
+            }
+            this.frame.writeVarLong(this.pendingBooks.size());
+            this.entries.writeTo(this.frame);
+
+            this.prefix.clear();
+            this.prefix.writeVarLong(this.frame.size());
+            int needed = this.prefix.size() + this.frame.size();
+            if (this.end + needed > this.buffer.capacity()) {
+                return false;
+            }
+
+            this.buffer.position(this.end);
+            this.prefix.writeTo(this.buffer);
+            this.frame.writeTo(this.buffer);
+
+            for (var id : this.pendingIds) {
+                this.localIds.put(id, this.latest.size());
+                this.latest.add(null);
+            }
+            for (int index = 0; index < this.pendingBooks.size(); index++) {
+                this.latest.set(this.pendingLocals.get(index), this.pendingBooks.get(index));
+            }
+
+            if (this.frames == 0) {
+                this.firstTimestamp = timestamp;
+            }
+            this.frames++;
+            this.lastTimestamp = timestamp;
+            this.end += needed;
+            this.writeHeader();
+            return true;
+        }
+
+        Header header() {
+            return new Header(this.path, this.level, this.frames, this.firstTimestamp, this.lastTimestamp, this.end);
+        }
+
+        /** A cursor over the frames written so far. */
+        Cursor cursor() {
+            return new Cursor(this.buffer.slice(0, this.end), this.firstTimestamp);
+        }
+
+        /** Flushes the mapping, releases it and truncates the file to the used length. */
+        Header seal() throws IOException {
+            try {
+                this.mapping.force();
+            } finally {
+                this.arena.close();
+                try (this.channel) {
+                    this.channel.truncate(this.end);
+                }
+            }
+
+            return this.header();
+        }
+
+        private void writeHeader() {
+            this.buffer.putInt(FRAMES_OFFSET, this.frames);
+            this.buffer.putLong(FIRST_OFFSET, this.firstTimestamp);
+            this.buffer.putLong(LAST_OFFSET, this.lastTimestamp);
+            this.buffer.putInt(END_OFFSET, this.end);
+        }
+    }
+
+    /** Decodes a segment frame by frame, keeping the latest state of every product it has decoded. */
+    static final class Cursor {
+        private final ByteBuffer data;
+        private final List<String> ids = new ArrayList<>();
+        private final List<ProductBook> latest = new ArrayList<>();
+        private final Map<String, ProductBook> changed = new LinkedHashMap<>();
+        private final Map<String, ProductBook> current = new LinkedHashMap<>();
+
+        private @Nullable String onlyProduct;
+        private int onlyLocal = -1;
+        private long timestamp;
+
+        private Cursor(ByteBuffer data, long firstTimestamp) {
+            this.data = data;
+            this.data.position(HEADER_BYTES);
+            this.timestamp = firstTimestamp;
+        }
+
+        /** Skips the entries of every other product; must be called before the first {@link #next}. */
+        Cursor only(String productId) {
+            this.onlyProduct = productId;
+            return this;
+        }
+
+        boolean next() {
+            if (!this.data.hasRemaining()) {
+                return false;
+            }
+
+            int length = HistoryCodec.readVarInt(this.data);
+            int frameEnd = this.data.position() + length;
+            this.timestamp += HistoryCodec.readZigZag(this.data);
+
+            int newIds = HistoryCodec.readVarInt(this.data);
+            for (int index = 0; index < newIds; index++) {
+                var bytes = new byte[HistoryCodec.readVarInt(this.data)];
+                this.data.get(bytes);
+                var id = new String(bytes, StandardCharsets.UTF_8);
+                if (id.equals(this.onlyProduct)) {
+                    this.onlyLocal = this.ids.size();
+                }
+                this.ids.add(id);
+                this.latest.add(null);
+            }
+
+            this.changed.clear();
+            int entries = HistoryCodec.readVarInt(this.data);
+            for (int index = 0; index < entries; index++) {
+                int local = HistoryCodec.readVarInt(this.data);
+                int entryLength = HistoryCodec.readVarInt(this.data);
+                if (this.onlyProduct != null && local != this.onlyLocal) {
+                    this.data.position(this.data.position() + entryLength);
+                    continue;
+                }
+
+                var book = ProductBook.decode(this.data, this.latest.get(local));
+                this.latest.set(local, book);
+                this.changed.put(this.ids.get(local), book);
+                this.current.put(this.ids.get(local), book);
+            }
+
+            this.data.position(frameEnd);
+            return true;
+        }
+
+        long timestamp() {
+            return this.timestamp;
+        }
+
+        /** Products with an entry in the current frame. */
+        Map<String, ProductBook> changed() {
+            return this.changed;
+        }
+
+        /** Every decoded product's state as of the current frame. */
+        Map<String, ProductBook> current() {
+            return this.current;
+        }
+    }
+}
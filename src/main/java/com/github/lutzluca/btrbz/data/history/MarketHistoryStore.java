@@ -0,0 +1,379 @@
+package com.github.lutzluca.btrbz.data.history;
+
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.history.HistorySegment.Cursor;
+import com.github.lutzluca.btrbz.data.history.HistorySegment.Header;
+import com.github.lutzluca.btrbz.data.history.HistorySegment.Writer;
+import io.vavr.control.Try;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Append-only local history of bazaar polls. Every recorded poll appends one frame to the current raw segment with
+ * the top {@link Policy#depthLevels} levels of both book sides and the moving-week volumes of each product that
+ * changed. Raw segments older than {@link Policy#rawRetention} are compacted into top-of-book frames at
+ * {@link Policy#compactedResolution}, and anything older than {@link Policy#retention} is deleted.
+ * <p>
+ * Nothing is kept on the heap beyond the open segments' encoder state. A {@link #query} only decodes the segments
+ * overlapping its range and skips other products' entries by length, so its cost is bounded by the number of
+ * segments the range spans times {@link Policy#segmentBytes}.
+ * <p>
+ * Polls handed to {@link #submit} are recorded on the store's own thread, which also runs retention and compaction
+ * once a minute, so neither holds up the poller. Reads and writes share the store's lock.
+ */
+@Slf4j
+public final class MarketHistoryStore implements AutoCloseable {
+    static final int RAW = 0;
+    static final int COMPACTED = 1;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long MAINTENANCE_INTERVAL_MS = Duration.ofMinutes(1).toMillis();
+    private static final long CLOSE_TIMEOUT_MS = Duration.ofSeconds(5).toMillis();
+
+    private final Path directory;
+    private final Policy policy;
+    private final LongSupplier clock;
+    private final List<Header> sealed = new ArrayList<>();
+    private final ScheduledExecutorService executor;
+
+    private @Nullable Writer raw;
+    private @Nullable Writer compacted;
+    private long lastCompactedBucket = Long.MIN_VALUE;
+    private boolean closed;
+
+    MarketHistoryStore(Path directory, Policy policy, LongSupplier clock) throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        this.clock = clock;
+
+        Files.createDirectories(directory);
+        this.loadSealedSegments();
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "market-history");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(
+            () -> Try
+                .run(() -> this.maintain(this.clock.getAsLong()))
+                .onFailure(err -> log.warn("Market history maintenance failed", err)),
+            MAINTENANCE_INTERVAL_MS,
+            MAINTENANCE_INTERVAL_MS,
+            TimeUnit.MILLISECONDS);
+    }
+
+    public static Try<MarketHistoryStore> open(Path directory, Policy policy) {
+        return Try.of(() -> new MarketHistoryStore(directory, policy, System::currentTimeMillis));
+    }
+
+    /** Queues the poll for recording on the store's thread. Polls submitted after {@link #close} are dropped. */
+    public void submit(MarketSnapshot snapshot) {
+        try {
+            this.executor.execute(() -> Try
+                .run(() -> this.record(snapshot))
+                .onFailure(err -> log.warn("Failed to record bazaar poll into market history", err)));
+        } catch (RejectedExecutionException _) {
+            log.debug("Market history is closed; dropping poll");
+        }
+    }
+
+    /** Appends the poll to the raw history. Polls without a {@code lastUpdated} timestamp are ignored. */
+    synchronized void record(MarketSnapshot snapshot) {
+        long timestamp = snapshot.lastUpdated();
+        if (this.closed || timestamp < 0) {
+            return;
+        }
+
+        var ids = snapshot.ids();
+        var books = new LinkedHashMap<String, ProductBook>(ids.size() * 2);
+        for (int slot = 0; slot < ids.size(); slot++) {
+            var productId = ids.productId(slot);
+            if (snapshot.slotOf(productId) >= 0) {
+                books.put(productId, ProductBook.of(snapshot, slot, this.policy.depthLevels));
+            }
+        }
+
+        this.raw = this.append(this.raw, RAW, timestamp, books);
+    }
+
+    /**
+     * Recorded states of {@code productId} with a timestamp in {@code [from, to]}, oldest first. Every point is a
+     * recorded change, except that the first point carries the state in effect at the first frame of the range.
+     */
+    public synchronized List<HistoryPoint> query(String productId, long from, long to) {
+        var points = new ArrayList<HistoryPoint>();
+        if (this.closed || from > to) {
+            return points;
+        }
+
+        var segments = new ArrayList<Header>();
+        this.sealed.stream().filter(header -> header.overlaps(from, to)).forEach(segments::add);
+        Stream
+            .of(this.compacted, this.raw)
+            .filter(writer -> writer != null && writer.header().overlaps(from, to))
+            .forEach(writer -> segments.add(writer.header()));
+        segments.sort(Comparator.comparingLong(Header::firstTimestamp));
+
+        for (var header : segments) {
+            var writer = this.writerFor(header);
+            try {
+                if (writer != null) {
+                    collect(writer.cursor(), productId, from, to, points);
+                } else {
+                    HistorySegment.read(header, cursor -> collect(cursor, productId, from, to, points));
+                }
+            } catch (IOException | RuntimeException err) {
+                log.warn("Failed to read market history segment {}", header.path(), err);
+            }
+        }
+
+        points.sort(Comparator.comparingLong(HistoryPoint::timestamp));
+        return points;
+    }
+
+    private static List<HistoryPoint> collect(
+        Cursor cursor,
+        String productId,
+        long from,
+        long to,
+        List<HistoryPoint> points
+    ) {
+        cursor.only(productId);
+        boolean first = points.isEmpty();
+
+        while (cursor.next()) {
+            long timestamp = cursor.timestamp();
+            if (timestamp > to) {
+                break;
+            }
+            if (timestamp < from) {
+                continue;
+            }
+
+            var book = cursor.changed().get(productId);
+            if (book == null && first) {
+                book = cursor.current().get(productId);
+            }
+            if (book != null) {
+                points.add(book.toPoint(timestamp));
+            }
+            first = false;
+        }
+
+        return points;
+    }
+
+    /** Compacts raw segments past {@link Policy#rawRetention} and deletes segments past {@link Policy#retention}. */
+    synchronized void maintain(long now) {
+        long compactBefore = now - this.policy.rawRetention.toMillis();
+        long deleteBefore = now - this.policy.retention.toMillis();
+
+        if (this.compacted != null && this.compacted.header().lastTimestamp() < deleteBefore) {
+            var writer = this.compacted;
+            this.compacted = null;
+            Try
+                .run(() -> this.seal(writer))
+                .onFailure(err -> log.warn("Failed to seal market history segment", err));
+        }
+
+        for (var header : List.copyOf(this.sealed)) {
+            if (header.lastTimestamp() < deleteBefore) {
+                this.delete(header);
+            } else if (header.level() == RAW && header.lastTimestamp() < compactBefore) {
+                this.compact(header);
+            }
+        }
+    }
+
+    private void compact(Header header) {
+        long resolution = this.policy.compactedResolution.toMillis();
+
+        try {
+            HistorySegment.read(header, cursor -> {
+                while (cursor.next()) {
+                    long bucket = Math.floorDiv(cursor.timestamp(), resolution);
+                    if (bucket == this.lastCompactedBucket) {
+                        continue;
+                    }
+
+                    this.lastCompactedBucket = bucket;
+                    var books = new LinkedHashMap<String, ProductBook>(cursor.current().size() * 2);
+                    cursor.current().forEach((id, book) -> books.put(id, book.truncated(1)));
+                    this.compacted = this.append(this.compacted, COMPACTED, cursor.timestamp(), books);
+                }
+                return null;
+            });
+        } catch (IOException | RuntimeException err) {
+            log.warn("Failed to compact market history segment {}; dropping it", header.path(), err);
+        }
+
+        this.delete(header);
+    }
+
+    private @Nullable Writer append(
+        @Nullable Writer writer,
+        int level,
+        long timestamp,
+        Map<String, ProductBook> books
+    ) {
+        try {
+            if (writer != null && writer.append(timestamp, books)) {
+                return writer;
+            }
+
+            if (writer != null) {
+                this.seal(writer);
+            }
+
+            var next = Writer.create(this.newSegmentPath(level, timestamp), level, this.policy.segmentBytes);
+            if (!next.append(timestamp, books)) {
+                log.warn("Market history frame at {} does not fit an empty segment; skipping it", timestamp);
+            }
+            return next;
+        } catch (IOException | RuntimeException err) {
+            log.warn("Failed to append market history frame at {}", timestamp, err);
+            return writer;
+        }
+    }
+
+    private void seal(Writer writer) throws IOException {
+        var header = writer.seal();
+        if (header.frames() == 0) {
+            Files.deleteIfExists(header.path());
+            return;
+        }
+
+        this.sealed.add(header);
+    }
+
+    private void delete(Header header) {
+        this.sealed.remove(header);
+        Try
+            .run(() -> Files.deleteIfExists(header.path()))
+            .onFailure(err -> log.warn("Failed to delete market history segment {}", header.path(), err));
+    }
+
+    private @Nullable Writer writerFor(Header header) {
+        for (var writer : new Writer[]{this.raw, this.compacted}) {
+            if (writer != null && writer.header().path().equals(header.path())) {
+                return writer;
+            }
+        }
+        return null;
+    }
+
+    private Path newSegmentPath(int level, long timestamp) {
+        var prefix = level == RAW ? "raw-" : "compacted-";
+        var path = this.directory.resolve(prefix + timestamp + SEGMENT_SUFFIX);
+        for (long suffix = 1; Files.exists(path); suffix++) {
+            path = this.directory.resolve(prefix + timestamp + "-" + suffix + SEGMENT_SUFFIX);
+        }
+        return path;
+    }
+
+    // Segments left open by a previous session are treated as sealed and trimmed to their last complete frame.
+    private void loadSealedSegments() throws IOException {
+        try (var files = Files.list(this.directory)) {
+            for (var path : files.filter(file -> file.toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                Try
+                    .of(() -> {
+                        var header = HistorySegment.readHeader(path);
+                        if (header.frames() == 0) {
+                            throw new IOException("Empty history segment");
+                        }
+                        if (Files.size(path) > header.end()) {
+                            try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                                channel.truncate(header.end());
+                            }
+                        }
+                        return header;
+                    })
+                    .onSuccess(this.sealed::add)
+                    .onFailure(err -> {
+                        log.warn("Discarding unreadable market history segment {}", path, err);
+                        Try.run(() -> Files.deleteIfExists(path));
+                    });
+            }
+        }
+
+        this.sealed.sort(Comparator.comparingLong(Header::firstTimestamp));
+    }
+
+    /** Records the polls still queued, then seals the open segments. */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("Market history did not finish recording within {}ms", CLOSE_TIMEOUT_MS);
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.sealOpenSegments();
+    }
+
+    private synchronized void sealOpenSegments() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        for (var writer : new Writer[]{this.raw, this.compacted}) {
+            if (writer != null) {
+                Try
+                    .run(() -> this.seal(writer))
+                    .onFailure(err -> log.warn("Failed to seal market history segment", err));
+            }
+        }
+        this.raw = null;
+        this.compacted = null;
+    }
+
+    /**
+     * @param depthLevels book levels per side kept in raw history
+     * @param segmentBytes fixed size of a segment file while it is written
+     * @param rawRetention age after which raw segments are compacted
+     * @param compactedResolution spacing of compacted frames
+     * @param retention age after which history is deleted
+     */
+    public record Policy(
+        int depthLevels,
+        int segmentBytes,
+        Duration rawRetention,
+        Duration compactedResolution,
+        Duration retention
+    ) {
+        public static final Policy DEFAULT = new Policy(
+            5,
+            8 * 1024 * 1024,
+            Duration.ofHours(2),
+            Duration.ofMinutes(5),
+            Duration.ofDays(7));
+
+        public Policy {
+            if (depthLevels <= 0 || segmentBytes <= HistorySegment.HEADER_BYTES) {
+                throw new IllegalArgumentException("depthLevels and segmentBytes must be positive");
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.lutzluca.btrbz.data.history;
+
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.history.HistoryPoint.Level;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The recorded part of one product's market state: the best {@code n} levels of each book side and the
+ * {@code quick_status} moving-week volumes. Prices are kept in hundredths of a coin.
+ */
+final class ProductBook {
+    static final double PRICE_SCALE = 100.0;
+
+    final Side buyOrders;
+    final Side sellOffers;
+    final long buyMovingWeek;
+    final long sellMovingWeek;
+
+    ProductBook(Side buyOrders, Side sellOffers, long buyMovingWeek, long sellMovingWeek) {
+        this.buyOrders = buyOrders;
+        this.sellOffers = sellOffers;
+        this.buyMovingWeek = buyMovingWeek;
+        this.sellMovingWeek = sellMovingWeek;
+    }
+
+    static ProductBook of(MarketSnapshot snapshot, int slot, int levels) {
+        return new ProductBook(
+            Side.of(snapshot.buyOrders(slot), levels),
+            Side.of(snapshot.sellOffers(slot), levels),
+            snapshot.buyMovingWeek(slot),
+            snapshot.sellMovingWeek(slot));
+    }
+
+    ProductBook truncated(int levels) {
+        if (this.buyOrders.size <= levels && this.sellOffers.size <= levels) {
+            return this;
+        }
+
+        return new ProductBook(
+            this.buyOrders.truncated(levels),
+            this.sellOffers.truncated(levels),
+            this.buyMovingWeek,
+            this.sellMovingWeek);
+    }
+
+    boolean sameAs(ProductBook other) {
+        return this.buyMovingWeek == other.buyMovingWeek
+            && this.sellMovingWeek == other.sellMovingWeek
+            && this.buyOrders.sameAs(other.buyOrders)
+            && this.sellOffers.sameAs(other.sellOffers);
+    }
+
+    /** Encodes prices and moving weeks as deltas against {@code previous}, the product's last entry if any. */
+    void encode(HistoryCodec.Sink out, @Nullable ProductBook previous) {
+        this.buyOrders.encode(out, previous == null ? 0 : previous.buyOrders.topPrice());
+        this.sellOffers.encode(out, previous == null ? 0 : previous.sellOffers.topPrice());
+        out.writeZigZag(this.buyMovingWeek - (previous == null ? 0 : previous.buyMovingWeek));
+        out.writeZigZag(this.sellMovingWeek - (previous == null ? 0 : previous.sellMovingWeek));
+    }
+
+    static ProductBook decode(ByteBuffer in, @Nullable ProductBook previous) {
+        var buyOrders = Side.decode(in, previous == null ? 0 : previous.buyOrders.topPrice());
+        var sellOffers = Side.decode(in, previous == null ? 0 : previous.sellOffers.topPrice());
+        long buyMovingWeek = HistoryCodec.readZigZag(in) + (previous == null ? 0 : previous.buyMovingWeek);
+        long sellMovingWeek = HistoryCodec.readZigZag(in) + (previous == null ? 0 : previous.sellMovingWeek);
+        return new ProductBook(buyOrders, sellOffers, buyMovingWeek, sellMovingWeek);
+    }
+
+    HistoryPoint toPoint(long timestamp) {
+        return new HistoryPoint(
+            timestamp,
+            this.buyOrders.levels(),
+            this.sellOffers.levels(),
+            this.buyMovingWeek,
+            this.sellMovingWeek);
+    }
+
+    /** Best levels of one book side, best price first. */
+    static final class Side {
+        private static final Side EMPTY = new Side(0, new long[0], new long[0], new long[0]);
+
+        final int size;
+        private final long[] prices;
+        private final long[] amounts;
+        private final long[] orders;
+
+        private Side(int size, long[] prices, long[] amounts, long[] orders) {
+            this.size = size;
+            this.prices = prices;
+            this.amounts = amounts;
+            this.orders = orders;
+        }
+
+        static Side of(MarketSnapshot.BookSide side, int levels) {
+            int size = Math.min(side.size(), levels);
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            var prices = new long[size];
+            var amounts = new long[size];
+            var orders = new long[size];
+            for (int level = 0; level < size; level++) {
+                prices[level] = Math.round(side.price(level) * PRICE_SCALE);
+                amounts[level] = side.amount(level);
+                orders[level] = side.orders(level);
+            }
+
+            return new Side(size, prices, amounts, orders);
+        }
+
+        long topPrice() {
+            return this.size == 0 ? 0 : this.prices[0];
+        }
+
+        private Side truncated(int levels) {
+            if (this.size <= levels) {
+                return this;
+            }
+
+            return new Side(
+                levels,
+                Arrays.copyOf(this.prices, levels),
+                Arrays.copyOf(this.amounts, levels),
+                Arrays.copyOf(this.orders, levels));
+        }
+
+        private boolean sameAs(Side other) {
+            return this.size == other.size
+                && Arrays.equals(this.prices, 0, this.size, other.prices, 0, other.size)
+                && Arrays.equals(this.amounts, 0, this.size, other.amounts, 0, other.size)
+                && Arrays.equals(this.orders, 0, this.size, other.orders, 0, other.size);
+        }
+
+        // The top price is a delta against the previous entry's top price; deeper prices against the level above.
+        private void encode(HistoryCodec.Sink out, long previousTop) {
+            out.writeVarLong(this.size);
+            for (int level = 0; level < this.size; level++) {
+                out.writeZigZag(this.prices[level] - (level == 0 ? previousTop : this.prices[level - 1]));
+                out.writeVarLong(this.amounts[level]);
+                out.writeVarLong(this.orders[level]);
+            }
+        }
+
+        private static Side decode(ByteBuffer in, long previousTop) {
+            int size = HistoryCodec.readVarInt(in);
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            var prices = new long[size];
+            var amounts = new long[size];
+            var orders = new long[size];
+            for (int level = 0; level < size; level++) {
+                prices[level] = HistoryCodec.readZigZag(in) + (level == 0 ? previousTop : prices[level - 1]);
+                amounts[level] = HistoryCodec.readVarLong(in);
+                orders[level] = HistoryCodec.readVarLong(in);
+            }
+
+            return new Side(size, prices, amounts, orders);
+        }
+
+        private List<Level> levels() {
+            var levels = new ArrayList<Level>(this.size);
+            for (int level = 0; level < this.size; level++) {
+                levels.add(new Level(this.prices[level] / PRICE_SCALE, this.amounts[level], this.orders[level]));
+            }
+            return List.copyOf(levels);
+        }
+    }
+}
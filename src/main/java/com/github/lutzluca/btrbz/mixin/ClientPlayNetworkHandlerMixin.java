@@ -1,10 +1,16 @@
 package com.github.lutzluca.btrbz.mixin;
 
+import com.github.lutzluca.btrbz.utils.ScoreboardMirror;
 import com.github.lutzluca.btrbz.utils.ScreenInfoHelper;
 import lombok.extern.slf4j.Slf4j;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
 import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
+import net.minecraft.network.protocol.game.ClientboundResetScorePacket;
+import net.minecraft.network.protocol.game.ClientboundSetDisplayObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetObjectivePacket;
+import net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket;
+import net.minecraft.network.protocol.game.ClientboundSetScorePacket;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -35,4 +41,32 @@ public class ClientPlayNetworkHandlerMixin {
     ) {
         ScreenInfoHelper.get().getInventoryWatcher().onPacketReceived(packet);
     }
+
+    // The scoreboard handlers hand themselves to the client thread first, so RETURN only runs once the packet has
+    // been applied there.
+
+    @Inject(method = "handleAddObjective", at = @At("RETURN"))
+    private void onObjectiveChanged(ClientboundSetObjectivePacket packet, CallbackInfo ci) {
+        ScoreboardMirror.get().rebuild();
+    }
+
+    @Inject(method = "handleSetDisplayObjective", at = @At("RETURN"))
+    private void onDisplayObjectiveChanged(ClientboundSetDisplayObjectivePacket packet, CallbackInfo ci) {
+        ScoreboardMirror.get().rebuild();
+    }
+
+    @Inject(method = "handleSetScore", at = @At("RETURN"))
+    private void onScoreSet(ClientboundSetScorePacket packet, CallbackInfo ci) {
+        ScoreboardMirror.get().onScoreChanged(packet.owner(), packet.objectiveName());
+    }
+
+    @Inject(method = "handleResetScore", at = @At("RETURN"))
+    private void onScoreReset(ClientboundResetScorePacket packet, CallbackInfo ci) {
+        ScoreboardMirror.get().onScoreChanged(packet.owner(), packet.objectiveName());
+    }
+
+    @Inject(method = "handleSetPlayerTeamPacket", at = @At("RETURN"))
+    private void onTeamChanged(ClientboundSetPlayerTeamPacket packet, CallbackInfo ci) {
+        ScoreboardMirror.get().onTeamChanged(packet.getName(), packet.getPlayers());
+    }
 }
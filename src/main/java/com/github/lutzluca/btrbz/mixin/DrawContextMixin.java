@@ -1,13 +1,13 @@
 package com.github.lutzluca.btrbz.mixin;
 
 import com.github.lutzluca.btrbz.BtrBz;
-import com.github.lutzluca.btrbz.core.config.ConfigManager;
+import com.github.lutzluca.btrbz.utils.slot.SlotOverlayTable;
+import com.github.lutzluca.btrbz.utils.slot.SlotOverlayTable.Overlay;
 
 import net.minecraft.client.gui.GuiGraphicsExtractor;
 import net.minecraft.client.renderer.RenderPipelines;
 import net.minecraft.resources.Identifier;
 import net.minecraft.world.item.ItemStack;
-import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
@@ -17,6 +17,9 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(GuiGraphicsExtractor.class)
 public class DrawContextMixin {
 
+    @Unique
+    private static final int ICON_SIZE = 8;
+
     @Unique
     private static final Identifier BOOKMARK_ICON = Identifier.fromNamespaceAndPath(
         BtrBz.MOD_ID,
@@ -35,50 +38,40 @@ public class DrawContextMixin {
         BtrBz.MOD_ID,
         "textures/red-cross.png");
 
+    // Runs after every item draw in every screen and HUD, so it only reads the precomputed slot overlay table.
     @Inject(method = "item(Lnet/minecraft/world/item/ItemStack;III)V", at = @At("TAIL"))
     private void drawIndicator(ItemStack stack, int x, int y, int seed, CallbackInfo ci) {
-        @Nullable
-        var isBookmarked = stack.get(BtrBz.BOOKMARKED);
-
-        GuiGraphicsExtractor context = (GuiGraphicsExtractor) (Object) this;
-        int iconSize = 8;
-
-        if (isBookmarked != null && ConfigManager.get().widgets.bookmarks.frame.enabled) {
-            var texture = isBookmarked ? BOOKMARK_STAR : BOOKMARK_ICON;
-            context.blit(
-                RenderPipelines.GUI_TEXTURED,
-                texture,
-                x,
-                y,
-                0,
-                0,
-                iconSize,
-                iconSize,
-                iconSize,
-                iconSize);
+        int overlays = SlotOverlayTable.overlays(stack);
+        if (overlays == 0) {
+            return;
         }
 
-        var info = BtrBz.orderProtectionManager().getVisualOrderInfo(stack);
-        if (info.isPresent()) {
-            var pending = info.get();
-            var overridden = pending.getRight();
-            var blocked = pending.getLeft().protect();
-
-            var texture = !blocked || overridden ? GREEN_CHECK : RED_CROSS;
-            int iconX = x + 16 - iconSize;
-            int iconY = y;
+        if (Overlay.BOOKMARKED.in(overlays)) {
+            this.btrbz$drawIcon(BOOKMARK_STAR, x, y);
+        } else if (Overlay.BOOKMARK.in(overlays)) {
+            this.btrbz$drawIcon(BOOKMARK_ICON, x, y);
+        }
 
-            context.blit(
-                RenderPipelines.GUI_TEXTURED,
-                texture,
-                iconX,
-                iconY,
-                0,
-                0,
-                iconSize,
-                iconSize,
-                iconSize,
-                iconSize);
+        if (Overlay.ORDER_BLOCKED.in(overlays)) {
+            this.btrbz$drawIcon(RED_CROSS, x + 16 - ICON_SIZE, y);
+        } else if (Overlay.ORDER_ALLOWED.in(overlays)) {
+            this.btrbz$drawIcon(GREEN_CHECK, x + 16 - ICON_SIZE, y);
         }
     }
+
+    @Unique
+    private void btrbz$drawIcon(Identifier texture, int x, int y) {
+        GuiGraphicsExtractor context = (GuiGraphicsExtractor) (Object) this;
+        context.blit(
+            RenderPipelines.GUI_TEXTURED,
+            texture,
+            x,
+            y,
+            0,
+            0,
+            ICON_SIZE,
+            ICON_SIZE,
+            ICON_SIZE,
+            ICON_SIZE);
+    }
 }
@@ -0,0 +1,49 @@
+package com.github.lutzluca.btrbz.mixin;
+
+import com.github.lutzluca.btrbz.core.widgets.ui.WidgetDrawRecorder;
+import net.minecraft.client.renderer.state.gui.BlitRenderState;
+import net.minecraft.client.renderer.state.gui.GuiElementRenderState;
+import net.minecraft.client.renderer.state.gui.GuiItemRenderState;
+import net.minecraft.client.renderer.state.gui.GuiRenderState;
+import net.minecraft.client.renderer.state.gui.GuiTextRenderState;
+import net.minecraft.client.renderer.state.gui.pip.PictureInPictureRenderState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// Feeds the widget draw recorder; every hook is a single static field check unless a widget draw is recorded.
+@Mixin(GuiRenderState.class)
+public class GuiRenderStateMixin {
+
+    @Inject(method = "addGuiElement", at = @At("HEAD"))
+    private void recordElement(GuiElementRenderState state, CallbackInfo ci) {
+        WidgetDrawRecorder.element(state);
+    }
+
+    // GuiGraphicsExtractor.blit, and with it owo texture components, bypasses addGuiElement.
+    @Inject(method = "addBlitToCurrentLayer", at = @At("HEAD"))
+    private void recordBlit(BlitRenderState state, CallbackInfo ci) {
+        WidgetDrawRecorder.blit(state);
+    }
+
+    @Inject(method = "addText", at = @At("HEAD"))
+    private void recordText(GuiTextRenderState state, CallbackInfo ci) {
+        WidgetDrawRecorder.text(state);
+    }
+
+    @Inject(method = "addItem", at = @At("HEAD"))
+    private void recordItem(GuiItemRenderState state, CallbackInfo ci) {
+        WidgetDrawRecorder.item(state);
+    }
+
+    @Inject(method = "addPicturesInPictureState", at = @At("HEAD"))
+    private void keepPictureInPictureLive(PictureInPictureRenderState state, CallbackInfo ci) {
+        WidgetDrawRecorder.drawLive();
+    }
+
+    @Inject(method = "nextStratum", at = @At("HEAD"))
+    private void keepStrataLive(CallbackInfo ci) {
+        WidgetDrawRecorder.drawLive();
+    }
+}
@@ -2,55 +2,40 @@ package com.github.lutzluca.btrbz.utils;
 
 import io.vavr.control.Try;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.minecraft.client.Minecraft;
 
+/**
+ * Runs per-tick listeners and scheduled tasks at the end of every client tick. Scheduled tasks live on a
+ * {@link TickWheel}, so a tick only touches the tasks due on it, and {@link Priority#LOW} work such as tracker polls
+ * is deferred once listeners and normal tasks have used up the tick budget.
+ */
 @Slf4j
 public final class ClientTickDispatcher {
 
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(
+        Long.getLong("btrbz.tickBudgetMicros", 2_000));
+
     private static final List<TickRegistration> LISTENERS = new CopyOnWriteArrayList<>();
-    private static final Queue<ScheduledTask> TASKS = new ConcurrentLinkedDeque<>();
+    private static final TickWheel<Minecraft> WHEEL = new TickWheel<>(System::nanoTime, TICK_BUDGET_NANOS);
 
     static {
         ClientTickEvents.END_CLIENT_TICK.register(ClientTickDispatcher::onEndTick);
     }
 
     private static void onEndTick(Minecraft client) {
+        long start = System.nanoTime();
+
         LISTENERS.forEach(registration -> Try
             .run(() -> registration.listener.onEndTick(client))
             .onFailure(err -> log.warn("Exception in client end tick listener", err)));
 
-        var it = TASKS.iterator();
-        while (it.hasNext()) {
-            var task = it.next();
-
-            switch (task) {
-                case OneShotTask oneShotTask -> {
-                    if (--oneShotTask.ticks <= 0) {
-                        it.remove();
-                        runTask(oneShotTask.callback, client);
-                    }
-                }
-                case IntervalTask intervalTask -> {
-                    if (--intervalTask.ticks <= 0) {
-                        intervalTask.ticks = intervalTask.intervalTicks;
-                        runTask(intervalTask.callback, client);
-                    }
-                }
-            }
-        }
-    }
-
-    private static void runTask(Consumer<Minecraft> task, Minecraft client) {
-        Try
-            .run(() -> task.accept(client))
-            .onFailure(err -> log.warn("Exception in client tick task", err));
+        WHEEL.tick(client, start);
     }
 
     public static TaskHandle onEachTick(ClientTickEvents.EndTick listener) {
@@ -62,42 +47,67 @@ public final class ClientTickDispatcher {
     public static TaskHandle scheduleEvery(
         int ticks,
         Consumer<Minecraft> task
+    ) {
+        return scheduleEvery("interval", ticks, Priority.NORMAL, task);
+    }
+
+    /**
+     * Runs {@code task} every {@code ticks} ticks. Tasks with the same period fire on the same tick; the first run
+     * happens within {@code ticks} ticks. Statistics are aggregated per {@code name}.
+     */
+    public static TaskHandle scheduleEvery(
+        String name,
+        int ticks,
+        Priority priority,
+        Consumer<Minecraft> task
     ) {
         if (ticks <= 0) {
             throw new IllegalArgumentException("ticks must be positive");
         }
 
-        var scheduled = new IntervalTask(ticks, ticks, task);
-        TASKS.add(scheduled);
-        return () -> TASKS.remove(scheduled);
+        var scheduled = WHEEL.scheduleEvery(name, ticks, priority, task);
+        return () -> WHEEL.cancel(scheduled);
     }
 
     public static void scheduleAfter(Consumer<Minecraft> task, int ticks) {
+        scheduleAfter("one-shot", task, ticks);
+    }
+
+    public static TaskHandle scheduleAfter(String name, Consumer<Minecraft> task, int ticks) {
         if (ticks <= 0) {
             throw new IllegalArgumentException("ticks must be positive");
         }
 
-        TASKS.add(new OneShotTask(ticks, task));
+        var scheduled = WHEEL.scheduleOnce(name, ticks, Priority.NORMAL, task);
+        return () -> WHEEL.cancel(scheduled);
     }
 
-    private sealed interface ScheduledTask permits OneShotTask, IntervalTask {}
-
-    @AllArgsConstructor
-    private static final class TickRegistration {
-        private final ClientTickEvents.EndTick listener;
+    /** Execution statistics per task name since startup. Must be called on the client thread. */
+    public static List<TaskStats> taskStats() {
+        return WHEEL
+            .stats()
+            .stream()
+            .map(stats -> new TaskStats(
+                stats.name,
+                stats.runs,
+                stats.totalNanos,
+                stats.maxNanos,
+                stats.deferrals,
+                stats.failures))
+            .toList();
     }
 
-    @AllArgsConstructor
-    private static final class OneShotTask implements ScheduledTask {
-        private int ticks;
-        private final Consumer<Minecraft> callback;
+    public enum Priority {
+        NORMAL,
+        /** May be pushed to a later tick when the current one is over budget. */
+        LOW
     }
 
+    public record TaskStats(String name, long runs, long totalNanos, long maxNanos, long deferrals, long failures) {}
+
     @AllArgsConstructor
-    private static final class IntervalTask implements ScheduledTask {
-        private int ticks;
-        private final int intervalTicks;
-        private final Consumer<Minecraft> callback;
+    private static final class TickRegistration {
+        private final ClientTickEvents.EndTick listener;
     }
 
     @FunctionalInterface
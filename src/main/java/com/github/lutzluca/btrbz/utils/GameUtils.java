@@ -1,6 +1,7 @@
 package com.github.lutzluca.btrbz.utils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +18,9 @@ import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.component.ItemLore;
 import net.minecraft.world.scores.DisplaySlot;
-import net.minecraft.world.scores.Objective;
 import net.minecraft.world.scores.PlayerScoreEntry;
 import net.minecraft.world.scores.PlayerTeam;
+import net.minecraft.world.scores.ScoreHolder;
 import net.minecraft.world.scores.Scoreboard;
 import net.minecraft.client.gui.screens.inventory.SignEditScreen;
 import org.jetbrains.annotations.Nullable;
@@ -100,43 +101,52 @@ public final class GameUtils {
         };
     }
 
+    /** The sidebar lines without formatting codes, as mirrored from the scoreboard packets. */
     public static List<String> getScoreboardLines() {
-        var client = Minecraft.getInstance();
-        var world = client.level;
-        if (world == null) {
-            return List.of();
-        }
+        return List.copyOf(ScoreboardMirror.get().lines());
+    }
 
-        Scoreboard scoreboard = world.getScoreboard();
-        Objective objective = scoreboard.getDisplayObjective(DisplaySlot.SIDEBAR);
+    static @Nullable String sidebarObjective() {
+        var scoreboard = scoreboard();
+        var objective = scoreboard == null ? null : scoreboard.getDisplayObjective(DisplaySlot.SIDEBAR);
+        return objective == null ? null : objective.getName();
+    }
+
+    static List<String> sidebarOwners() {
+        var scoreboard = scoreboard();
+        var objective = scoreboard == null ? null : scoreboard.getDisplayObjective(DisplaySlot.SIDEBAR);
         if (objective == null) {
             return List.of();
         }
 
-        var entries = scoreboard.listPlayerScores(objective);
+        return scoreboard.listPlayerScores(objective).stream().map(PlayerScoreEntry::owner).toList();
+    }
 
-        List<String> lines = new ArrayList<>();
-        for (PlayerScoreEntry entry : entries) {
-            String owner = entry.owner();
-            PlayerTeam team = scoreboard.getPlayersTeam(owner);
+    static @Nullable String sidebarLine(String owner) {
+        var scoreboard = scoreboard();
+        var objective = scoreboard == null ? null : scoreboard.getDisplayObjective(DisplaySlot.SIDEBAR);
+        if (objective == null || scoreboard.getPlayerScoreInfo(ScoreHolder.forNameOnly(owner), objective) == null) {
+            return null;
+        }
 
-            String text;
-            if (team != null) {
-                var prefix = team.getPlayerPrefix().getString();
-                var suffix = team.getPlayerSuffix().getString();
-                text = prefix + owner + suffix;
-            } else {
-                text = owner;
-            }
+        PlayerTeam team = scoreboard.getPlayersTeam(owner);
+        var text = team == null
+            ? owner
+            : team.getPlayerPrefix().getString() + owner + team.getPlayerSuffix().getString();
+        text = stripScoreboardFormattingCodes(text);
 
-            text = stripScoreboardFormattingCodes(text);
+        return text.isBlank() ? null : text;
+    }
 
-            if (!text.isBlank()) {
-                lines.add(text);
-            }
-        }
+    static @Nullable Collection<String> teamMembers(String name) {
+        var scoreboard = scoreboard();
+        var team = scoreboard == null ? null : scoreboard.getPlayerTeam(name);
+        return team == null ? null : team.getPlayers();
+    }
 
-        return lines;
+    private static @Nullable Scoreboard scoreboard() {
+        var world = Minecraft.getInstance().level;
+        return world == null ? null : world.getScoreboard();
     }
 
     static String stripScoreboardFormattingCodes(String text) {
@@ -186,24 +196,10 @@ public final class GameUtils {
     }
 
     public static Optional<Double> getPurse() {
-        return GameUtils
-            .getScoreboardLines()
-            .stream()
-            .filter(line -> line.startsWith("Purse") || line.startsWith("Piggy"))
-            .findFirst()
-            .flatMap(line -> {
-                var remainder = line.replaceFirst("Purse:|Piggy:", "").trim();
-                var spaceIdx = remainder.indexOf(' ');
-                var amountToken = spaceIdx == -1 ? remainder : remainder.substring(0, spaceIdx);
-
-                return Utils
-                    .parseUsFormattedNumber(amountToken)
-                    .map(Number::doubleValue)
-                    .toJavaOptional();
-            });
+        return ScoreboardMirror.get().purse();
     }
 
-    public static MutableComponent buildQueueComponent(int orders, int items, QueueDisplayMode mode) {
+    public static MutableComponent buildQueueComponent(long orders, long items, QueueDisplayMode mode) {
         String itemsLabel = items == 1 ? " item" : " items";
 
         if (mode == QueueDisplayMode.ItemsOnly) {
@@ -223,7 +223,12 @@ public class Notifier {
         return msg.append(Component.literal(" ").withStyle(ChatFormatting.GRAY)).append(statusPart);
     }
 
-    private static void appendQueueInfo(MutableComponent msg, int ordersAhead, int itemsAhead, OrderManagerConfig cfg) {
+    private static void appendQueueInfo(
+        MutableComponent msg,
+        long ordersAhead,
+        long itemsAhead,
+        OrderManagerConfig cfg
+    ) {
         if (ordersAhead <= 0 && itemsAhead <= 0) {
             return;
         }
@@ -297,7 +302,7 @@ public class Notifier {
             .append(Component.literal("Your alert for ").withStyle(ChatFormatting.GRAY))
             .append(productNameComponent(product, bazaarData, ChatFormatting.GOLD))
             .append(Component.literal(" at ").withStyle(ChatFormatting.GRAY))
-            .append(coinComponent(alert.price))
+            .append(coinComponent(alert.target()))
             .append(Component.literal(" (" + alert.type.format() + ") ").withStyle(ChatFormatting.DARK_GRAY))
             .append(Component.literal("has been reached").withStyle(ChatFormatting.GREEN))
             .append(Component.literal(" and is ").withStyle(ChatFormatting.GRAY))
@@ -344,7 +349,7 @@ public class Notifier {
             .append(Component.literal("Your alert for ").withStyle(ChatFormatting.GRAY))
             .append(productNameComponent(alert.product, bazaarData, ChatFormatting.GOLD))
             .append(Component.literal(" at ").withStyle(ChatFormatting.GRAY))
-            .append(coinComponent(alert.price))
+            .append(coinComponent(alert.target()))
             .append(Component
                 .literal(" has not been reached for " + durationText + ". ")
                 .withStyle(ChatFormatting.GRAY))
@@ -0,0 +1,225 @@
+package com.github.lutzluca.btrbz.utils;
+
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
+import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
+import io.vavr.control.Try;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parsed copy of the sidebar, kept current by the scoreboard packet hooks instead of re-reading the whole scoreboard
+ * on a timer. A score or team packet only re-reads the lines of the owners it touches; changes of the displayed
+ * objective and team removals rebuild every line. The purse is re-parsed only when its line changed, and purse
+ * listeners only hear about changes of the parsed value.
+ * <p>
+ * Must only be used from the client thread.
+ */
+@Slf4j
+public final class ScoreboardMirror {
+
+    private static final ScoreboardMirror INSTANCE = new ScoreboardMirror(new SidebarSource() {
+        @Override
+        public @Nullable String objective() {
+            return GameUtils.sidebarObjective();
+        }
+
+        @Override
+        public List<String> owners() {
+            return GameUtils.sidebarOwners();
+        }
+
+        @Override
+        public @Nullable String line(String owner) {
+            return GameUtils.sidebarLine(owner);
+        }
+
+        @Override
+        public @Nullable Collection<String> teamMembers(String team) {
+            return GameUtils.teamMembers(team);
+        }
+    });
+
+    private final SidebarSource source;
+    private final Map<String, String> lines = new LinkedHashMap<>();
+    private final Collection<String> lineView = Collections.unmodifiableCollection(this.lines.values());
+    private final List<Runnable> purseListeners = new CopyOnWriteArrayList<>();
+    private final CacheToken sidebarChanges = CacheToken.named("external.sidebar");
+
+    private @Nullable String purseOwner;
+    private Optional<Double> purse = Optional.empty();
+
+    ScoreboardMirror(SidebarSource source) {
+        this.source = source;
+    }
+
+    public static ScoreboardMirror get() {
+        return INSTANCE;
+    }
+
+    /** The sidebar lines without formatting codes, in no particular order. */
+    public Collection<String> lines() {
+        return this.lineView;
+    }
+
+    public Optional<String> lineStartingWith(String prefix) {
+        return this.lines.values().stream().filter(line -> line.startsWith(prefix)).findFirst();
+    }
+
+    public Optional<Double> purse() {
+        return this.purse;
+    }
+
+    /** Revision of the sidebar lines; bumped only when a line's text actually changed. */
+    public CacheToken sidebarChanges() {
+        return this.sidebarChanges;
+    }
+
+    /**
+     * Runs {@code listener} on the client thread whenever the parsed purse value or its availability changes.
+     *
+     * @return removes the listener again
+     */
+    public Runnable registerOnPurseChange(Runnable listener) {
+        this.purseListeners.add(listener);
+        return () -> this.purseListeners.remove(listener);
+    }
+
+    /** @param objective the objective of the score, or {@code null} when the owner's scores were all reset */
+    public void onScoreChanged(String owner, @Nullable String objective) {
+        if (objective == null || objective.equals(this.source.objective())) {
+            this.refresh(List.of(owner));
+        }
+    }
+
+    public void onTeamChanged(String team, Collection<String> players) {
+        var members = this.source.teamMembers(team);
+        if (members == null) {
+            this.rebuild();
+            return;
+        }
+
+        var owners = new LinkedHashSet<>(members);
+        owners.addAll(players);
+        this.refresh(owners);
+    }
+
+    /** Re-reads every line, for changes of the displayed objective and new connections. */
+    public void rebuild() {
+        var next = new LinkedHashMap<String, String>();
+        for (var owner : this.source.owners()) {
+            var line = this.source.line(owner);
+            if (line != null) {
+                next.put(owner, line);
+            }
+        }
+
+        if (next.equals(this.lines)) {
+            return;
+        }
+
+        this.lines.clear();
+        this.lines.putAll(next);
+        this.sidebarChanges.invalidate(InvalidationReason.of("sidebar rebuilt"));
+        this.updatePurse();
+    }
+
+    public void clear() {
+        if (this.lines.isEmpty()) {
+            return;
+        }
+
+        this.lines.clear();
+        this.sidebarChanges.invalidate(InvalidationReason.of("sidebar cleared"));
+        this.updatePurse();
+    }
+
+    private void refresh(Collection<String> owners) {
+        boolean changed = false;
+        boolean purseTouched = false;
+
+        for (var owner : owners) {
+            var line = this.source.line(owner);
+            var previous = line == null ? this.lines.remove(owner) : this.lines.put(owner, line);
+            if (Objects.equals(previous, line)) {
+                continue;
+            }
+
+            changed = true;
+            purseTouched |= owner.equals(this.purseOwner) || (line != null && isPurseLine(line));
+        }
+
+        if (changed) {
+            this.sidebarChanges.invalidate(InvalidationReason.of("sidebar line changed"));
+        }
+        if (purseTouched) {
+            this.updatePurse();
+        }
+    }
+
+    private void updatePurse() {
+        var line = this.purseOwner == null ? null : this.lines.get(this.purseOwner);
+        if (line == null || !isPurseLine(line)) {
+            this.purseOwner = null;
+            line = null;
+            for (var entry : this.lines.entrySet()) {
+                if (isPurseLine(entry.getValue())) {
+                    this.purseOwner = entry.getKey();
+                    line = entry.getValue();
+                    break;
+                }
+            }
+        }
+
+        var next = line == null ? Optional.<Double>empty() : parsePurse(line);
+        if (next.equals(this.purse)) {
+            return;
+        }
+
+        this.purse = next;
+        this.purseListeners.forEach(listener -> Try
+            .run(listener::run)
+            .onFailure(err -> log.error("Purse listener failed", err)));
+    }
+
+    private static boolean isPurseLine(String line) {
+        return line.startsWith("Purse") || line.startsWith("Piggy");
+    }
+
+    static Optional<Double> parsePurse(String line) {
+        var colon = line.indexOf(':');
+        if (colon == -1) {
+            return Optional.empty();
+        }
+
+        var remainder = line.substring(colon + 1).trim();
+        var spaceIdx = remainder.indexOf(' ');
+        var amountToken = spaceIdx == -1 ? remainder : remainder.substring(0, spaceIdx);
+
+        return Utils.parseUsFormattedNumber(amountToken).map(Number::doubleValue).toJavaOptional();
+    }
+
+    /** Read access to the live scoreboard, as it is after a packet was applied. */
+    interface SidebarSource {
+
+        /** Name of the objective shown in the sidebar, or {@code null} when none is. */
+        @Nullable String objective();
+
+        /** Owners of the scores of the sidebar objective. */
+        List<String> owners();
+
+        /** The line of {@code owner} without formatting codes, or {@code null} when it is not shown or blank. */
+        @Nullable String line(String owner);
+
+        /** The current members of {@code team}, or {@code null} when the team does not exist. */
+        @Nullable Collection<String> teamMembers(String team);
+    }
+}
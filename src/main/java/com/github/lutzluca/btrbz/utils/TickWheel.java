@@ -0,0 +1,271 @@
+package com.github.lutzluca.btrbz.utils;
+
+import io.vavr.control.Try;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Hashed timing wheel driven by {@link #tick}. A task lives in the bucket of the tick it is due on, with a round
+ * counter for delays beyond one revolution, so a tick only visits the tasks of its own bucket. Scheduling and
+ * cancelling are queued and applied at the start of the next tick, which keeps both O(1) and safe from any thread.
+ * Interval tasks are aligned to multiples of their period, so tasks sharing a period fire on the same tick.
+ * Due tasks run in scheduling order, normal priority first. Once a tick has used its budget, due
+ * {@link ClientTickDispatcher.Priority#LOW} tasks are pushed to the next tick, at most {@link #MAX_DEFERRALS} times
+ * in a row.
+ */
+@Slf4j
+final class TickWheel<C> {
+    static final int SLOTS = 64;
+    static final int MAX_DEFERRALS = 20;
+    private static final int MASK = SLOTS - 1;
+
+    @SuppressWarnings("unchecked")
+    private final Task<C>[] heads = new Task[SLOTS];
+    @SuppressWarnings("unchecked")
+    private final Task<C>[] tails = new Task[SLOTS];
+    private final Queue<Task<C>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Task<C>> cancelled = new ConcurrentLinkedQueue<>();
+    private final List<Task<C>> due = new ArrayList<>();
+    private final List<Task<C>> dueLow = new ArrayList<>();
+    private final Map<String, TaskStats> stats = new LinkedHashMap<>();
+
+    private final LongSupplier clock;
+    private final long budgetNanos;
+
+    private long tick;
+
+    TickWheel(LongSupplier clock, long budgetNanos) {
+        this.clock = clock;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /** Runs {@code callback} once, on the {@code delayTicks}-th following {@link #tick}. */
+    Task<C> scheduleOnce(String name, int delayTicks, ClientTickDispatcher.Priority priority, Consumer<C> callback) {
+        var task = new Task<>(name, delayTicks, 0, priority, callback);
+        this.scheduled.add(task);
+        return task;
+    }
+
+    /** Runs {@code callback} on every tick that is a multiple of {@code intervalTicks}. */
+    Task<C> scheduleEvery(
+        String name,
+        int intervalTicks,
+        ClientTickDispatcher.Priority priority,
+        Consumer<C> callback
+    ) {
+        var task = new Task<>(name, 0, intervalTicks, priority, callback);
+        this.scheduled.add(task);
+        return task;
+    }
+
+    void cancel(Task<C> task) {
+        if (!task.cancelled) {
+            task.cancelled = true;
+            this.cancelled.add(task);
+        }
+    }
+
+    /** Advances one tick and runs the tasks due on it. {@code tickStartNanos} includes work done before the wheel. */
+    void tick(C context, long tickStartNanos) {
+        this.applyCancellations();
+        this.applySchedules();
+
+        this.tick++;
+        this.collectDue(this.heads[(int) (this.tick & MASK)]);
+        this.due.addAll(this.dueLow);
+
+        try {
+            for (var task : this.due) {
+                if (task.cancelled) {
+                    continue;
+                }
+
+                if (task.priority == ClientTickDispatcher.Priority.LOW
+                    && task.deferrals < MAX_DEFERRALS
+                    && this.clock.getAsLong() - tickStartNanos > this.budgetNanos) {
+                    task.deferrals++;
+                    this.stats(task.name).deferrals++;
+                    this.insert(task, 1);
+                    continue;
+                }
+
+                task.deferrals = 0;
+                this.run(task, context);
+
+                if (task.intervalTicks > 0 && !task.cancelled) {
+                    this.insert(task, this.alignedDelay(task.intervalTicks));
+                }
+            }
+        } finally {
+            // A fatal error escaping a task must not leave this tick's tasks behind to run again on the next one.
+            this.due.clear();
+            this.dueLow.clear();
+        }
+    }
+
+    long currentTick() {
+        return this.tick;
+    }
+
+    List<TaskStats> stats() {
+        return this.stats.values().stream().map(TaskStats::copy).toList();
+    }
+
+    private void applyCancellations() {
+        Task<C> task;
+        while ((task = this.cancelled.poll()) != null) {
+            if (task.linked) {
+                this.unlink(task);
+            }
+        }
+    }
+
+    private void applySchedules() {
+        Task<C> task;
+        while ((task = this.scheduled.poll()) != null) {
+            if (task.cancelled) {
+                continue;
+            }
+
+            this.insert(task, task.intervalTicks > 0 ? this.alignedDelay(task.intervalTicks) : task.delayTicks);
+        }
+    }
+
+    private void collectDue(@Nullable Task<C> head) {
+        var task = head;
+        while (task != null) {
+            var next = task.next;
+
+            if (task.rounds > 0) {
+                task.rounds--;
+            } else {
+                this.unlink(task);
+                (task.priority == ClientTickDispatcher.Priority.LOW ? this.dueLow : this.due).add(task);
+            }
+
+            task = next;
+        }
+    }
+
+    /** Delay to the next tick that is a multiple of {@code interval}, between 1 and {@code interval}. */
+    private int alignedDelay(int interval) {
+        return (int) (interval - Math.floorMod(this.tick, interval));
+    }
+
+    private void insert(Task<C> task, int delay) {
+        long target = this.tick + delay;
+        int bucket = (int) (target & MASK);
+
+        task.rounds = (delay - 1) / SLOTS;
+        task.bucket = bucket;
+        task.previous = this.tails[bucket];
+        task.next = null;
+        if (task.previous != null) {
+            task.previous.next = task;
+        } else {
+            this.heads[bucket] = task;
+        }
+        this.tails[bucket] = task;
+        task.linked = true;
+    }
+
+    private void unlink(Task<C> task) {
+        if (task.previous != null) {
+            task.previous.next = task.next;
+        } else {
+            this.heads[task.bucket] = task.next;
+        }
+        if (task.next != null) {
+            task.next.previous = task.previous;
+        } else {
+            this.tails[task.bucket] = task.previous;
+        }
+
+        task.previous = null;
+        task.next = null;
+        task.linked = false;
+    }
+
+    private void run(Task<C> task, C context) {
+        var stats = this.stats(task.name);
+        long start = this.clock.getAsLong();
+
+        try {
+            Try.run(() -> task.callback.accept(context)).onFailure(err -> {
+                stats.failures++;
+                log.warn("Exception in client tick task '{}'", task.name, err);
+            });
+        } finally {
+            long elapsed = this.clock.getAsLong() - start;
+            stats.runs++;
+            stats.totalNanos += elapsed;
+            stats.maxNanos = Math.max(stats.maxNanos, elapsed);
+        }
+    }
+
+    private TaskStats stats(String name) {
+        return this.stats.computeIfAbsent(name, TaskStats::new);
+    }
+
+    static final class Task<C> {
+        private final String name;
+        private final int delayTicks;
+        private final int intervalTicks;
+        private final ClientTickDispatcher.Priority priority;
+        private final Consumer<C> callback;
+
+        private volatile boolean cancelled;
+        private boolean linked;
+        private int bucket;
+        private int rounds;
+        private int deferrals;
+        private @Nullable Task<C> previous;
+        private @Nullable Task<C> next;
+
+        private Task(
+            String name,
+            int delayTicks,
+            int intervalTicks,
+            ClientTickDispatcher.Priority priority,
+            Consumer<C> callback
+        ) {
+            this.name = name;
+            this.delayTicks = delayTicks;
+            this.intervalTicks = intervalTicks;
+            this.priority = priority;
+            this.callback = callback;
+        }
+    }
+
+    /** Execution statistics of every task scheduled under one name. */
+    static final class TaskStats {
+        final String name;
+        long runs;
+        long totalNanos;
+        long maxNanos;
+        long deferrals;
+        long failures;
+
+        private TaskStats(String name) {
+            this.name = name;
+        }
+
+        private TaskStats copy() {
+            var copy = new TaskStats(this.name);
+            copy.runs = this.runs;
+            copy.totalNanos = this.totalNanos;
+            copy.maxNanos = this.maxNanos;
+            copy.deferrals = this.deferrals;
+            copy.failures = this.failures;
+            return copy;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.lutzluca.btrbz.utils;
 
 import io.vavr.control.Try;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -53,6 +54,10 @@ public final class Utils {
     }
 
     public static Try<Path> atomicDumpToFile(Path path, String content) {
+        return atomicDumpToFile(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Try<Path> atomicDumpToFile(Path path, byte[] content) {
         return Try.of(() -> {
             var target = path.toAbsolutePath();
             var parent = target.getParent();
@@ -65,7 +70,7 @@ public final class Utils {
                 : Files.createTempFile("btrbz-", ".tmp");
 
             try {
-                Files.writeString(tmp, content);
+                Files.write(tmp, content);
                 return Files.move(
                     tmp,
                     target,
@@ -10,15 +10,19 @@ import org.jetbrains.annotations.Nullable;
  * chosen over this constraint.
  * A priority mechanism could be added in the future if necessary.
  *
- * TODO: If hook usage grows, consider letting hooks declare relevant menus at registration time and dispatching
- * through a menu -> hooks lookup instead of scanning the global list. Also consider splitting display hooks from
- * click-only observers so the projection path does not call matches() for hooks that can only handle clicks.
+ * Hooks declare a {@link #scope()} so the registry can skip them on screens and slots they never apply to, and
+ * while rendering when they only handle clicks.
  */
 
 public interface SlotHook {
 
     boolean matches(SlotView view);
 
+    /** Menus, slots and inventory side outside of which {@link #matches} is never true. Defaults to everywhere. */
+    default SlotHookScope scope() {
+        return SlotHookScope.ANY;
+    }
+
     default @Nullable ItemStack createDisplayStack(SlotRenderContext ctx) {
         return null;
     }
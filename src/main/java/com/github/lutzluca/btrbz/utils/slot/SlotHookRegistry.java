@@ -1,28 +1,54 @@
 package com.github.lutzluca.btrbz.utils.slot;
 
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheDependencies;
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheRevisions;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.ScreenInfo;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * Dispatches slot rendering and clicks to the registered hooks in registration order. Per screen the registry
+ * compiles which hooks can apply from their {@link SlotHookScope}, and per slot index it caches the subset whose
+ * slot scope covers it, so a frame only calls {@link SlotHook#matches} on hooks that could ever match that slot,
+ * and only on display hooks while rendering.
+ * Tables are recompiled after a screen transition or inventory load, when the bazaar menu type can first resolve.
+ */
 public final class SlotHookRegistry {
 
-    private static final List<SlotHook> HOOKS = new ArrayList<>();
+    private static final List<Entry> ENTRIES = new ArrayList<>();
+    private static final Entry[] NO_ENTRIES = {};
+    private static final CacheDependencies SCREEN_DEPENDENCIES = CacheDependencies.of(
+        ScreenInfoHelper.get().screenTransitions(),
+        ScreenInfoHelper.get().inventoryChanges());
+
+    private static @Nullable ScreenInfo compiledInfo;
+    private static long[] compiledRevisions = new long[0];
+    private static Entry[] screenEntries = NO_ENTRIES;
+    private static Entry[][] containerSlots = new Entry[0][];
+    private static Entry[][] playerSlots = new Entry[0][];
+
+    private static boolean timing;
 
     private SlotHookRegistry() {}
 
     public static void register(SlotHook hook) {
-        HOOKS.add(hook);
+        ENTRIES.add(new Entry(hook, hook.scope()));
+        compiledInfo = null;
     }
 
     public static ItemStack getDisplayStack(SlotRenderContext ctx) {
         var view = ctx.view();
 
-        for (SlotHook hook : HOOKS) {
-            if (!hook.matches(view)) {
+        for (var entry : entriesFor(view)) {
+            if (!entry.scope.display() || !entry.matches(view)) {
                 continue;
             }
 
-            var display = hook.createDisplayStack(ctx);
+            var display = entry.createDisplayStack(ctx);
             if (display != null) {
                 return display;
             }
@@ -34,16 +60,146 @@ public final class SlotHookRegistry {
     public static boolean handleClick(SlotClickContext ctx) {
         var view = ctx.view();
 
-        for (SlotHook hook : HOOKS) {
-            if (!hook.matches(view)) {
+        for (var entry : entriesFor(view)) {
+            if (!entry.matches(view)) {
                 continue;
             }
 
-            if (hook.onClick(ctx) == SlotClickResult.Consume) {
+            if (entry.hook.onClick(ctx) == SlotClickResult.Consume) {
                 return true;
             }
         }
 
         return false;
     }
+
+    /** Starts or stops measuring {@code matches} and {@code createDisplayStack} per hook. */
+    public static void setTiming(boolean enabled) {
+        timing = enabled;
+    }
+
+    public static boolean timing() {
+        return timing;
+    }
+
+    public static void resetTimings() {
+        ENTRIES.forEach(Entry::reset);
+    }
+
+    public static List<HookTiming> timings() {
+        return ENTRIES
+            .stream()
+            .map(entry -> new HookTiming(
+                entry.hook.getClass().getSimpleName(),
+                entry.matchCalls,
+                entry.matchNanos,
+                entry.renderCalls,
+                entry.renderNanos))
+            .toList();
+    }
+
+    private static Entry[] entriesFor(SlotView view) {
+        var info = view.getCurrInfo();
+        if (info != compiledInfo || !CacheRevisions.match(compiledRevisions, SCREEN_DEPENDENCIES)) {
+            compile(info);
+        }
+
+        boolean playerInventorySlot = view.playerInventorySlot();
+        int slot = view.slotIdx();
+        if (slot < 0) {
+            return select(playerInventorySlot, slot);
+        }
+
+        var table = playerInventorySlot ? playerSlots : containerSlots;
+        if (slot >= table.length) {
+            table = Arrays.copyOf(table, Math.max(slot + 1, table.length * 2));
+            if (playerInventorySlot) {
+                playerSlots = table;
+            } else {
+                containerSlots = table;
+            }
+        }
+
+        var entries = table[slot];
+        if (entries == null) {
+            entries = select(playerInventorySlot, slot);
+            table[slot] = entries;
+        }
+
+        return entries;
+    }
+
+    private static void compile(ScreenInfo info) {
+        var menu = info.getMenuType().orElse(null);
+
+        compiledInfo = info;
+        compiledRevisions = CacheRevisions.capture(SCREEN_DEPENDENCIES);
+        screenEntries = ENTRIES
+            .stream()
+            .filter(entry -> entry.scope.coversMenu(menu))
+            .toArray(Entry[]::new);
+        Arrays.fill(containerSlots, null);
+        Arrays.fill(playerSlots, null);
+    }
+
+    private static Entry[] select(boolean playerInventorySlot, int slot) {
+        var selected = Arrays
+            .stream(screenEntries)
+            .filter(entry -> entry.scope.coversSlot(playerInventorySlot, slot))
+            .toArray(Entry[]::new);
+        return selected.length == 0 ? NO_ENTRIES : selected;
+    }
+
+    /** Accumulated cost of one hook since the last reset while timing was on. */
+    public record HookTiming(String hook, long matchCalls, long matchNanos, long renderCalls, long renderNanos) {}
+
+    private static final class Entry {
+        private final SlotHook hook;
+        private final SlotHookScope scope;
+
+        private long matchCalls;
+        private long matchNanos;
+        private long renderCalls;
+        private long renderNanos;
+
+        private Entry(SlotHook hook, SlotHookScope scope) {
+            this.hook = hook;
+            this.scope = scope;
+        }
+
+        private boolean matches(SlotView view) {
+            if (!timing) {
+                return this.hook.matches(view);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return this.hook.matches(view);
+            } finally {
+                this.matchCalls++;
+                this.matchNanos += System.nanoTime() - start;
+            }
+        }
+
+        private @Nullable ItemStack createDisplayStack(SlotRenderContext ctx) {
+            if (!timing) {
+                return this.hook.createDisplayStack(ctx);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return this.hook.createDisplayStack(ctx);
+            } finally {
+                this.renderCalls++;
+                this.renderNanos += System.nanoTime() - start;
+            }
+        }
+
+        private void reset() {
+            this.matchCalls = 0;
+            this.matchNanos = 0;
+            this.renderCalls = 0;
+            this.renderNanos = 0;
+        }
+    }
 }
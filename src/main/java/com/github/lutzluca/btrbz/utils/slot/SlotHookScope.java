@@ -0,0 +1,74 @@
+package com.github.lutzluca.btrbz.utils.slot;
+
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.BazaarMenuType;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Where a {@link SlotHook} can ever match. The registry only consults a hook for slots inside its scope, so a scope
+ * must cover everything {@link SlotHook#matches} accepts; {@code matches} still decides within it.
+ *
+ * @param menus bazaar menus the hook applies to, or {@code null} for every screen including non-bazaar ones
+ * @param slots slot indices ({@link SlotView#slotIdx()}), or {@code null} for every slot
+ * @param side which inventory the slots belong to
+ * @param display whether the hook supplies display stacks; click-only hooks are skipped while rendering
+ */
+public record SlotHookScope(
+    @Nullable Set<BazaarMenuType> menus,
+    @Nullable Set<Integer> slots,
+    Side side,
+    boolean display
+) {
+
+    public static final SlotHookScope ANY = new SlotHookScope(null, null, Side.ANY, true);
+
+    public SlotHookScope {
+        menus = menus == null ? null : Set.copyOf(menus);
+        slots = slots == null ? null : Set.copyOf(slots);
+    }
+
+    public static SlotHookScope menus(BazaarMenuType... menus) {
+        var set = EnumSet.noneOf(BazaarMenuType.class);
+        set.addAll(Arrays.asList(menus));
+        return new SlotHookScope(set, null, Side.ANY, true);
+    }
+
+    public SlotHookScope slots(int... slots) {
+        return new SlotHookScope(
+            this.menus,
+            Arrays.stream(slots).boxed().collect(Collectors.toSet()),
+            this.side,
+            this.display);
+    }
+
+    public SlotHookScope containerOnly() {
+        return new SlotHookScope(this.menus, this.slots, Side.CONTAINER, this.display);
+    }
+
+    /** For hooks that only handle clicks, so rendering never asks them {@link SlotHook#matches}. */
+    public SlotHookScope clicksOnly() {
+        return new SlotHookScope(this.menus, this.slots, this.side, false);
+    }
+
+    /** Whether the hook applies at all while {@code menu} ({@code null} outside the bazaar) is open. */
+    public boolean coversMenu(@Nullable BazaarMenuType menu) {
+        return this.menus == null || menu != null && this.menus.contains(menu);
+    }
+
+    public boolean coversSlot(boolean playerInventorySlot, int slot) {
+        if (playerInventorySlot ? this.side == Side.CONTAINER : this.side == Side.PLAYER_INVENTORY) {
+            return false;
+        }
+
+        return this.slots == null || this.slots.contains(slot);
+    }
+
+    public enum Side {
+        ANY,
+        CONTAINER,
+        PLAYER_INVENTORY
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.lutzluca.btrbz.utils.slot;
+
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheDependencies;
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheRevisions;
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.ScreenInfo;
+import io.vavr.control.Try;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Item overlays of the open container, indexed by container slot. Sources are asked only when the table is rebuilt:
+ * on the first item draw after a screen transition, an inventory load, a change of a source token, or the server
+ * replacing a marked stack. In between, {@link #overlays(ItemStack)} compares the drawn stack with the few marked
+ * slots, so item draws outside bazaar menus return after a revision check. Sources gated by a config option register
+ * with {@link com.github.lutzluca.btrbz.core.config.ConfigManager#changes()}, so toggling the option redraws.
+ * Client-thread confined, like the cache tokens it follows.
+ */
+@Slf4j
+public final class SlotOverlayTable {
+
+    private static final SlotOverlayTable SHARED = new SlotOverlayTable(
+        CacheDependencies.of(ScreenInfoHelper.get().screenTransitions(), ScreenInfoHelper.get().inventoryChanges()),
+        () -> ScreenInfoHelper.get().getCurrInfo(),
+        info -> info.getGenericContainerScreen().map(screen -> screen.getMenu().getContainer()));
+
+    private final List<Source> sources = new ArrayList<>();
+    private final Sink sink = this::mark;
+    private final Supplier<ScreenInfo> currentScreen;
+    private final Function<ScreenInfo, Optional<Container>> containerOf;
+
+    private CacheDependencies dependencies;
+    private long[] revisions = new long[0];
+
+    private @Nullable Container container;
+    private int[] masks = new int[0];
+    private ItemStack[] stacks = new ItemStack[0];
+    private int[] marked = new int[0];
+    private int markedCount;
+
+    SlotOverlayTable(
+        CacheDependencies dependencies,
+        Supplier<ScreenInfo> currentScreen,
+        Function<ScreenInfo, Optional<Container>> containerOf
+    ) {
+        this.dependencies = dependencies;
+        this.currentScreen = currentScreen;
+        this.containerOf = containerOf;
+    }
+
+    /** Adds a source that is asked again whenever one of {@code tokens} changes. */
+    public static void register(Source source, CacheToken... tokens) {
+        SHARED.add(source, tokens);
+    }
+
+    /** Bit mask of the {@link Overlay}s to draw over {@code stack}, 0 when it is not a marked slot stack. */
+    public static int overlays(ItemStack stack) {
+        return SHARED.lookup(stack);
+    }
+
+    void add(Source source, CacheToken... tokens) {
+        this.sources.add(source);
+        this.dependencies = this.dependencies.and(CacheDependencies.of(tokens));
+        this.revisions = new long[0];
+    }
+
+    int lookup(ItemStack stack) {
+        if (!CacheRevisions.match(this.revisions, this.dependencies) || this.stale()) {
+            this.rebuild();
+        }
+
+        for (int i = 0; i < this.markedCount; i++) {
+            int slot = this.marked[i];
+            if (this.stacks[slot] == stack) {
+                return this.masks[slot];
+            }
+        }
+
+        return 0;
+    }
+
+    private boolean stale() {
+        for (int i = 0; i < this.markedCount; i++) {
+            int slot = this.marked[i];
+            if (this.container.getItem(slot) != this.stacks[slot]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void rebuild() {
+        this.revisions = CacheRevisions.capture(this.dependencies);
+
+        for (int i = 0; i < this.markedCount; i++) {
+            this.masks[this.marked[i]] = 0;
+            this.stacks[this.marked[i]] = null;
+        }
+        this.markedCount = 0;
+        this.container = null;
+
+        var info = this.currentScreen.get();
+        var current = this.containerOf.apply(info).orElse(null);
+        if (current == null || this.sources.isEmpty()) {
+            return;
+        }
+
+        int size = current.getContainerSize();
+        if (this.masks.length < size) {
+            this.masks = Arrays.copyOf(this.masks, size);
+            this.stacks = Arrays.copyOf(this.stacks, size);
+            this.marked = Arrays.copyOf(this.marked, size);
+        }
+        this.container = current;
+
+        for (var source : this.sources) {
+            Try.run(() -> source.collect(info, current, this.sink)).onFailure(err -> log.warn(
+                "Slot overlay source '{}' failed for screen '{}'",
+                source.getClass().getName(),
+                info.containerName().orElse("<unknown>"),
+                err));
+        }
+    }
+
+    private void mark(int slot, Overlay overlay) {
+        if (this.container == null || slot < 0 || slot >= this.container.getContainerSize()) {
+            return;
+        }
+
+        var stack = this.container.getItem(slot);
+        if (stack.isEmpty()) {
+            return;
+        }
+
+        if (this.masks[slot] == 0) {
+            this.marked[this.markedCount++] = slot;
+            this.stacks[slot] = stack;
+        }
+        this.masks[slot] |= overlay.bit();
+    }
+
+    public enum Overlay {
+        BOOKMARK,
+        BOOKMARKED,
+        ORDER_ALLOWED,
+        ORDER_BLOCKED;
+
+        public int bit() {
+            return 1 << this.ordinal();
+        }
+
+        public boolean in(int mask) {
+            return (mask & this.bit()) != 0;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Source {
+
+        void collect(ScreenInfo info, Container container, Sink sink);
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+
+        void mark(int slot, Overlay overlay);
+    }
+}
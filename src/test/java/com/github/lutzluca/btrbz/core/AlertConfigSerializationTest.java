@@ -2,12 +2,17 @@ package com.github.lutzluca.btrbz.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.lutzluca.btrbz.core.AlertManager.Alert;
 import com.github.lutzluca.btrbz.data.IndexedProduct;
+import com.github.lutzluca.btrbz.data.MarketDelta;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.ProductIdTable;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -64,5 +69,120 @@ class AlertConfigSerializationTest {
             assertEquals(alert.price, reparsed.price);
             assertEquals(alert.remindedAfter, reparsed.remindedAfter);
         }
+
+        @Test
+        void roundTripsRelativeExpression() {
+            var json = """
+                {
+                  "id": "29f2d47e-f09f-4c68-901f-f41a547d4145",
+                  "createdAt": 1700000000000,
+                  "product": {
+                    "productId": "ENCHANTED_DIAMOND",
+                    "formattedName": "§aEnchanted Diamond"
+                  },
+                  "type": "BuyOrder",
+                  "price": 990.0,
+                  "expression": "(order - 10)"
+                }
+                """;
+
+            var alert = AlertConfigSerializationTest.this.gson.fromJson(json, Alert.class);
+            var serialized = AlertConfigSerializationTest.this.gson.toJsonTree(alert).getAsJsonObject();
+            var reparsed = AlertConfigSerializationTest.this.gson.fromJson(serialized, Alert.class);
+
+            assertEquals("(order - 10)", serialized.get("expression").getAsString());
+            assertEquals(alert.expression, reparsed.expression);
+            assertEquals(990.0, reparsed.target());
+        }
+
+        @Test
+        void keepsFixedPriceForUnparsableExpression() {
+            var json = """
+                {
+                  "id": "29f2d47e-f09f-4c68-901f-f41a547d4145",
+                  "createdAt": 1700000000000,
+                  "product": {
+                    "productId": "ENCHANTED_DIAMOND",
+                    "formattedName": "§aEnchanted Diamond"
+                  },
+                  "type": "BuyOrder",
+                  "price": 990.0,
+                  "expression": "order -"
+                }
+                """;
+
+            var alert = AlertConfigSerializationTest.this.gson.fromJson(json, Alert.class);
+            var serialized = AlertConfigSerializationTest.this.gson.toJsonTree(alert).getAsJsonObject();
+
+            assertNull(alert.expression);
+            assertEquals(990.0, alert.price);
+            assertFalse(serialized.has("expression"));
+        }
+    }
+
+    @Nested
+    @DisplayName("saved relative alerts")
+    class SavedRelativeAlerts {
+
+        @Test
+        void selfReferencingTargetStaysAtCreationPrice() {
+            var alert = this.load("BuyOrder", 15_000_000.0, "(order - 5000000)");
+            var first = snapshot(ProductIdTable.empty(), 1L, 20_000_000.0, 21_000_000.0);
+            var second = snapshot(first.ids(), 2L, 14_500_000.0, 21_000_000.0);
+            var index = AlertIndex.of(List.of(alert));
+
+            assertTrue(index.evaluate(MarketDelta.between(MarketSnapshot.empty(), first), true).reached().isEmpty());
+            var evaluation = index.evaluate(MarketDelta.between(first, second), false);
+
+            assertEquals(List.of(alert), evaluation.reached());
+            assertEquals(15_000_000.0, alert.target());
+        }
+
+        @Test
+        void otherSideReferenceFollowsTheMarket() {
+            var alert = this.load("BuyOrder", 19_000_000.0, "(insta - 2000000)");
+            var first = snapshot(ProductIdTable.empty(), 1L, 19_500_000.0, 21_000_000.0);
+            var second = snapshot(first.ids(), 2L, 19_500_000.0, 22_000_000.0);
+            var index = AlertIndex.of(List.of(alert));
+
+            assertTrue(index.evaluate(MarketDelta.between(MarketSnapshot.empty(), first), true).reached().isEmpty());
+            assertEquals(19_000_000.0, alert.target());
+
+            var evaluation = index.evaluate(MarketDelta.between(first, second), false);
+
+            assertEquals(List.of(alert), evaluation.reached());
+            assertEquals(20_000_000.0, alert.target());
+        }
+
+        private Alert load(String type, double price, String expression) {
+            var json = """
+                {
+                  "id": "29f2d47e-f09f-4c68-901f-f41a547d4145",
+                  "createdAt": 1700000000000,
+                  "product": {
+                    "productId": "ENCHANTMENT_SMOLDERING_5",
+                    "formattedName": "§9Smoldering V"
+                  },
+                  "type": "%s",
+                  "price": %s,
+                  "expression": "%s"
+                }
+                """.formatted(type, price, expression);
+
+            return AlertConfigSerializationTest.this.gson.fromJson(json, Alert.class);
+        }
+
+        private static MarketSnapshot snapshot(
+            ProductIdTable ids,
+            long lastUpdated,
+            double buyOrder,
+            double sellOffer
+        ) {
+            return new MarketSnapshot.Builder(ids, lastUpdated)
+                .product("ENCHANTMENT_SMOLDERING_5")
+                .buyOrder(buyOrder, 1, 1)
+                .sellOffer(sellOffer, 1, 1)
+                .build();
+        }
     }
 }
@@ -0,0 +1,91 @@
+package com.github.lutzluca.btrbz.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.github.lutzluca.btrbz.core.ProductPriceTable.Prices;
+import com.github.lutzluca.btrbz.data.MarketDelta;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.ProductIdTable;
+import com.github.lutzluca.btrbz.data.ProductIdentity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ProductPriceTableTest {
+
+    private static final ProductIdentity COAL = ProductIdentity.fromRuntime("Coal", "COAL", null);
+    private static final ProductIdentity IRON = ProductIdentity.fromRuntime("Iron Ingot", "IRON_INGOT", null);
+
+    @Nested
+    @DisplayName("snapshot prices")
+    class SnapshotPrices {
+
+        @Test
+        void readsBestPricesOfListedProducts() {
+            var snapshot = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").buyOrder(2.0, 10, 1).sellOffer(3.5, 10, 1)
+                .product("IRON_INGOT").buyOrder(4.0, 10, 1)
+                .build();
+
+            var table = ProductPriceTable.of(snapshot);
+
+            assertEquals(new Prices(3.5, 2.0), table.get(COAL));
+            assertEquals(new Prices(null, 4.0), table.get(IRON));
+            assertNull(table.get(ProductIdentity.fromName("Coal")));
+            assertNull(table.get(ProductIdentity.fromRuntime("Gold", "GOLD_INGOT", null)));
+        }
+    }
+
+    @Nested
+    @DisplayName("delta updates")
+    class DeltaUpdates {
+
+        @Test
+        void keepsUnchangedProductsAndRebuildsMovedOnes() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").buyOrder(2.0, 10, 1)
+                .product("IRON_INGOT").buyOrder(4.0, 10, 1)
+                .build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L)
+                .product("COAL").buyOrder(2.0, 10, 1)
+                .product("IRON_INGOT").buyOrder(4.5, 10, 1)
+                .product("GOLD_INGOT").sellOffer(6.0, 1, 1)
+                .build();
+            var table = ProductPriceTable.of(first);
+
+            var next = table.next(MarketDelta.between(first, second));
+
+            assertSame(table.get(COAL), next.get(COAL));
+            assertEquals(new Prices(null, 4.5), next.get(IRON));
+            assertEquals(new Prices(6.0, null), next.get(ProductIdentity.fromRuntime("Gold", "GOLD_INGOT", null)));
+        }
+
+        @Test
+        void dropsProductsThatAreNoLongerListed() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").buyOrder(2.0, 10, 1)
+                .build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L).build();
+
+            var next = ProductPriceTable.of(first).next(MarketDelta.between(first, second));
+
+            assertNull(next.get(COAL));
+        }
+
+        @Test
+        void rebuildsWhenTheDeltaDoesNotFollowTheTable() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").buyOrder(2.0, 10, 1)
+                .build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L)
+                .product("COAL").buyOrder(3.0, 10, 1)
+                .build();
+
+            var next = ProductPriceTable.EMPTY.next(MarketDelta.between(first, second));
+
+            assertEquals(new Prices(null, 3.0), next.get(COAL));
+        }
+    }
+}
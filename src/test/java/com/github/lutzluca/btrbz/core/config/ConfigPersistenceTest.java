@@ -0,0 +1,165 @@
+package com.github.lutzluca.btrbz.core.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.lutzluca.btrbz.core.BazaarOrderActions.OrderActionsConfig.Modifier;
+import com.github.lutzluca.btrbz.core.ProductInfoProvider.InfoProviderSite;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigPersistenceTest {
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final AtomicInteger snapshots = new AtomicInteger();
+    private int value;
+
+    private ConfigPersistence persistence(Path dir) {
+        return new ConfigPersistence(
+            dir.resolve("config.json"),
+            new Gson(),
+            this::snapshot,
+            this.scheduled::add,
+            Executors.newSingleThreadExecutor());
+    }
+
+    private JsonElement snapshot() {
+        this.snapshots.incrementAndGet();
+        var json = new JsonObject();
+        json.addProperty("value", this.value);
+        return json;
+    }
+
+    private static int written(Path dir) throws IOException {
+        var content = Files.readString(dir.resolve("config.json"));
+        return JsonParser.parseString(content).getAsJsonObject().get("value").getAsInt();
+    }
+
+    private void runScheduled() {
+        var tasks = List.copyOf(this.scheduled);
+        this.scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Nested
+    @DisplayName("debounced saves")
+    class DebouncedSaves {
+
+        @Test
+        void coalescesABurstIntoOneSnapshotOfTheLatestState(@TempDir Path dir) throws IOException {
+            var persistence = ConfigPersistenceTest.this.persistence(dir);
+
+            for (int i = 1; i <= 5; i++) {
+                ConfigPersistenceTest.this.value = i;
+                persistence.markDirty();
+            }
+            assertEquals(1, ConfigPersistenceTest.this.scheduled.size());
+            assertEquals(0, ConfigPersistenceTest.this.snapshots.get());
+
+            ConfigPersistenceTest.this.runScheduled();
+            persistence.close();
+
+            assertEquals(1, ConfigPersistenceTest.this.snapshots.get());
+            assertEquals(5, written(dir));
+        }
+
+        @Test
+        void schedulesAgainAfterAFlush(@TempDir Path dir) throws IOException {
+            var persistence = ConfigPersistenceTest.this.persistence(dir);
+
+            ConfigPersistenceTest.this.value = 1;
+            persistence.markDirty();
+            ConfigPersistenceTest.this.runScheduled();
+            ConfigPersistenceTest.this.value = 2;
+            persistence.markDirty();
+
+            assertEquals(1, ConfigPersistenceTest.this.scheduled.size());
+            ConfigPersistenceTest.this.runScheduled();
+            persistence.close();
+
+            assertEquals(2, ConfigPersistenceTest.this.snapshots.get());
+            assertEquals(2, written(dir));
+        }
+    }
+
+    @Nested
+    @DisplayName("shutdown")
+    class Shutdown {
+
+        @Test
+        void closeWritesPendingChanges(@TempDir Path dir) throws IOException {
+            var persistence = ConfigPersistenceTest.this.persistence(dir);
+
+            ConfigPersistenceTest.this.value = 7;
+            persistence.markDirty();
+            persistence.close();
+            ConfigPersistenceTest.this.runScheduled();
+
+            assertEquals(1, ConfigPersistenceTest.this.snapshots.get());
+            assertEquals(7, written(dir));
+        }
+
+        @Test
+        void closeWithoutChangesWritesNothing(@TempDir Path dir) {
+            ConfigPersistenceTest.this.persistence(dir).close();
+
+            assertFalse(Files.exists(dir.resolve("config.json")));
+        }
+
+        @Test
+        void savesAfterCloseAreWrittenImmediately(@TempDir Path dir) throws IOException {
+            var persistence = ConfigPersistenceTest.this.persistence(dir);
+            persistence.close();
+
+            ConfigPersistenceTest.this.value = 3;
+            persistence.markDirty();
+
+            assertTrue(ConfigPersistenceTest.this.scheduled.isEmpty());
+            assertEquals(3, written(dir));
+        }
+    }
+
+    @Nested
+    @DisplayName("yacl round trip")
+    class YaclRoundTrip {
+
+        @Test
+        void writesNonDefaultEnumsThatTheHandlerLoadsBack(@TempDir Path dir) {
+            var path = dir.resolve("config.json");
+            var serializerGson = new AtomicReference<Gson>();
+            var handler = ConfigSerialization.handler(path, serializerGson::set);
+            var config = handler.instance();
+            config.orderActions.copyRemainingModifier = Modifier.Alt;
+            config.productInfo.site = InfoProviderSite.Coflnet;
+
+            var persistence = new ConfigPersistence(
+                path,
+                new Gson(),
+                () -> ConfigSerialization.snapshot(config, serializerGson.get()),
+                Runnable::run,
+                Executors.newSingleThreadExecutor());
+            persistence.markDirty();
+            persistence.close();
+
+            var reloaded = ConfigSerialization.handler(path, _ -> {});
+            assertTrue(reloaded.load());
+            assertEquals(Modifier.Alt, reloaded.instance().orderActions.copyRemainingModifier);
+            assertEquals(InfoProviderSite.Coflnet, reloaded.instance().productInfo.site);
+        }
+    }
+}
@@ -6,7 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.github.lutzluca.btrbz.data.BazaarData;
-import com.github.lutzluca.btrbz.data.BazaarData.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
 import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage.OrderFilled;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo.FilledOrderInfo;
@@ -216,7 +216,7 @@ class TrackedOrderManagerTest {
                 "TROUBLED_BUBBLE",
                 ChatFormatting.GOLD + "Troubled Bubble"));
 
-            var updates = evaluator.computeStatusUpdates(List.of(order), snapshot).toList();
+            var updates = evaluator.computeStatusUpdates(TrackedOrderEvaluation.of(List.of(order), snapshot));
 
             assertEquals(1, updates.size());
             assertInstanceOf(OrderStatus.Top.class, updates.getFirst().curr());
@@ -236,7 +236,7 @@ class TrackedOrderManagerTest {
                 null,
                 ChatFormatting.GOLD + "Troubled Bubble"));
 
-            assertTrue(evaluator.computeStatusUpdates(List.of(order), snapshot).toList().isEmpty());
+            assertTrue(evaluator.computeStatusUpdates(TrackedOrderEvaluation.of(List.of(order), snapshot)).isEmpty());
         }
 
         @Test
@@ -254,7 +254,7 @@ class TrackedOrderManagerTest {
                 null));
             order.status = new OrderStatus.Undercut(1.0);
 
-            var updates = evaluator.computeStatusUpdates(List.of(order), snapshot).toList();
+            var updates = evaluator.computeStatusUpdates(TrackedOrderEvaluation.of(List.of(order), snapshot));
 
             assertEquals(1, updates.size());
             var current = assertInstanceOf(OrderStatus.Undercut.class, updates.getFirst().curr());
@@ -276,13 +276,44 @@ class TrackedOrderManagerTest {
                 "TROUBLED_BUBBLE",
                 null));
 
-            var updates = evaluator.computeStatusUpdates(List.of(order), snapshot).toList();
+            var updates = evaluator.computeStatusUpdates(TrackedOrderEvaluation.of(List.of(order), snapshot));
 
             assertEquals(1, updates.size());
             assertInstanceOf(OrderStatus.Matched.class, updates.getFirst().curr());
         }
     }
 
+    @Nested
+    @DisplayName("grouped evaluation")
+    class GroupedEvaluation {
+
+        @Test
+        void bucketsOrdersByProductSideAndPriceInTrackedOrder() {
+            var marketProduct = product("TROUBLED_BUBBLE");
+            setSummaries(
+                marketProduct,
+                List.of(summary(marketProduct, 10.0, 2, 2), summary(marketProduct, 9.0, 1, 1)),
+                List.of());
+            var snapshot = snapshot(Map.of("TROUBLED_BUBBLE", marketProduct));
+            var product = ProductIdentity.fromRuntime("Troubled Bubble", "TROUBLED_BUBBLE", null);
+            var first = trackedOrder(product, 10.0);
+            var lower = trackedOrder(product, 9.0);
+            var second = trackedOrder(product, 10.0);
+            var evaluator = new TrackedOrderStatusEvaluator();
+
+            var evaluation = TrackedOrderEvaluation.of(List.of(first, lower, second), snapshot);
+            var updates = evaluator.computeStatusUpdates(evaluation);
+            updates.forEach(update -> update.order().status = update.curr());
+
+            assertEquals(List.of(first, lower, second), updates.stream().map(StatusUpdate::order).toList());
+            assertEquals(1, evaluation.buckets().size());
+            assertEquals(List.of(first, second), evaluation.group(second).orders);
+            assertEquals(2L, evaluation.group(first).bookOrders());
+            assertInstanceOf(GroupStatus.SelfMatched.class, evaluator.getCurrentGroupStatus(evaluation.group(first)));
+            assertInstanceOf(GroupStatus.Undercut.class, evaluator.getCurrentGroupStatus(evaluation.group(lower)));
+        }
+    }
+
     @Nested
     @DisplayName("product grouping")
     class ProductGrouping {
@@ -355,8 +386,8 @@ class TrackedOrderManagerTest {
                 trackedOrder(ProductIdentity.fromRuntime("Troubled Bubble", "TROUBLED_BUBBLE", null), 10.0),
                 trackedOrder(ProductIdentity.fromRuntime("Troubled Bubble", "TROUBLED_BUBBLE", null), 9.0));
 
-            var first = detector.resolve(orders, snapshot);
-            var second = detector.resolve(orders, snapshot);
+            var first = detector.resolve(TrackedOrderEvaluation.of(orders, snapshot));
+            var second = detector.resolve(TrackedOrderEvaluation.of(orders, snapshot));
 
             assertEquals(1, first.size());
             assertEquals(10.0, first.getFirst().bestPrice());
@@ -1,6 +1,14 @@
 package com.github.lutzluca.btrbz.core.widgets.cache;
 
+import com.github.lutzluca.btrbz.core.widgets.session.WidgetProductContext;
+import com.github.lutzluca.btrbz.core.widgets.session.WidgetSession;
+import com.github.lutzluca.btrbz.data.ProductIdentity;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,6 +17,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -78,4 +87,64 @@ class CachePrimitivesTest {
             assertEquals("direct", CacheRevisions.changes(captured, dependencies).getFirst().tokenName());
         }
     }
+
+    @Nested
+    @DisplayName("product bindings")
+    class ProductBindings {
+        private final Map<String, CacheToken> productTokens = new HashMap<>();
+        private final CacheToken market = CacheToken.named("market");
+        private final CacheToken shared = CacheToken.named("shared");
+        private final CacheDependencies dependencies = CacheDependencies.of(this.shared)
+            .and(CacheDependencies.ofProduct(this::productToken, this.market));
+
+        @Test
+        @DisplayName("fall back to the global token without a session product")
+        void fallBackWithoutProduct() {
+            var unbound = this.dependencies.forSession(session(null));
+
+            assertEquals(List.of(this.shared, this.market), unbound.tokens());
+            assertEquals(List.of(this.shared, this.market), this.dependencies.tokens());
+        }
+
+        @Test
+        @DisplayName("bind to the token of the session's product")
+        void bindToSessionProduct() {
+            var bound = this.dependencies.forSession(session("COAL"));
+
+            assertEquals(List.of(this.shared, this.productToken("COAL")), bound.tokens());
+            assertSame(bound, this.dependencies.forSession(session("COAL")));
+            assertEquals(List.of(this.shared, this.productToken("IRON_INGOT")),
+                this.dependencies.forSession(session("IRON_INGOT")).tokens());
+        }
+
+        @Test
+        @DisplayName("only miss when the bound product changed")
+        void missOnlyForBoundProduct() {
+            var session = session("COAL");
+            var captured = CacheRevisions.capture(this.dependencies.forSession(session));
+
+            this.productToken("IRON_INGOT").invalidate(InvalidationReason.of("other product"));
+            this.market.invalidate(InvalidationReason.of("market published"));
+            assertTrue(CacheRevisions.match(captured, this.dependencies.forSession(session)));
+
+            this.productToken("COAL").invalidate(InvalidationReason.of("coal changed"));
+            var changes = CacheRevisions.changes(captured, this.dependencies.forSession(session));
+            assertEquals("bazaar.market.COAL", changes.getFirst().tokenName());
+            assertEquals(1, changes.size());
+        }
+
+        private CacheToken productToken(String productId) {
+            return this.productTokens.computeIfAbsent(productId, id -> CacheToken.named("bazaar.market." + id));
+        }
+
+        private static WidgetSession session(@Nullable String productId) {
+            Optional<WidgetProductContext> product = productId == null
+                ? Optional.empty()
+                : Optional.of(new WidgetProductContext(
+                    ProductIdentity.fromRuntime(productId, productId, null), Component.literal(productId),
+                    Optional.empty()));
+            return new WidgetSession(
+                1, true, false, false, Optional.empty(), Optional.empty(), product, Optional.empty(), 1);
+        }
+    }
 }
@@ -7,8 +7,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.github.lutzluca.btrbz.core.trackedorders.TrackedOrderManager;
 import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
 import com.github.lutzluca.btrbz.data.BazaarData;
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo.FilledOrderInfo;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderInfo.UnfilledOrderInfo;
 import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import com.github.lutzluca.btrbz.data.OrderModels.TrackedOrder;
 import com.github.lutzluca.btrbz.data.ProductIdentity;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
@@ -31,6 +34,33 @@ class OrdersWidgetDataTest {
         assertEquals(2, data.computeSnapshot().filledOrderCount());
     }
 
+    @Test
+    void onlyMarketChangesOfTrackedProductsInvalidate() {
+        var market = new BazaarData();
+        var manager = new TrackedOrderManager(market);
+        var coal = ProductIdentity.fromRuntime("Coal", "COAL", null);
+        manager.addTrackedOrder(new TrackedOrder(
+            new UnfilledOrderInfo(coal, "Coal", OrderType.Buy, 64, 2.0, 0, 0, 0), coal));
+        var data = new OrdersWidgetData(
+            market, manager, null,
+            CacheToken.named("test.screen"), CacheToken.named("test.inventory"));
+        market.publish(market.stage(prices(market, 2.0, 5.0)));
+        long revision = data.trackedMarketChanges().revision();
+
+        market.publish(market.stage(prices(market, 2.0, 6.0)));
+        assertEquals(revision, data.trackedMarketChanges().revision());
+
+        market.publish(market.stage(prices(market, 2.5, 6.0)));
+        assertEquals(revision + 1, data.trackedMarketChanges().revision());
+    }
+
+    private static MarketSnapshot prices(BazaarData market, double coalPrice, double ironPrice) {
+        return new MarketSnapshot.Builder(market.stagedProductIds(), 0L)
+            .product("COAL").buyOrder(coalPrice, 10, 1)
+            .product("IRON_INGOT").buyOrder(ironPrice, 10, 1)
+            .build();
+    }
+
     @Nested
     @DisplayName("observed product validation")
     class ObservedProductValidation {
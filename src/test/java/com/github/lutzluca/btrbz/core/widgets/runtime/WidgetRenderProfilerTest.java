@@ -0,0 +1,116 @@
+package com.github.lutzluca.btrbz.core.widgets.runtime;
+
+import com.github.lutzluca.btrbz.core.widgets.WidgetId;
+import com.github.lutzluca.btrbz.core.widgets.runtime.WidgetRenderProfiler.Phase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Widget render profiler")
+class WidgetRenderProfilerTest {
+    private static final WidgetId ORDERS = WidgetId.parse("btrbz:orders");
+    private static final WidgetId BOOKMARKS = WidgetId.parse("btrbz:bookmarks");
+
+    private long nanos;
+    private long bytes;
+    private final WidgetRenderProfiler profiler = new WidgetRenderProfiler(() -> this.nanos, () -> this.bytes);
+
+    @Nested
+    @DisplayName("recording")
+    class Recording {
+        @Test
+        @DisplayName("hooks are inert until recording starts")
+        void inertWhenOff() {
+            renderFrame();
+
+            assertTrue(profiler.snapshot().isEmpty());
+            assertTrue(profiler.snapshot().widgets().isEmpty());
+            assertNull(profiler.drawProbe());
+        }
+
+        @Test
+        @DisplayName("splits each widget into prepare, layout and draw and totals the frame")
+        void phases() {
+            profiler.setRecording(true);
+            renderFrame();
+            renderFrame();
+
+            var profile = profiler.snapshot();
+            var orders = profile.widgets().get(ORDERS);
+
+            assertEquals(2, profile.frames().samples());
+            assertEquals(100, profile.frames().meanNanos());
+            assertEquals(1000, profile.frames().meanBytes());
+            assertEquals(2, orders.prepare().samples());
+            assertEquals(10, orders.prepare().meanNanos());
+            assertEquals(20, orders.layout().meanNanos());
+            assertEquals(300, orders.layout().meanBytes());
+            assertEquals(30, orders.draw().meanNanos());
+            assertEquals(60, orders.meanNanos());
+        }
+
+        @Test
+        @DisplayName("cache hits record prepare only and rank below heavier widgets")
+        void preparedOnly() {
+            profiler.setRecording(true);
+            renderFrame();
+
+            var profile = profiler.snapshot();
+            var bookmarks = profile.widgets().get(BOOKMARKS);
+
+            assertEquals(5, bookmarks.prepare().meanNanos());
+            assertEquals(0, bookmarks.layout().samples());
+            assertEquals(ORDERS, profile.ranked().getFirst().getKey());
+            assertTrue(profile.lines().get(1).startsWith("btrbz:orders prepare=0.000ms"));
+        }
+
+        @Test
+        @DisplayName("reset clears counters and preview hosts cannot record")
+        void resetAndPreview() {
+            profiler.setRecording(true);
+            renderFrame();
+            profiler.reset();
+
+            assertTrue(profiler.snapshot().isEmpty());
+            assertNotNull(profiler.drawProbe());
+            assertThrows(IllegalStateException.class, () -> WidgetRenderProfiler.OFF.setRecording(true));
+        }
+    }
+
+    private void renderFrame() {
+        profiler.beginFrame();
+
+        profiler.begin(ORDERS, Phase.PREPARE);
+        advance(10, 100);
+        profiler.enter(Phase.LAYOUT);
+        advance(20, 300);
+        profiler.end();
+
+        profiler.begin(BOOKMARKS, Phase.PREPARE);
+        advance(5, 0);
+        profiler.end();
+
+        var probe = profiler.drawProbe();
+        if (probe != null) {
+            probe.beforeSlot(ORDERS);
+        }
+        advance(30, 500);
+        if (probe != null) {
+            probe.afterSlot();
+        }
+
+        advance(35, 100);
+        profiler.endFrame();
+    }
+
+    private void advance(long elapsedNanos, long allocatedBytes) {
+        this.nanos += elapsedNanos;
+        this.bytes += allocatedBytes;
+    }
+}
@@ -5,6 +5,7 @@ import io.wispforest.owo.ui.core.OwoUIGraphics;
 import io.wispforest.owo.ui.core.Size;
 import io.wispforest.owo.ui.core.Sizing;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -50,6 +51,68 @@ class RetainedWidgetComponentsTest {
         }
     }
 
+    @Nested
+    @DisplayName("virtual rows")
+    class VirtualRows {
+        @Test
+        @DisplayName("mount only the rows around the viewport and follow scrolling")
+        void mountsRowsAroundTheViewport() {
+            var rows = passiveRows(100);
+            var layout = mountedVirtualLayout(rows);
+
+            assertEquals(rows.subList(0, 7), layout.window());
+
+            layout.updateY(-120);
+
+            assertEquals(rows.subList(8, 17), layout.window());
+            assertEquals(-24, rows.get(8).y());
+            assertEquals(-120 + 99 * 12, layout.rowTop(99));
+        }
+
+        @Test
+        @DisplayName("keep a pinned row mounted outside the viewport")
+        void keepsPinnedRowMounted() {
+            var rows = passiveRows(100);
+            var layout = mountedVirtualLayout(rows);
+
+            layout.pin(50);
+
+            assertEquals(8, layout.window().size());
+            assertSame(rows.get(50), layout.window().getLast());
+            assertEquals(600, rows.get(50).y());
+
+            layout.pin(-1);
+
+            assertEquals(rows.subList(0, 7), layout.window());
+        }
+
+        @Test
+        @DisplayName("derive insertion gaps from row centers")
+        void derivesInsertionGaps() {
+            var layout = mountedVirtualLayout(passiveRows(5));
+
+            assertEquals(0, layout.gapAt(-10));
+            assertEquals(0, layout.gapAt(4));
+            assertEquals(1, layout.gapAt(5));
+            assertEquals(3, layout.gapAt(40));
+            assertEquals(5, layout.gapAt(500));
+        }
+
+        private static List<PassiveComponent> passiveRows(int count) {
+            return IntStream.range(0, count).mapToObj(_ -> new PassiveComponent()).toList();
+        }
+
+        private static VirtualRowLayout mountedVirtualLayout(List<PassiveComponent> rows) {
+            var host = RetainedFlowLayout.vertical(Sizing.fixed(100), Sizing.fixed(50));
+            var layout = new VirtualRowLayout(2);
+            layout.rows(rows, 10);
+            host.child(layout);
+            host.mount(null, 0, 0);
+            host.inflate(Size.of(100, 50));
+            return layout;
+        }
+    }
+
     @Test
     @DisplayName("detached flow mutations are mounted on reattachment")
     void detachedFlowMutationsRemainDirty() {
@@ -0,0 +1,149 @@
+package com.github.lutzluca.btrbz.core.widgets.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.client.renderer.state.gui.BlitRenderState;
+import net.minecraft.client.renderer.state.gui.GuiElementRenderState;
+import net.minecraft.client.renderer.state.gui.GuiItemRenderState;
+import net.minecraft.client.renderer.state.gui.GuiRenderState;
+import net.minecraft.client.renderer.state.gui.GuiTextRenderState;
+import org.joml.Matrix3x2f;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WidgetDrawRecorderTest {
+    private final Object stamp = new Object();
+
+    @Test
+    @DisplayName("record submissions in order under the frame key")
+    void recordsSubmissionsUnderKey() {
+        var recorder = new WidgetDrawRecorder();
+        var panel = panel(0xFF101010);
+        var row = panel(0xFF202020);
+
+        WidgetDrawRecorder.element(panel(0xFF000000));
+        recorder.begin(this.stamp);
+        assertFalse(recorder.replayable(this.stamp));
+        WidgetDrawRecorder.element(panel);
+        WidgetDrawRecorder.element(row);
+        recorder.end();
+        WidgetDrawRecorder.element(panel(0xFF303030));
+
+        assertEquals(
+            List.of(new WidgetDrawRecorder.Element(panel), new WidgetDrawRecorder.Element(row)),
+            recorder.ops());
+        assertTrue(recorder.replayable(this.stamp));
+        assertFalse(recorder.replayable(new Object()));
+    }
+
+    @Test
+    @DisplayName("drop the recording when a component draws live")
+    void drawLiveDiscardsTheRecording() {
+        var recorder = new WidgetDrawRecorder();
+
+        recorder.begin(this.stamp);
+        WidgetDrawRecorder.element(panel(0xFF101010));
+        WidgetDrawRecorder.drawLive();
+        WidgetDrawRecorder.element(panel(0xFF202020));
+        recorder.end();
+
+        assertTrue(recorder.ops().isEmpty());
+        assertFalse(recorder.replayable(this.stamp));
+
+        recorder.begin(this.stamp);
+        WidgetDrawRecorder.element(panel(0xFF101010));
+        recorder.end();
+
+        assertEquals(1, recorder.ops().size());
+        assertTrue(recorder.replayable(this.stamp));
+    }
+
+    @Test
+    @DisplayName("record one widget draw at a time")
+    void rejectsNestedRecordings() {
+        var outer = new WidgetDrawRecorder();
+        var inner = new WidgetDrawRecorder();
+
+        outer.begin(this.stamp);
+        try {
+            assertThrows(IllegalStateException.class, () -> inner.begin(this.stamp));
+        } finally {
+            outer.end();
+        }
+
+        inner.begin(this.stamp);
+        inner.end();
+        assertTrue(inner.replayable(this.stamp));
+    }
+
+    @Test
+    @DisplayName("replay every submission of a status row, including its icon blit")
+    void replaysStatusRowIncludingIcon() {
+        var recorder = new WidgetDrawRecorder();
+        var live = new CapturingRenderState();
+
+        recorder.begin(this.stamp);
+        drawStatusRow(live);
+        recorder.end();
+
+        var replayed = new CapturingRenderState();
+        recorder.replay(replayed);
+
+        assertEquals(4, live.submitted.size());
+        assertTrue(live.submitted.stream().anyMatch(state -> state instanceof BlitRenderState));
+        assertEquals(live.submitted, replayed.submitted);
+        assertEquals(live.blits, replayed.blits);
+    }
+
+    // Mirrors what StatusCount submits: its row panel, the status icon through blit, and the count badge.
+    private static void drawStatusRow(GuiRenderState target) {
+        target.addGuiElement(panel(0xFF101010));
+        target.addBlitToCurrentLayer(icon(2, 2));
+        target.addGuiElement(panel(0xFF303030));
+        target.addBlitToCurrentLayer(icon(14, 2));
+    }
+
+    private static BlitRenderState icon(int x, int y) {
+        return new BlitRenderState(null, null, new Matrix3x2f(), x, y, x + 8, y + 8, 0, 1, 0, 1, 0xFFFFFFFF, null);
+    }
+
+    private static RoundedRectangleElementRenderState panel(int color) {
+        return new RoundedRectangleElementRenderState(new Matrix3x2f(), null, 0, 0, 20, 10, 3, 8, color);
+    }
+
+    /** Records submissions the way GuiRenderStateMixin does, and keeps them to compare live and replayed frames. */
+    private static final class CapturingRenderState extends GuiRenderState {
+        private final List<Object> submitted = new ArrayList<>();
+        private final List<BlitRenderState> blits = new ArrayList<>();
+
+        @Override
+        public void addGuiElement(GuiElementRenderState state) {
+            WidgetDrawRecorder.element(state);
+            this.submitted.add(state);
+        }
+
+        @Override
+        public void addBlitToCurrentLayer(BlitRenderState state) {
+            WidgetDrawRecorder.blit(state);
+            this.submitted.add(state);
+            this.blits.add(state);
+        }
+
+        @Override
+        public void addText(GuiTextRenderState state) {
+            WidgetDrawRecorder.text(state);
+            this.submitted.add(state);
+        }
+
+        @Override
+        public void addItem(GuiItemRenderState state) {
+            WidgetDrawRecorder.item(state);
+            this.submitted.add(state);
+        }
+    }
+}
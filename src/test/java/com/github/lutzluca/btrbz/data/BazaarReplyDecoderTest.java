@@ -0,0 +1,176 @@
+package com.github.lutzluca.btrbz.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.github.lutzluca.btrbz.data.BazaarReplyDecoder.Status;
+import com.github.lutzluca.btrbz.data.MarketSnapshot.BookSide;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class BazaarReplyDecoderTest {
+
+    private static final List<String> RECORDED_REPLIES = List.of(
+        "/bazaar/reply-1760788800123.json",
+        "/bazaar/reply-1760788820456-trailing-timestamp.json");
+
+    @Nested
+    @DisplayName("recorded replies")
+    class RecordedReplies {
+
+        @Test
+        void matchesGsonPath() throws IOException {
+            var ids = ProductIdTable.empty();
+
+            for (var resource : RECORDED_REPLIES) {
+                var json = read(resource);
+                var reply = new Gson().fromJson(json, SkyBlockBazaarReply.class);
+                var expected = MarketSnapshot.compile(lastUpdated(reply), reply.getProducts(), ids);
+
+                var result = new BazaarReplyDecoder().decode(new StringReader(json), ids, -1);
+
+                assertEquals(Status.Changed, result.status(), resource);
+                assertSameSnapshot(expected, result.snapshot().orElseThrow());
+                ids = expected.ids();
+            }
+        }
+
+        @Test
+        void truncatesToRequestedLevels() throws IOException {
+            var json = read(RECORDED_REPLIES.getFirst());
+            var full = new BazaarReplyDecoder().decode(new StringReader(json), ProductIdTable.empty(), -1);
+            var top = new BazaarReplyDecoder(3).decode(new StringReader(json), ProductIdTable.empty(), -1);
+
+            var fullSnapshot = full.snapshot().orElseThrow();
+            var topSnapshot = top.snapshot().orElseThrow();
+            int slot = topSnapshot.slotOf("ENCHANTED_COAL");
+
+            assertEquals(30, fullSnapshot.buyOrders(slot).size());
+            assertEquals(3, topSnapshot.buyOrders(slot).size());
+            assertEquals(fullSnapshot.buyOrders(slot).price(2), topSnapshot.buyOrders(slot).price(2));
+            assertEquals(fullSnapshot.buyMovingWeek(slot), topSnapshot.buyMovingWeek(slot));
+        }
+    }
+
+    @Nested
+    @DisplayName("early exit")
+    class EarlyExit {
+
+        @Test
+        void stopsBeforeProductsWhenLastUpdatedIsUnchanged() throws IOException {
+            var json = read(RECORDED_REPLIES.getFirst());
+            var reader = new CountingReader(new StringReader(json));
+
+            var result = new BazaarReplyDecoder().decode(reader, ProductIdTable.empty(), 1760788800123L);
+
+            assertEquals(Status.Unchanged, result.status());
+            assertEquals(Optional.empty(), result.snapshot());
+            assertTrue(reader.read < json.length() / 2, "read " + reader.read + " of " + json.length());
+        }
+
+        @Test
+        void reportsUnchangedWhenTimestampTrailsProducts() throws IOException {
+            var json = read(RECORDED_REPLIES.getLast());
+
+            var result = new BazaarReplyDecoder()
+                .decode(new StringReader(json), ProductIdTable.empty(), 1760788820456L);
+
+            assertEquals(Status.Unchanged, result.status());
+        }
+
+        @Test
+        void reportsUnsuccessfulReplies() throws IOException {
+            var json = "{\"success\":false,\"cause\":\"Key throttle\"}";
+
+            var result = new BazaarReplyDecoder().decode(new StringReader(json), ProductIdTable.empty(), -1);
+
+            assertEquals(Status.Unsuccessful, result.status());
+            assertEquals(Optional.of("Key throttle"), result.cause());
+        }
+    }
+
+    private static void assertSameSnapshot(MarketSnapshot expected, MarketSnapshot actual) {
+        assertEquals(expected.lastUpdated(), actual.lastUpdated());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.ids().size(), actual.ids().size());
+
+        for (int slot = 0; slot < expected.ids().size(); slot++) {
+            var productId = expected.ids().productId(slot);
+            int actualSlot = actual.slotOf(productId);
+
+            assertEquals(expected.slotOf(productId), actualSlot, productId);
+            if (actualSlot < 0) {
+                continue;
+            }
+
+            assertSameSide(productId, expected.buyOrders(slot), actual.buyOrders(actualSlot));
+            assertSameSide(productId, expected.sellOffers(slot), actual.sellOffers(actualSlot));
+            assertEquals(expected.buyMovingWeek(slot), actual.buyMovingWeek(actualSlot), productId);
+            assertEquals(expected.sellMovingWeek(slot), actual.sellMovingWeek(actualSlot), productId);
+        }
+    }
+
+    private static void assertSameSide(String productId, BookSide expected, BookSide actual) {
+        assertEquals(expected.size(), actual.size(), productId);
+
+        for (int level = 0; level < expected.size(); level++) {
+            assertEquals(expected.price(level), actual.price(level), productId);
+            assertEquals(expected.amount(level), actual.amount(level), productId);
+            assertEquals(expected.orders(level), actual.orders(level), productId);
+        }
+    }
+
+    private static String read(String resource) throws IOException {
+        try (InputStream in = BazaarReplyDecoderTest.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing test resource " + resource);
+            }
+
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long lastUpdated(SkyBlockBazaarReply reply) {
+        try {
+            Field field = SkyBlockBazaarReply.class.getDeclaredField("lastUpdated");
+            field.setAccessible(true);
+            return field.getLong(reply);
+        } catch (ReflectiveOperationException err) {
+            throw new AssertionError("Failed to read lastUpdated", err);
+        }
+    }
+
+    private static final class CountingReader extends Reader {
+        private final Reader delegate;
+        private long read;
+
+        private CountingReader(Reader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = this.delegate.read(buffer, offset, length);
+            if (count > 0) {
+                this.read += count;
+            }
+
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.delegate.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.lutzluca.btrbz.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.github.lutzluca.btrbz.data.BazaarMessageDispatcher.BazaarMessage;
+import com.github.lutzluca.btrbz.data.ChatClassifier.Kind;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ChatClassifierTest {
+
+    @Nested
+    @DisplayName("prefix classification")
+    class PrefixClassification {
+
+        @Test
+        void recognizesTransientMessagesThroughFormattingCodes() {
+            var claiming = ChatClassifier.classify("§6[Bazaar] §r§7Claiming orders...");
+            var single = ChatClassifier.classify("[Bazaar] Claiming order...");
+
+            assertSame(ChatClassifier.ClassifiedMessage.TRANSIENT, claiming);
+            assertSame(ChatClassifier.ClassifiedMessage.TRANSIENT, single);
+        }
+
+        @Test
+        void leavesUnrelatedMessagesUnstripped() {
+            var classified = ChatClassifier.classify("§aYou are playing on profile: §eMango");
+
+            assertSame(ChatClassifier.ClassifiedMessage.UNRELATED, classified);
+            assertEquals("", classified.text());
+        }
+
+        @Test
+        void treatsUnknownBazaarMessagesAsOther() {
+            var classified = ChatClassifier.classify("§6[Bazaar] §r§cYou cannot afford this!");
+
+            assertEquals(Kind.OTHER_BAZAAR, classified.kind());
+            assertEquals("[Bazaar] You cannot afford this!", classified.text());
+            assertNull(classified.message());
+        }
+
+        @Test
+        void requiresTheFilledSuffix() {
+            var classified = ChatClassifier.classify(
+                "[Bazaar] Your Buy Order for 12x Enchanted Diamond was filled! ok");
+
+            assertEquals(Kind.OTHER_BAZAAR, classified.kind());
+        }
+    }
+
+    @Nested
+    @DisplayName("result parsing")
+    class ResultParsing {
+
+        @Test
+        void parsesFormattedInstaBuyWithFraction() {
+            var classified = ChatClassifier.classify(
+                "§6[Bazaar] §r§7Bought §r§a12§r§7x §r§aEnchanted Diamond "
+                    + "§r§7for §r§62,112.4 coins§r§7!");
+
+            assertEquals(Kind.INSTA_BUY, classified.kind());
+            assertEquals(
+                new BazaarMessage.InstaBuy(12, "Enchanted Diamond", 2112.4),
+                classified.message());
+        }
+
+        @Test
+        void parsesGroupedVolumes() {
+            var classified = ChatClassifier.classify("[Bazaar] Your Sell Offer for 2,304x Mithril was filled!");
+
+            assertEquals(new BazaarMessage.OrderFilled(OrderType.Sell, 2304, "Mithril"), classified.message());
+        }
+
+        @Test
+        void keepsTheKindWhenTheBodyDoesNotParse() {
+            var classified = ChatClassifier.classify("[Bazaar] Sold Mithril for 2,560,000 coins!");
+
+            assertEquals(Kind.INSTA_SELL, classified.kind());
+            assertNull(classified.message());
+        }
+    }
+
+    @Nested
+    @DisplayName("recorded session")
+    class RecordedSession {
+
+        @Test
+        void classifiesEveryLineOfTheRecordedLog() throws IOException {
+            var counts = new EnumMap<Kind, Integer>(Kind.class);
+            for (var line : readLog()) {
+                counts.merge(ChatClassifier.classify(line).kind(), 1, Integer::sum);
+            }
+
+            assertEquals(8, counts.get(Kind.TRANSIENT));
+            assertEquals(5, counts.get(Kind.UNRELATED));
+            assertEquals(3, counts.get(Kind.OTHER_BAZAAR));
+            assertEquals(2, counts.get(Kind.ORDER_SETUP));
+            assertEquals(2, counts.get(Kind.ORDER_FILLED));
+            assertEquals(1, counts.get(Kind.INSTA_BUY));
+            assertEquals(1, counts.get(Kind.INSTA_SELL));
+            assertEquals(1, counts.get(Kind.ORDER_FLIPPED));
+        }
+
+        @Test
+        void parsesEveryResultOfTheRecordedLog() throws IOException {
+            var messages = readLog()
+                .stream()
+                .map(line -> ChatClassifier.classify(line).message())
+                .filter(message -> message != null)
+                .toList();
+
+            assertEquals(
+                List.of(
+                    new BazaarMessage.OrderSetup(OrderType.Buy, 64, "Enchanted Coal", 1152.0),
+                    new BazaarMessage.InstaBuy(12, "Enchanted Diamond", 2112.4),
+                    new BazaarMessage.OrderSetup(OrderType.Sell, 5, "Summoning Eye", 7_500_000.0),
+                    new BazaarMessage.OrderFilled(OrderType.Buy, 64, "Enchanted Coal"),
+                    new BazaarMessage.InstaSell(1024, "Mithril", 2_560_000.0),
+                    new BazaarMessage.OrderFlipped(3, "Enchanted Sugar", 123_521.0),
+                    new BazaarMessage.OrderFilled(OrderType.Sell, 5, "Summoning Eye")),
+                messages);
+        }
+
+        private static List<String> readLog() throws IOException {
+            try (InputStream in = ChatClassifierTest.class.getResourceAsStream("/chat/bazaar-session.log")) {
+                if (in == null) {
+                    throw new IOException("Missing chat log resource");
+                }
+
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.lutzluca.btrbz.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class FillRateEstimatorTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private static MarketSnapshot buyOrders(ProductIdTable ids, long timestamp, double[] prices, long[] amounts) {
+        var builder = new MarketSnapshot.Builder(ids, timestamp).product("COAL");
+        for (int level = 0; level < prices.length; level++) {
+            builder.buyOrder(prices[level], amounts[level], 1);
+        }
+        return builder.build();
+    }
+
+    @Nested
+    @DisplayName("depth consumption")
+    class DepthConsumption {
+
+        @Test
+        void countsLevelsTakenAboveTheNewBestAndWhatItLost() {
+            var before = buyOrders(ProductIdTable.empty(), 0L, new double[]{10.0, 9.0, 8.0}, new long[]{5, 7, 9});
+            var after = buyOrders(before.ids(), 1L, new double[]{9.0, 8.0}, new long[]{3, 9});
+
+            assertEquals(9L, FillRateEstimator.consumed(before.buyOrders(0), after.buyOrders(0)));
+        }
+
+        @Test
+        void ignoresNewLevelsAndGrowth() {
+            var before = buyOrders(ProductIdTable.empty(), 0L, new double[]{10.0, 9.0}, new long[]{5, 7});
+            var undercut = buyOrders(before.ids(), 1L, new double[]{10.1, 10.0, 9.0}, new long[]{1, 5, 7});
+            var grown = buyOrders(before.ids(), 1L, new double[]{10.0, 9.0}, new long[]{8, 7});
+
+            assertEquals(0L, FillRateEstimator.consumed(before.buyOrders(0), undercut.buyOrders(0)));
+            assertEquals(0L, FillRateEstimator.consumed(before.buyOrders(0), grown.buyOrders(0)));
+        }
+
+        @Test
+        void countsAnEmptiedSideInFull() {
+            var before = buyOrders(ProductIdTable.empty(), 0L, new double[]{10.0, 9.0}, new long[]{5, 7});
+            var after = new MarketSnapshot.Builder(before.ids(), 1L).product("COAL").build();
+
+            assertEquals(12L, FillRateEstimator.consumed(before.buyOrders(0), after.buyOrders(0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("rate estimation")
+    class RateEstimation {
+
+        @Test
+        void reportsNothingBeforeEnoughHasBeenObserved() {
+            var estimator = new FillRateEstimator();
+            var first = buyOrders(ProductIdTable.empty(), MINUTE, new double[]{10.0}, new long[]{100});
+            var second = buyOrders(first.ids(), 2 * MINUTE, new double[]{10.0}, new long[]{90});
+
+            estimator.observe(MarketDelta.between(first, second));
+
+            assertTrue(Double.isNaN(estimator.itemsPerMinute(0, OrderType.Buy)));
+            assertTrue(Double.isNaN(estimator.itemsPerMinute(0, OrderType.Sell)));
+        }
+
+        @Test
+        void tracksASteadyFillRate() {
+            var estimator = new FillRateEstimator();
+            var previous = buyOrders(ProductIdTable.empty(), MINUTE, new double[]{10.0}, new long[]{1_000});
+
+            for (int minute = 2; minute <= 20; minute++) {
+                var next = buyOrders(previous.ids(), minute * MINUTE, new double[]{10.0},
+                    new long[]{1_000 - (minute - 1) * 10L});
+                estimator.observe(MarketDelta.between(previous, next));
+                previous = next;
+            }
+
+            assertEquals(10.0, estimator.itemsPerMinute(0, OrderType.Buy), 0.5);
+            assertTrue(Double.isNaN(estimator.itemsPerMinute(0, OrderType.Sell)));
+        }
+
+        @Test
+        void ignoresPollsWithoutTimestamps() {
+            var estimator = new FillRateEstimator();
+            var first = buyOrders(ProductIdTable.empty(), -1L, new double[]{10.0}, new long[]{100});
+            var second = buyOrders(first.ids(), -1L, new double[]{10.0}, new long[]{10});
+
+            estimator.observe(MarketDelta.between(first, second));
+
+            assertTrue(Double.isNaN(estimator.itemsPerMinute(0, OrderType.Buy)));
+        }
+    }
+}
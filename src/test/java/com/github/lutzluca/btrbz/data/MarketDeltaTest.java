@@ -0,0 +1,115 @@
+package com.github.lutzluca.btrbz.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class MarketDeltaTest {
+
+    @Nested
+    @DisplayName("change detection")
+    class ChangeDetection {
+
+        @Test
+        void reportsOnlyProductsThatMoved() {
+            var first = snapshot(ProductIdTable.empty(), 10.0, 5.0);
+            var second = snapshot(first.ids(), 10.0, 6.0);
+
+            var delta = MarketDelta.between(first, second);
+
+            assertEquals(1, delta.size());
+            assertFalse(delta.changed("COAL"));
+            assertTrue(delta.changed(second.slotOf("IRON_INGOT"), MarketDelta.TOP_OF_BOOK));
+            assertFalse(delta.changed(second.slotOf("IRON_INGOT"), MarketDelta.DEPTH));
+        }
+
+        @Test
+        void distinguishesDepthFromTopOfBook() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").buyOrder(10.0, 1, 1).buyOrder(9.0, 1, 1)
+                .build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L)
+                .product("COAL").buyOrder(10.0, 1, 1).buyOrder(9.0, 4, 2)
+                .build();
+
+            int changes = MarketDelta.between(first, second).changes(second.slotOf("COAL"));
+
+            assertEquals(MarketDelta.DEPTH, changes);
+        }
+
+        @Test
+        void flagsQuickStatusOnlyChanges() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").movingWeek(100, 200)
+                .build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L)
+                .product("COAL").movingWeek(101, 200)
+                .build();
+
+            var delta = MarketDelta.between(first, second);
+
+            assertEquals(MarketDelta.QUICK_STATUS, delta.changes(second.slotOf("COAL")));
+            assertFalse(delta.bookChanged(ProductIdentity.fromRuntime("Coal", "COAL", null)));
+        }
+
+        @Test
+        void reportsListedAndDelistedProducts() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L).product("COAL").build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L).product("IRON_INGOT").build();
+
+            var delta = MarketDelta.between(first, second);
+
+            assertEquals(2, delta.size());
+            assertTrue(delta.changed(first.slotOf("COAL"), MarketDelta.LISTING));
+            assertTrue(delta.changed(second.slotOf("IRON_INGOT"), MarketDelta.LISTING));
+        }
+    }
+
+    @Nested
+    @DisplayName("publication")
+    class Publication {
+
+        @Test
+        void invalidatesOnlyChangedProductTokens() {
+            var data = new BazaarData();
+            var coal = data.productChanges("COAL");
+            var iron = data.productChanges("IRON_INGOT");
+            data.publish(data.stage(snapshot(data.stagedProductIds(), 10.0, 5.0)));
+            long coalRevision = coal.revision();
+            long ironRevision = iron.revision();
+            long marketRevision = data.marketChanges().revision();
+
+            data.publish(data.stage(snapshot(data.stagedProductIds(), 10.0, 6.0)));
+
+            assertEquals(coalRevision, coal.revision());
+            assertEquals(ironRevision + 1, iron.revision());
+            assertEquals(marketRevision + 1, data.marketChanges().revision());
+        }
+
+        @Test
+        void unchangedPollKeepsMarketTokenAndStillNotifiesDeltaListeners() {
+            var data = new BazaarData();
+            var deltas = new ArrayList<MarketDelta>();
+            data.addDeltaListener(deltas::add);
+            data.publish(data.stage(snapshot(data.stagedProductIds(), 10.0, 5.0)));
+            long marketRevision = data.marketChanges().revision();
+
+            data.publish(data.stage(snapshot(data.stagedProductIds(), 10.0, 5.0)));
+
+            assertEquals(marketRevision, data.marketChanges().revision());
+            assertEquals(List.of(2, 0), deltas.stream().map(MarketDelta::size).toList());
+        }
+    }
+
+    private static MarketSnapshot snapshot(ProductIdTable ids, double coalPrice, double ironPrice) {
+        return new MarketSnapshot.Builder(ids, 0L)
+            .product("COAL").buyOrder(coalPrice, 64, 1)
+            .product("IRON_INGOT").buyOrder(ironPrice, 64, 1)
+            .build();
+    }
+}
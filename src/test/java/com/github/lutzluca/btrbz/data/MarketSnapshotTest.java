@@ -0,0 +1,194 @@
+package com.github.lutzluca.btrbz.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.github.lutzluca.btrbz.data.OrderModels.OrderType;
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product;
+import net.hypixel.api.reply.skyblock.SkyBlockBazaarReply.Product.Summary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class MarketSnapshotTest {
+
+    private static final ProductIdentity COAL = ProductIdentity.fromRuntime("Coal", "COAL", null);
+
+    @Nested
+    @DisplayName("compiling Hypixel replies")
+    class CompilingReplies {
+
+        @Test
+        void mapsActionBasedSummariesToBookSides() {
+            var coal = product("COAL");
+            setField(coal, "sellSummary", List.of(summary(coal, 9.5, 100, 3), summary(coal, 9.0, 50, 1)));
+            setField(coal, "buySummary", List.of(summary(coal, 10.5, 20, 2)));
+
+            var snapshot = MarketSnapshot.compile(42L, Map.of("COAL", coal), ProductIdTable.empty());
+            var lists = snapshot.getOrderLists(COAL);
+
+            assertEquals(42L, snapshot.lastUpdated());
+            assertEquals(1, snapshot.size());
+            assertEquals(2, lists.buyOrders().size());
+            assertEquals(9.0, lists.buyOrders().price(1));
+            assertEquals(50L, lists.buyOrders().amount(1));
+            assertEquals(1, lists.sellOffers().size());
+            assertEquals(2L, lists.sellOffers().orders(0));
+            assertEquals(Optional.of(9.5), snapshot.highestBuyOrderPrice(COAL));
+            assertEquals(Optional.of(10.5), snapshot.lowestSellOfferPrice(COAL));
+            assertEquals(Optional.of(1.0), snapshot.productSpread(COAL));
+        }
+
+        @Test
+        void toleratesMissingSummariesAndQuickStatus() {
+            var snapshot = MarketSnapshot.compile(0L, Map.of("COAL", product("COAL")), ProductIdTable.empty());
+
+            assertTrue(snapshot.contains(COAL));
+            assertTrue(snapshot.bookSide(COAL, OrderType.Buy).isEmpty());
+            assertEquals(Optional.empty(), snapshot.lowestSellOfferPrice(COAL));
+            assertEquals(0L, snapshot.buyMovingWeek(snapshot.slotOf(COAL)));
+        }
+    }
+
+    @Nested
+    @DisplayName("slot interning")
+    class SlotInterning {
+
+        @Test
+        void keepsSlotsStableAcrossSnapshots() {
+            var first = new MarketSnapshot.Builder(ProductIdTable.empty(), 1L)
+                .product("COAL").buyOrder(1.0, 1, 1)
+                .product("IRON_INGOT").buyOrder(2.0, 1, 1)
+                .build();
+            var second = new MarketSnapshot.Builder(first.ids(), 2L)
+                .product("GOLD_INGOT").sellOffer(3.0, 1, 1)
+                .product("COAL").sellOffer(1.5, 1, 1)
+                .build();
+
+            assertEquals(first.slotOf("COAL"), second.slotOf("COAL"));
+            assertEquals(2, second.slotOf("GOLD_INGOT"));
+            assertEquals(-1, second.slotOf("IRON_INGOT"));
+            assertFalse(second.contains(ProductIdentity.fromRuntime("Iron Ingot", "IRON_INGOT", null)));
+            assertEquals(2, second.size());
+        }
+
+        @Test
+        void reusesTableWhenNoProductIsNew() {
+            var ids = ProductIdTable.empty().extendedWith(List.of("COAL", "IRON_INGOT"));
+
+            assertSame(ids, ids.extendedWith(List.of("IRON_INGOT")));
+        }
+    }
+
+    @Nested
+    @DisplayName("lookups")
+    class Lookups {
+
+        @Test
+        void unknownProductsReadAsEmpty() {
+            var snapshot = MarketSnapshot.empty();
+            var unknown = ProductIdentity.fromName("Unknown");
+
+            assertEquals(-1, snapshot.slotOf(unknown));
+            assertTrue(snapshot.getOrderLists(unknown).buyOrders().isEmpty());
+            assertTrue(Double.isNaN(snapshot.bestBuyOrderPrice(-1)));
+        }
+
+        @Test
+        void rejectsLevelsOutsideTheBookSide() {
+            var snapshot = new MarketSnapshot.Builder(ProductIdTable.empty(), 0L)
+                .product("COAL").buyOrder(1.0, 1, 1)
+                .build();
+            var side = snapshot.bookSide(COAL, OrderType.Buy);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> side.price(1));
+        }
+
+        @Test
+        void keepsMovingWeekPerProduct() {
+            var coal = product("COAL");
+            var quickStatus = coal.new QuickStatus();
+            setField(quickStatus, "buyMovingWeek", 1_000L);
+            setField(quickStatus, "sellMovingWeek", 2_000L);
+            setField(coal, "quickStatus", quickStatus);
+            var products = new LinkedHashMap<String, Product>();
+            products.put("IRON_INGOT", product("IRON_INGOT"));
+            products.put("COAL", coal);
+
+            var snapshot = MarketSnapshot.compile(0L, products, ProductIdTable.empty());
+            int slot = snapshot.slotOf(COAL);
+
+            assertEquals(1_000L, snapshot.buyMovingWeek(slot));
+            assertEquals(2_000L, snapshot.sellMovingWeek(slot));
+        }
+    }
+
+    @Nested
+    @DisplayName("queue positions")
+    class QueuePositions {
+
+        private final MarketSnapshot snapshot = new MarketSnapshot.Builder(ProductIdTable.empty(), 0L)
+            .product("COAL")
+            .buyOrder(9.5, 3_000_000_000L, 3).buyOrder(9.0, 50, 1).buyOrder(8.0, 10, 2)
+            .sellOffer(10.0, 20, 2).sellOffer(10.5, 30, 4)
+            .product("IRON_INGOT").buyOrder(4.0, 7, 1)
+            .build();
+
+        @Test
+        void accumulatesPerProductWithoutTruncating() {
+            var buyOrders = this.snapshot.bookSide(COAL, OrderType.Buy);
+
+            assertEquals(3_000_000_060L, buyOrders.amountThrough(2));
+            assertEquals(6L, buyOrders.ordersThrough(2));
+            assertEquals(0L, buyOrders.amountThrough(-1));
+            assertEquals(7L, this.snapshot.buyOrders(this.snapshot.slotOf("IRON_INGOT")).amountThrough(0));
+        }
+
+        @Test
+        void findsLevelsAheadInEachSidesPriceOrder() {
+            var buyOrders = this.snapshot.bookSide(COAL, OrderType.Buy);
+            var sellOffers = this.snapshot.bookSide(COAL, OrderType.Sell);
+
+            assertEquals(1, buyOrders.levelsAhead(9.0, false));
+            assertEquals(2, buyOrders.levelsAhead(9.0, true));
+            assertEquals(3, buyOrders.levelsAhead(1.0, false));
+            assertEquals(0, buyOrders.levelsAhead(10.0, true));
+            assertEquals(1, sellOffers.levelsAhead(10.5, false));
+            assertEquals(2, sellOffers.levelsAhead(10.5, true));
+            assertEquals(0, MarketSnapshot.BookSide.EMPTY.levelsAhead(1.0, true));
+        }
+    }
+
+    private static Product product(String productId) {
+        var reply = new SkyBlockBazaarReply();
+        var product = reply.new Product();
+        setField(product, "productId", productId);
+        return product;
+    }
+
+    private static Summary summary(Product product, double pricePerUnit, long amount, long orders) {
+        var summary = product.new Summary();
+        setField(summary, "pricePerUnit", pricePerUnit);
+        setField(summary, "amount", amount);
+        setField(summary, "orders", orders);
+        return summary;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException err) {
+            throw new AssertionError("Failed to set " + name + " on " + target.getClass().getName(), err);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.lutzluca.btrbz.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.github.lutzluca.btrbz.data.PollSchedule.ErrorClass;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PollScheduleTest {
+
+    private long now;
+    private final PollSchedule schedule = new PollSchedule(() -> this.now);
+
+    @Nested
+    @DisplayName("refresh prediction")
+    class RefreshPrediction {
+
+        @Test
+        void learnsPeriodAndFiresJustAfterVisibleRefresh() {
+            long delay = 0;
+            for (int index = 0; index < 4; index++) {
+                long lastUpdated = 1_000_000 + index * 10_000L;
+                PollScheduleTest.this.now = lastUpdated + 700;
+                delay = PollScheduleTest.this.schedule.onChanged(lastUpdated);
+            }
+
+            assertEquals(10_000, PollScheduleTest.this.schedule.metrics().observedPeriodMs());
+            assertEquals(700, PollScheduleTest.this.schedule.metrics().visibilityLagMs());
+            assertEquals(10_000 + 150, delay);
+        }
+
+        @Test
+        void reportsPhaseErrorOfLateRefresh() {
+            observe(0, 20_000, 40_000);
+
+            PollScheduleTest.this.now = 60_500 + 300;
+            PollScheduleTest.this.schedule.onChanged(60_500);
+
+            assertEquals(500, PollScheduleTest.this.schedule.metrics().lastPhaseErrorMs());
+        }
+
+        @Test
+        void ignoresOutlierGapsThroughMedian() {
+            observe(0, 20_000, 40_000, 95_000, 115_000);
+
+            assertEquals(20_000, PollScheduleTest.this.schedule.metrics().observedPeriodMs());
+        }
+    }
+
+    @Nested
+    @DisplayName("unchanged replies")
+    class UnchangedReplies {
+
+        @Test
+        void backsOffExponentiallyAndCountsWastedRequests() {
+            observe(0, 20_000, 40_000);
+            PollScheduleTest.this.now = 60_400;
+
+            assertEquals(100, PollScheduleTest.this.schedule.onUnchanged());
+            assertEquals(200, PollScheduleTest.this.schedule.onUnchanged());
+            assertEquals(400, PollScheduleTest.this.schedule.onUnchanged());
+            assertEquals(3, PollScheduleTest.this.schedule.metrics().wastedRequests());
+        }
+
+        @Test
+        void fallsBackToFullPeriodOnceRetriesAreSpent() {
+            observe(0, 20_000, 40_000);
+            PollScheduleTest.this.now = 60_400;
+
+            long delay = 0;
+            for (int attempt = 0; attempt < 9; attempt++) {
+                delay = PollScheduleTest.this.schedule.onUnchanged();
+            }
+
+            assertEquals(0, PollScheduleTest.this.schedule.unchangedStreak());
+            assertEquals(20_000, delay);
+        }
+    }
+
+    @Nested
+    @DisplayName("errors")
+    class Errors {
+
+        @Test
+        void backsOffPerErrorClassWithinJitterBounds() {
+            long first = PollScheduleTest.this.schedule.onError(ErrorClass.Network);
+            long second = PollScheduleTest.this.schedule.onError(ErrorClass.Network);
+            long rateLimited = PollScheduleTest.this.schedule.onError(ErrorClass.RateLimited);
+
+            assertTrue(first >= 1_000 && first <= 1_100);
+            assertTrue(second >= 2_000 && second <= 2_200);
+            assertTrue(rateLimited >= 120_000 && rateLimited <= 132_000);
+            assertEquals(3, PollScheduleTest.this.schedule.metrics().failedRequests());
+        }
+
+        @Test
+        void successResetsErrorStreak() {
+            PollScheduleTest.this.schedule.onError(ErrorClass.Server);
+            PollScheduleTest.this.schedule.onError(ErrorClass.Server);
+            PollScheduleTest.this.schedule.onChanged(0);
+
+            long delay = PollScheduleTest.this.schedule.onError(ErrorClass.Server);
+
+            assertTrue(delay >= 2_000 && delay <= 2_200);
+        }
+    }
+
+    private void observe(long... updates) {
+        for (long lastUpdated : updates) {
+            this.now = lastUpdated + 200;
+            this.schedule.onChanged(lastUpdated);
+        }
+    }
+}
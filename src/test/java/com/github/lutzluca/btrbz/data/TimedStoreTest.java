@@ -141,4 +141,63 @@ class TimedStoreTest {
             }
         }
     }
+
+    @Nested
+    @DisplayName("keyed lookup")
+    class KeyedLookup {
+
+        private final AtomicLong now = new AtomicLong();
+
+        @Test
+        void removeFirstMatchOnlyConsidersEntriesWithTheKey() {
+            try (var store = new TimedStore<String>(100L, this.now::get, value -> value.charAt(0))) {
+                store.add("apple");
+                store.add("banana");
+                store.add("avocado");
+
+                assertEquals(Optional.of("banana"), store.removeFirstMatch('b', value -> true));
+                assertEquals(Optional.of("avocado"), store.removeFirstMatch('a', value -> value.endsWith("o")));
+                assertEquals(Optional.empty(), store.removeFirstMatch('c', value -> true));
+                assertIterableEquals(List.of("apple"), store.items());
+            }
+        }
+
+        @Test
+        void keyedLookupSkipsExpiredEntries() {
+            try (var store = new TimedStore<String>(100L, this.now::get, value -> value.charAt(0))) {
+                store.add("apple");
+                this.now.set(150L);
+                store.add("avocado");
+
+                assertEquals(Optional.of("avocado"), store.removeFirstMatch('a', value -> true));
+                assertEquals(0, store.entryCount());
+            }
+        }
+
+        @Test
+        void keyedLookupRequiresAKeyExtractor() {
+            try (var store = new TimedStore<String>(100L)) {
+                assertThrows(IllegalStateException.class, () -> store.removeFirstMatch("a", value -> true));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("shared sweeper")
+    class SharedSweeper {
+
+        @Test
+        void expiredEntriesAreRemovedWithoutAccess() throws InterruptedException {
+            try (var store = new TimedStore<String>(20L)) {
+                store.add("alpha");
+
+                long deadline = System.currentTimeMillis() + 5_000L;
+                while (store.entryCount() > 0 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10L);
+                }
+
+                assertEquals(0, store.entryCount());
+            }
+        }
+    }
 }
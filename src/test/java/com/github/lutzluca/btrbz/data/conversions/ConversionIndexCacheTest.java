@@ -0,0 +1,210 @@
+package com.github.lutzluca.btrbz.data.conversions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.lutzluca.btrbz.data.conversions.ConversionIndexCache.SourceStamp;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConversionIndexCacheTest {
+
+    private static final SourceStamp STAMP = new SourceStamp(1234, 5678);
+    private static final ProductStackData DIAMOND_STACK = new ProductStackData(
+        4671,
+        "{count:1,id:\"minecraft:diamond\",components:{\"minecraft:enchantment_glint_override\":1b}}");
+    private static final LegacyProductStackData DIAMOND_LEGACY = new LegacyProductStackData(
+        "minecraft:diamond",
+        0,
+        "{ExtraAttributes:{id:\"ENCHANTED_DIAMOND\"},display:{Lore:[0:\"Collection Item\"]}}");
+
+    @Nested
+    @DisplayName("round trip")
+    class RoundTrip {
+
+        @Test
+        void preservesLookupsAndMetadata() throws IOException {
+            var index = sampleIndex();
+
+            var decoded = decode(index);
+
+            assertEquals(index.builderVersion(), decoded.builderVersion());
+            assertEquals(index.generatedAt(), decoded.generatedAt());
+            assertEquals(index.neuCommit(), decoded.neuCommit());
+            assertEquals(index.missingProductIds(), decoded.missingProductIds());
+            assertEquals(index.allProducts(), decoded.allProducts());
+            assertEquals(index.sourceCounts(), decoded.sourceCounts());
+            assertEquals(index.sourceHashes(), decoded.sourceHashes());
+            assertEquals(
+                index.uniqueProductByName("enchanted diamond"),
+                decoded.uniqueProductByName("Enchanted Diamond"));
+            assertTrue(decoded.hasAmbiguousName("duplicate"));
+            assertTrue(decoded.uniqueProductByName("duplicate").isEmpty());
+        }
+
+        @Test
+        void decodesStackPayloadsOnDemand() throws IOException {
+            var decoded = decode(sampleIndex());
+
+            assertEquals(DIAMOND_STACK, decoded.productStackData("ENCHANTED_DIAMOND").orElseThrow());
+            assertEquals(DIAMOND_LEGACY, decoded.legacyProductStackData("ENCHANTED_DIAMOND").orElseThrow());
+            assertTrue(decoded.productStackData("ONE").isEmpty());
+            assertTrue(decoded.productStackData("UNKNOWN").isEmpty());
+            assertEquals(new ConversionStackCounts(1, 1, 1), decoded.stackCounts());
+        }
+
+        @Test
+        void materializesFullEntriesForPersistence() throws IOException {
+            var index = sampleIndex();
+
+            var decoded = decode(index);
+
+            assertEquals(index.products(), decoded.products());
+        }
+    }
+
+    @Nested
+    @DisplayName("validation")
+    class Validation {
+
+        @Test
+        void rejectsCacheWrittenForDifferentJson() throws IOException {
+            var bytes = ConversionIndexCache.encode(sampleIndex(), STAMP);
+
+            assertThrows(
+                IOException.class,
+                () -> ConversionIndexCache.decode(ByteBuffer.wrap(bytes), new SourceStamp(1234, 9999)));
+        }
+
+        @Test
+        void rejectsForeignAndTruncatedFiles() throws IOException {
+            var bytes = ConversionIndexCache.encode(sampleIndex(), STAMP);
+            var truncated = ByteBuffer.wrap(bytes, 0, bytes.length / 2).slice();
+
+            assertThrows(IOException.class, () -> ConversionIndexCache.decode(ByteBuffer.allocate(8), STAMP));
+            assertThrows(IOException.class, () -> ConversionIndexCache.decode(truncated, STAMP));
+        }
+
+        @Test
+        void opensMappedCacheOnlyWhileJsonIsUnchanged(@TempDir Path dir) throws IOException {
+            var json = dir.resolve("conversion-index.json");
+            var cache = dir.resolve("conversion-index.bin");
+            Files.writeString(json, "{}");
+
+            assertTrue(ConversionIndexCache.write(sampleIndex(), cache, json).isSuccess());
+            assertTrue(ConversionIndexCache.open(cache, json).isSuccess());
+
+            Files.setLastModifiedTime(json, FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() + 1000));
+            assertFalse(ConversionIndexCache.open(cache, json).isSuccess());
+            assertTrue(ConversionIndexCache.write(sampleIndex(), cache, json).isSuccess());
+            assertTrue(ConversionIndexCache.open(cache, json).isSuccess());
+        }
+
+        @Test
+        void rejectsFilesShorterThanTheHeader(@TempDir Path dir) throws IOException {
+            var json = dir.resolve("conversion-index.json");
+            var cache = dir.resolve("conversion-index.bin");
+            Files.writeString(json, "{}");
+            Files.write(cache, new byte[]{0x42, 0x42, 0x5A, 0x43});
+
+            assertFalse(ConversionIndexCache.open(cache, json).isSuccess());
+        }
+    }
+
+    @Nested
+    @DisplayName("replacement")
+    class Replacement {
+
+        @Test
+        void stagingLeavesTheCacheInUseUntouched(@TempDir Path dir) throws IOException {
+            var json = dir.resolve("conversion-index.json");
+            var cache = dir.resolve("conversion-index.bin");
+            Files.writeString(json, "{}");
+            assertTrue(ConversionIndexCache.write(sampleIndex(), cache, json).isSuccess());
+            var before = Files.readAllBytes(cache);
+
+            Files.setLastModifiedTime(json, FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() + 1000));
+            var staged = ConversionIndexCache.stage(sampleIndex(), cache, json).get();
+
+            assertEquals(ConversionIndexCache.stagedPath(cache), staged);
+            assertArrayEquals(before, Files.readAllBytes(cache));
+            assertTrue(ConversionIndexCache.replace(staged, cache).isSuccess());
+            assertFalse(Files.exists(staged));
+            assertTrue(ConversionIndexCache.open(cache, json).isSuccess());
+        }
+
+        @Test
+        void keepsTheStagedCacheWhenTheReplacementFails(@TempDir Path dir) throws IOException {
+            var json = dir.resolve("conversion-index.json");
+            var cache = dir.resolve("conversion-index.bin");
+            Files.writeString(json, "{}");
+            // A non-empty directory cannot be replaced, standing in for a cache that is still mapped on Windows.
+            Files.createDirectories(cache.resolve("blocked"));
+
+            var staged = ConversionIndexCache.stage(sampleIndex(), cache, json).get();
+
+            assertFalse(ConversionIndexCache.replace(staged, cache).isSuccess());
+            assertTrue(Files.exists(staged));
+
+            Files.delete(cache.resolve("blocked"));
+            Files.delete(cache);
+            assertTrue(ConversionIndexCache.replace(staged, cache).isSuccess());
+            assertTrue(ConversionIndexCache.open(cache, json).isSuccess());
+        }
+
+        @Test
+        void releasedIndexesNoLongerReadTheirCache(@TempDir Path dir) throws IOException {
+            var json = dir.resolve("conversion-index.json");
+            var cache = dir.resolve("conversion-index.bin");
+            Files.writeString(json, "{}");
+            assertTrue(ConversionIndexCache.write(sampleIndex(), cache, json).isSuccess());
+            var opened = ConversionIndexCache.open(cache, json).get();
+            assertEquals(DIAMOND_STACK, opened.productStackData("ENCHANTED_DIAMOND").orElseThrow());
+
+            opened.release();
+
+            assertTrue(opened.productStackData("ENCHANTED_DIAMOND").isEmpty());
+            assertTrue(opened.uniqueProductByName("Enchanted Diamond").isPresent());
+            assertTrue(ConversionIndexCache.write(sampleIndex(), cache, json).isSuccess());
+        }
+    }
+
+    private static ConversionIndex decode(ConversionIndex index) throws IOException {
+        return ConversionIndexCache.decode(ByteBuffer.wrap(ConversionIndexCache.encode(index, STAMP)), STAMP);
+    }
+
+    private static ConversionIndex sampleIndex() {
+        var products = new LinkedHashMap<String, ConversionProductEntry>();
+        products.put(
+            "ENCHANTED_DIAMOND",
+            new ConversionProductEntry(
+                "§aEnchanted Diamond",
+                new ProductNameSource.Neu("ENCHANTED_DIAMOND"),
+                DIAMOND_STACK,
+                DIAMOND_LEGACY));
+        products.put("ONE", new ConversionProductEntry("Duplicate", new ProductNameSource.Neu("ONE")));
+        products.put("TWO", new ConversionProductEntry("duplicate", new ProductNameSource.Derived()));
+
+        return new ConversionIndex(
+            ConversionIndex.SCHEMA_VERSION,
+            5,
+            "now",
+            "abc123",
+            products,
+            Set.of("MISSING"),
+            Map.of("ENCHANTED_DIAMOND", 0x1234_5678_9ABC_DEF0L, "ONE", -7L));
+    }
+}
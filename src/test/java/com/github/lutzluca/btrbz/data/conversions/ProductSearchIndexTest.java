@@ -0,0 +1,111 @@
+package com.github.lutzluca.btrbz.data.conversions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.lutzluca.btrbz.data.IndexedProduct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+    private static final List<IndexedProduct> PRODUCTS = List.of(
+        new IndexedProduct("ENCHANTED_DIAMOND_BLOCK", "§9Enchanted Diamond Block"),
+        new IndexedProduct("DIAMOND", "§fDiamond"),
+        new IndexedProduct("ENCHANTED_DIAMOND", "§aEnchanted Diamond"),
+        new IndexedProduct("INK_SACK:3", "§fCocoa Beans"),
+        new IndexedProduct("ENCHANTMENT_ULTIMATE_WISE_1", "§d§lUltimate Wise I"));
+
+    @Nested
+    @DisplayName("ranking")
+    class Ranking {
+
+        @Test
+        void ranksExactThenPrefixThenWordPrefix() {
+            var index = ProductSearchIndex.build(PRODUCTS);
+
+            assertEquals(
+                List.of("DIAMOND", "ENCHANTED_DIAMOND", "ENCHANTED_DIAMOND_BLOCK"),
+                ids(index.search("diamond", 10)));
+            assertEquals(
+                List.of("ENCHANTED_DIAMOND", "ENCHANTED_DIAMOND_BLOCK"),
+                ids(index.search("Enchanted D", 10)));
+        }
+
+        @Test
+        void matchesProductIdsAndSubstrings() {
+            var index = ProductSearchIndex.build(PRODUCTS);
+
+            assertEquals(List.of("INK_SACK:3"), ids(index.search("ink_sack", 10)));
+            assertEquals(List.of("INK_SACK:3"), ids(index.search("coa be", 10)));
+            assertEquals(List.of("ENCHANTMENT_ULTIMATE_WISE_1"), ids(index.search("mate wi", 10)));
+        }
+
+        @Test
+        void matchesSubstringsShorterThanATrigram() {
+            var products = new ArrayList<>(PRODUCTS);
+            products.add(new IndexedProduct("ENCHANTED_COAL", "§aEnchanted Coal"));
+            var index = ProductSearchIndex.build(products);
+
+            assertEquals(List.of("ENCHANTED_COAL"), ids(index.search("al", 10)));
+            assertEquals(List.of("INK_SACK:3", "ENCHANTED_COAL"), ids(index.search("oa", 10)));
+            assertEquals(
+                List.of("DIAMOND", "ENCHANTED_DIAMOND", "ENCHANTED_DIAMOND_BLOCK"),
+                ids(index.search("di", 10)));
+            assertEquals(List.of("ENCHANTMENT_ULTIMATE_WISE_1"), ids(index.search("w", 10)));
+            assertTrue(index.search("qz", 10).isEmpty());
+        }
+
+        @Test
+        void repeatedSearchesDoNotShareResults() {
+            var index = ProductSearchIndex.build(PRODUCTS);
+            var diamond = ids(index.search("diamnd", 10));
+
+            assertTrue(index.search("xyzzy", 10).isEmpty());
+            assertEquals(List.of("INK_SACK:3"), ids(index.search("coa", 10)));
+            assertEquals(diamond, ids(index.search("diamnd", 10)));
+        }
+
+        @Test
+        void toleratesTypos() {
+            var index = ProductSearchIndex.build(PRODUCTS);
+
+            assertEquals("ENCHANTED_DIAMOND", index.search("enchanted diamnd", 10).getFirst().productId());
+            assertTrue(index.search("xyzzy", 10).isEmpty());
+        }
+
+        @Test
+        void honoursLimitAndEmptyQuery() {
+            var index = ProductSearchIndex.build(PRODUCTS);
+
+            assertEquals(List.of("ENCHANTED_DIAMOND_BLOCK", "DIAMOND"), ids(index.search(" ", 2)));
+            assertEquals(1, index.search("diamond", 1).size());
+            assertTrue(index.search("diamond", 0).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("conversion index")
+    class ConversionIndexIntegration {
+
+        @Test
+        void buildsSearchIndexOncePerIndex() {
+            var products = new LinkedHashMap<String, ConversionProductEntry>();
+            products.put("DIAMOND", new ConversionProductEntry("§fDiamond", new ProductNameSource.Neu("DIAMOND")));
+            var index = new ConversionIndex(ConversionIndex.SCHEMA_VERSION, "now", null, products);
+
+            assertSame(index.allProducts(), index.allProducts());
+            assertSame(index.searchIndex(), index.searchIndex());
+            assertEquals(List.of("DIAMOND"), ids(index.searchIndex().search("dia", 5)));
+        }
+    }
+
+    private static List<String> ids(List<IndexedProduct> products) {
+        return products.stream().map(IndexedProduct::productId).toList();
+    }
+}
@@ -2,15 +2,30 @@ package com.github.lutzluca.btrbz.data.conversions;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.github.lutzluca.btrbz.data.conversions.RemoteNeuConversionIndexBuilder.NeuEntries;
+import com.github.lutzluca.btrbz.data.conversions.RemoteNeuConversionIndexBuilder.PreviousEntries;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class RemoteNeuConversionIndexBuilderTest {
 
@@ -246,6 +261,163 @@ class RemoteNeuConversionIndexBuilderTest {
         }
     }
 
+    @Nested
+    @DisplayName("NEU archive ingestion")
+    class ArchiveIngestion {
+
+        private static final String ROOT = "NotEnoughUpdates-REPO-abc/";
+        private static final int MAX_DATA_VERSION = 4786;
+        private static final Set<String> PRODUCT_IDS = Set.of(
+            "ENCHANTED_DIAMOND",
+            "INK_SACK:3",
+            "STOCK_PRODUCT",
+            "ENCHANTMENT_SHARPNESS_5",
+            "ENCHANTMENT_QUICK_BITE_2",
+            "NO_NAME");
+
+        @Test
+        void streamedEntriesMatchSequentialRead(@TempDir Path dir) throws IOException {
+            var archive = archive(true);
+
+            var sequential = readSequential(dir, archive, PreviousEntries.none());
+            var streamed = readStreamed(archive, PreviousEntries.none());
+
+            assertEquals(List.copyOf(sequential.products().entrySet()), List.copyOf(streamed.products().entrySet()));
+            assertEquals(sequential.sourceHashes(), streamed.sourceHashes());
+
+            var products = streamed.products();
+            assertEquals(5, products.size());
+            assertFalse(products.containsKey("NO_NAME"));
+            assertEquals(products.keySet(), streamed.sourceHashes().keySet());
+            assertEquals(4786, products.get("ENCHANTED_DIAMOND").itemStack().dataVersion());
+            assertEquals(new ProductNameSource.Neu("INK_SACK-3"), products.get("INK_SACK:3").source());
+            assertEquals(new ProductNameSource.Neu("STOCK_NEU"), products.get("STOCK_PRODUCT").source());
+            assertEquals("Quick Bite II", products.get("ENCHANTMENT_QUICK_BITE_2").formattedName());
+            assertEquals(
+                "{id:\"minecraft:enchanted_book\"}",
+                products.get("ENCHANTMENT_QUICK_BITE_2").itemStack().stackSnbt());
+        }
+
+        @Test
+        void rejectsStocksListedAfterReferencedItems(@TempDir Path dir) throws IOException {
+            var archive = archive(false);
+
+            assertEquals(5, readSequential(dir, archive, PreviousEntries.none()).products().size());
+            assertThrows(
+                RemoteNeuConversionIndexBuilder.ArchiveOrderException.class,
+                () -> readStreamed(archive, PreviousEntries.none()));
+        }
+
+        @Test
+        void reusesEntriesWhoseSourcesAreUnchanged(@TempDir Path dir) throws IOException {
+            var first = readSequential(dir, archive(true), PreviousEntries.none());
+            var previous = new PreviousEntries(first.products(), first.sourceHashes());
+            var changed = archive(true, Map.of(
+                "items/STOCK_NEU.json", "{\"displayname\":\"§9Renamed Stock\"}",
+                "itemsOverlay/4786/ENCHANTED_BOOK.snbt", "{id:\"minecraft:book\"}"));
+
+            var sequential = readSequential(dir, changed, previous);
+            var streamed = readStreamed(changed, previous);
+            var rebuilt = readSequential(dir, changed, PreviousEntries.none());
+
+            for (var incremental : List.of(sequential, streamed)) {
+                var products = incremental.products();
+                assertEquals(List.copyOf(rebuilt.products().entrySet()), List.copyOf(products.entrySet()));
+                assertEquals(rebuilt.sourceHashes(), incremental.sourceHashes());
+                assertSame(first.products().get("ENCHANTED_DIAMOND"), products.get("ENCHANTED_DIAMOND"));
+                assertSame(first.products().get("INK_SACK:3"), products.get("INK_SACK:3"));
+                assertNotSame(first.products().get("STOCK_PRODUCT"), products.get("STOCK_PRODUCT"));
+                assertNotSame(
+                    first.products().get("ENCHANTMENT_QUICK_BITE_2"),
+                    products.get("ENCHANTMENT_QUICK_BITE_2"));
+            }
+            assertEquals("§9Renamed Stock", streamed.products().get("STOCK_PRODUCT").formattedName());
+        }
+
+        @Test
+        void ignoresIndexesWithoutSourceHashes() {
+            var products = Map.of("ONE", new ConversionProductEntry("One", new ProductNameSource.Neu("ONE")));
+            var withHashes = new ConversionIndex(
+                ConversionIndex.SCHEMA_VERSION,
+                RemoteNeuConversionIndexBuilder.BUILDER_VERSION,
+                "now",
+                "abc",
+                products,
+                Set.of(),
+                Map.of("ONE", 42L));
+
+            assertTrue(PreviousEntries.of(indexWithNeuCommit("abc", products)).isEmpty());
+            assertTrue(PreviousEntries.of(withHashes).reusable("ONE", 41).isEmpty());
+            assertEquals(products.get("ONE"), PreviousEntries.of(withHashes).reusable("ONE", 42).orElseThrow());
+        }
+
+        private static NeuEntries readSequential(Path dir, byte[] archive, PreviousEntries previous)
+            throws IOException {
+            var zipPath = Files.write(Files.createTempFile(dir, "neu-", ".zip"), archive);
+            try (var zip = new ZipFile(zipPath.toFile(), StandardCharsets.UTF_8)) {
+                return RemoteNeuConversionIndexBuilder.readZipEntries(
+                    zip,
+                    PRODUCT_IDS,
+                    MAX_DATA_VERSION,
+                    "abc",
+                    previous);
+            }
+        }
+
+        private static NeuEntries readStreamed(byte[] archive, PreviousEntries previous) throws IOException {
+            return RemoteNeuConversionIndexBuilder.readStreamedEntries(
+                new ByteArrayInputStream(archive),
+                PRODUCT_IDS,
+                MAX_DATA_VERSION,
+                "abc",
+                previous);
+        }
+
+        private static byte[] archive(boolean stocksFirst) throws IOException {
+            return archive(stocksFirst, Map.of());
+        }
+
+        private static byte[] archive(boolean stocksFirst, Map<String, String> changes) throws IOException {
+            var entries = new LinkedHashMap<String, String>();
+            var stocks = "[{\"stock\":\"STOCK_PRODUCT\",\"id\":\"STOCK_NEU\"}]";
+            if (stocksFirst) {
+                entries.put("constants/bazaarstocks.json", stocks);
+            }
+            entries.put(
+                "items/ENCHANTED_DIAMOND.json",
+                "{\"displayname\":\"§aEnchanted Diamond\",\"itemid\":\"minecraft:diamond\",\"damage\":0,"
+                    + "\"nbttag\":\"{ExtraAttributes:{id:\\\"ENCHANTED_DIAMOND\\\"}}\"}");
+            entries.put(
+                "items/ENCHANTMENT_SHARPNESS_5.json",
+                "{\"displayname\":\"§fEnchanted Book\","
+                    + "\"lore\":[\"§9Sharpness V\",\"\",\"§7Combinable in Anvil\"]}");
+            entries.put("items/INK_SACK-3.json", "{\"displayname\":\"§fCocoa Beans\"}");
+            entries.put("items/NO_NAME.json", "{\"displayname\":\"§f\"}");
+            entries.put("items/STOCK_NEU.json", "{\"displayname\":\"§9Stock Product\"}");
+            entries.put("items/UNRELATED.json", "{\"displayname\":\"§fUnrelated\"}");
+            entries.put("itemsOverlay/4671/ENCHANTED_DIAMOND.snbt", "{id:\"minecraft:diamond\",count:1}");
+            entries.put("itemsOverlay/4786/ENCHANTED_BOOK.snbt", "{id:\"minecraft:enchanted_book\"}");
+            entries.put("itemsOverlay/4786/ENCHANTED_DIAMOND.snbt", "{id:\"minecraft:diamond\",count:2}");
+            entries.put("itemsOverlay/4790/ENCHANTED_DIAMOND.snbt", "{id:\"minecraft:diamond\",count:3}");
+            if (!stocksFirst) {
+                entries.put("constants/bazaarstocks.json", stocks);
+            }
+            entries.putAll(changes);
+
+            var bytes = new ByteArrayOutputStream();
+            try (var zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+                zip.putNextEntry(new ZipEntry(ROOT));
+                zip.closeEntry();
+                for (var entry : entries.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(ROOT + entry.getKey()));
+                    zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+            }
+            return bytes.toByteArray();
+        }
+    }
+
     private static ConversionIndex indexWithNeuCommit(
         String neuCommit,
         Map<String, ConversionProductEntry> products
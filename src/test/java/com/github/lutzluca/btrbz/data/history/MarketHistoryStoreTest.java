@@ -0,0 +1,196 @@
+package com.github.lutzluca.btrbz.data.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.lutzluca.btrbz.data.MarketSnapshot;
+import com.github.lutzluca.btrbz.data.ProductIdTable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MarketHistoryStoreTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static MarketSnapshot snapshot(long timestamp, double coalBid, double ironBid) {
+        return new MarketSnapshot.Builder(ProductIdTable.empty(), timestamp)
+            .product("COAL").buyOrder(coalBid, 640, 3).buyOrder(coalBid - 0.1, 100, 1).sellOffer(coalBid + 1, 50, 2)
+            .movingWeek(1_000_000L, 900_000L)
+            .product("IRON_INGOT").buyOrder(ironBid, 10, 1)
+            .build();
+    }
+
+    private static List<Double> coalBids(List<HistoryPoint> points) {
+        return points.stream().map(HistoryPoint::bestBuyOrderPrice).toList();
+    }
+
+    private MarketHistoryStore store(Path dir, MarketHistoryStore.Policy policy) throws IOException {
+        return new MarketHistoryStore(dir, policy, this.now::get);
+    }
+
+    @Nested
+    @DisplayName("recording and range queries")
+    class RecordingAndQueries {
+
+        @Test
+        void roundTripsDepthAndMovingWeek(@TempDir Path dir) throws IOException {
+            try (var store = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                store.record(snapshot(1_000L, 4.2, 7.0));
+
+                var points = store.query("COAL", 0L, 2_000L);
+
+                assertEquals(1, points.size());
+                var point = points.getFirst();
+                assertEquals(1_000L, point.timestamp());
+                assertEquals(
+                    List.of(new HistoryPoint.Level(4.2, 640, 3), new HistoryPoint.Level(4.1, 100, 1)),
+                    point.buyOrders());
+                assertEquals(List.of(new HistoryPoint.Level(5.2, 50, 2)), point.sellOffers());
+                assertEquals(1_000_000L, point.buyMovingWeek());
+                assertEquals(900_000L, point.sellMovingWeek());
+            }
+        }
+
+        @Test
+        void recordsOnlyChangesAndCarriesStateIntoTheRange(@TempDir Path dir) throws IOException {
+            try (var store = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                store.record(snapshot(1_000L, 4.2, 7.0));
+                store.record(snapshot(2_000L, 4.2, 8.0));
+                store.record(snapshot(3_000L, 4.5, 8.0));
+                store.record(snapshot(4_000L, 4.5, 9.0));
+
+                assertEquals(List.of(4.2, 4.5), coalBids(store.query("COAL", 0L, 5_000L)));
+                assertEquals(List.of(4.2, 4.5), coalBids(store.query("COAL", 2_000L, 3_000L)));
+                assertEquals(List.of(8.0, 9.0), store
+                    .query("IRON_INGOT", 3_000L, 4_000L)
+                    .stream()
+                    .map(HistoryPoint::bestBuyOrderPrice)
+                    .toList());
+                assertTrue(store.query("COAL", 5_000L, 6_000L).isEmpty());
+            }
+        }
+
+        @Test
+        void rollsOverFullSegmentsAndReopensSealedOnes(@TempDir Path dir) throws IOException {
+            var policy = new MarketHistoryStore.Policy(5, 256, Duration.ofDays(1), Duration.ofMinutes(5),
+                Duration.ofDays(7));
+
+            try (var store = MarketHistoryStoreTest.this.store(dir, policy)) {
+                for (int poll = 0; poll < 40; poll++) {
+                    store.record(snapshot(poll * 1_000L, 4.0 + poll / 10.0, 7.0));
+                }
+            }
+
+            try (var files = Files.list(dir)) {
+                assertTrue(files.count() > 1);
+            }
+
+            try (var reopened = MarketHistoryStoreTest.this.store(dir, policy)) {
+                var points = reopened.query("COAL", 0L, 39_000L);
+
+                assertEquals(40, points.size());
+                assertEquals(4.0, points.getFirst().bestBuyOrderPrice(), 1e-9);
+                assertEquals(7.9, points.getLast().bestBuyOrderPrice(), 1e-9);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("submitted polls")
+    class SubmittedPolls {
+
+        @Test
+        void recordsQueuedPollsBeforeClosing(@TempDir Path dir) throws IOException {
+            try (var store = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                store.submit(snapshot(1_000L, 4.2, 7.0));
+                store.submit(snapshot(2_000L, 4.5, 7.0));
+            }
+
+            try (var reopened = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                assertEquals(List.of(4.2, 4.5), coalBids(reopened.query("COAL", 0L, 3_000L)));
+            }
+        }
+
+        @Test
+        void keepsRecordingAfterAFailedPoll(@TempDir Path dir) throws IOException {
+            try (var store = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                store.submit(null);
+                store.submit(snapshot(1_000L, 4.2, 7.0));
+            }
+
+            try (var reopened = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                assertEquals(List.of(4.2), coalBids(reopened.query("COAL", 0L, 2_000L)));
+            }
+        }
+
+        @Test
+        void dropsPollsSubmittedAfterClose(@TempDir Path dir) throws IOException {
+            var store = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT);
+            store.close();
+            store.submit(snapshot(1_000L, 4.2, 7.0));
+
+            try (var reopened = MarketHistoryStoreTest.this.store(dir, MarketHistoryStore.Policy.DEFAULT)) {
+                assertTrue(reopened.query("COAL", 0L, 2_000L).isEmpty());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("retention and compaction")
+    class RetentionAndCompaction {
+
+        @Test
+        void compactsOldRawSegmentsToTopOfBookAtTheResolution(@TempDir Path dir) throws IOException {
+            var policy = new MarketHistoryStore.Policy(5, 512, Duration.ofMinutes(30), Duration.ofMinutes(5),
+                Duration.ofDays(1));
+
+            try (var store = MarketHistoryStoreTest.this.store(dir, policy)) {
+                for (int minute = 0; minute < 60; minute++) {
+                    store.record(snapshot(minute * MINUTE, 4.0 + minute / 10.0, 7.0));
+                }
+
+                MarketHistoryStoreTest.this.now.set(200 * MINUTE);
+                store.maintain(MarketHistoryStoreTest.this.now.get());
+
+                var points = store.query("COAL", 0L, 20 * MINUTE);
+                assertEquals(List.of(0L, 5 * MINUTE, 10 * MINUTE, 15 * MINUTE, 20 * MINUTE), points
+                    .stream()
+                    .map(HistoryPoint::timestamp)
+                    .toList());
+                assertEquals(1, points.getFirst().buyOrders().size());
+            }
+        }
+
+        @Test
+        void deletesSegmentsPastRetention(@TempDir Path dir) throws IOException {
+            var policy = new MarketHistoryStore.Policy(5, 256, Duration.ofDays(1), Duration.ofMinutes(5),
+                Duration.ofDays(2));
+
+            try (var store = MarketHistoryStoreTest.this.store(dir, policy)) {
+                for (int poll = 0; poll < 20; poll++) {
+                    store.record(snapshot(poll * MINUTE, 4.0 + poll / 10.0, 7.0));
+                }
+
+                store.maintain(Duration.ofDays(3).toMillis());
+
+                // only the segment still being written survives
+                try (var files = Files.list(dir)) {
+                    assertEquals(1, files.count());
+                }
+                var points = store.query("COAL", 0L, 19 * MINUTE);
+                assertTrue(points.getFirst().timestamp() > 0);
+                assertEquals(5.9, points.getLast().bestBuyOrderPrice(), 1e-9);
+            }
+        }
+    }
+}
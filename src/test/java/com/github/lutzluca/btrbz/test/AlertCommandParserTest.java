@@ -1,7 +1,9 @@
 package com.github.lutzluca.btrbz.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.lutzluca.btrbz.core.commands.alert.AlertCommandParser;
 import com.github.lutzluca.btrbz.core.commands.alert.AlertCommandParser.AlertCommand;
@@ -142,6 +144,33 @@ class AlertCommandParserTest {
         }
     }
 
+    @Nested
+    @DisplayName("formatted expressions")
+    class FormattedExpressions {
+
+        @Test
+        void formatParsesBackToTheSameExpression() throws ParseException {
+            for (var source : new String[]{"(order + 2m) - 10k", "insta / 2", "(2m + 10k) * 2", "100.5"}) {
+                var expr = AlertCommandParserTest.this.parser.parsePriceExpression(source);
+
+                assertEquals(expr, AlertCommandParserTest.this.parser.parsePriceExpression(expr.format()));
+            }
+        }
+
+        @Test
+        void onlyReferencesMakeAnExpressionRelative() throws ParseException {
+            assertFalse(AlertCommandParserTest.this.parser.parsePriceExpression("(2m + 10k) * 2").isRelative());
+            assertTrue(AlertCommandParserTest.this.parser.parsePriceExpression("2m + order").isRelative());
+        }
+
+        @Test
+        void constantExpressionsCompileToTheirValue() throws ParseException {
+            var expr = AlertCommandParserTest.this.parser.parsePriceExpression("(2m + 10k) * 2");
+
+            assertEquals(4_020_000.0, expr.compile(AlertType.BuyOrder).evaluate(null, -1));
+        }
+    }
+
     @Nested
     @DisplayName("invalid commands")
     class InvalidCommands {
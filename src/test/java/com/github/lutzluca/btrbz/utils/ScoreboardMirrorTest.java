@@ -0,0 +1,211 @@
+package com.github.lutzluca.btrbz.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.lutzluca.btrbz.core.widgets.cache.PurseTracker;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ScoreboardMirrorTest {
+
+    private final FakeSidebar sidebar = new FakeSidebar();
+    private final ScoreboardMirror mirror = new ScoreboardMirror(this.sidebar);
+    private final AtomicInteger purseChanges = new AtomicInteger();
+
+    ScoreboardMirrorTest() {
+        this.sidebar.lines.put("§1", "Purse: 1,250.5");
+        this.sidebar.lines.put("§2", "Bits: 3,000");
+        this.sidebar.teams.put("team_1", Set.of("§1"));
+        this.mirror.registerOnPurseChange(this.purseChanges::incrementAndGet);
+        this.mirror.rebuild();
+    }
+
+    @Nested
+    @DisplayName("incremental updates")
+    class IncrementalUpdates {
+
+        @Test
+        void rereadsOnlyTheOwnersOfTheChangedTeam() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var sidebar = ScoreboardMirrorTest.this.sidebar;
+            sidebar.reads.clear();
+
+            sidebar.lines.put("§1", "Purse: 2,000");
+            mirror.onTeamChanged("team_1", List.of());
+
+            assertEquals(List.of("§1"), sidebar.reads);
+            assertEquals(Optional.of(2000.0), mirror.purse());
+            assertEquals(2, ScoreboardMirrorTest.this.purseChanges.get());
+        }
+
+        @Test
+        void ignoresScoresOfOtherObjectives() {
+            var sidebar = ScoreboardMirrorTest.this.sidebar;
+            sidebar.reads.clear();
+
+            ScoreboardMirrorTest.this.mirror.onScoreChanged("§1", "health");
+
+            assertTrue(sidebar.reads.isEmpty());
+        }
+
+        @Test
+        void unchangedLinesDoNotInvalidate() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var revision = mirror.sidebarChanges().revision();
+
+            mirror.onScoreChanged("§1", "sidebar");
+            mirror.onScoreChanged("§2", "sidebar");
+
+            assertEquals(revision, mirror.sidebarChanges().revision());
+            assertEquals(1, ScoreboardMirrorTest.this.purseChanges.get());
+        }
+
+        @Test
+        void otherLinesDoNotTouchThePurse() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var revision = mirror.sidebarChanges().revision();
+
+            ScoreboardMirrorTest.this.sidebar.lines.put("§2", "Bits: 3,100");
+            mirror.onScoreChanged("§2", "sidebar");
+
+            assertEquals(revision + 1, mirror.sidebarChanges().revision());
+            assertEquals(Optional.of("Bits: 3,100"), mirror.lineStartingWith("Bits"));
+            assertEquals(1, ScoreboardMirrorTest.this.purseChanges.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("purse line")
+    class PurseLine {
+
+        @Test
+        void becomesUnavailableWhenItsLineIsRemoved() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+
+            ScoreboardMirrorTest.this.sidebar.lines.remove("§1");
+            mirror.onScoreChanged("§1", null);
+
+            assertEquals(Optional.empty(), mirror.purse());
+            assertEquals(2, ScoreboardMirrorTest.this.purseChanges.get());
+        }
+
+        @Test
+        void followsThePurseToAnotherOwner() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var sidebar = ScoreboardMirrorTest.this.sidebar;
+
+            sidebar.lines.put("§1", "Motes: 20");
+            sidebar.lines.put("§3", "Piggy: 1,250.5 (+5)");
+            mirror.onScoreChanged("§3", "sidebar");
+            mirror.onScoreChanged("§1", "sidebar");
+
+            assertEquals(Optional.of(1250.5), mirror.purse());
+            assertEquals(1, ScoreboardMirrorTest.this.purseChanges.get());
+        }
+
+        @Test
+        void rebuildsWhenTheTeamIsRemoved() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var sidebar = ScoreboardMirrorTest.this.sidebar;
+
+            sidebar.teams.remove("team_1");
+            sidebar.lines.put("§1", "Purse: 10");
+            mirror.onTeamChanged("team_1", List.of());
+
+            assertEquals(Optional.of(10.0), mirror.purse());
+        }
+
+        @Test
+        void parsesTheAmountAfterTheLabel() {
+            assertEquals(Optional.of(1_395_239_458.0), ScoreboardMirror.parsePurse("Purse: 1,395,239,458 (+25)"));
+            assertEquals(Optional.empty(), ScoreboardMirror.parsePurse("Purse 100"));
+        }
+    }
+
+    @Nested
+    @DisplayName("purse listeners")
+    class PurseListeners {
+
+        @Test
+        void unregisteredListenersAreNotRun() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var calls = new AtomicInteger();
+            var unregister = mirror.registerOnPurseChange(calls::incrementAndGet);
+
+            unregister.run();
+            ScoreboardMirrorTest.this.sidebar.lines.put("§1", "Purse: 2,000");
+            mirror.onScoreChanged("§1", "sidebar");
+
+            assertEquals(0, calls.get());
+            assertEquals(2, ScoreboardMirrorTest.this.purseChanges.get());
+        }
+
+        @Test
+        void closedPurseTrackerStopsListeningUntilRestarted() {
+            var mirror = ScoreboardMirrorTest.this.mirror;
+            var sidebar = ScoreboardMirrorTest.this.sidebar;
+            var reads = new AtomicInteger();
+            var tracker = new PurseTracker(() -> {
+                reads.incrementAndGet();
+                return mirror.purse();
+            });
+            tracker.initialize();
+            tracker.start(mirror);
+
+            tracker.close();
+            sidebar.lines.put("§1", "Purse: 2,000");
+            mirror.onScoreChanged("§1", "sidebar");
+
+            assertEquals(1, reads.get());
+            assertEquals(Optional.of(1250.5), tracker.value());
+
+            tracker.start(mirror);
+            tracker.start(mirror);
+            sidebar.lines.put("§1", "Purse: 3,000");
+            mirror.onScoreChanged("§1", "sidebar");
+
+            assertEquals(2, reads.get());
+            assertEquals(Optional.of(3000.0), tracker.value());
+            assertEquals(1, tracker.changes().revision());
+        }
+    }
+
+    private static final class FakeSidebar implements ScoreboardMirror.SidebarSource {
+        private final Map<String, String> lines = new LinkedHashMap<>();
+        private final Map<String, Collection<String>> teams = new HashMap<>();
+        private final List<String> reads = new ArrayList<>();
+
+        @Override
+        public String objective() {
+            return "sidebar";
+        }
+
+        @Override
+        public List<String> owners() {
+            return List.copyOf(this.lines.keySet());
+        }
+
+        @Override
+        public @Nullable String line(String owner) {
+            this.reads.add(owner);
+            return this.lines.get(owner);
+        }
+
+        @Override
+        public @Nullable Collection<String> teamMembers(String team) {
+            return this.teams.get(team);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.lutzluca.btrbz.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.lutzluca.btrbz.utils.ClientTickDispatcher.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TickWheelTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TickWheel<List<String>> wheel = new TickWheel<>(this.clock::get, 100);
+
+    private List<Long> runTicks(int count, List<String> fired, String name) {
+        var ticks = new ArrayList<Long>();
+        for (int i = 0; i < count; i++) {
+            fired.clear();
+            this.wheel.tick(fired, this.clock.get());
+            if (fired.contains(name)) {
+                ticks.add(this.wheel.currentTick());
+            }
+        }
+        return ticks;
+    }
+
+    @Nested
+    @DisplayName("scheduling")
+    class Scheduling {
+
+        @Test
+        void runsOneShotsOnTheRequestedTickIncludingBeyondOneRevolution() {
+            var fired = new ArrayList<String>();
+            int delay = TickWheel.SLOTS * 2 + 3;
+            TickWheelTest.this.wheel.scheduleOnce("late", delay, Priority.NORMAL, ctx -> ctx.add("late"));
+
+            assertEquals(List.of((long) delay), TickWheelTest.this.runTicks(delay * 2, fired, "late"));
+        }
+
+        @Test
+        void alignsIntervalsSoEqualPeriodsFireTogether() {
+            var fired = new ArrayList<String>();
+            TickWheelTest.this.wheel.tick(fired, 0);
+            TickWheelTest.this.wheel.scheduleEvery("a", 5, Priority.NORMAL, ctx -> ctx.add("a"));
+            TickWheelTest.this.wheel.tick(fired, 0);
+            TickWheelTest.this.wheel.tick(fired, 0);
+            TickWheelTest.this.wheel.scheduleEvery("b", 5, Priority.NORMAL, ctx -> ctx.add("b"));
+
+            var together = new ArrayList<Long>();
+            for (int i = 0; i < 20; i++) {
+                fired.clear();
+                TickWheelTest.this.wheel.tick(fired, 0);
+                if (fired.contains("a") && fired.contains("b")) {
+                    together.add(TickWheelTest.this.wheel.currentTick());
+                } else {
+                    assertEquals(List.of(), fired);
+                }
+            }
+
+            assertEquals(List.of(5L, 10L, 15L, 20L), together);
+        }
+
+        @Test
+        void cancelledTasksNeverRunAgain() {
+            var fired = new ArrayList<String>();
+            var task = TickWheelTest.this.wheel.scheduleEvery("a", 2, Priority.NORMAL, ctx -> ctx.add("a"));
+
+            assertEquals(List.of(2L, 4L), TickWheelTest.this.runTicks(4, fired, "a"));
+            TickWheelTest.this.wheel.cancel(task);
+            assertEquals(List.of(), TickWheelTest.this.runTicks(10, fired, "a"));
+        }
+    }
+
+    @Nested
+    @DisplayName("failures")
+    class Failures {
+
+        @Test
+        void errorsInATaskDoNotStopLaterTasksOrItsReschedule() {
+            var fired = new ArrayList<String>();
+            TickWheelTest.this.wheel.scheduleEvery("broken", 2, Priority.NORMAL, _ -> {
+                throw new Error("broken task");
+            });
+            TickWheelTest.this.wheel.scheduleEvery("a", 2, Priority.NORMAL, ctx -> ctx.add("a"));
+
+            assertEquals(List.of(2L, 4L, 6L), TickWheelTest.this.runTicks(6, fired, "a"));
+
+            var broken = TickWheelTest.this.wheel
+                .stats()
+                .stream()
+                .filter(s -> s.name.equals("broken"))
+                .findFirst()
+                .orElseThrow();
+            assertEquals(3, broken.runs);
+            assertEquals(3, broken.failures);
+        }
+    }
+
+    @Nested
+    @DisplayName("tick budget")
+    class TickBudget {
+
+        @Test
+        void defersLowPriorityTasksOnceTheBudgetIsSpent() {
+            var fired = new ArrayList<String>();
+            var clock = TickWheelTest.this.clock;
+            TickWheelTest.this.wheel.scheduleOnce("slow", 1, Priority.NORMAL, ctx -> {
+                clock.addAndGet(500);
+                ctx.add("slow");
+            });
+            TickWheelTest.this.wheel.scheduleOnce("poll", 1, Priority.LOW, ctx -> ctx.add("poll"));
+
+            fired.clear();
+            TickWheelTest.this.wheel.tick(fired, clock.get());
+            assertEquals(List.of("slow"), fired);
+
+            fired.clear();
+            TickWheelTest.this.wheel.tick(fired, clock.get());
+            assertEquals(List.of("poll"), fired);
+
+            var stats = TickWheelTest.this.wheel.stats();
+            var slow = stats.stream().filter(s -> s.name.equals("slow")).findFirst().orElseThrow();
+            var poll = stats.stream().filter(s -> s.name.equals("poll")).findFirst().orElseThrow();
+            assertEquals(500, slow.maxNanos);
+            assertEquals(1, poll.deferrals);
+            assertEquals(1, poll.runs);
+        }
+
+        @Test
+        void runsLowPriorityTasksAfterTooManyDeferrals() {
+            var fired = new ArrayList<String>();
+            var clock = TickWheelTest.this.clock;
+            TickWheelTest.this.wheel.scheduleOnce("poll", 1, Priority.LOW, ctx -> ctx.add("poll"));
+
+            var ran = new ArrayList<Long>();
+            for (int i = 0; i < TickWheel.MAX_DEFERRALS + 5; i++) {
+                fired.clear();
+                TickWheelTest.this.wheel.tick(fired, clock.get() - 1_000);
+                if (fired.contains("poll")) {
+                    ran.add(TickWheelTest.this.wheel.currentTick());
+                }
+            }
+
+            assertEquals(List.of((long) TickWheel.MAX_DEFERRALS + 1), ran);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.lutzluca.btrbz.utils.slot;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.BazaarMenuType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class SlotHookScopeTest {
+
+    @Nested
+    @DisplayName("menu coverage")
+    class MenuCoverage {
+
+        @Test
+        void unscopedHooksApplyEverywhereIncludingOutsideTheBazaar() {
+            assertTrue(SlotHookScope.ANY.coversMenu(null));
+            assertTrue(SlotHookScope.ANY.coversMenu(BazaarMenuType.Orders));
+        }
+
+        @Test
+        void menuScopedHooksSkipOtherMenusAndNonBazaarScreens() {
+            var scope = SlotHookScope.menus(BazaarMenuType.BuyOrderConfirmation, BazaarMenuType.SellOfferConfirmation);
+
+            assertTrue(scope.coversMenu(BazaarMenuType.SellOfferConfirmation));
+            assertFalse(scope.coversMenu(BazaarMenuType.Orders));
+            assertFalse(scope.coversMenu(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("slot coverage")
+    class SlotCoverage {
+
+        @Test
+        void slotScopedContainerHooksOnlyCoverTheirContainerSlots() {
+            var scope = SlotHookScope.menus(BazaarMenuType.Item).slots(13, 22).containerOnly();
+
+            assertTrue(scope.coversSlot(false, 13));
+            assertTrue(scope.coversSlot(false, 22));
+            assertFalse(scope.coversSlot(false, 14));
+            assertFalse(scope.coversSlot(true, 13));
+        }
+
+        @Test
+        void sideOnlyScopesCoverEverySlotOfThatSide() {
+            var scope = SlotHookScope.menus(BazaarMenuType.Orders).containerOnly();
+
+            assertTrue(scope.coversSlot(false, 0));
+            assertTrue(scope.coversSlot(false, 53));
+            assertFalse(scope.coversSlot(true, 0));
+            assertTrue(SlotHookScope.ANY.coversSlot(true, 40));
+        }
+    }
+
+    @Nested
+    @DisplayName("display")
+    class Display {
+
+        @Test
+        void clickOnlyScopesKeepTheirCoverage() {
+            var scope = SlotHookScope.menus(BazaarMenuType.Orders).containerOnly().clicksOnly();
+
+            assertTrue(SlotHookScope.ANY.display());
+            assertTrue(SlotHookScope.menus(BazaarMenuType.Orders).slots(13).containerOnly().display());
+            assertFalse(scope.display());
+            assertTrue(scope.coversMenu(BazaarMenuType.Orders));
+            assertTrue(scope.coversSlot(false, 10));
+            assertFalse(scope.coversSlot(true, 10));
+        }
+    }
+}
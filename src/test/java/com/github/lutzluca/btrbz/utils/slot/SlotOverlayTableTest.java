@@ -0,0 +1,125 @@
+package com.github.lutzluca.btrbz.utils.slot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheDependencies;
+import com.github.lutzluca.btrbz.core.widgets.cache.CacheToken;
+import com.github.lutzluca.btrbz.core.widgets.cache.InvalidationReason;
+import com.github.lutzluca.btrbz.utils.ScreenInfoHelper.ScreenInfo;
+import com.github.lutzluca.btrbz.utils.slot.SlotOverlayTable.Overlay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class SlotOverlayTableTest {
+
+    private final CacheToken screenTransitions = CacheToken.named("test.screen");
+    private final CacheToken sourceChanges = CacheToken.named("test.source");
+    private final CacheToken configChanges = CacheToken.named("test.config");
+    private final ScreenInfo screen = new ScreenInfo(null);
+    private final SimpleContainer container = new SimpleContainer(9);
+    private final SlotOverlayTable table = new SlotOverlayTable(
+        CacheDependencies.of(this.screenTransitions),
+        () -> this.screen,
+        _ -> Optional.of(this.container));
+
+    private final List<Boolean> collected = new ArrayList<>();
+    private boolean enabled = true;
+
+    private SlotOverlayTable withSource() {
+        this.table.add(
+            (info, container, sink) -> {
+                this.collected.add(this.enabled);
+                if (this.enabled) {
+                    sink.mark(0, Overlay.BOOKMARK);
+                }
+            },
+            this.sourceChanges,
+            this.configChanges);
+        return this.table;
+    }
+
+    private static void bump(CacheToken token) {
+        token.invalidate(InvalidationReason.of("test"));
+    }
+
+    @Nested
+    @DisplayName("rebuilds")
+    class Rebuilds {
+
+        @Test
+        void asksSourcesOnceUntilADependencyChanges() {
+            var table = SlotOverlayTableTest.this.withSource();
+
+            table.lookup(ItemStack.EMPTY);
+            table.lookup(ItemStack.EMPTY);
+
+            assertEquals(1, SlotOverlayTableTest.this.collected.size());
+        }
+
+        @Test
+        void asksSourcesAgainWhenTheirTokenChanges() {
+            var table = SlotOverlayTableTest.this.withSource();
+            table.lookup(ItemStack.EMPTY);
+
+            bump(SlotOverlayTableTest.this.sourceChanges);
+            table.lookup(ItemStack.EMPTY);
+
+            assertEquals(2, SlotOverlayTableTest.this.collected.size());
+        }
+
+        @Test
+        void asksSourcesAgainAfterAScreenTransition() {
+            var table = SlotOverlayTableTest.this.withSource();
+            table.lookup(ItemStack.EMPTY);
+
+            bump(SlotOverlayTableTest.this.screenTransitions);
+            table.lookup(ItemStack.EMPTY);
+
+            assertEquals(2, SlotOverlayTableTest.this.collected.size());
+        }
+
+        @Test
+        void asksSourcesAgainWhenAConfigOptionIsToggled() {
+            var table = SlotOverlayTableTest.this.withSource();
+            table.lookup(ItemStack.EMPTY);
+
+            SlotOverlayTableTest.this.enabled = false;
+            bump(SlotOverlayTableTest.this.configChanges);
+            table.lookup(ItemStack.EMPTY);
+
+            assertEquals(List.of(true, false), SlotOverlayTableTest.this.collected);
+        }
+    }
+
+    @Nested
+    @DisplayName("lookups")
+    class Lookups {
+
+        @Test
+        void unknownStacksHaveNoOverlayAndDoNotRebuild() {
+            var table = SlotOverlayTableTest.this.withSource();
+
+            assertEquals(0, table.lookup(ItemStack.EMPTY));
+            assertEquals(0, table.lookup(ItemStack.EMPTY));
+            assertEquals(1, SlotOverlayTableTest.this.collected.size());
+        }
+
+        @Test
+        void tablesWithoutAContainerNeverAskTheirSources() {
+            var table = new SlotOverlayTable(
+                CacheDependencies.of(SlotOverlayTableTest.this.screenTransitions),
+                () -> SlotOverlayTableTest.this.screen,
+                _ -> Optional.empty());
+            table.add((info, container, sink) -> SlotOverlayTableTest.this.collected.add(true));
+
+            assertEquals(0, table.lookup(ItemStack.EMPTY));
+            assertEquals(0, SlotOverlayTableTest.this.collected.size());
+        }
+    }
+}
@@ -20,7 +20,7 @@ val checkstyleJava by tasks.registering(Checkstyle::class) {
     group = "verification"
     description = "Checks the shared Java sources against the repository style."
     source(fileTree("src") {
-        include("main/java/**/*.java", "test/java/**/*.java")
+        include("main/java/**/*.java", "test/java/**/*.java", "jmh/java/**/*.java")
     })
     classpath = files()
 
@@ -38,7 +38,7 @@ afterEvaluate {
 
         java {
             target(fileTree("src") {
-                include("main/java/**/*.java", "test/java/**/*.java")
+                include("main/java/**/*.java", "test/java/**/*.java", "jmh/java/**/*.java")
             })
 
             eclipse("4.40").configFile(file("config/formatting/eclipse-java-formatter.xml"))